@@ -0,0 +1,42 @@
+package com.company.internalmgmt.common.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Published when business data that derived views (such as the dashboard) are built from is written.
+ * Listeners that cache such views should use {@code @TransactionalEventListener} so that they react
+ * only once the write is committed.
+ */
+@Getter
+public class DomainDataChangedEvent extends ApplicationEvent {
+
+    public enum Domain {
+        CONTRACT,
+        PAYMENT_TERM,
+        MARGIN,
+        EMPLOYEE_STATUS,
+        OPPORTUNITY,
+        // Employee, skill and team master data
+        HRM
+    }
+
+    private final Domain domain;
+
+    // Months the changed rows were counted in before the change, which the committed rows no longer show
+    private final Set<YearMonth> previousMonths;
+
+    public DomainDataChangedEvent(Object source, Domain domain) {
+        this(source, domain, Collections.emptySet());
+    }
+
+    public DomainDataChangedEvent(Object source, Domain domain, Set<YearMonth> previousMonths) {
+        super(source);
+        this.domain = domain;
+        this.previousMonths = previousMonths;
+    }
+}
@@ -0,0 +1,26 @@
+package com.company.internalmgmt.common.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Published after cached system configuration values have changed,
+ * either through an update or a reload from the database.
+ */
+@Getter
+public class SystemConfigChangedEvent extends ApplicationEvent {
+
+    private final Set<String> changedKeys;
+
+    public SystemConfigChangedEvent(Object source, Set<String> changedKeys) {
+        super(source);
+        this.changedKeys = Collections.unmodifiableSet(changedKeys);
+    }
+
+    public boolean isChanged(String configKey) {
+        return changedKeys.contains(configKey);
+    }
+}
@@ -4,6 +4,7 @@ import com.company.internalmgmt.common.model.SystemConfig;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,4 +28,11 @@ public interface SystemConfigRepository extends JpaRepository<SystemConfig, Long
      * @return true if the key exists, false otherwise
      */
     boolean existsByConfigKey(String configKey);
-} 
\ No newline at end of file
+    
+    /**
+     * Find all system configurations ordered by key
+     * 
+     * @return list of system configs
+     */
+    List<SystemConfig> findAllByOrderByConfigKeyAsc();
+} 
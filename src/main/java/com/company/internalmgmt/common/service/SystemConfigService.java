@@ -0,0 +1,69 @@
+package com.company.internalmgmt.common.service;
+
+import com.company.internalmgmt.common.model.SystemConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cached access to system_configs.
+ * Values are loaded once and served from memory; writes through this service
+ * refresh the cache and publish a SystemConfigChangedEvent.
+ */
+public interface SystemConfigService {
+
+    /**
+     * Get a configuration value
+     *
+     * @param configKey the configuration key
+     * @return optional containing the value if the key exists
+     */
+    Optional<String> getValue(String configKey);
+
+    /**
+     * Get a configuration value, falling back to a default
+     */
+    String getString(String configKey, String defaultValue);
+
+    /**
+     * Get a numeric configuration value, falling back to a default when missing or invalid
+     */
+    BigDecimal getBigDecimal(String configKey, BigDecimal defaultValue);
+
+    /**
+     * Get an integer configuration value, falling back to a default when missing or invalid
+     */
+    Integer getInteger(String configKey, Integer defaultValue);
+
+    /**
+     * Get a boolean configuration value, falling back to a default when missing
+     */
+    Boolean getBoolean(String configKey, Boolean defaultValue);
+
+    /**
+     * Get all configuration entries from the database
+     *
+     * @return list of system configs ordered by key
+     */
+    List<SystemConfig> getAllConfigs();
+
+    /**
+     * Create or update a configuration value.
+     * The cache is updated once the surrounding transaction commits.
+     *
+     * @param configKey the configuration key
+     * @param configValue the new value
+     * @param description optional description, kept unchanged when null
+     * @return the saved system config
+     */
+    SystemConfig setValue(String configKey, String configValue, String description);
+
+    /**
+     * Reload every configuration value from the database
+     *
+     * @return keys whose value changed since the previous load
+     */
+    Set<String> reload();
+}
@@ -0,0 +1,177 @@
+package com.company.internalmgmt.common.service.impl;
+
+import com.company.internalmgmt.common.event.SystemConfigChangedEvent;
+import com.company.internalmgmt.common.model.SystemConfig;
+import com.company.internalmgmt.common.repository.SystemConfigRepository;
+import com.company.internalmgmt.common.service.SystemConfigService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SystemConfigServiceImpl implements SystemConfigService {
+
+    private final SystemConfigRepository systemConfigRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Immutable snapshot of config_key -> config_value, replaced as a whole on every change
+    private volatile Map<String, String> values;
+
+    /**
+     * Load the cache once the application (and its seed data) is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to load system configs: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<String> getValue(String configKey) {
+        return Optional.ofNullable(getValues().get(configKey));
+    }
+
+    @Override
+    public String getString(String configKey, String defaultValue) {
+        return getValue(configKey).orElse(defaultValue);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String configKey, BigDecimal defaultValue) {
+        String value = getValues().get(configKey);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid numeric value for config {}: {}, using default: {}", configKey, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public Integer getInteger(String configKey, Integer defaultValue) {
+        String value = getValues().get(configKey);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid integer value for config {}: {}, using default: {}", configKey, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public Boolean getBoolean(String configKey, Boolean defaultValue) {
+        String value = getValues().get(configKey);
+        return value != null ? Boolean.valueOf(value.trim()) : defaultValue;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SystemConfig> getAllConfigs() {
+        return systemConfigRepository.findAllByOrderByConfigKeyAsc();
+    }
+
+    @Override
+    @Transactional
+    public SystemConfig setValue(String configKey, String configValue, String description) {
+        SystemConfig config = systemConfigRepository.findByConfigKey(configKey)
+                .orElseGet(() -> SystemConfig.builder()
+                        .configKey(configKey)
+                        .build());
+        config.setConfigValue(configValue);
+        if (description != null) {
+            config.setDescription(description);
+        }
+        SystemConfig saved = systemConfigRepository.save(config);
+
+        // Only expose the new value once it is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyValue(configKey, configValue);
+                }
+            });
+        } else {
+            applyValue(configKey, configValue);
+        }
+        return saved;
+    }
+
+    @Override
+    public synchronized Set<String> reload() {
+        Map<String, String> loaded = new HashMap<>();
+        for (SystemConfig config : systemConfigRepository.findAll()) {
+            loaded.put(config.getConfigKey(), config.getConfigValue());
+        }
+
+        Map<String, String> previous = values;
+        values = Collections.unmodifiableMap(loaded);
+        log.info("Loaded {} system configs", loaded.size());
+
+        // The first load is not a change
+        if (previous == null) {
+            return Collections.emptySet();
+        }
+        Set<String> changedKeys = new HashSet<>(previous.keySet());
+        changedKeys.addAll(loaded.keySet());
+        changedKeys.removeIf(key -> Objects.equals(previous.get(key), loaded.get(key)));
+        publishChanges(changedKeys);
+        return changedKeys;
+    }
+
+    private Map<String, String> getValues() {
+        Map<String, String> current = values;
+        if (current == null) {
+            reload();
+            current = values;
+        }
+        return current;
+    }
+
+    private void applyValue(String configKey, String configValue) {
+        String previousValue;
+        synchronized (this) {
+            Map<String, String> updated = new HashMap<>(getValues());
+            previousValue = updated.put(configKey, configValue);
+            values = Collections.unmodifiableMap(updated);
+        }
+        if (!Objects.equals(previousValue, configValue)) {
+            publishChanges(Collections.singleton(configKey));
+        }
+    }
+
+    private void publishChanges(Set<String> changedKeys) {
+        if (changedKeys.isEmpty()) {
+            return;
+        }
+        log.info("System configs changed: {}", changedKeys);
+        eventPublisher.publishEvent(new SystemConfigChangedEvent(this, changedKeys));
+    }
+}
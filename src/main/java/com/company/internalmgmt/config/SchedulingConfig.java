@@ -0,0 +1,12 @@
+package com.company.internalmgmt.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs (nightly recalculations etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
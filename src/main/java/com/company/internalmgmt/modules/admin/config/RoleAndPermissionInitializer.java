@@ -62,7 +62,8 @@ public class RoleAndPermissionInitializer implements CommandLineRunner {
             createPermission("employee-cost:create", "Create employee cost"),
             createPermission("employee-cost:update:all", "Update all employee costs"),
             createPermission("employee-cost:delete", "Delete employee cost"),
-            createPermission("employee-cost:import", "Import employee costs from file")
+            createPermission("employee-cost:import", "Import employee costs from file"),
+            createPermission("employee-revenue:calculate", "Recalculate employee revenues from contract allocations")
             // ... Add other Margin permissions
         ));
 
@@ -100,7 +101,9 @@ public class RoleAndPermissionInitializer implements CommandLineRunner {
             createPermission("role:update", "Update role"),
             createPermission("role:delete", "Delete role"),
             createPermission("permission:read", "View permission list"),
-            createPermission("permission:assign", "Assign permissions to roles")
+            createPermission("permission:assign", "Assign permissions to roles"),
+            createPermission("system-config:read", "View system configuration"),
+            createPermission("system-config:update", "Update and reload system configuration")
             // ... Add other System Admin permissions
         ));
     }
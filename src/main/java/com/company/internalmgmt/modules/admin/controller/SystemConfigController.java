@@ -0,0 +1,82 @@
+package com.company.internalmgmt.modules.admin.controller;
+
+import com.company.internalmgmt.common.dto.ApiResponse;
+import com.company.internalmgmt.common.model.SystemConfig;
+import com.company.internalmgmt.common.service.SystemConfigService;
+import com.company.internalmgmt.modules.admin.dto.SystemConfigDto;
+import com.company.internalmgmt.modules.admin.dto.request.SystemConfigRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * REST controller for managing system configuration values.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/system-configs")
+@RequiredArgsConstructor
+@Slf4j
+public class SystemConfigController {
+
+    private final SystemConfigService systemConfigService;
+
+    /**
+     * GET /api/v1/admin/system-configs : Get all system configuration values.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the list of configs in body
+     */
+    @GetMapping
+    @PreAuthorize("hasAuthority('system-config:read')")
+    public ResponseEntity<ApiResponse<List<SystemConfigDto>>> getSystemConfigs() {
+        List<SystemConfigDto> configs = systemConfigService.getAllConfigs().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(configs));
+    }
+
+    /**
+     * PUT /api/v1/admin/system-configs/{configKey} : Create or update a system configuration value.
+     *
+     * @param configKey the configuration key
+     * @param request the new value and optional description
+     * @return the ResponseEntity with status 200 (OK) and the saved config in body
+     */
+    @PutMapping("/{configKey}")
+    @PreAuthorize("hasAuthority('system-config:update')")
+    public ResponseEntity<ApiResponse<SystemConfigDto>> updateSystemConfig(
+            @PathVariable String configKey,
+            @Valid @RequestBody SystemConfigRequest request) {
+
+        log.info("Updating system config: {}", configKey);
+        SystemConfig saved = systemConfigService.setValue(configKey, request.getConfigValue(), request.getDescription());
+        return ResponseEntity.ok(ApiResponse.success(toDto(saved)));
+    }
+
+    /**
+     * POST /api/v1/admin/system-configs/reload : Reload the configuration cache from the database.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the keys whose value changed in body
+     */
+    @PostMapping("/reload")
+    @PreAuthorize("hasAuthority('system-config:update')")
+    public ResponseEntity<ApiResponse<Set<String>>> reloadSystemConfigs() {
+        Set<String> changedKeys = systemConfigService.reload();
+        return ResponseEntity.ok(ApiResponse.success(changedKeys));
+    }
+
+    private SystemConfigDto toDto(SystemConfig config) {
+        return SystemConfigDto.builder()
+                .configKey(config.getConfigKey())
+                .configValue(config.getConfigValue())
+                .description(config.getDescription())
+                .updatedAt(config.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.company.internalmgmt.modules.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for SystemConfig entity
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SystemConfigDto {
+
+    private String configKey;
+
+    private String configValue;
+
+    private String description;
+
+    private Instant updatedAt;
+}
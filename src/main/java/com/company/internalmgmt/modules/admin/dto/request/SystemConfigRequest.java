@@ -0,0 +1,23 @@
+package com.company.internalmgmt.modules.admin.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Request for creating or updating a system configuration value
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SystemConfigRequest {
+
+    @NotNull(message = "Config value is required")
+    private String configValue;
+
+    private String description;
+}
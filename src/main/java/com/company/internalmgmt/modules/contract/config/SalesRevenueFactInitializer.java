@@ -0,0 +1,38 @@
+package com.company.internalmgmt.modules.contract.config;
+
+import com.company.internalmgmt.modules.contract.service.SalesRevenueFactService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfill the sales_revenue_monthly table on startup when it is still empty
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRevenueFactInitializer implements CommandLineRunner {
+
+    private final SalesRevenueFactService salesRevenueFactService;
+
+    @Value("${app.kpi.revenue.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        try {
+            if (salesRevenueFactService.isEmpty()) {
+                log.info("Sales revenue table is empty, rebuilding from paid payment terms...");
+                salesRevenueFactService.rebuildAll();
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill sales revenue: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.company.internalmgmt.modules.contract.config;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
+import com.company.internalmgmt.modules.contract.service.SalesRevenueFactService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recompute the monthly sales revenue of changed payments once a contract or payment term change is committed.
+ * Runs before other listeners so that caches invalidated by the same event reload fresh revenue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRevenueRefreshListener {
+
+    private final SalesRevenueFactService salesRevenueFactService;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainDataChanged(DomainDataChangedEvent event) {
+        if (event.getDomain() != DomainDataChangedEvent.Domain.CONTRACT
+                && event.getDomain() != DomainDataChangedEvent.Domain.PAYMENT_TERM) {
+            return;
+        }
+        try {
+            salesRevenueFactService.refreshChangedMonths(event.getPreviousMonths());
+        } catch (Exception e) {
+            // The nightly job repairs the revenue
+            log.error("Failed to refresh the monthly sales revenue: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.company.internalmgmt.modules.contract.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revenue target and collected revenue of a sales user for a year, quarter or month
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesKpiProgressDTO {
+    private Long salesUserId;
+    private String salesUserName;
+    private String teamName;
+    private String period; // "2024", "2024-Q3" or "2024-07"
+    private BigDecimal targetRevenue; // null when the user has no target for the period
+    private BigDecimal actualRevenue;
+}
@@ -0,0 +1,35 @@
+package com.company.internalmgmt.modules.contract.job;
+
+import com.company.internalmgmt.modules.contract.service.SalesRevenueFactService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly rebuild of the recent monthly sales revenue, picking up payments that moved out of a month
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRevenueFactJob {
+
+    private final SalesRevenueFactService salesRevenueFactService;
+
+    @Value("${app.kpi.revenue.schedule-enabled:true}")
+    private boolean scheduleEnabled;
+
+    @Scheduled(cron = "${app.kpi.revenue.cron:0 30 2 * * *}")
+    public void refreshRevenue() {
+        if (!scheduleEnabled) {
+            return;
+        }
+
+        try {
+            salesRevenueFactService.refreshRecentMonths();
+        } catch (Exception e) {
+            log.error("Scheduled sales revenue rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+}
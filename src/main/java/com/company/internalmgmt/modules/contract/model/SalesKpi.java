@@ -0,0 +1,68 @@
+package com.company.internalmgmt.modules.contract.model;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import com.company.internalmgmt.common.model.BaseEntity;
+import com.company.internalmgmt.modules.admin.model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Revenue target of a sales user for a year, a quarter (month null) or a month
+ */
+@Entity
+@Table(name = "sales_kpis", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_sales_kpi_period", columnNames = {"sales_user_id", "year", "quarter", "month"})
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesKpi extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sales_user_id", nullable = false)
+    private User salesUser;
+
+    @Column(name = "year", nullable = false)
+    private Integer year;
+
+    /**
+     * Quarter (1-4); null for a yearly target
+     */
+    @Column(name = "quarter")
+    private Integer quarter;
+
+    /**
+     * Month (1-12); null for a yearly or quarterly target
+     */
+    @Column(name = "month")
+    private Integer month;
+
+    @Column(name = "target_revenue", nullable = false, precision = 18, scale = 2)
+    private BigDecimal targetRevenue;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by")
+    private User createdByUser;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "updated_by")
+    private User updatedByUser;
+}
@@ -0,0 +1,60 @@
+package com.company.internalmgmt.modules.contract.model;
+
+import com.company.internalmgmt.common.model.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Revenue collected by a sales user in one month: amounts paid on the payment terms of the signed,
+ * non-deleted contracts assigned to the user, by actual payment date.
+ * Quarters and years are summed from these rows.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_revenue_monthly", indexes = {
+    @Index(name = "idx_sales_revenue_period_user", columnList = "period_key, sales_user_id")
+})
+public class SalesRevenueMonthly extends BaseEntity {
+
+    @Column(name = "sales_user_id", nullable = false)
+    private Long salesUserId;
+
+    @Column(name = "year", nullable = false)
+    private Integer year;
+
+    @Column(name = "quarter", nullable = false)
+    private Integer quarter;
+
+    @Column(name = "month", nullable = false)
+    private Integer month;
+
+    /**
+     * year * 100 + month, so period ranges become a single indexed BETWEEN
+     */
+    @Column(name = "period_key", nullable = false)
+    private Integer periodKey;
+
+    @Column(name = "revenue_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal revenueAmount;
+
+    @Column(name = "paid_term_count", nullable = false)
+    private Integer paidTermCount;
+
+    public static int toPeriodKey(int year, int month) {
+        return year * 100 + month;
+    }
+
+    public static int toQuarter(int month) {
+        return (month - 1) / 3 + 1;
+    }
+}
@@ -1,6 +1,8 @@
 package com.company.internalmgmt.modules.contract.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -98,4 +100,46 @@ public interface ContractEmployeeRepository extends JpaRepository<ContractEmploy
      */
     @Query("SELECT COUNT(ce) FROM ContractEmployee ce WHERE ce.contract.id = :contractId AND :date BETWEEN ce.startDate AND COALESCE(ce.endDate, '9999-12-31')")
     Long countActiveByContractIdAndDate(@Param("contractId") Long contractId, @Param("date") LocalDate date);
-} 
\ No newline at end of file
+    
+    /**
+     * Find contract employees of the given non-deleted contracts with the contract fetched
+     * 
+     * @param contractIds the contract IDs
+     * @return list of contract employees
+     */
+    @Query("SELECT ce FROM ContractEmployee ce JOIN FETCH ce.contract c WHERE c.id IN :contractIds AND c.deletedAt IS NULL")
+    List<ContractEmployee> findWithContractByContractIdIn(@Param("contractIds") Collection<Long> contractIds);
+    
+    /**
+     * Find IDs of contracts having an assignment modified after a given time
+     * 
+     * @param since the lower bound (exclusive)
+     * @return list of contract IDs
+     */
+    @Query("SELECT DISTINCT ce.contract.id FROM ContractEmployee ce WHERE ce.updatedAt > :since")
+    List<Long> findContractIdsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Find IDs of contracts having an assignment overlapping a date range
+     * 
+     * @param startDate the range start
+     * @param endDate the range end
+     * @return list of contract IDs
+     */
+    @Query("SELECT DISTINCT ce.contract.id FROM ContractEmployee ce WHERE (ce.startDate IS NULL OR ce.startDate <= :endDate) " +
+           "AND (ce.endDate IS NULL OR ce.endDate >= :startDate)")
+    List<Long> findContractIdsActiveBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Find the assignments of several employees active on a date, in one query
+     * 
+     * @param employeeIds the employee IDs
+     * @param date the date
+     * @return list of [employeeId, allocationPercentage, startDate, endDate] rows ordered by employee and assignment
+     */
+    @Query("SELECT ce.employee.id, ce.allocationPercentage, ce.startDate, ce.endDate FROM ContractEmployee ce " +
+           "WHERE ce.employee.id IN :employeeIds AND :date BETWEEN ce.startDate AND COALESCE(ce.endDate, '9999-12-31') " +
+           "ORDER BY ce.employee.id, ce.id")
+    List<Object[]> findActiveAllocationsByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds,
+                                                      @Param("date") LocalDate date);
+}
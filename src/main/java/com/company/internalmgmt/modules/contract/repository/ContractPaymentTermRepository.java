@@ -1,11 +1,15 @@
 package com.company.internalmgmt.modules.contract.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,7 +20,19 @@ import com.company.internalmgmt.modules.contract.model.ContractPaymentTerm;
  * Repository for ContractPaymentTerm entity
  */
 @Repository
-public interface ContractPaymentTermRepository extends JpaRepository<ContractPaymentTerm, Long> {
+public interface ContractPaymentTermRepository extends JpaRepository<ContractPaymentTerm, Long>,
+        JpaSpecificationExecutor<ContractPaymentTerm>, ContractPaymentTermRepositoryCustom {
+    
+    /**
+     * Find a page of payment terms matching a specification, with their contracts loaded in the same query
+     * 
+     * @param spec the specification
+     * @param pageable the pageable information
+     * @return page of payment terms
+     */
+    @Override
+    @EntityGraph(attributePaths = {"contract"})
+    Page<ContractPaymentTerm> findAll(Specification<ContractPaymentTerm> spec, Pageable pageable);
     
     /**
      * Find payment terms by contract ID
@@ -145,4 +161,40 @@ public interface ContractPaymentTermRepository extends JpaRepository<ContractPay
      */
     Page<ContractPaymentTerm> findByExpectedPaymentDateBetweenAndPaymentStatusNot(
             LocalDate fromDate, LocalDate toDate, String paymentStatus, Pageable pageable);
-} 
\ No newline at end of file
+    
+    /**
+     * Sum the amounts paid per sales user and month of actual payment, over paid and partially paid terms
+     * of signed, non-deleted contracts assigned to a sales user
+     * 
+     * @param fromDate the first payment date
+     * @param toDate the last payment date
+     * @return list of [salesUserId, year, month, paidAmount, termCount] rows
+     */
+    @Query("SELECT c.assignedSales.id, YEAR(pt.actualPaymentDate), MONTH(pt.actualPaymentDate), " +
+           "SUM(pt.actualAmountPaid), COUNT(pt) " +
+           "FROM ContractPaymentTerm pt JOIN pt.contract c " +
+           "WHERE c.assignedSales IS NOT NULL AND c.deletedAt IS NULL AND c.signDate IS NOT NULL " +
+           "AND LOWER(pt.paymentStatus) IN ('paid', 'partial') AND pt.actualAmountPaid IS NOT NULL " +
+           "AND pt.actualPaymentDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY c.assignedSales.id, YEAR(pt.actualPaymentDate), MONTH(pt.actualPaymentDate)")
+    List<Object[]> sumPaidAmountsBySalesUserAndMonth(@Param("fromDate") LocalDate fromDate,
+                                                     @Param("toDate") LocalDate toDate);
+    
+    /**
+     * Find the earliest actual payment date of any payment term
+     * 
+     * @return the earliest payment date, or null if nothing was paid yet
+     */
+    @Query("SELECT MIN(pt.actualPaymentDate) FROM ContractPaymentTerm pt")
+    LocalDate findEarliestActualPaymentDate();
+    
+    /**
+     * Find the actual payment dates of the terms changed since a point in time, directly or through their contract
+     * 
+     * @param since the point in time
+     * @return distinct payment dates
+     */
+    @Query("SELECT DISTINCT pt.actualPaymentDate FROM ContractPaymentTerm pt JOIN pt.contract c " +
+           "WHERE pt.actualPaymentDate IS NOT NULL AND (pt.updatedAt > :since OR c.updatedAt > :since)")
+    List<LocalDate> findActualPaymentDatesUpdatedSince(@Param("since") LocalDateTime since);
+}
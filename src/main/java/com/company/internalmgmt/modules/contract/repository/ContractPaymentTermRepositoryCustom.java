@@ -0,0 +1,23 @@
+package com.company.internalmgmt.modules.contract.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.company.internalmgmt.modules.contract.model.ContractPaymentTerm;
+
+/**
+ * Aggregate queries on payment terms that take a specification
+ */
+public interface ContractPaymentTermRepositoryCustom {
+
+    /**
+     * Totals of the payment terms matching a specification, grouped by payment status
+     * 
+     * @param spec the specification
+     * @param currentDate the date before which terms neither paid nor cancelled count as overdue
+     * @return list of [paymentStatus, termCount, expectedAmount, actualAmountPaid, overdueAmount] rows
+     */
+    List<Object[]> summarizeByStatus(Specification<ContractPaymentTerm> spec, LocalDate currentDate);
+}
@@ -0,0 +1,62 @@
+package com.company.internalmgmt.modules.contract.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.company.internalmgmt.modules.contract.model.ContractPaymentTerm;
+import com.company.internalmgmt.modules.contract.model.enums.PaymentStatus;
+
+/**
+ * Implementation of the ContractPaymentTermRepositoryCustom interface
+ */
+public class ContractPaymentTermRepositoryImpl implements ContractPaymentTermRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> summarizeByStatus(Specification<ContractPaymentTerm> spec, LocalDate currentDate) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<ContractPaymentTerm> root = query.from(ContractPaymentTerm.class);
+
+        Expression<String> status = root.get("paymentStatus");
+        Expression<BigDecimal> expectedAmount = root.get("expectedAmount");
+        // Paid and cancelled terms are settled, whatever their due date
+        Predicate overdue = criteriaBuilder.and(
+                criteriaBuilder.lessThan(root.get("expectedPaymentDate"), currentDate),
+                criteriaBuilder.or(
+                        criteriaBuilder.isNull(status),
+                        criteriaBuilder.not(criteriaBuilder.lower(status).in(
+                                PaymentStatus.PAID.getValue(), PaymentStatus.CANCELLED.getValue()))));
+
+        query.multiselect(
+                status,
+                criteriaBuilder.count(root),
+                criteriaBuilder.sum(expectedAmount),
+                criteriaBuilder.sum(root.<BigDecimal>get("actualAmountPaid")),
+                criteriaBuilder.sum(criteriaBuilder.<BigDecimal>selectCase()
+                        .when(overdue, expectedAmount)
+                        .otherwise(BigDecimal.ZERO)));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.groupBy(status);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
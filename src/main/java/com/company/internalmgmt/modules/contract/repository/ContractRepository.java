@@ -1,6 +1,7 @@
 package com.company.internalmgmt.modules.contract.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +19,8 @@ import com.company.internalmgmt.modules.contract.model.Contract;
  * Repository for Contract entity
  */
 @Repository
-public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract> {
+public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract>,
+        ContractRepositoryCustom {
     
     /**
      * Find contract by contract code
@@ -103,4 +105,21 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
      */
     @Query("SELECT DISTINCT c FROM Contract c JOIN c.contractEmployees ce JOIN ce.employee e WHERE e.team.id = :teamId")
     Page<Contract> findByTeamId(@Param("teamId") Long teamId, Pageable pageable);
-} 
\ No newline at end of file
+    
+    /**
+     * Find IDs of all non-deleted contracts
+     * 
+     * @return list of contract IDs
+     */
+    @Query("SELECT c.id FROM Contract c")
+    List<Long> findAllIds();
+    
+    /**
+     * Find IDs of contracts modified after a given time, including soft-deleted ones
+     * 
+     * @param since the lower bound (exclusive)
+     * @return list of contract IDs
+     */
+    @Query(value = "SELECT id FROM contracts WHERE updated_at > :since", nativeQuery = true)
+    List<Long> findIdsUpdatedSinceIncludingDeleted(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,21 @@
+package com.company.internalmgmt.modules.contract.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.company.internalmgmt.modules.contract.model.Contract;
+
+/**
+ * Aggregate queries on contracts that take a specification
+ */
+public interface ContractRepositoryCustom {
+
+    /**
+     * Totals of the contracts matching a specification, grouped by status and contract type
+     * 
+     * @param spec the specification
+     * @return list of [status, contractType, contractCount, totalValue] rows
+     */
+    List<Object[]> summarizeByStatusAndType(Specification<Contract> spec);
+}
@@ -0,0 +1,57 @@
+package com.company.internalmgmt.modules.contract.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.company.internalmgmt.modules.contract.model.Contract;
+
+/**
+ * Implementation of the ContractRepositoryCustom interface
+ */
+public class ContractRepositoryImpl implements ContractRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> summarizeByStatusAndType(Specification<Contract> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<Contract> root = query.from(Contract.class);
+
+        // The specification may join to-many associations, so it selects the contract IDs in a
+        // subquery and each contract is counted once
+        Subquery<Long> matching = query.subquery(Long.class);
+        Root<Contract> matchingRoot = matching.from(Contract.class);
+        matching.select(matchingRoot.get("id"));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(matchingRoot, query, criteriaBuilder);
+            if (predicate != null) {
+                matching.where(predicate);
+            }
+        }
+
+        Expression<String> status = root.get("status");
+        Expression<String> contractType = root.get("contractType");
+        query.multiselect(
+                status,
+                contractType,
+                criteriaBuilder.count(root),
+                criteriaBuilder.sum(root.<BigDecimal>get("totalValue")));
+        query.where(root.get("id").in(matching));
+        query.groupBy(status, contractType);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,30 @@
+package com.company.internalmgmt.modules.contract.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.company.internalmgmt.modules.contract.model.SalesKpi;
+
+/**
+ * Repository for SalesKpi entity
+ */
+@Repository
+public interface SalesKpiRepository extends JpaRepository<SalesKpi, Long> {
+
+    /**
+     * Find the yearly, quarterly and monthly targets of a year, with the sales user's name and team
+     * 
+     * @param year the year
+     * @param salesUserId the sales user ID, or null for every sales user
+     * @return list of [salesUserId, fullName, teamName, quarter, month, targetRevenue] rows
+     */
+    @Query("SELECT u.id, u.fullName, t.name, k.quarter, k.month, k.targetRevenue " +
+           "FROM SalesKpi k JOIN k.salesUser u " +
+           "LEFT JOIN Employee e ON e.userId = u.id LEFT JOIN e.team t " +
+           "WHERE k.year = :year AND (:salesUserId IS NULL OR u.id = :salesUserId)")
+    List<Object[]> findTargetRowsByYear(@Param("year") int year, @Param("salesUserId") Long salesUserId);
+}
@@ -0,0 +1,35 @@
+package com.company.internalmgmt.modules.contract.repository;
+
+import com.company.internalmgmt.modules.contract.model.SalesRevenueMonthly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SalesRevenueMonthlyRepository extends JpaRepository<SalesRevenueMonthly, Long> {
+
+    /**
+     * Sum the revenue of each sales user within a period key range, with the user's name and team
+     *
+     * @return list of [salesUserId, fullName, teamName, revenueAmount] rows
+     */
+    @Query("SELECT r.salesUserId, u.fullName, t.name, SUM(r.revenueAmount) " +
+           "FROM SalesRevenueMonthly r JOIN User u ON u.id = r.salesUserId " +
+           "LEFT JOIN Employee e ON e.userId = u.id LEFT JOIN e.team t " +
+           "WHERE r.periodKey BETWEEN :fromKey AND :toKey " +
+           "AND (:salesUserId IS NULL OR r.salesUserId = :salesUserId) " +
+           "GROUP BY r.salesUserId, u.fullName, t.name")
+    List<Object[]> sumRevenueBySalesUser(@Param("fromKey") Integer fromKey, @Param("toKey") Integer toKey,
+                                         @Param("salesUserId") Long salesUserId);
+
+    /**
+     * Delete the rows within a period key range before they are rebuilt
+     */
+    @Modifying
+    @Query("DELETE FROM SalesRevenueMonthly r WHERE r.periodKey BETWEEN :fromKey AND :toKey")
+    int deleteByPeriodKeyRange(@Param("fromKey") Integer fromKey, @Param("toKey") Integer toKey);
+}
@@ -0,0 +1,101 @@
+package com.company.internalmgmt.modules.contract.repository.specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import com.company.internalmgmt.modules.contract.model.Contract;
+import com.company.internalmgmt.modules.contract.model.ContractPaymentTerm;
+
+/**
+ * Specification class for ContractPaymentTerm search
+ */
+public class ContractPaymentTermSpecification {
+
+    /**
+     * Create specification for searching payment terms of non-deleted contracts with various criteria
+     *
+     * @param contractId the contract ID
+     * @param salesId the ID of the sales user assigned to the contract
+     * @param status the payment status, matched case-insensitively
+     * @param dueFromDate the earliest expected payment date
+     * @param dueToDate the latest expected payment date
+     * @param paidFromDate the earliest actual payment date
+     * @param paidToDate the latest actual payment date
+     * @param minAmount the minimum expected amount
+     * @param maxAmount the maximum expected amount
+     * @return specification for payment term search
+     */
+    public static Specification<ContractPaymentTerm> searchPaymentTerms(
+            Long contractId,
+            Long salesId,
+            String status,
+            LocalDate dueFromDate,
+            LocalDate dueToDate,
+            LocalDate paidFromDate,
+            LocalDate paidToDate,
+            BigDecimal minAmount,
+            BigDecimal maxAmount) {
+
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Join<ContractPaymentTerm, Contract> contractJoin = root.join("contract", JoinType.INNER);
+
+            // Contract filters
+            if (contractId != null) {
+                predicates.add(criteriaBuilder.equal(contractJoin.get("id"), contractId));
+            }
+
+            if (salesId != null) {
+                predicates.add(criteriaBuilder.equal(contractJoin.get("assignedSales").get("id"), salesId));
+            }
+
+            // Status filter
+            if (StringUtils.hasText(status)) {
+                predicates.add(criteriaBuilder.equal(
+                    criteriaBuilder.lower(root.get("paymentStatus")), status.toLowerCase()
+                ));
+            }
+
+            // Due date range filter
+            if (dueFromDate != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("expectedPaymentDate"), dueFromDate));
+            }
+
+            if (dueToDate != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("expectedPaymentDate"), dueToDate));
+            }
+
+            // Paid date range filter - terms without a payment date never match
+            if (paidFromDate != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("actualPaymentDate"), paidFromDate));
+            }
+
+            if (paidToDate != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("actualPaymentDate"), paidToDate));
+            }
+
+            // Amount range filter
+            if (minAmount != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("expectedAmount"), minAmount));
+            }
+
+            if (maxAmount != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("expectedAmount"), maxAmount));
+            }
+
+            // Soft delete filter - Only terms of non-deleted contracts
+            predicates.add(criteriaBuilder.isNull(contractJoin.get("deletedAt")));
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -127,6 +127,8 @@ public class ContractSpecification {
                 predicates.add(criteriaBuilder.equal(
                     paymentTermsJoin.get("paymentStatus"), paymentStatus
                 ));
+                // One row per contract, however many of its terms match, so pages and counts stay exact
+                query.distinct(true);
             }
             
             // Soft delete filter - Only return non-deleted contracts
@@ -136,6 +138,30 @@ public class ContractSpecification {
         };
     }
     
+    /**
+     * Create specification for contracts expiring within a date range. Either bound may be null;
+     * contracts without an expiry date never match a bounded range.
+     * 
+     * @param expiryFromDate the earliest expiry date
+     * @param expiryToDate the latest expiry date
+     * @return specification for contracts by expiry date
+     */
+    public static Specification<Contract> expiringBetween(LocalDate expiryFromDate, LocalDate expiryToDate) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (expiryFromDate != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("expiryDate"), expiryFromDate));
+            }
+            
+            if (expiryToDate != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("expiryDate"), expiryToDate));
+            }
+            
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
     /**
      * Create specification for contracts by team ID
      * 
@@ -0,0 +1,24 @@
+package com.company.internalmgmt.modules.contract.service;
+
+import java.util.List;
+
+import com.company.internalmgmt.modules.contract.dto.SalesKpiProgressDTO;
+
+/**
+ * Service interface for sales revenue targets and their progress
+ */
+public interface SalesKpiService {
+    
+    /**
+     * Get the target and collected revenue of each sales user for a year, a quarter or a month.
+     * A period without its own target uses the sum of the targets of its quarters, or else of its months.
+     * Sales users with neither a target nor revenue in the period are left out.
+     * 
+     * @param year the year
+     * @param quarter the quarter (1-4), or null
+     * @param month the month (1-12), or null; takes precedence over the quarter
+     * @param salesUserId the sales user ID, or null for every sales user
+     * @return KPI progress per sales user, ordered by user ID
+     */
+    List<SalesKpiProgressDTO> getKpiProgress(int year, Integer quarter, Integer month, Long salesUserId);
+}
@@ -0,0 +1,51 @@
+package com.company.internalmgmt.modules.contract.service;
+
+import java.time.YearMonth;
+import java.util.Collection;
+
+/**
+ * Maintains the sales_revenue_monthly table: revenue collected per sales user and month,
+ * summed from the paid payment terms of signed contracts.
+ */
+public interface SalesRevenueFactService {
+
+    /**
+     * Recompute the rows of a range of months
+     *
+     * @param from first month
+     * @param to last month
+     * @return number of rows written
+     * @throws com.company.internalmgmt.common.exception.BadRequestException if the range is invalid
+     */
+    int rebuild(YearMonth from, YearMonth to);
+
+    /**
+     * Recompute every month from the oldest payment up to the current month
+     *
+     * @return number of rows written
+     */
+    int rebuildAll();
+
+    /**
+     * Recompute the trailing months configured for the nightly job, ending with the current month
+     *
+     * @return number of rows written
+     */
+    int refreshRecentMonths();
+
+    /**
+     * Recompute the months of the payments whose term or contract changed since the previous refresh,
+     * and the months the moved payments were counted in before; runs in its own transaction.
+     *
+     * @param previousMonths months of the previous payment dates of the changed terms
+     * @return number of rows written
+     */
+    int refreshChangedMonths(Collection<YearMonth> previousMonths);
+
+    /**
+     * Check whether the table has been populated
+     *
+     * @return true if no row exists yet
+     */
+    boolean isEmpty();
+}
@@ -9,11 +9,13 @@ import java.util.stream.Collectors;
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.BadRequestException;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.contract.dto.ContractEmployeeDTO;
@@ -40,6 +42,9 @@ public class ContractEmployeeServiceImpl implements ContractEmployeeService {
     
     @Autowired
     private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ContractEmployeeDTO> getContractEmployeesByContractId(Long contractId) {
@@ -110,6 +115,7 @@ public class ContractEmployeeServiceImpl implements ContractEmployeeService {
         contractEmployee.setBillRate(billRate);
         
         contractEmployeeRepository.save(contractEmployee);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.CONTRACT));
         
         return ContractMapper.toContractEmployeeDto(contractEmployee);
     }
@@ -152,6 +158,7 @@ public class ContractEmployeeServiceImpl implements ContractEmployeeService {
         }
         
         contractEmployeeRepository.save(contractEmployee);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.CONTRACT));
         
         return ContractMapper.toContractEmployeeDto(contractEmployee);
     }
@@ -166,6 +173,7 @@ public class ContractEmployeeServiceImpl implements ContractEmployeeService {
         
         // Delete assignment
         contractEmployeeRepository.deleteById(id);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.CONTRACT));
     }
 
     @Override
@@ -2,19 +2,24 @@ package com.company.internalmgmt.modules.contract.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.BadRequestException;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.admin.model.User;
@@ -37,6 +42,9 @@ public class ContractPaymentTermServiceImpl implements ContractPaymentTermServic
     
     @Autowired
     private UserRepository userRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ContractPaymentTermDTO> getPaymentTermsByContractId(Long contractId) {
@@ -73,6 +81,9 @@ public class ContractPaymentTermServiceImpl implements ContractPaymentTermServic
             throw new BadRequestException("Invalid payment status: " + status);
         }
         
+        // The month the term was paid in so far, for the revenue counted there
+        LocalDate previousPaymentDate = paymentTerm.getActualPaymentDate();
+        
         // Update payment term
         paymentTerm.setPaymentStatus(status);
         
@@ -104,6 +115,10 @@ public class ContractPaymentTermServiceImpl implements ContractPaymentTermServic
         paymentTerm.setUpdatedByUser(currentUser);
         
         paymentTermRepository.save(paymentTerm);
+        Set<YearMonth> previousMonths = previousPaymentDate != null
+                ? Collections.singleton(YearMonth.from(previousPaymentDate)) : Collections.emptySet();
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.PAYMENT_TERM,
+                previousMonths));
         
         return ContractMapper.toPaymentTermDto(paymentTerm);
     }
@@ -3,21 +3,26 @@ package com.company.internalmgmt.modules.contract.service.impl;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.BadRequestException;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.admin.model.User;
@@ -69,6 +74,9 @@ public class ContractServiceImpl implements ContractService {
     
     @Autowired
     private OpportunityRepository opportunityRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public ContractDTO getContractById(Long id, Boolean includePaymentTerms, Boolean includeEmployees, Boolean includeFiles) {
@@ -212,6 +220,8 @@ public class ContractServiceImpl implements ContractService {
         Contract savedContract = contractRepository.findById(contract.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Contract not found after saving"));
         
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.CONTRACT));
+        
         return ContractMapper.toDtoWithDetails(savedContract, true, true, false);
     }
 
@@ -293,6 +303,9 @@ public class ContractServiceImpl implements ContractService {
         
         contractRepository.save(existingContract);
         
+        // Months the updated terms were paid in so far, for the revenue counted there
+        Set<YearMonth> previousMonths = new HashSet<>();
+        
         // Update payment terms if provided
         if (request.getPaymentTerms() != null && !request.getPaymentTerms().isEmpty()) {
             // Process payment terms: update existing or create new ones
@@ -328,6 +341,9 @@ public class ContractServiceImpl implements ContractService {
                     }
                     
                     if (termRequest.getPaidDate() != null) {
+                        if (existingTerm.getActualPaymentDate() != null) {
+                            previousMonths.add(YearMonth.from(existingTerm.getActualPaymentDate()));
+                        }
                         existingTerm.setActualPaymentDate(termRequest.getPaidDate());
                     }
                     
@@ -440,6 +456,9 @@ public class ContractServiceImpl implements ContractService {
         Contract updatedContract = contractRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Contract not found after updating"));
         
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.CONTRACT,
+                previousMonths));
+        
         return ContractMapper.toDtoWithDetails(updatedContract, true, true, true);
     }
 
@@ -459,6 +478,7 @@ public class ContractServiceImpl implements ContractService {
         existingContract.setUpdatedByUser(currentUser);
         
         contractRepository.save(existingContract);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.CONTRACT));
     }
 
     @Override
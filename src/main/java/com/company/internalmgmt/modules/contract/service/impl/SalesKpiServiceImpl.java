@@ -0,0 +1,120 @@
+package com.company.internalmgmt.modules.contract.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.company.internalmgmt.common.exception.BadRequestException;
+import com.company.internalmgmt.modules.contract.dto.SalesKpiProgressDTO;
+import com.company.internalmgmt.modules.contract.model.SalesRevenueMonthly;
+import com.company.internalmgmt.modules.contract.repository.SalesKpiRepository;
+import com.company.internalmgmt.modules.contract.repository.SalesRevenueMonthlyRepository;
+import com.company.internalmgmt.modules.contract.service.SalesKpiService;
+
+/**
+ * Implementation of the SalesKpiService interface.
+ * Targets come from sales_kpis and collected revenue from the sales_revenue_monthly roll-up,
+ * one grouped query each.
+ */
+@Service
+public class SalesKpiServiceImpl implements SalesKpiService {
+
+    @Autowired
+    private SalesKpiRepository salesKpiRepository;
+    
+    @Autowired
+    private SalesRevenueMonthlyRepository salesRevenueRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesKpiProgressDTO> getKpiProgress(int year, Integer quarter, Integer month, Long salesUserId) {
+        if (quarter != null && (quarter < 1 || quarter > 4)) {
+            throw new BadRequestException("Quarter must be between 1 and 4");
+        }
+        if (month != null && (month < 1 || month > 12)) {
+            throw new BadRequestException("Month must be between 1 and 12");
+        }
+        
+        int fromMonth = 1;
+        int toMonth = 12;
+        String period = String.valueOf(year);
+        if (month != null) {
+            fromMonth = month;
+            toMonth = month;
+            period = String.format("%d-%02d", year, month);
+        } else if (quarter != null) {
+            fromMonth = quarter * 3 - 2;
+            toMonth = quarter * 3;
+            period = year + "-Q" + quarter;
+        }
+        
+        Map<Long, SalesKpiProgressDTO> progressByUser = new TreeMap<>();
+        
+        // Per user: target of the period itself, sum of its quarter targets, sum of its month targets
+        Map<Long, BigDecimal[]> targetsByUser = new TreeMap<>();
+        for (Object[] row : salesKpiRepository.findTargetRowsByYear(year, salesUserId)) {
+            Integer targetQuarter = (Integer) row[3];
+            Integer targetMonth = (Integer) row[4];
+            BigDecimal[] targets = targetsByUser.computeIfAbsent((Long) row[0], id -> new BigDecimal[3]);
+            if (targetMonth != null) {
+                if (targetMonth >= fromMonth && targetMonth <= toMonth) {
+                    targets[2] = add(targets[2], (BigDecimal) row[5]);
+                }
+            } else if (targetQuarter != null) {
+                if (month == null && targetQuarter * 3 >= fromMonth && targetQuarter * 3 <= toMonth) {
+                    int slot = quarter != null ? 0 : 1;
+                    targets[slot] = add(targets[slot], (BigDecimal) row[5]);
+                }
+            } else if (month == null && quarter == null) {
+                targets[0] = add(targets[0], (BigDecimal) row[5]);
+            }
+            progressFor(progressByUser, row, period);
+        }
+        
+        int fromKey = SalesRevenueMonthly.toPeriodKey(year, fromMonth);
+        int toKey = SalesRevenueMonthly.toPeriodKey(year, toMonth);
+        for (Object[] row : salesRevenueRepository.sumRevenueBySalesUser(fromKey, toKey, salesUserId)) {
+            progressFor(progressByUser, row, period).setActualRevenue((BigDecimal) row[3]);
+        }
+        
+        List<SalesKpiProgressDTO> progress = new ArrayList<>();
+        for (Map.Entry<Long, SalesKpiProgressDTO> entry : progressByUser.entrySet()) {
+            SalesKpiProgressDTO userProgress = entry.getValue();
+            BigDecimal[] targets = targetsByUser.get(entry.getKey());
+            if (targets != null) {
+                userProgress.setTargetRevenue(targets[0] != null ? targets[0] : targets[1] != null ? targets[1] : targets[2]);
+            }
+            if (userProgress.getTargetRevenue() == null && userProgress.getActualRevenue().signum() == 0) {
+                continue;
+            }
+            progress.add(userProgress);
+        }
+        return progress;
+    }
+
+    /**
+     * Progress entry of the sales user of a [salesUserId, fullName, teamName, ...] row
+     */
+    private SalesKpiProgressDTO progressFor(Map<Long, SalesKpiProgressDTO> progressByUser, Object[] row, String period) {
+        return progressByUser.computeIfAbsent((Long) row[0], id -> SalesKpiProgressDTO.builder()
+                .salesUserId(id)
+                .salesUserName((String) row[1])
+                .teamName((String) row[2])
+                .period(period)
+                .actualRevenue(BigDecimal.ZERO)
+                .build());
+    }
+
+    private static BigDecimal add(BigDecimal total, BigDecimal amount) {
+        if (amount == null) {
+            return total;
+        }
+        return total != null ? total.add(amount) : amount;
+    }
+}
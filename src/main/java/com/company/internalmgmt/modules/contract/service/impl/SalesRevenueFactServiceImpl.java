@@ -0,0 +1,178 @@
+package com.company.internalmgmt.modules.contract.service.impl;
+
+import com.company.internalmgmt.common.exception.BadRequestException;
+import com.company.internalmgmt.common.service.SystemConfigService;
+import com.company.internalmgmt.modules.contract.model.SalesRevenueMonthly;
+import com.company.internalmgmt.modules.contract.repository.ContractPaymentTermRepository;
+import com.company.internalmgmt.modules.contract.repository.SalesRevenueMonthlyRepository;
+import com.company.internalmgmt.modules.contract.service.SalesRevenueFactService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRevenueFactServiceImpl implements SalesRevenueFactService {
+
+    // Upper bound on a single rebuild
+    private static final int MAX_MONTHS = 240;
+
+    private static final String LAST_REFRESH_KEY = "contract.sales_revenue.last_refreshed_at";
+
+    private final SalesRevenueMonthlyRepository salesRevenueRepository;
+    private final ContractPaymentTermRepository paymentTermRepository;
+    private final SystemConfigService systemConfigService;
+
+    @Value("${app.kpi.revenue.months:12}")
+    private int recentMonths;
+
+    // Changes read again by the next refresh, covering writes that commit while a refresh runs
+    @Value("${app.kpi.revenue.refresh-overlap-minutes:5}")
+    private int refreshOverlapMinutes;
+
+    @Override
+    @Transactional
+    public int rebuild(YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        List<SalesRevenueMonthly> rows = compute(from, to);
+
+        int fromKey = SalesRevenueMonthly.toPeriodKey(from.getYear(), from.getMonthValue());
+        int toKey = SalesRevenueMonthly.toPeriodKey(to.getYear(), to.getMonthValue());
+        salesRevenueRepository.deleteByPeriodKeyRange(fromKey, toKey);
+        salesRevenueRepository.saveAll(rows);
+
+        log.info("Rebuilt {} sales revenue rows for {} to {}", rows.size(), from, to);
+        return rows.size();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildAll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        YearMonth to = YearMonth.now();
+        LocalDate earliest = paymentTermRepository.findEarliestActualPaymentDate();
+        YearMonth from = earliest != null ? YearMonth.from(earliest) : to;
+        if (from.isAfter(to)) {
+            from = to;
+        }
+        if (from.until(to, ChronoUnit.MONTHS) >= MAX_MONTHS) {
+            from = to.minusMonths(MAX_MONTHS - 1);
+        }
+        int written = rebuild(from, to);
+        writeLastRefresh(startedAt);
+        return written;
+    }
+
+    @Override
+    @Transactional
+    public int refreshRecentMonths() {
+        YearMonth to = YearMonth.now();
+        return rebuild(to.minusMonths(Math.max(recentMonths, 1) - 1), to);
+    }
+
+    @Override
+    // Runs in its own transaction: it is triggered after contract and payment changes are committed
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int refreshChangedMonths(Collection<YearMonth> previousMonths) {
+        LocalDateTime lastRefresh = readLastRefresh();
+        if (lastRefresh == null) {
+            return rebuildAll();
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        // The months a moved payment left, then the months the changed payments are in now
+        TreeSet<YearMonth> months = new TreeSet<>(previousMonths);
+        for (LocalDate paymentDate : paymentTermRepository.findActualPaymentDatesUpdatedSince(lastRefresh)) {
+            months.add(YearMonth.from(paymentDate));
+        }
+
+        // Consecutive months are rebuilt together, with one query per run of months
+        int written = 0;
+        while (!months.isEmpty()) {
+            YearMonth from = months.pollFirst();
+            YearMonth to = from;
+            while (!months.isEmpty() && months.first().equals(to.plusMonths(1))
+                    && from.until(months.first(), ChronoUnit.MONTHS) < MAX_MONTHS) {
+                to = months.pollFirst();
+            }
+            written += rebuild(from, to);
+        }
+        writeLastRefresh(startedAt);
+        return written;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return salesRevenueRepository.count() == 0;
+    }
+
+    private void validateRange(YearMonth from, YearMonth to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Both the first and the last month are required");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("The first month must not be after the last month");
+        }
+        if (from.until(to, ChronoUnit.MONTHS) >= MAX_MONTHS) {
+            throw new BadRequestException("A sales revenue range cannot exceed " + MAX_MONTHS + " months");
+        }
+    }
+
+    /**
+     * One grouped query over the payment terms paid within the range
+     */
+    private List<SalesRevenueMonthly> compute(YearMonth from, YearMonth to) {
+        List<SalesRevenueMonthly> rows = new ArrayList<>();
+        for (Object[] row : paymentTermRepository.sumPaidAmountsBySalesUserAndMonth(from.atDay(1), to.atEndOfMonth())) {
+            int year = ((Number) row[1]).intValue();
+            int month = ((Number) row[2]).intValue();
+            rows.add(SalesRevenueMonthly.builder()
+                    .salesUserId((Long) row[0])
+                    .year(year)
+                    .quarter(SalesRevenueMonthly.toQuarter(month))
+                    .month(month)
+                    .periodKey(SalesRevenueMonthly.toPeriodKey(year, month))
+                    .revenueAmount(row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO)
+                    .paidTermCount(((Long) row[4]).intValue())
+                    .build());
+        }
+        return rows;
+    }
+
+    private LocalDateTime readLastRefresh() {
+        return systemConfigService.getValue(LAST_REFRESH_KEY)
+                .map(value -> {
+                    try {
+                        return LocalDateTime.parse(value);
+                    } catch (DateTimeParseException e) {
+                        log.warn("Invalid last sales revenue refresh time in config: {}", value);
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    /**
+     * updatedAt is set before a write commits, so a write still open when the refresh started can carry an
+     * earlier time than the start and be committed only after the refresh read; the next refresh reads
+     * again from a safety margin before the start
+     */
+    private void writeLastRefresh(LocalDateTime refreshStartedAt) {
+        systemConfigService.setValue(LAST_REFRESH_KEY,
+                refreshStartedAt.minusMinutes(Math.max(refreshOverlapMinutes, 0)).toString(),
+                "Time from which the next refresh of the monthly sales revenue reads changed payments");
+    }
+}
@@ -0,0 +1,56 @@
+package com.company.internalmgmt.modules.dashboard.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
+import com.company.internalmgmt.modules.dashboard.service.DashboardService;
+import com.company.internalmgmt.modules.dashboard.service.DashboardStreamService;
+import com.company.internalmgmt.modules.dashboard.service.DashboardWidgetCache;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Invalidate cached dashboard widgets once a write to the data they are built from is committed,
+ * then let open dashboard streams recompute them.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCacheInvalidationListener {
+
+    private final DashboardWidgetCache dashboardWidgetCache;
+    private final DashboardStreamService dashboardStreamService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainDataChanged(DomainDataChangedEvent event) {
+        List<String> widgets = affectedWidgets(event.getDomain());
+        if (widgets.isEmpty()) {
+            return;
+        }
+        dashboardWidgetCache.invalidate(widgets);
+        // Streams recompute from the cache, so only after the stale entries are gone
+        dashboardStreamService.onWidgetsChanged(widgets);
+    }
+
+    private List<String> affectedWidgets(DomainDataChangedEvent.Domain domain) {
+        switch (domain) {
+            case OPPORTUNITY:
+                return Collections.singletonList(DashboardService.WIDGET_OPPORTUNITY_STATUS);
+            case CONTRACT:
+            case PAYMENT_TERM:
+                return Collections.singletonList(DashboardService.WIDGET_REVENUE_SUMMARY);
+            case MARGIN:
+                return Collections.singletonList(DashboardService.WIDGET_MARGIN_DISTRIBUTION);
+            case EMPLOYEE_STATUS:
+            case HRM:
+                // Employee edits and deletions change the counts and the team each employee is counted under
+                return Arrays.asList(DashboardService.WIDGET_EMPLOYEE_STATUS, DashboardService.WIDGET_UTILIZATION_RATE);
+            default:
+                return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.company.internalmgmt.modules.dashboard.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor on which dashboard widgets are built concurrently.
+ * It is bounded so that a burst of dashboard requests cannot starve the rest of the application,
+ * and each task runs with the security context of the request that submitted it.
+ */
+@Configuration
+public class DashboardExecutorConfig {
+
+    public static final String DASHBOARD_EXECUTOR = "dashboardExecutor";
+    public static final String DASHBOARD_STREAM_EXECUTOR = "dashboardStreamExecutor";
+    public static final String REPORT_JOB_EXECUTOR = "reportJobExecutor";
+
+    @Value("${app.dashboard.executor.pool-size:8}")
+    private int poolSize;
+
+    @Value("${app.dashboard.executor.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.dashboard.stream.pool-size:4}")
+    private int streamPoolSize;
+
+    @Value("${app.dashboard.stream.queue-capacity:1000}")
+    private int streamQueueCapacity;
+
+    @Value("${app.report.jobs.pool-size:2}")
+    private int reportJobPoolSize;
+
+    @Value("${app.report.jobs.queue-capacity:20}")
+    private int reportJobQueueCapacity;
+
+    @Bean(name = DASHBOARD_EXECUTOR)
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setDaemon(true);
+        // Captures the submitting thread's SecurityContext and restores the worker's own afterwards
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Executor for dashboard stream refreshes and sends, kept apart so that slow clients
+     * cannot hold the threads that build widgets
+     */
+    @Bean(name = DASHBOARD_STREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor dashboardStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamPoolSize);
+        executor.setMaxPoolSize(streamPoolSize);
+        executor.setQueueCapacity(streamQueueCapacity);
+        executor.setThreadNamePrefix("dashboard-stream-");
+        executor.setDaemon(true);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Executor for background report jobs. It is small so that long exports cannot take over the
+     * database connection pool; a job runs with the security context of the request that submitted it.
+     */
+    @Bean(name = REPORT_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor reportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reportJobPoolSize);
+        executor.setMaxPoolSize(reportJobPoolSize);
+        executor.setQueueCapacity(reportJobQueueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        executor.setDaemon(true);
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
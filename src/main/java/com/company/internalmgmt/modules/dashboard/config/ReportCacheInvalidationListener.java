@@ -0,0 +1,57 @@
+package com.company.internalmgmt.modules.dashboard.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
+import com.company.internalmgmt.modules.dashboard.service.ReportResultCache;
+import com.company.internalmgmt.modules.dashboard.service.ReportService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Invalidate cached report results once a write to the data they are built from is committed.
+ * Runs after the roll-up refresh listeners, so that reports built from roll-ups are invalidated
+ * only once the roll-ups are current.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportCacheInvalidationListener {
+
+    private final ReportResultCache reportResultCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainDataChanged(DomainDataChangedEvent event) {
+        List<String> reports = affectedReports(event.getDomain());
+        if (!reports.isEmpty()) {
+            reportResultCache.invalidate(reports);
+        }
+    }
+
+    private List<String> affectedReports(DomainDataChangedEvent.Domain domain) {
+        switch (domain) {
+            case OPPORTUNITY:
+                return Collections.singletonList(ReportService.OPPORTUNITY_LIST);
+            case CONTRACT:
+                // Contract changes include employee assignments, which the employee list shows
+                return Arrays.asList(ReportService.CONTRACT_LIST, ReportService.PAYMENT_STATUS,
+                        ReportService.KPI_PROGRESS, ReportService.EMPLOYEE_LIST);
+            case PAYMENT_TERM:
+                return Arrays.asList(ReportService.CONTRACT_LIST, ReportService.PAYMENT_STATUS,
+                        ReportService.KPI_PROGRESS);
+            case MARGIN:
+                return Collections.singletonList(ReportService.MARGIN_DETAIL);
+            case EMPLOYEE_STATUS:
+                return Collections.singletonList(ReportService.EMPLOYEE_LIST);
+            case HRM:
+                // Employee names, skills and teams appear in both reports
+                return Arrays.asList(ReportService.EMPLOYEE_LIST, ReportService.MARGIN_DETAIL);
+            default:
+                return Collections.emptyList();
+        }
+    }
+}
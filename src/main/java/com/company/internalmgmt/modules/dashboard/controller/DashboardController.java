@@ -1,11 +1,11 @@
 package com.company.internalmgmt.modules.dashboard.controller;
 
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -13,11 +13,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.company.internalmgmt.common.dto.ApiResponse;
 import com.company.internalmgmt.common.util.SecurityUtils;
 import com.company.internalmgmt.modules.dashboard.dto.DashboardSummaryDTO;
 import com.company.internalmgmt.modules.dashboard.service.DashboardService;
+import com.company.internalmgmt.modules.dashboard.service.DashboardStreamService;
 
 /**
  * REST controller for dashboard operations
@@ -29,6 +31,9 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
     
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+    
     /**
      * GET /api/v1/dashboard/summary : Get dashboard summary data
      * 
@@ -58,13 +63,7 @@ public class DashboardController {
         
         // Set default widgets if not provided
         if (widgets == null || widgets.isEmpty()) {
-            widgets = Arrays.asList(
-                "opportunity_status", 
-                "margin_distribution", 
-                "revenue_summary", 
-                "employee_status", 
-                "utilization_rate"
-            );
+            widgets = DashboardService.ALL_WIDGETS;
         }
         
         Long currentUserId = SecurityUtils.getCurrentUserId(authentication);
@@ -75,4 +74,29 @@ public class DashboardController {
         
         return ResponseEntity.ok(ApiResponse.success(result));
     }
-} 
\ No newline at end of file
+    
+    /**
+     * GET /api/v1/dashboard/stream : Stream dashboard updates as server-sent events.
+     * A "summary" event carries the full dashboard for the current month, then "delta" events
+     * carry only the widgets whose data changed.
+     * 
+     * @param teamId Team ID to filter data
+     * @param widgets List of widgets to stream
+     * @param authentication Authentication object
+     * @return Emitter of the dashboard events
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('dashboard:read:all', 'dashboard:read:team', 'dashboard:read:own')")
+    public SseEmitter streamDashboard(
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) List<String> widgets,
+            Authentication authentication) {
+        
+        if (widgets == null || widgets.isEmpty()) {
+            widgets = DashboardService.ALL_WIDGETS;
+        }
+        
+        Long currentUserId = SecurityUtils.getCurrentUserId(authentication);
+        return dashboardStreamService.subscribe(teamId, widgets, currentUserId, authentication);
+    }
+}
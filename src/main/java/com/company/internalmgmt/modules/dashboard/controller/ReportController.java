@@ -4,16 +4,21 @@ import java.time.LocalDate;
 import java.util.List;
 
 import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,7 +26,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.company.internalmgmt.common.dto.ApiResponse;
 import com.company.internalmgmt.common.util.SecurityUtils;
 import com.company.internalmgmt.modules.dashboard.dto.employee.EmployeeReportDTO;
+import com.company.internalmgmt.modules.dashboard.dto.job.ReportJobDTO;
+import com.company.internalmgmt.modules.dashboard.dto.job.ReportJobRequestDTO;
 import com.company.internalmgmt.modules.dashboard.dto.margin.MarginReportDTO;
+import com.company.internalmgmt.modules.dashboard.service.ReportJobService;
 import com.company.internalmgmt.modules.dashboard.service.ReportService;
 
 /**
@@ -34,6 +42,9 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
     
+    @Autowired
+    private ReportJobService reportJobService;
+    
     /**
      * GET /api/v1/reports/employee-list : Get detailed employee list report
      * API-RPT-002
@@ -77,6 +88,11 @@ public class ReportController {
             pageable, currentUserId, authentication, response
         );
         
+        // Exports are written straight to the response by the service
+        if (!"json".equals(exportType)) {
+            return null;
+        }
+        
         return ResponseEntity.ok(ApiResponse.success(result));
     }
     
@@ -130,6 +146,11 @@ public class ReportController {
             authentication, response
         );
         
+        // Exports are written straight to the response by the service
+        if (!"json".equals(exportType)) {
+            return null;
+        }
+        
         return ResponseEntity.ok(ApiResponse.success(result));
     }
     
@@ -186,6 +207,11 @@ public class ReportController {
             pageable, currentUserId, authentication, response
         );
         
+        // Exports are written straight to the response by the service
+        if (!"json".equals(exportType)) {
+            return null;
+        }
+        
         return ResponseEntity.ok(ApiResponse.success(result));
     }
     
@@ -247,6 +273,11 @@ public class ReportController {
             authentication, response
         );
         
+        // Exports are written straight to the response by the service
+        if (!"json".equals(exportType)) {
+            return null;
+        }
+        
         return ResponseEntity.ok(ApiResponse.success(result));
     }
     
@@ -303,6 +334,11 @@ public class ReportController {
             exportType, pageable, currentUserId, authentication, response
         );
         
+        // Exports are written straight to the response by the service
+        if (!"json".equals(exportType)) {
+            return null;
+        }
+        
         return ResponseEntity.ok(ApiResponse.success(result));
     }
     
@@ -351,6 +387,53 @@ public class ReportController {
             includeDetails, exportType, pageable, currentUserId, authentication, response
         );
         
+        // Exports are written straight to the response by the service
+        if (!"json".equals(exportType)) {
+            return null;
+        }
+        
         return ResponseEntity.ok(ApiResponse.success(result));
     }
-} 
\ No newline at end of file
+    
+    /**
+     * POST /api/v1/reports/jobs : Build a csv or excel report in the background
+     */
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('report:read:all', 'report:read:team', 'report:read:own')")
+    public ResponseEntity<ApiResponse<ReportJobDTO>> submitReportJob(
+            @Valid @RequestBody ReportJobRequestDTO request,
+            Authentication authentication) {
+        
+        Long currentUserId = SecurityUtils.getCurrentUserId(authentication);
+        ReportJobDTO job = reportJobService.submit(request, currentUserId, authentication);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job, HttpStatus.ACCEPTED.value()));
+    }
+    
+    /**
+     * GET /api/v1/reports/jobs/{jobId} : Get the status of a report job
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyAuthority('report:read:all', 'report:read:team', 'report:read:own')")
+    public ResponseEntity<ApiResponse<ReportJobDTO>> getReportJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+        
+        Long currentUserId = SecurityUtils.getCurrentUserId(authentication);
+        return ResponseEntity.ok(ApiResponse.success(reportJobService.getJob(jobId, currentUserId, authentication)));
+    }
+    
+    /**
+     * GET /api/v1/reports/jobs/{jobId}/download : Download the file of a completed report job
+     */
+    @GetMapping("/jobs/{jobId}/download")
+    @PreAuthorize("hasAnyAuthority('report:read:all', 'report:read:team', 'report:read:own')")
+    public void downloadReportJob(
+            @PathVariable String jobId,
+            Authentication authentication,
+            HttpServletResponse response) {
+        
+        Long currentUserId = SecurityUtils.getCurrentUserId(authentication);
+        reportJobService.download(jobId, currentUserId, authentication, response);
+    }
+}
+
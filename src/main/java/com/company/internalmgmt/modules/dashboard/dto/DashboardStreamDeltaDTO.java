@@ -0,0 +1,22 @@
+package com.company.internalmgmt.modules.dashboard.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dashboard sections that changed since the last event sent on a dashboard stream
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardStreamDeltaDTO {
+    private DashboardSummaryDTO.DateRangeDTO dateRange;
+    // Widget name -> new widget data, only for the widgets that changed
+    private Map<String, Object> sections;
+}
@@ -1,5 +1,7 @@
 package com.company.internalmgmt.modules.dashboard.dto;
 
+import java.util.List;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +17,8 @@ import lombok.NoArgsConstructor;
 public class DashboardSummaryDTO {
     private DateRangeDTO dateRange;
     private WidgetsDTO widgets;
+    // Widgets that failed or timed out and hold empty fallback data
+    private List<String> degradedWidgets;
     
     @Data
     @NoArgsConstructor
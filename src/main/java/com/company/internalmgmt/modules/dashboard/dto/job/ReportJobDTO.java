@@ -0,0 +1,35 @@
+package com.company.internalmgmt.modules.dashboard.dto.job;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a background report job
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobDTO {
+    private String id;
+    private String reportType;
+    private String exportType;
+    private Map<String, String> filters;
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    // After this time the file is deleted and the job forgotten
+    private LocalDateTime expiresAt;
+    private Long rowCount;
+    private String fileName;
+    private Long fileSize;
+    private String downloadUrl;
+    private String error;
+}
@@ -0,0 +1,32 @@
+package com.company.internalmgmt.modules.dashboard.dto.job;
+
+import java.util.Map;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to build a report file in the background
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobRequestDTO {
+
+    // Report endpoint name, e.g. employee-list or payment-status
+    @NotBlank(message = "Report type is required")
+    private String reportType;
+
+    @NotBlank(message = "Export type is required")
+    @Pattern(regexp = "(?i)csv|excel", message = "Export type must be csv or excel")
+    private String exportType;
+
+    // Request parameters of the report endpoint, e.g. {"teamId": 3, "skills": [1, 2]}
+    private Map<String, Object> filters;
+}
@@ -0,0 +1,160 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory cache behind the dashboard widget and report result caches.
+ * Entries expire after a TTL and the least recently used ones are evicted beyond a maximum size.
+ * Each entry belongs to a group, such as a widget or a report type, so that a data change can drop
+ * every entry built from it. All operations hold the cache's lock.
+ *
+ * @param <V> the cached value type
+ */
+public class BoundedTtlCache<V> {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    // Access-ordered so that the eldest entry is the least recently used one; guarded by this
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BoundedTtlCache(long ttlMillis, int maxEntries) {
+        this(ttlMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    BoundedTtlCache(long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value, counting a hit or a miss
+     *
+     * @return the value, or null if it is not cached or has expired
+     */
+    public synchronized V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && clock.getAsLong() <= entry.expiresAt) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Get a cached value, or load and cache it on a miss
+     *
+     * @param loader produces the value; called while holding the cache lock, so it should only start work
+     */
+    public synchronized V computeIfAbsent(String group, String key, Supplier<V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.get();
+            put(group, key, value);
+        }
+        return value;
+    }
+
+    public synchronized void put(String group, String key, V value) {
+        entries.put(key, new Entry<>(group, value, clock.getAsLong() + ttlMillis));
+    }
+
+    /**
+     * Remove an entry, unless the key already holds a different value
+     */
+    public synchronized void remove(String key, V value) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.value == value) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drop every entry of the given groups
+     *
+     * @return the number of entries removed
+     */
+    public synchronized int invalidate(Collection<String> groups) {
+        int removed = 0;
+        for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext(); ) {
+            if (groups.contains(it.next().group)) {
+                it.remove();
+                removed++;
+            }
+        }
+        invalidations.incrementAndGet();
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Publish hit, miss, eviction, invalidation and size metrics as {@code <name>.*}
+     *
+     * @param subject what is cached, used in the metric descriptions
+     */
+    public void registerMetrics(MeterRegistry registry, String name, String subject) {
+        FunctionCounter.builder(name + ".requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description(subject + " lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder(name + ".requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description(subject + " lookups that missed the cache")
+                .register(registry);
+        FunctionCounter.builder(name + ".evictions", evictions, AtomicLong::get)
+                .description(subject + " results evicted to stay within the maximum size")
+                .register(registry);
+        FunctionCounter.builder(name + ".invalidations", invalidations, AtomicLong::get)
+                .description("Data changes that invalidated cached " + subject.toLowerCase() + " results")
+                .register(registry);
+        Gauge.builder(name + ".size", this, BoundedTtlCache::size)
+                .description(subject + " results currently cached")
+                .register(registry);
+    }
+
+    private static class Entry<V> {
+        final String group;
+        final V value;
+        final long expiresAt;
+
+        Entry(String group, V value, long expiresAt) {
+            this.group = group;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
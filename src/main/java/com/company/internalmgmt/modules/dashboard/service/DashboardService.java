@@ -1,17 +1,34 @@
 package com.company.internalmgmt.modules.dashboard.service;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.security.core.Authentication;
 
 import com.company.internalmgmt.modules.dashboard.dto.DashboardSummaryDTO;
+import com.company.internalmgmt.modules.dashboard.dto.UtilizationRateDTO;
 
 /**
  * Service interface for dashboard operations
  */
 public interface DashboardService {
     
+    String WIDGET_OPPORTUNITY_STATUS = "opportunity_status";
+    String WIDGET_MARGIN_DISTRIBUTION = "margin_distribution";
+    String WIDGET_REVENUE_SUMMARY = "revenue_summary";
+    String WIDGET_EMPLOYEE_STATUS = "employee_status";
+    String WIDGET_UTILIZATION_RATE = "utilization_rate";
+    
+    List<String> ALL_WIDGETS = Collections.unmodifiableList(Arrays.asList(
+        WIDGET_OPPORTUNITY_STATUS,
+        WIDGET_MARGIN_DISTRIBUTION,
+        WIDGET_REVENUE_SUMMARY,
+        WIDGET_EMPLOYEE_STATUS,
+        WIDGET_UTILIZATION_RATE
+    ));
+    
     /**
      * Get dashboard summary data with widgets
      * 
@@ -31,4 +48,20 @@ public interface DashboardService {
         Long currentUserId, 
         Authentication authentication
     );
-} 
\ No newline at end of file
+    
+    /**
+     * Get the current utilization of every team, from one grouped count of employees by team and status
+     * 
+     * @return Utilization rate per team, teams without active employees at 0
+     */
+    List<UtilizationRateDTO.TeamUtilizationDTO> getTeamUtilization();
+    
+    /**
+     * Get the key of the data a user can see; users with the same key see the same widgets
+     * 
+     * @param authentication Authentication object
+     * @param currentUserId Current user ID
+     * @return Visibility scope key
+     */
+    String getScopeKey(Authentication authentication, Long currentUserId);
+}
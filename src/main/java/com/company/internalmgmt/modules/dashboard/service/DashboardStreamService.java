@@ -0,0 +1,31 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service interface for live dashboard streams
+ */
+public interface DashboardStreamService {
+    
+    /**
+     * Open a dashboard stream: the full summary is sent first, then only the sections that change
+     * 
+     * @param teamId Team ID to filter data
+     * @param widgets List of widgets to stream
+     * @param currentUserId Current user ID
+     * @param authentication Authentication object
+     * @return Emitter of the stream events
+     */
+    SseEmitter subscribe(Long teamId, List<String> widgets, Long currentUserId, Authentication authentication);
+    
+    /**
+     * Recompute the given widgets for every open stream showing them and push the sections that changed
+     * 
+     * @param widgets Names of the widgets whose data may have changed
+     */
+    void onWidgetsChanged(Collection<String> widgets);
+}
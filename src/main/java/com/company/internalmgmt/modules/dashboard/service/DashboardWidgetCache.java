@@ -0,0 +1,73 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of dashboard widget results keyed by permission scope, widget, team and date range.
+ * Entries hold the widget's pending result, so concurrent requests for the same key share
+ * one computation instead of each running it. Entries expire after a TTL, the least recently
+ * used ones are evicted beyond a maximum size, and data changes invalidate the affected widgets.
+ * Hit, miss, eviction and invalidation counts are published as {@code dashboard.cache.*} metrics.
+ */
+@Slf4j
+@Component
+public class DashboardWidgetCache {
+
+    private final boolean enabled;
+    private final BoundedTtlCache<Future<?>> cache;
+
+    public DashboardWidgetCache(
+            @Value("${app.dashboard.cache.enabled:true}") boolean enabled,
+            @Value("${app.dashboard.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.dashboard.cache.max-entries:500}") int maxEntries,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.cache = new BoundedTtlCache<>(ttlSeconds * 1000, maxEntries);
+        meterRegistry.ifAvailable(registry -> cache.registerMetrics(registry, "dashboard.cache", "Dashboard widget"));
+    }
+
+    /**
+     * Get the cached result of a widget, or start computing it with {@code loader} on a miss
+     *
+     * @param widget the widget name, used for invalidation
+     * @param key the full cache key, including the widget name
+     * @param loader starts the computation and returns its pending result; called while holding the cache lock
+     * @return the pending or completed widget result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Future<T> get(String widget, String key, Supplier<Future<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return (Future<T>) cache.computeIfAbsent(widget, key, loader::get);
+    }
+
+    /**
+     * Drop a result that failed, so that the next request computes it again.
+     * Nothing is removed if the key already holds a newer result.
+     */
+    public void evict(String key, Future<?> result) {
+        cache.remove(key, result);
+    }
+
+    /**
+     * Drop every cached result of the given widgets
+     */
+    public void invalidate(Collection<String> widgets) {
+        int removed = cache.invalidate(widgets);
+        log.debug("Invalidated {} dashboard cache entries of widgets {}", removed, widgets);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,274 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.company.internalmgmt.common.exception.AccessDeniedException;
+import com.company.internalmgmt.modules.contract.repository.ContractEmployeeRepository;
+import com.company.internalmgmt.modules.dashboard.dto.employee.EmployeeReportDTO;
+import com.company.internalmgmt.modules.hrm.repository.EmployeeRepository;
+import com.company.internalmgmt.modules.hrm.repository.EmployeeSkillRepository;
+import com.company.internalmgmt.modules.hrm.repository.EmployeeStatusLogRepository;
+import com.company.internalmgmt.modules.hrm.service.TeamHierarchyService;
+
+/**
+ * Builds the rows of the employee-list report from projection queries. Employees and their team leaders
+ * come from one query; skills, active assignments and latest status are loaded for a whole set of
+ * employees with one IN query each and joined in memory, instead of several queries per employee.
+ * The queries bypass EmployeeService, so rows are limited here to the employees the caller may read:
+ * every employee with {@code employee:read:all}, the employees of the caller's team and its descendant
+ * teams with {@code employee:read:team}.
+ */
+@Component
+public class EmployeeReportRows {
+
+    private static final String UNKNOWN_PROJECT = "Project from Contract (Details N/A)";
+    private static final String UNKNOWN_CUSTOMER = "Customer from Contract (Details N/A)";
+
+    // Stand in for empty ID lists, which are not valid inside IN ()
+    private static final List<Long> NO_SKILLS = Collections.singletonList(-1L);
+    private static final List<Long> NO_TEAMS = Collections.singletonList(-1L);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeSkillRepository employeeSkillRepository;
+
+    @Autowired
+    private ContractEmployeeRepository contractEmployeeRepository;
+
+    @Autowired
+    private EmployeeStatusLogRepository employeeStatusLogRepository;
+
+    @Autowired
+    private TeamHierarchyService teamHierarchyService;
+
+    /**
+     * Teams whose employees the caller may read, as {@link com.company.internalmgmt.modules.hrm.service.EmployeeService} enforces for employee listings
+     *
+     * @return the visible team IDs, or null if every team is visible
+     * @throws AccessDeniedException if the caller may not read employees
+     */
+    @Transactional(readOnly = true)
+    public List<Long> visibleTeamIds(Long currentUserId, Authentication authentication) {
+        if (hasAuthority(authentication, "employee:read:all")) {
+            return null;
+        }
+        if (!hasAuthority(authentication, "employee:read:team")) {
+            throw new AccessDeniedException("Not allowed to read employee information");
+        }
+        Long teamId = currentUserId != null
+                ? employeeRepository.findByUserId(currentUserId)
+                        .map(employee -> employee.getTeam() != null ? employee.getTeam().getId() : null)
+                        .orElse(null)
+                : null;
+        // A caller outside any team sees no employee
+        return teamId != null ? teamHierarchyService.getTeamAndDescendantIds(teamId) : Collections.emptyList();
+    }
+
+    /**
+     * Report rows of every employee matching the report filters, ordered by employee ID
+     *
+     * @param visibleTeamIds the teams the caller may read, from {@link #visibleTeamIds}; null for every team
+     */
+    @Transactional(readOnly = true)
+    public List<EmployeeReportDTO.EmployeeDetailDTO> list(List<Long> visibleTeamIds, Integer teamId, String position,
+                                                          String status, List<Integer> skills, boolean includeSkills,
+                                                          boolean includeProjects) {
+        return toDetails(employeeRows(visibleTeamIds, teamId, position, status, skills, 0L, Pageable.unpaged()),
+                includeSkills, includeProjects);
+    }
+
+    /**
+     * Stream the report rows of the employees matching the report filters, ordered by employee ID.
+     * Employees are read lazily in keyset-paged chunks (ID above the last one read), so that only one
+     * chunk is held in memory; consume the stream inside a transaction for a consistent read.
+     *
+     * @param visibleTeamIds the teams the caller may read, from {@link #visibleTeamIds}; null for every team
+     * @param chunkSize employees read and converted together, bounding the batch query sizes
+     */
+    public Stream<EmployeeReportDTO.EmployeeDetailDTO> stream(List<Long> visibleTeamIds, Integer teamId,
+                                                              String position, String status, List<Integer> skills,
+                                                              boolean includeSkills, boolean includeProjects,
+                                                              int chunkSize) {
+        Pageable chunk = PageRequest.of(0, Math.max(1, chunkSize));
+        Spliterator<List<Object[]>> chunks = new Spliterators.AbstractSpliterator<List<Object[]>>(
+                Long.MAX_VALUE, Spliterator.ORDERED) {
+            private Long lastId = 0L;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super List<Object[]>> action) {
+                if (lastId == null) {
+                    return false;
+                }
+                List<Object[]> rows = employeeRows(visibleTeamIds, teamId, position, status, skills, lastId, chunk);
+                // A short chunk is the last one
+                lastId = rows.size() < chunk.getPageSize() ? null : (Long) rows.get(rows.size() - 1)[0];
+                if (rows.isEmpty()) {
+                    return false;
+                }
+                action.accept(rows);
+                return true;
+            }
+        };
+        return StreamSupport.stream(chunks, false)
+                .flatMap(rows -> toDetails(rows, includeSkills, includeProjects).stream());
+    }
+
+    private List<Object[]> employeeRows(List<Long> visibleTeamIds, Integer teamId, String position, String status,
+                                        List<Integer> skills, Long afterId, Pageable pageable) {
+        List<Long> skillIds = skills != null
+                ? skills.stream().map(Integer::longValue).distinct().collect(Collectors.toList())
+                : Collections.emptyList();
+        return employeeRepository.findReportRowsAfter(
+                teamId != null ? teamId.longValue() : null,
+                visibleTeamIds == null,
+                visibleTeamIds == null || visibleTeamIds.isEmpty() ? NO_TEAMS : visibleTeamIds,
+                StringUtils.hasText(position) ? "%" + position.toLowerCase() + "%" : null,
+                StringUtils.hasText(status) ? status : null,
+                skillIds.isEmpty() ? NO_SKILLS : skillIds,
+                skillIds.size(),
+                afterId,
+                pageable);
+    }
+
+    /**
+     * Convert employee rows with one query per relation for the whole set, see {@link EmployeeRepository#findReportRowsAfter}
+     */
+    private List<EmployeeReportDTO.EmployeeDetailDTO> toDetails(List<Object[]> employees, boolean includeSkills,
+                                                                boolean includeProjects) {
+        if (employees.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> employeeIds = employees.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+
+        Map<Long, List<EmployeeReportDTO.SkillDTO>> skillsByEmployee = new HashMap<>();
+        if (includeSkills) {
+            for (Object[] row : employeeSkillRepository.findSkillRowsByEmployeeIds(employeeIds)) {
+                skillsByEmployee.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add(EmployeeReportDTO.SkillDTO.builder()
+                                .id(((Long) row[1]).intValue())
+                                .name((String) row[2])
+                                .category((String) row[3])
+                                .level(row[4] != null ? (String) row[4] : (String) row[5])
+                                .years(row[6] != null ? ((BigDecimal) row[6]).intValue() : 0)
+                                .build());
+            }
+        }
+
+        Map<Long, List<Object[]>> assignmentsByEmployee = new HashMap<>();
+        for (Object[] row : contractEmployeeRepository.findActiveAllocationsByEmployeeIds(employeeIds, today)) {
+            assignmentsByEmployee.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+
+        // Rows come newest first, so the first one of each employee is the latest status
+        Map<Long, Object[]> latestStatusByEmployee = new HashMap<>();
+        if (includeProjects && !assignmentsByEmployee.isEmpty()) {
+            for (Object[] row : employeeStatusLogRepository.findProjectRowsByEmployeeIdsNewestFirst(assignmentsByEmployee.keySet())) {
+                latestStatusByEmployee.putIfAbsent((Long) row[0], row);
+            }
+        }
+
+        List<EmployeeReportDTO.EmployeeDetailDTO> details = new ArrayList<>(employees.size());
+        for (Object[] row : employees) {
+            Long employeeId = (Long) row[0];
+            List<Object[]> assignments = assignmentsByEmployee.getOrDefault(employeeId, Collections.emptyList());
+
+            EmployeeReportDTO.ProjectDTO currentProject = null;
+            if (includeProjects && !assignments.isEmpty()) {
+                currentProject = currentProject(latestStatusByEmployee.get(employeeId), assignments.get(0));
+            }
+
+            int utilization = assignments.stream()
+                    .mapToInt(assignment -> assignment[1] != null ? ((BigDecimal) assignment[1]).intValue() : 0)
+                    .sum();
+
+            LocalDate hireDate = (LocalDate) row[12];
+            details.add(EmployeeReportDTO.EmployeeDetailDTO.builder()
+                    .id(employeeId.intValue())
+                    .employeeCode((String) row[1])
+                    .name(row[2] + " " + row[3])
+                    .email((String) row[4])
+                    .position((String) row[5])
+                    .team(row[6] != null ? EmployeeReportDTO.TeamDTO.builder()
+                            .id(((Long) row[6]).intValue())
+                            .name((String) row[7])
+                            .leader(row[8] != null ? EmployeeReportDTO.LeaderDTO.builder()
+                                    .id(((Long) row[8]).intValue())
+                                    .name(row[9] + " " + row[10])
+                                    .build() : null)
+                            .build() : null)
+                    .status((String) row[11])
+                    .currentProject(currentProject)
+                    .utilization(Math.min(utilization, 100))
+                    .skills(includeSkills ? skillsByEmployee.getOrDefault(employeeId, Collections.emptyList())
+                            : Collections.emptyList())
+                    .joinDate(formatDate(hireDate))
+                    .totalExperience(hireDate != null ? (int) ChronoUnit.YEARS.between(hireDate, today) : 0)
+                    .build());
+        }
+        return details;
+    }
+
+    /**
+     * Project of the latest status log if it names one, otherwise a placeholder from the first active assignment
+     */
+    private EmployeeReportDTO.ProjectDTO currentProject(Object[] latestStatus, Object[] mainAssignment) {
+        if (latestStatus != null && latestStatus[1] != null) {
+            return EmployeeReportDTO.ProjectDTO.builder()
+                    .name((String) latestStatus[1])
+                    .customer((String) latestStatus[2])
+                    .allocation((Integer) latestStatus[3])
+                    .startDate(formatDate((LocalDate) latestStatus[4]))
+                    .endDate(formatDate((LocalDate) latestStatus[5]))
+                    .build();
+        }
+        return EmployeeReportDTO.ProjectDTO.builder()
+                .name(UNKNOWN_PROJECT)
+                .customer(UNKNOWN_CUSTOMER)
+                .allocation(mainAssignment[1] != null ? ((BigDecimal) mainAssignment[1]).intValue() : null)
+                .startDate(formatDate((LocalDate) mainAssignment[2]))
+                .endDate(formatDate((LocalDate) mainAssignment[3]))
+                .build();
+    }
+
+    private static boolean hasAuthority(Authentication authentication, String authority) {
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority granted : authentication.getAuthorities()) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String formatDate(LocalDate date) {
+        return date != null ? date.format(DateTimeFormatter.ISO_LOCAL_DATE) : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.company.internalmgmt.common.exception.BadRequestException;
+
+/**
+ * Filter values of a report request, keyed by the request parameter names of the report endpoint.
+ * Values may be given as strings, as in a query string, or as JSON numbers, booleans and arrays.
+ * Blank values count as absent, so that equivalent filter sets have the same {@link #canonicalKey()}.
+ */
+public final class ReportFilters {
+
+    private final Map<String, String> values;
+
+    private ReportFilters(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static ReportFilters of(Map<String, ?> filters) {
+        Map<String, String> values = new TreeMap<>();
+        if (filters != null) {
+            filters.forEach((name, value) -> {
+                String text = normalize(value);
+                if (name != null && text != null) {
+                    values.put(name, text);
+                }
+            });
+        }
+        return new ReportFilters(values);
+    }
+
+    /**
+     * @return the filter names, sorted
+     */
+    public Collection<String> names() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * @return the filter values as text, sorted by name
+     */
+    public Map<String, String> asMap() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Filters in a stable textual form: sorted by name, list values joined with commas
+     */
+    public String canonicalKey() {
+        return values.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("&"));
+    }
+
+    public String getString(String name) {
+        return values.get(name);
+    }
+
+    public String getString(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public Integer getInteger(String name) {
+        String value = values.get(name);
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw invalid(name, value);
+        }
+    }
+
+    public Double getDouble(String name) {
+        String value = values.get(name);
+        try {
+            return value != null ? Double.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw invalid(name, value);
+        }
+    }
+
+    public Boolean getBoolean(String name, Boolean defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw invalid(name, value);
+        }
+        return Boolean.valueOf(value);
+    }
+
+    /**
+     * @param name filter holding an ISO date (yyyy-MM-dd)
+     */
+    public LocalDate getDate(String name) {
+        String value = values.get(name);
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            throw invalid(name, value);
+        }
+    }
+
+    public List<Integer> getIntegerList(String name) {
+        String value = values.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Arrays.stream(value.split(",")).map(Integer::valueOf).collect(Collectors.toList());
+        } catch (NumberFormatException e) {
+            throw invalid(name, value);
+        }
+    }
+
+    private static String normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text;
+        if (value instanceof Collection) {
+            text = ((Collection<?>) value).stream()
+                    .map(ReportFilters::normalize)
+                    .filter(item -> item != null)
+                    .sorted()
+                    .collect(Collectors.joining(","));
+        } else {
+            text = value.toString().trim();
+        }
+        return text.isEmpty() ? null : text;
+    }
+
+    private static BadRequestException invalid(String name, String value) {
+        return new BadRequestException("Invalid value for report filter '" + name + "': " + value);
+    }
+}
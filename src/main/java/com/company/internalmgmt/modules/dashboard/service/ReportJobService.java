@@ -0,0 +1,45 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.security.core.Authentication;
+
+import com.company.internalmgmt.modules.dashboard.dto.job.ReportJobDTO;
+import com.company.internalmgmt.modules.dashboard.dto.job.ReportJobRequestDTO;
+
+/**
+ * Service interface for reports built in the background and downloaded later
+ */
+public interface ReportJobService {
+
+    /**
+     * Queue a report job. A request identical to a job of the same permission scope that is still
+     * queued or running, or that completed recently, returns that job instead of starting another one.
+     *
+     * @param request Report type, export type and filters
+     * @param currentUserId Current user ID
+     * @param authentication Authentication object
+     * @return The queued, or coalesced, job
+     */
+    ReportJobDTO submit(ReportJobRequestDTO request, Long currentUserId, Authentication authentication);
+
+    /**
+     * Get the state of a job of the caller's permission scope
+     *
+     * @param jobId Job ID
+     * @param currentUserId Current user ID
+     * @param authentication Authentication object
+     * @return The job
+     */
+    ReportJobDTO getJob(String jobId, Long currentUserId, Authentication authentication);
+
+    /**
+     * Write the file of a completed job to the response as an attachment
+     *
+     * @param jobId Job ID
+     * @param currentUserId Current user ID
+     * @param authentication Authentication object
+     * @param response The response to write to
+     */
+    void download(String jobId, Long currentUserId, Authentication authentication, HttpServletResponse response);
+}
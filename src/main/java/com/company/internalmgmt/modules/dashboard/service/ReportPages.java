@@ -0,0 +1,53 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Reads every row of a paged report query one page at a time, for exports that write rows as they are
+ * produced instead of loading the whole result first.
+ */
+public final class ReportPages {
+
+    private ReportPages() {
+    }
+
+    /**
+     * Stream the rows of consecutive pages, each page read when the stream reaches it.
+     * A page shorter than the page size is the last one. The sort must end with a unique key so that
+     * consecutive pages neither skip nor repeat rows; consume the stream inside a transaction for a
+     * consistent read.
+     *
+     * @param pageSize rows read and converted together, bounding the batch query sizes
+     * @param loader the rows of a page, one per row of the underlying query, in page order
+     */
+    public static <T> Stream<T> stream(int pageSize, Sort sort, Function<Pageable, List<T>> loader) {
+        Spliterator<List<T>> pages = new Spliterators.AbstractSpliterator<List<T>>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private Pageable next = PageRequest.of(0, Math.max(1, pageSize), sort);
+
+            @Override
+            public boolean tryAdvance(Consumer<? super List<T>> action) {
+                if (next == null) {
+                    return false;
+                }
+                List<T> rows = loader.apply(next);
+                next = rows.size() < next.getPageSize() ? null : next.next();
+                if (rows.isEmpty()) {
+                    return false;
+                }
+                action.accept(rows);
+                return true;
+            }
+        };
+        return StreamSupport.stream(pages, false).flatMap(List::stream);
+    }
+}
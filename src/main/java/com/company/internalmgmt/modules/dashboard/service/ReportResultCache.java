@@ -0,0 +1,129 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of JSON report results keyed by report type, permission scope, page and canonical filters.
+ * Entries expire after a TTL, the least recently used ones are evicted beyond a maximum size, and
+ * data changes invalidate the report types built from the changed data. Pages larger than a limit,
+ * such as the full result an export is built from, are not cached.
+ * Hit, miss, eviction and invalidation counts are published as {@code report.cache.*} metrics.
+ */
+@Slf4j
+@Component
+public class ReportResultCache {
+
+    private final boolean enabled;
+    private final int maxPageSize;
+    private final BoundedTtlCache<Object> cache;
+
+    // Bumped by every invalidation of a report type, so that results computed before it are not stored
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReportResultCache(
+            @Value("${app.report.cache.enabled:true}") boolean enabled,
+            @Value("${app.report.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.report.cache.max-entries:200}") int maxEntries,
+            @Value("${app.report.cache.max-page-size:500}") int maxPageSize,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(enabled, maxPageSize, new BoundedTtlCache<>(ttlSeconds * 1000, maxEntries));
+        meterRegistry.ifAvailable(registry -> cache.registerMetrics(registry, "report.cache", "Report"));
+    }
+
+    ReportResultCache(boolean enabled, int maxPageSize, BoundedTtlCache<Object> cache) {
+        this.enabled = enabled;
+        this.maxPageSize = maxPageSize;
+        this.cache = cache;
+    }
+
+    /**
+     * Look up a report result. On a miss, the caller builds the report and hands it to {@link Lookup#store}.
+     *
+     * @param reportType the report type, used for invalidation
+     * @param key the full cache key, including the report type
+     * @param pageSize the requested page size; larger pages bypass the cache
+     * @return the lookup, holding the cached result on a hit
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Lookup<T> lookup(String reportType, String key, int pageSize) {
+        if (!enabled || pageSize > maxPageSize) {
+            return new Lookup<>(null, null, -1, null);
+        }
+        // Read before the entry, so that an invalidation in between makes the built result unstorable
+        long generation = generation(reportType).get();
+        return new Lookup<>(reportType, key, generation, (T) cache.get(key));
+    }
+
+    /**
+     * Drop every cached result of the given report types
+     */
+    public synchronized void invalidate(Collection<String> reportTypes) {
+        reportTypes.forEach(reportType -> generation(reportType).incrementAndGet());
+        int removed = cache.invalidate(reportTypes);
+        log.debug("Invalidated {} report cache entries of reports {}", removed, reportTypes);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private AtomicLong generation(String reportType) {
+        return generations.computeIfAbsent(reportType, type -> new AtomicLong());
+    }
+
+    private synchronized void put(String reportType, String key, long generation, Object result) {
+        // An invalidation while the report was being built means the result may already be stale
+        if (generation(reportType).get() == generation) {
+            cache.put(reportType, key, result);
+        }
+    }
+
+    /**
+     * Result of a cache lookup: the cached report on a hit, otherwise the means to cache the built one
+     */
+    public final class Lookup<T> {
+        private final String reportType;
+        private final String key;
+        private final long generation;
+        private final T result;
+
+        private Lookup(String reportType, String key, long generation, T result) {
+            this.reportType = reportType;
+            this.key = key;
+            this.generation = generation;
+            this.result = result;
+        }
+
+        public boolean isHit() {
+            return result != null;
+        }
+
+        public T get() {
+            return result;
+        }
+
+        /**
+         * Cache a report built after a miss, unless the lookup bypassed the cache
+         *
+         * @return the report, for returning it directly
+         */
+        public T store(T report) {
+            if (key != null && report != null) {
+                put(reportType, key, generation, report);
+            }
+            return report;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.company.internalmgmt.modules.dashboard.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -16,6 +22,33 @@ import com.company.internalmgmt.modules.dashboard.dto.margin.MarginReportDTO;
  */
 public interface ReportService {
     
+    String EMPLOYEE_LIST = "employee-list";
+    String MARGIN_DETAIL = "margin-detail";
+    String OPPORTUNITY_LIST = "opportunity-list";
+    String CONTRACT_LIST = "contract-list";
+    String PAYMENT_STATUS = "payment-status";
+    String KPI_PROGRESS = "kpi-progress";
+    
+    /**
+     * Report types, named after their endpoints, with the filters each accepts: the request
+     * parameters of the endpoint other than paging and exportType
+     */
+    Map<String, List<String>> REPORT_FILTERS = Collections.unmodifiableMap(new LinkedHashMap<String, List<String>>() {{
+        put(EMPLOYEE_LIST, Arrays.asList("teamId", "position", "status", "skills", "minExperience", "projectId",
+                "utilization", "includeSkills", "includeProjects", "sortBy", "sortDir"));
+        put(MARGIN_DETAIL, Arrays.asList("teamId", "employeeId", "period", "fromDate", "toDate", "marginThreshold",
+                "groupBy", "includeDetails", "sortBy", "sortDir"));
+        put(OPPORTUNITY_LIST, Arrays.asList("customerId", "salesId", "leaderId", "dealStage", "followUpStatus", "onsite",
+                "fromDate", "toDate", "keyword", "includeNotes", "includeLeaders", "sortBy", "sortDir"));
+        put(CONTRACT_LIST, Arrays.asList("customerId", "salesId", "status", "type", "opportunityId", "minValue", "maxValue",
+                "fromDate", "toDate", "expiryFromDate", "expiryToDate", "paymentStatus", "keyword", "includePayments",
+                "includeEmployees", "sortBy", "sortDir"));
+        put(PAYMENT_STATUS, Arrays.asList("customerId", "salesId", "contractId", "status", "fromDate", "toDate",
+                "paidFromDate", "paidToDate", "minAmount", "maxAmount", "includeDetails", "sortBy", "sortDir"));
+        put(KPI_PROGRESS, Arrays.asList("salesId", "year", "quarter", "month", "minAchievement", "maxAchievement",
+                "includeDetails", "sortBy", "sortDir"));
+    }});
+    
     /**
      * Get detailed employee list report
      */
@@ -80,4 +113,15 @@ public interface ReportService {
         String exportType, Pageable pageable, Long currentUserId,
         Authentication authentication, HttpServletResponse response
     );
-} 
\ No newline at end of file
+    
+    /**
+     * Write every row of a report matching the filters as a csv or excel file.
+     * Filters that are not given take the defaults of the report endpoint.
+     *
+     * @param reportType one of {@link #REPORT_FILTERS}
+     * @param outputStream the stream to write to, left open
+     * @return the number of rows written
+     */
+    long writeReport(String reportType, ReportFilters filters, String exportType, OutputStream outputStream,
+                     Long currentUserId, Authentication authentication) throws IOException;
+}
@@ -0,0 +1,82 @@
+package com.company.internalmgmt.modules.dashboard.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes RFC 4180 CSV through a buffered writer. The buffer is flushed to the output stream every
+ * {@code flushRows} rows, so the client receives the file while it is being produced.
+ */
+class CsvReportWriter implements ReportRowWriter {
+
+    // Lets Excel detect UTF-8 when the file is opened directly
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Writer writer;
+    private final int flushRows;
+    private int rowsSinceFlush;
+
+    CsvReportWriter(OutputStream outputStream, int flushRows) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) throws IOException {
+        writer.write(BYTE_ORDER_MARK);
+        writeLine(headers.toArray());
+        writer.flush();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        writeLine(values);
+        if (++rowsSinceFlush >= flushRows) {
+            writer.flush();
+            rowsSinceFlush = 0;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() {
+        // The response output stream is closed by the container
+    }
+
+    private void writeLine(Object[] values) throws IOException {
+        for (int column = 0; column < values.length; column++) {
+            if (column > 0) {
+                writer.write(',');
+            }
+            Object value = values[column];
+            if (value != null) {
+                writeField(value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String text) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,86 @@
+package com.company.internalmgmt.modules.dashboard.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Writes .xlsx files with POI's streaming workbook. Only the last {@code rowAccessWindow} rows are kept
+ * in memory; older rows are flushed to a compressed temporary file, which is zipped into the output
+ * stream when the document is finished.
+ */
+class ExcelReportWriter implements ReportRowWriter {
+
+    // Excel cells hold at most 32767 characters
+    private static final int MAX_CELL_LENGTH = 32767;
+
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final OutputStream outputStream;
+    private int rowIndex;
+
+    ExcelReportWriter(OutputStream outputStream, String sheetName, int rowAccessWindow) {
+        this.outputStream = outputStream;
+        this.workbook = new SXSSFWorkbook(rowAccessWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(sheetName));
+        this.sheet.setDefaultColumnWidth(18);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) {
+        Font font = workbook.createFont();
+        font.setBold(true);
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+
+        Row row = sheet.createRow(rowIndex++);
+        for (int column = 0; column < headers.size(); column++) {
+            Cell cell = row.createCell(column);
+            cell.setCellValue(headers.get(column));
+            cell.setCellStyle(style);
+        }
+        sheet.createFreezePane(0, 1);
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        Row row = sheet.createRow(rowIndex++);
+        for (int column = 0; column < values.length; column++) {
+            Object value = values[column];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(column);
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else {
+                String text = value.toString();
+                cell.setCellValue(text.length() > MAX_CELL_LENGTH ? text.substring(0, MAX_CELL_LENGTH) : text);
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(outputStream);
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Delete the temporary files backing the flushed rows
+        workbook.dispose();
+        workbook.close();
+    }
+}
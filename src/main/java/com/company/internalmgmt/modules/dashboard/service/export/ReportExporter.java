@@ -0,0 +1,107 @@
+package com.company.internalmgmt.modules.dashboard.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.company.internalmgmt.common.exception.SystemException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes report tables as downloadable files, to the HTTP response or to any output stream.
+ * Rows are pulled from the table one at a time and written straight to the output stream.
+ */
+@Slf4j
+@Component
+public class ReportExporter {
+
+    public static final String EXCEL = "excel";
+    public static final String CSV = "csv";
+
+    private static final String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    private static final String CSV_CONTENT_TYPE = "text/csv; charset=UTF-8";
+
+    // Rows of an Excel sheet kept in memory before being flushed to the temporary file
+    @Value("${app.report.export.excel-row-window:100}")
+    private int excelRowWindow;
+
+    // CSV rows buffered before the writer is flushed to the response
+    @Value("${app.report.export.csv-flush-rows:500}")
+    private int csvFlushRows;
+
+    /**
+     * @return whether {@link #export} can write the given export type
+     */
+    public boolean supports(String exportType) {
+        return EXCEL.equalsIgnoreCase(exportType) || CSV.equalsIgnoreCase(exportType);
+    }
+
+    /**
+     * Write a report table to the response as an attachment
+     *
+     * @param exportType export format, see {@link #supports(String)}
+     * @param reportName base name of the file, also used as the sheet name
+     * @param table the report rows
+     * @param response the response to write to
+     */
+    public void export(String exportType, String reportName, ReportTable table, HttpServletResponse response) {
+        if (!supports(exportType)) {
+            throw new IllegalArgumentException("Unsupported export type: " + exportType);
+        }
+        response.setContentType(contentType(exportType));
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName(exportType, reportName) + "\"");
+        try {
+            write(exportType, reportName, table, response.getOutputStream());
+        } catch (IOException e) {
+            throw new SystemException("Failed to export " + reportName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write a report table to an output stream, which is left open
+     *
+     * @return the number of rows written, header excluded
+     */
+    public long write(String exportType, String reportName, ReportTable table, OutputStream outputStream) throws IOException {
+        if (!supports(exportType)) {
+            throw new IllegalArgumentException("Unsupported export type: " + exportType);
+        }
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        try (Stream<Object[]> rowStream = table.getRows();
+             ReportRowWriter writer = CSV.equalsIgnoreCase(exportType)
+                     ? new CsvReportWriter(outputStream, csvFlushRows)
+                     : new ExcelReportWriter(outputStream, reportName, excelRowWindow)) {
+            writer.writeHeader(table.getHeaders());
+            Iterator<Object[]> iterator = rowStream.iterator();
+            while (iterator.hasNext()) {
+                writer.writeRow(iterator.next());
+                rows++;
+            }
+            writer.finish();
+        }
+        log.info("Exported {} rows of {} as {} in {} ms", rows, reportName, exportType, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    public String contentType(String exportType) {
+        return CSV.equalsIgnoreCase(exportType) ? CSV_CONTENT_TYPE : EXCEL_CONTENT_TYPE;
+    }
+
+    /**
+     * Download file name of a report exported today
+     */
+    public String fileName(String exportType, String reportName) {
+        return reportName + "_" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + (CSV.equalsIgnoreCase(exportType) ? ".csv" : ".xlsx");
+    }
+}
@@ -0,0 +1,22 @@
+package com.company.internalmgmt.modules.dashboard.service.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes report rows to an output stream in one export format
+ */
+interface ReportRowWriter extends AutoCloseable {
+
+    void writeHeader(List<String> headers) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * Complete the document; nothing may be written afterwards
+     */
+    void finish() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.company.internalmgmt.modules.dashboard.service.export;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tabular form of a report for export: column headers and rows produced lazily, one array of cell values per row.
+ * Cell values are written as numbers, booleans or text; null leaves the cell empty.
+ */
+public final class ReportTable {
+
+    private final List<String> headers;
+    private final Stream<Object[]> rows;
+
+    public ReportTable(List<String> headers, Stream<Object[]> rows) {
+        this.headers = headers;
+        this.rows = rows;
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public Stream<Object[]> getRows() {
+        return rows;
+    }
+}
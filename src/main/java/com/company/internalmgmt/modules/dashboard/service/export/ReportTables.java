@@ -0,0 +1,249 @@
+package com.company.internalmgmt.modules.dashboard.service.export;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.company.internalmgmt.modules.dashboard.dto.employee.EmployeeReportDTO;
+import com.company.internalmgmt.modules.dashboard.dto.kpi.SalesKpiDetailDTO;
+import com.company.internalmgmt.modules.dashboard.dto.margin.MarginReportDTO;
+
+/**
+ * Column layouts of the exported reports. Each factory maps the report content to rows lazily,
+ * so a row only exists while it is being written.
+ */
+public final class ReportTables {
+
+    private static final List<String> EMPLOYEE_LIST_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "ID", "Employee Code", "Name", "Email", "Position", "Team", "Team Leader", "Status",
+            "Current Project", "Customer", "Allocation (%)", "Utilization (%)", "Skills", "Join Date",
+            "Experience (years)"));
+
+    private static final List<String> EMPLOYEE_MARGIN_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "Employee ID", "Employee Code", "Employee Name", "Team", "Position", "Period", "Cost", "Revenue",
+            "Margin (%)", "Period Status", "Average Margin (%)", "Status"));
+
+    private static final List<String> TEAM_MARGIN_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "Team ID", "Team Name", "Leader", "Employee Count", "Period", "Total Cost", "Total Revenue",
+            "Margin (%)", "Period Status", "Average Margin (%)", "Status"));
+
+    private static final List<String> OPPORTUNITY_LIST_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "ID", "HubSpot ID", "Name", "Customer", "Deal Stage", "Estimated Value", "Created Date",
+            "Last Interaction Date", "Follow-up Status", "Sales", "Sales Email", "Onsite", "Leaders"));
+
+    private static final List<String> CONTRACT_LIST_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "ID", "Contract Code", "Client Name", "Project Name", "Contract Type", "Status", "Total Value",
+            "Currency", "Effective Date", "Expiry Date", "Sign Date", "Payment Status"));
+
+    private static final List<String> PAYMENT_STATUS_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "ID", "Contract ID", "Contract Code", "Client Name", "Term Number", "Description", "Amount",
+            "Currency", "Due Date", "Status", "Paid Date", "Paid Amount", "Days Overdue", "Days To Due"));
+
+    private static final List<String> KPI_PROGRESS_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            "Sales Person ID", "Sales Person", "Team", "Period", "KPI Target", "Actual Revenue",
+            "Achievement Rate (%)", "Status"));
+
+    private ReportTables() {
+    }
+
+    public static ReportTable employeeList(List<EmployeeReportDTO.EmployeeDetailDTO> content) {
+        return employeeList(stream(content));
+    }
+
+    /**
+     * Rows of employees produced while the export is written; closing the table's rows closes the source stream
+     */
+    public static ReportTable employeeList(Stream<EmployeeReportDTO.EmployeeDetailDTO> employees) {
+        return new ReportTable(EMPLOYEE_LIST_HEADERS, employees.map(employee -> {
+            EmployeeReportDTO.TeamDTO team = employee.getTeam();
+            EmployeeReportDTO.ProjectDTO project = employee.getCurrentProject();
+            return new Object[] {
+                    employee.getId(),
+                    employee.getEmployeeCode(),
+                    employee.getName(),
+                    employee.getEmail(),
+                    employee.getPosition(),
+                    team != null ? team.getName() : null,
+                    team != null && team.getLeader() != null ? team.getLeader().getName() : null,
+                    employee.getStatus(),
+                    project != null ? project.getName() : null,
+                    project != null ? project.getCustomer() : null,
+                    project != null ? project.getAllocation() : null,
+                    employee.getUtilization(),
+                    employee.getSkills() != null
+                            ? employee.getSkills().stream().map(EmployeeReportDTO.SkillDTO::getName)
+                                    .filter(Objects::nonNull).collect(Collectors.joining(", "))
+                            : null,
+                    employee.getJoinDate(),
+                    employee.getTotalExperience()
+            };
+        }));
+    }
+
+    public static ReportTable marginDetail(String groupBy, List<Object> content) {
+        return marginDetail(groupBy, stream(content));
+    }
+
+    /**
+     * One row per employee or team and period; an employee or team without margin data gets one row without period values
+     */
+    public static ReportTable marginDetail(String groupBy, Stream<?> content) {
+        if ("employee".equals(groupBy)) {
+            return new ReportTable(EMPLOYEE_MARGIN_HEADERS, content
+                    .filter(MarginReportDTO.EmployeeMarginDTO.class::isInstance)
+                    .map(MarginReportDTO.EmployeeMarginDTO.class::cast)
+                    .flatMap(employee -> {
+                        List<MarginReportDTO.MarginDataDTO> periods = employee.getMarginData() != null
+                                ? employee.getMarginData() : Collections.emptyList();
+                        Stream<MarginReportDTO.MarginDataDTO> periodStream = periods.isEmpty()
+                                ? Stream.of((MarginReportDTO.MarginDataDTO) null) : periods.stream();
+                        return periodStream.map(period -> new Object[] {
+                                employee.getEmployeeId(),
+                                employee.getEmployeeCode(),
+                                employee.getEmployeeName(),
+                                employee.getTeam() != null ? employee.getTeam().getName() : null,
+                                employee.getPosition(),
+                                period != null ? period.getPeriod() : null,
+                                period != null ? period.getCost() : null,
+                                period != null ? period.getRevenue() : null,
+                                period != null ? period.getMargin() : null,
+                                period != null ? period.getStatus() : null,
+                                employee.getAverageMargin(),
+                                employee.getStatus()
+                        });
+                    }));
+        }
+        return new ReportTable(TEAM_MARGIN_HEADERS, content
+                .filter(MarginReportDTO.TeamMarginDTO.class::isInstance)
+                .map(MarginReportDTO.TeamMarginDTO.class::cast)
+                .flatMap(team -> {
+                    List<MarginReportDTO.TeamMarginDataDTO> periods = team.getMarginData() != null
+                            ? team.getMarginData() : Collections.emptyList();
+                    Stream<MarginReportDTO.TeamMarginDataDTO> periodStream = periods.isEmpty()
+                            ? Stream.of((MarginReportDTO.TeamMarginDataDTO) null) : periods.stream();
+                    return periodStream.map(period -> new Object[] {
+                            team.getTeamId(),
+                            team.getTeamName(),
+                            team.getLeader() != null ? team.getLeader().getName() : null,
+                            team.getEmployeeCount(),
+                            period != null ? period.getPeriod() : null,
+                            period != null ? period.getTotalCost() : null,
+                            period != null ? period.getTotalRevenue() : null,
+                            period != null ? period.getMargin() : null,
+                            period != null ? period.getStatus() : null,
+                            team.getAverageMargin(),
+                            team.getStatus()
+                    });
+                }));
+    }
+
+    public static ReportTable opportunityList(List<Map<String, Object>> content) {
+        return opportunityList(stream(content));
+    }
+
+    public static ReportTable opportunityList(Stream<Map<String, Object>> opportunities) {
+        return new ReportTable(OPPORTUNITY_LIST_HEADERS, opportunities.map(opportunity -> new Object[] {
+                opportunity.get("id"),
+                opportunity.get("hubspotId"),
+                opportunity.get("name"),
+                nested(opportunity, "customer", "name"),
+                opportunity.get("dealStage"),
+                opportunity.get("estimatedValue"),
+                opportunity.get("createdDate"),
+                opportunity.get("lastInteractionDate"),
+                opportunity.get("followUpStatus"),
+                nested(opportunity, "sales", "name"),
+                nested(opportunity, "sales", "email"),
+                opportunity.get("onsite"),
+                joinNames(opportunity.get("leaders"))
+        }));
+    }
+
+    public static ReportTable contractList(List<Map<String, Object>> content) {
+        return contractList(stream(content));
+    }
+
+    public static ReportTable contractList(Stream<Map<String, Object>> contracts) {
+        return new ReportTable(CONTRACT_LIST_HEADERS, contracts.map(contract -> new Object[] {
+                contract.get("id"),
+                contract.get("contractCode"),
+                contract.get("clientName"),
+                contract.get("projectName"),
+                text(contract.get("contractType")),
+                text(contract.get("status")),
+                contract.get("totalValue"),
+                contract.get("currency"),
+                contract.get("effectiveDate"),
+                contract.get("expiryDate"),
+                contract.get("signDate"),
+                contract.get("paymentStatus")
+        }));
+    }
+
+    public static ReportTable paymentStatus(List<Map<String, Object>> content) {
+        return paymentStatus(stream(content));
+    }
+
+    public static ReportTable paymentStatus(Stream<Map<String, Object>> payments) {
+        return new ReportTable(PAYMENT_STATUS_HEADERS, payments.map(payment -> new Object[] {
+                payment.get("id"),
+                payment.get("contractId"),
+                payment.get("contractCode"),
+                payment.get("clientName"),
+                payment.get("termNumber"),
+                payment.get("description"),
+                payment.get("amount"),
+                payment.get("currency"),
+                payment.get("dueDate"),
+                payment.get("status"),
+                payment.get("paidDate"),
+                payment.get("paidAmount"),
+                payment.get("daysOverdue"),
+                payment.get("daysToDue")
+        }));
+    }
+
+    public static ReportTable kpiProgress(List<SalesKpiDetailDTO> content) {
+        return new ReportTable(KPI_PROGRESS_HEADERS, stream(content).map(kpi -> new Object[] {
+                kpi.getSalesPersonId(),
+                kpi.getSalesPersonName(),
+                kpi.getTeamName(),
+                kpi.getPeriod(),
+                kpi.getKpiTargetAmount(),
+                kpi.getActualRevenue(),
+                kpi.getAchievementRate(),
+                kpi.getStatus()
+        }));
+    }
+
+    private static <T> Stream<T> stream(List<T> content) {
+        return content != null ? content.stream() : Stream.empty();
+    }
+
+    private static Object nested(Map<String, Object> row, String key, String nestedKey) {
+        Object value = row.get(key);
+        return value instanceof Map ? ((Map<?, ?>) value).get(nestedKey) : null;
+    }
+
+    private static String joinNames(Object values) {
+        if (!(values instanceof Collection)) {
+            return null;
+        }
+        return ((Collection<?>) values).stream()
+                .filter(Map.class::isInstance)
+                .map(value -> ((Map<?, ?>) value).get("name"))
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .collect(Collectors.joining(", "));
+    }
+
+    // Enums are written by name
+    private static Object text(Object value) {
+        return value instanceof Enum ? ((Enum<?>) value).name() : value;
+    }
+}
@@ -1,26 +1,44 @@
 package com.company.internalmgmt.modules.dashboard.service.impl;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.company.internalmgmt.modules.contract.dto.ContractDTO;
 import com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO;
 import com.company.internalmgmt.modules.contract.service.ContractPaymentTermService;
 import com.company.internalmgmt.modules.contract.service.ContractService;
+import com.company.internalmgmt.modules.dashboard.config.DashboardExecutorConfig;
 import com.company.internalmgmt.modules.dashboard.dto.DashboardSummaryDTO;
 import com.company.internalmgmt.modules.dashboard.dto.EmployeeStatusDTO;
 import com.company.internalmgmt.modules.dashboard.dto.MarginDistributionDTO;
@@ -28,12 +46,14 @@ import com.company.internalmgmt.modules.dashboard.dto.OpportunityStatusDTO;
 import com.company.internalmgmt.modules.dashboard.dto.RevenueSummaryDTO;
 import com.company.internalmgmt.modules.dashboard.dto.UtilizationRateDTO;
 import com.company.internalmgmt.modules.dashboard.service.DashboardService;
+import com.company.internalmgmt.modules.dashboard.service.DashboardWidgetCache;
 import com.company.internalmgmt.modules.hrm.dto.EmployeeDto;
+import com.company.internalmgmt.modules.hrm.model.UtilizationSnapshot;
+import com.company.internalmgmt.modules.hrm.repository.TeamRepository;
 import com.company.internalmgmt.modules.hrm.service.EmployeeService;
 import com.company.internalmgmt.modules.hrm.service.EmployeeStatusLogService;
-import com.company.internalmgmt.modules.hrm.service.TeamService;
-import com.company.internalmgmt.modules.margin.dto.EmployeeMarginDTO;
-import com.company.internalmgmt.modules.margin.dto.MarginSummaryDTO;
+import com.company.internalmgmt.modules.hrm.service.UtilizationSnapshotService;
+import com.company.internalmgmt.modules.margin.dto.MarginTrendDTO;
 import com.company.internalmgmt.modules.margin.service.MarginService;
 import com.company.internalmgmt.modules.opportunity.dto.OpportunityDTO;
 import com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest;
@@ -41,9 +61,12 @@ import com.company.internalmgmt.modules.opportunity.dto.response.ListOpportuniti
 import com.company.internalmgmt.modules.opportunity.dto.response.OpportunitySummaryDTO;
 import com.company.internalmgmt.modules.opportunity.service.OpportunityService;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * Implementation of DashboardService
  */
+@Slf4j
 @Service
 public class DashboardServiceImpl implements DashboardService {
     
@@ -66,7 +89,28 @@ public class DashboardServiceImpl implements DashboardService {
     private EmployeeStatusLogService employeeStatusLogService;
     
     @Autowired
-    private TeamService teamService;
+    private TeamRepository teamRepository;
+    
+    @Autowired
+    private UtilizationSnapshotService utilizationSnapshotService;
+    
+    @Autowired
+    @Qualifier(DashboardExecutorConfig.DASHBOARD_EXECUTOR)
+    private AsyncTaskExecutor dashboardExecutor;
+    
+    @Autowired
+    private DashboardWidgetCache dashboardWidgetCache;
+    
+    private TransactionTemplate readOnlyTransactionTemplate;
+    
+    @Value("${app.dashboard.widget-timeout-ms:5000}")
+    private long widgetTimeoutMs;
+    
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
     
     @Override
     public DashboardSummaryDTO getDashboardSummary(
@@ -83,36 +127,105 @@ public class DashboardServiceImpl implements DashboardService {
                 .toDate(toDate.format(DateTimeFormatter.ISO_LOCAL_DATE))
                 .build();
         
-        // Build widgets data based on requested widgets
-        DashboardSummaryDTO.WidgetsDTO.WidgetsDTOBuilder widgetsBuilder = 
-                DashboardSummaryDTO.WidgetsDTO.builder();
-        
-        if (widgets.contains("opportunity_status")) {
-            widgetsBuilder.opportunityStatus(buildOpportunityStatus(fromDate, toDate, teamId, currentUserId, authentication));
-        }
-        
-        if (widgets.contains("margin_distribution")) {
-            widgetsBuilder.marginDistribution(buildMarginDistribution(fromDate, toDate, teamId, currentUserId, authentication));
-        }
-        
-        if (widgets.contains("revenue_summary")) {
-            widgetsBuilder.revenueSummary(buildRevenueSummary(fromDate, toDate, teamId, currentUserId, authentication));
-        }
-        
-        if (widgets.contains("employee_status")) {
-            widgetsBuilder.employeeStatus(buildEmployeeStatus(fromDate, toDate, teamId, currentUserId, authentication));
-        }
+        // Start every requested widget concurrently; they are independent of each other.
+        // Users with the same data visibility share cached results for the same team and dates.
+        String cacheKey = getScopeKey(authentication, currentUserId) + "|" + teamId + "|" + fromDate + "|" + toDate;
+        Future<OpportunityStatusDTO> opportunityStatus = widgets.contains(WIDGET_OPPORTUNITY_STATUS)
+                ? submitWidget(WIDGET_OPPORTUNITY_STATUS, cacheKey, () -> buildOpportunityStatus(fromDate, toDate, teamId, currentUserId, authentication))
+                : null;
+        Future<MarginDistributionDTO> marginDistribution = widgets.contains(WIDGET_MARGIN_DISTRIBUTION)
+                ? submitWidget(WIDGET_MARGIN_DISTRIBUTION, cacheKey, () -> buildMarginDistribution(fromDate, toDate, teamId, currentUserId, authentication))
+                : null;
+        Future<RevenueSummaryDTO> revenueSummary = widgets.contains(WIDGET_REVENUE_SUMMARY)
+                ? submitWidget(WIDGET_REVENUE_SUMMARY, cacheKey, () -> buildRevenueSummary(fromDate, toDate, teamId, currentUserId, authentication))
+                : null;
+        Future<EmployeeStatusDTO> employeeStatus = widgets.contains(WIDGET_EMPLOYEE_STATUS)
+                ? submitWidget(WIDGET_EMPLOYEE_STATUS, cacheKey, () -> buildEmployeeStatus(fromDate, toDate, teamId, currentUserId, authentication))
+                : null;
+        Future<UtilizationRateDTO> utilizationRate = widgets.contains(WIDGET_UTILIZATION_RATE)
+                ? submitWidget(WIDGET_UTILIZATION_RATE, cacheKey, () -> buildUtilizationRate(fromDate, toDate, teamId, currentUserId, authentication))
+                : null;
         
-        if (widgets.contains("utilization_rate")) {
-            widgetsBuilder.utilizationRate(buildUtilizationRate(fromDate, toDate, teamId, currentUserId, authentication));
-        }
+        // Collect the widgets; one that fails or exceeds its timeout is replaced by empty data
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(widgetTimeoutMs);
+        List<String> degradedWidgets = new ArrayList<>();
+        DashboardSummaryDTO.WidgetsDTO widgetsDTO = DashboardSummaryDTO.WidgetsDTO.builder()
+                .opportunityStatus(awaitWidget(WIDGET_OPPORTUNITY_STATUS, cacheKey, opportunityStatus, deadline,
+                        degradedWidgets, this::emptyOpportunityStatus))
+                .marginDistribution(awaitWidget(WIDGET_MARGIN_DISTRIBUTION, cacheKey, marginDistribution, deadline,
+                        degradedWidgets, this::emptyMarginDistribution))
+                .revenueSummary(awaitWidget(WIDGET_REVENUE_SUMMARY, cacheKey, revenueSummary, deadline,
+                        degradedWidgets, this::emptyRevenueSummary))
+                .employeeStatus(awaitWidget(WIDGET_EMPLOYEE_STATUS, cacheKey, employeeStatus, deadline,
+                        degradedWidgets, this::emptyEmployeeStatus))
+                .utilizationRate(awaitWidget(WIDGET_UTILIZATION_RATE, cacheKey, utilizationRate, deadline,
+                        degradedWidgets, this::emptyUtilizationRate))
+                .build();
         
         return DashboardSummaryDTO.builder()
                 .dateRange(dateRange)
-                .widgets(widgetsBuilder.build())
+                .widgets(widgetsDTO)
+                .degradedWidgets(degradedWidgets)
                 .build();
     }
     
+    /**
+     * Get a widget from the cache, or build it on the dashboard executor inside its own read-only transaction
+     */
+    private <T> Future<T> submitWidget(String name, String cacheKey, Supplier<T> widget) {
+        return dashboardWidgetCache.get(name, name + "|" + cacheKey, () -> {
+            try {
+                return dashboardExecutor.submit(() -> readOnlyTransactionTemplate.execute(status -> widget.get()));
+            } catch (TaskRejectedException e) {
+                // Executor saturated: report the widget as degraded rather than queueing without bound
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+    
+    /**
+     * Key of the data a user can see: users holding the same authorities see the same widgets,
+     * unless they hold a read authority scoped to anything other than all records ({@code :team},
+     * {@code :own}, {@code :assigned}, ...). Services apply such a scope even alongside {@code :all}.
+     */
+    @Override
+    public String getScopeKey(Authentication authentication, Long currentUserId) {
+        Set<String> authorities = new TreeSet<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        boolean userSpecific = authorities.stream()
+                .map(a -> a.split(":"))
+                .anyMatch(parts -> parts.length == 3 && "read".equals(parts[1]) && !"all".equals(parts[2]));
+        String key = String.join(",", authorities);
+        return userSpecific ? key + "|user:" + currentUserId : key;
+    }
+    
+    /**
+     * Wait for a widget until the shared deadline
+     *
+     * @return the widget data, the fallback data if it failed or timed out, or null if it was not requested
+     */
+    private <T> T awaitWidget(String name, String cacheKey, Future<T> future, long deadline,
+                              List<String> degradedWidgets, Supplier<T> fallback) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The computation may be shared with other requests; it keeps running and is cached once done
+            log.warn("Dashboard widget {} did not complete within {} ms", name, widgetTimeoutMs);
+        } catch (ExecutionException e) {
+            dashboardWidgetCache.evict(name + "|" + cacheKey, future);
+            log.error("Failed to build dashboard widget {}: {}", name, e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        degradedWidgets.add(name);
+        return fallback.get();
+    }
+    
     /**
      * Build opportunity status widget data
      */
@@ -120,95 +233,83 @@ public class DashboardServiceImpl implements DashboardService {
             LocalDate fromDate, LocalDate toDate, Long teamId, 
             Long currentUserId, Authentication authentication) {
         
-        try {
-            // Build request for opportunity list
-            ListOpportunitiesRequest request = new ListOpportunitiesRequest();
-            request.setFromDate(fromDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
-            request.setToDate(toDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
-            request.setPage(1);
-            request.setSize(1000); // Get large number to get all opportunities for summary
-            request.setSortBy("lastInteractionDate");
-            request.setSortDir("desc");
-            
-            // Get opportunities from service
-            ListOpportunitiesResponse response = opportunityService.getOpportunities(request);
-            OpportunitySummaryDTO summary = response.getSummary();
-            List<OpportunityDTO> opportunities = response.getContent();
-            
-            // Extract status counts from byStatus map (using green/yellow/red based on status)
-            int greenCount = summary.getByStatus().getOrDefault("won", 0) + 
-                           summary.getByStatus().getOrDefault("qualified", 0);
-            int yellowCount = summary.getByStatus().getOrDefault("proposal", 0) + 
-                            summary.getByStatus().getOrDefault("negotiation", 0);
-            int redCount = summary.getByStatus().getOrDefault("lost", 0) + 
-                         summary.getByStatus().getOrDefault("new", 0);
-            
-            // Build by status
-            OpportunityStatusDTO.ByStatusDTO byStatus = OpportunityStatusDTO.ByStatusDTO.builder()
-                    .green(greenCount)
-                    .yellow(yellowCount)
-                    .red(redCount)
-                    .build();
-            
-            // Build by deal stage from byStatus map
-            List<OpportunityStatusDTO.DealStageDTO> byDealStage = Arrays.asList(
-                    OpportunityStatusDTO.DealStageDTO.builder()
-                            .stage("New")
-                            .count(summary.getByStatus().getOrDefault("new", 0))
-                            .build(),
-                    OpportunityStatusDTO.DealStageDTO.builder()
-                            .stage("Contacted")
-                            .count(summary.getByStatus().getOrDefault("contacted", 0))
-                            .build(),
-                    OpportunityStatusDTO.DealStageDTO.builder()
-                            .stage("Qualified")
-                            .count(summary.getByStatus().getOrDefault("qualified", 0))
-                            .build(),
-                    OpportunityStatusDTO.DealStageDTO.builder()
-                            .stage("Proposal")
-                            .count(summary.getByStatus().getOrDefault("proposal", 0))
-                            .build(),
-                    OpportunityStatusDTO.DealStageDTO.builder()
-                            .stage("Negotiation")
-                            .count(summary.getByStatus().getOrDefault("negotiation", 0))
-                            .build(),
-                    OpportunityStatusDTO.DealStageDTO.builder()
-                            .stage("Won")
-                            .count(summary.getByStatus().getOrDefault("won", 0))
-                            .build()
-            );
-            
-            // Get top opportunities (first 5)
-            List<OpportunityStatusDTO.TopOpportunityDTO> topOpportunities = opportunities.stream()
-                    .limit(5)
-                    .map(opp -> OpportunityStatusDTO.TopOpportunityDTO.builder()
-                            .id(opp.getId().intValue())
-                            .name(opp.getName())
-                            .customer(opp.getCustomerName())
-                            .value(opp.getAmount() != null ? opp.getAmount().longValue() : 0L)
-                            .stage(opp.getStatus())
-                            .lastInteraction(opp.getLastInteractionDate() != null ? 
-                                    opp.getLastInteractionDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                            .build())
-                    .collect(Collectors.toList());
-            
-            return OpportunityStatusDTO.builder()
-                    .totalOpportunities(summary.getTotalCount())
-                    .byStatus(byStatus)
-                    .byDealStage(byDealStage)
-                    .topOpportunities(topOpportunities)
-                    .build();
-            
-        } catch (Exception e) {
-            // Return fallback data if error occurs
-            return OpportunityStatusDTO.builder()
-                    .totalOpportunities(0)
-                    .byStatus(OpportunityStatusDTO.ByStatusDTO.builder()
-                            .green(0).yellow(0).red(0).build())
-                    .byDealStage(Collections.emptyList())
-                    .topOpportunities(Collections.emptyList())
-                    .build();
-        }
+        // Build request for opportunity list
+        ListOpportunitiesRequest request = new ListOpportunitiesRequest();
+        request.setFromDate(fromDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        request.setToDate(toDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        request.setPage(1);
+        request.setSize(1000); // Get large number to get all opportunities for summary
+        request.setSortBy("lastInteractionDate");
+        request.setSortDir("desc");
+        
+        // Get opportunities from service
+        ListOpportunitiesResponse response = opportunityService.getOpportunities(request);
+        OpportunitySummaryDTO summary = response.getSummary();
+        List<OpportunityDTO> opportunities = response.getContent();
+        
+        // Extract status counts from byStatus map (using green/yellow/red based on status)
+        int greenCount = summary.getByStatus().getOrDefault("won", 0) + 
+                       summary.getByStatus().getOrDefault("qualified", 0);
+        int yellowCount = summary.getByStatus().getOrDefault("proposal", 0) + 
+                        summary.getByStatus().getOrDefault("negotiation", 0);
+        int redCount = summary.getByStatus().getOrDefault("lost", 0) + 
+                     summary.getByStatus().getOrDefault("new", 0);
+        
+        // Build by status
+        OpportunityStatusDTO.ByStatusDTO byStatus = OpportunityStatusDTO.ByStatusDTO.builder()
+                .green(greenCount)
+                .yellow(yellowCount)
+                .red(redCount)
+                .build();
+        
+        // Build by deal stage from byStatus map
+        List<OpportunityStatusDTO.DealStageDTO> byDealStage = Arrays.asList(
+                OpportunityStatusDTO.DealStageDTO.builder()
+                        .stage("New")
+                        .count(summary.getByStatus().getOrDefault("new", 0))
+                        .build(),
+                OpportunityStatusDTO.DealStageDTO.builder()
+                        .stage("Contacted")
+                        .count(summary.getByStatus().getOrDefault("contacted", 0))
+                        .build(),
+                OpportunityStatusDTO.DealStageDTO.builder()
+                        .stage("Qualified")
+                        .count(summary.getByStatus().getOrDefault("qualified", 0))
+                        .build(),
+                OpportunityStatusDTO.DealStageDTO.builder()
+                        .stage("Proposal")
+                        .count(summary.getByStatus().getOrDefault("proposal", 0))
+                        .build(),
+                OpportunityStatusDTO.DealStageDTO.builder()
+                        .stage("Negotiation")
+                        .count(summary.getByStatus().getOrDefault("negotiation", 0))
+                        .build(),
+                OpportunityStatusDTO.DealStageDTO.builder()
+                        .stage("Won")
+                        .count(summary.getByStatus().getOrDefault("won", 0))
+                        .build()
+        );
+        
+        // Get top opportunities (first 5)
+        List<OpportunityStatusDTO.TopOpportunityDTO> topOpportunities = opportunities.stream()
+                .limit(5)
+                .map(opp -> OpportunityStatusDTO.TopOpportunityDTO.builder()
+                        .id(opp.getId().intValue())
+                        .name(opp.getName())
+                        .customer(opp.getCustomerName())
+                        .value(opp.getAmount() != null ? opp.getAmount().longValue() : 0L)
+                        .stage(opp.getStatus())
+                        .lastInteraction(opp.getLastInteractionDate() != null ? 
+                                opp.getLastInteractionDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
+                        .build())
+                .collect(Collectors.toList());
+        
+        return OpportunityStatusDTO.builder()
+                .totalOpportunities(summary.getTotalCount())
+                .byStatus(byStatus)
+                .byDealStage(byDealStage)
+                .topOpportunities(topOpportunities)
+                .build();
     }
     
     /**
@@ -218,132 +319,44 @@ public class DashboardServiceImpl implements DashboardService {
             LocalDate fromDate, LocalDate toDate, Long teamId, 
             Long currentUserId, Authentication authentication) {
         
-        try {
-            // Get margin summary from margin service
-            MarginSummaryDTO marginSummary = marginService.getMarginSummary(
-                    teamId, 
-                    "month", 
-                    fromDate, 
-                    toDate, 
-                    null, 
-                    null, 
-                    null, 
-                    "table", 
-                    "status"
-            );
-            
-            // Get margin thresholds
-            Map<String, BigDecimal> thresholds = marginService.getMarginThresholds();
-            
-            // Get employee margins to calculate distribution
-            Pageable pageable = PageRequest.of(0, 1000); // Get large number for summary
-            Page<EmployeeMarginDTO> employeeMargins = marginService.getEmployeeMargins(
-                    null, 
-                    teamId, 
-                    "month", 
-                    fromDate, 
-                    toDate, 
-                    null, 
-                    null, 
-                    null, 
-                    null, 
-                    pageable
-            );
-            
-            // Calculate distribution counts
-            int totalEmployees = (int) employeeMargins.getTotalElements();
-            int redCount = 0, yellowCount = 0, greenCount = 0;
-            
-            for (EmployeeMarginDTO emp : employeeMargins.getContent()) {
-                // Get the most recent margin status
-                if (!emp.getPeriods().isEmpty()) {
-                    String status = emp.getPeriods().get(emp.getPeriods().size() - 1).getMarginStatus();
-                    switch (status.toLowerCase()) {
-                        case "red": redCount++; break;
-                        case "yellow": yellowCount++; break;
-                        case "green": greenCount++; break;
-                    }
-                }
-            }
-            
-            // Build distribution
-            MarginDistributionDTO.DistributionDTO distribution = MarginDistributionDTO.DistributionDTO.builder()
-                    .green(MarginDistributionDTO.DistributionCategoryDTO.builder()
-                            .count(greenCount)
-                            .percentage(totalEmployees > 0 ? (double) greenCount * 100 / totalEmployees : 0.0)
-                            .build())
-                    .yellow(MarginDistributionDTO.DistributionCategoryDTO.builder()
-                            .count(yellowCount)
-                            .percentage(totalEmployees > 0 ? (double) yellowCount * 100 / totalEmployees : 0.0)
-                            .build())
-                    .red(MarginDistributionDTO.DistributionCategoryDTO.builder()
-                            .count(redCount)
-                            .percentage(totalEmployees > 0 ? (double) redCount * 100 / totalEmployees : 0.0)
-                            .build())
-                    .build();
-            
-            // Build trend data (last 6 months)
-            List<MarginDistributionDTO.TrendItemDTO> trend = new ArrayList<>();
-            LocalDate trendEndDate = toDate; // Use toDate from parameters as the end point for the trend calculation
-
-            for (int i = 0; i < 6; i++) {
-                LocalDate monthEndDate = trendEndDate.minusMonths(i);
-                LocalDate monthStartDate = monthEndDate.withDayOfMonth(1);
-                
-                try {
-                    MarginSummaryDTO monthlySummary = marginService.getMarginSummary(
-                            teamId,
-                            "month",
-                            monthStartDate,
-                            monthEndDate,
-                            null,
-                            null,
-                            null,
-                            "table", // Assuming "table" is suitable for this context
-                            "status" // Assuming "status" is suitable
-                    );
-                    
-                    double monthlyAverageMargin = 0.0;
-                    if (monthlySummary != null && 
-                        monthlySummary.getSummary() != null && 
-                        monthlySummary.getSummary().getAverageMargin() != null) {
-                        monthlyAverageMargin = monthlySummary.getSummary().getAverageMargin().doubleValue();
-                    }
-                    
-                    trend.add(MarginDistributionDTO.TrendItemDTO.builder()
-                            .month(monthEndDate.format(DateTimeFormatter.ofPattern("yyyy-MM")))
-                            .value(monthlyAverageMargin)
-                            .build());
-                } catch (Exception e) {
-                    // Log error or handle as needed, e.g., add a default/error trend item
-                    // For now, just print a message and add a zero-value trend item
-                    System.err.println("Error fetching margin summary for month " + monthEndDate.format(DateTimeFormatter.ofPattern("yyyy-MM")) + ": " + e.getMessage());
-                    trend.add(MarginDistributionDTO.TrendItemDTO.builder()
-                            .month(monthEndDate.format(DateTimeFormatter.ofPattern("yyyy-MM")))
-                            .value(0.0) // Default to 0 if error
-                            .build());
-                }
-            }
-            Collections.reverse(trend); // Ensure the trend is in chronological order
-            
-            return MarginDistributionDTO.builder()
-                    .totalEmployees(totalEmployees)
-                    .distribution(distribution)
-                    .trend(trend)
-                    .build();
-            
-        } catch (Exception e) {
-            // Return fallback data if error occurs
-            return MarginDistributionDTO.builder()
-                    .totalEmployees(0)
-                    .distribution(MarginDistributionDTO.DistributionDTO.builder()
-                            .green(MarginDistributionDTO.DistributionCategoryDTO.builder().count(0).percentage(0.0).build())
-                            .yellow(MarginDistributionDTO.DistributionCategoryDTO.builder().count(0).percentage(0.0).build())
-                            .red(MarginDistributionDTO.DistributionCategoryDTO.builder().count(0).percentage(0.0).build())
-                            .build())
-                    .trend(Collections.emptyList())
-                    .build();
-        }
+        // Last 6 months up to toDate, computed together; the distribution is that of the last month
+        MarginTrendDTO marginTrend = marginService.getMarginTrend(
+                teamId, 
+                toDate.format(DateTimeFormatter.ofPattern("yyyy-MM")), 
+                6
+        );
+        
+        List<MarginTrendDTO.MonthDTO> months = marginTrend.getMonths();
+        MarginTrendDTO.MonthDTO lastMonth = months.get(months.size() - 1);
+        int totalEmployees = lastMonth.getEmployeeCount();
+        
+        // Build distribution
+        MarginDistributionDTO.DistributionDTO distribution = MarginDistributionDTO.DistributionDTO.builder()
+                .green(distributionCategory(lastMonth.getStatusCounts().getOrDefault("Green", 0), totalEmployees))
+                .yellow(distributionCategory(lastMonth.getStatusCounts().getOrDefault("Yellow", 0), totalEmployees))
+                .red(distributionCategory(lastMonth.getStatusCounts().getOrDefault("Red", 0), totalEmployees))
+                .build();
+        
+        // Build trend data (chronological)
+        List<MarginDistributionDTO.TrendItemDTO> trend = months.stream()
+                .map(month -> MarginDistributionDTO.TrendItemDTO.builder()
+                        .month(month.getPeriod())
+                        .value(month.getMargin().doubleValue())
+                        .build())
+                .collect(Collectors.toList());
+        
+        return MarginDistributionDTO.builder()
+                .totalEmployees(totalEmployees)
+                .distribution(distribution)
+                .trend(trend)
+                .build();
+    }
+    
+    private MarginDistributionDTO.DistributionCategoryDTO distributionCategory(int count, int total) {
+        return MarginDistributionDTO.DistributionCategoryDTO.builder()
+                .count(count)
+                .percentage(total > 0 ? (double) count * 100 / total : 0.0)
+                .build();
     }
     
     /**
@@ -353,134 +366,117 @@ public class DashboardServiceImpl implements DashboardService {
             LocalDate fromDate, LocalDate toDate, Long teamId, 
             Long currentUserId, Authentication authentication) {
         
-        try {
-            // Get contract data
-            Pageable pageable = PageRequest.of(0, 1000);
-            Page<ContractDTO> contracts = contractService.searchContracts(
-                    null, null, null, null, null, null, null, 
-                    fromDate, toDate, null, pageable
-            );
-            
-            // Calculate target achievements
-            // TODO: Replace with actual target data source if available.
-            // The following is a simplified calculation for targets and actuals based on total revenue in the period.
-            long monthlyTarget = 0; 
-            long quarterlyTarget = 0;
-            long ytdTarget = 0;
-            long actualMonthlyRevenue = 0;
-            long actualQuarterlyRevenue = 0;
-            long actualYtdRevenue = 0;
+        // Get contract data
+        Pageable pageable = PageRequest.of(0, 1000);
+        Page<ContractDTO> contracts = contractService.searchContracts(
+                null, null, null, null, null, null, null, 
+                fromDate, toDate, null, pageable
+        );
+        
+        // Calculate target achievements
+        // TODO: Replace with actual target data source if available.
+        // The following is a simplified calculation for targets and actuals based on total revenue in the period.
+        long monthlyTarget = 0; 
+        long quarterlyTarget = 0;
+        long ytdTarget = 0;
+        long actualMonthlyRevenue = 0;
+        long actualQuarterlyRevenue = 0;
+        long actualYtdRevenue = 0;
 
-            // Calculate actual revenue for current month, quarter, YTD based on contract sign dates
-            // This assumes revenue is recognized at contract signing for simplicity for this widget.
-            // A more accurate approach would involve payment terms and revenue recognition schedules.
-            LocalDate today = LocalDate.now();
-            LocalDate firstDayOfCurrentMonth = fromDate.withDayOfMonth(1); // Use fromDate from request to determine current month context
-            LocalDate firstDayOfCurrentQuarter = firstDayOfCurrentMonth.with(firstDayOfCurrentMonth.getMonth().firstMonthOfQuarter());
-            LocalDate firstDayOfCurrentYear = firstDayOfCurrentMonth.withDayOfYear(1);
+        // Calculate actual revenue for current month, quarter, YTD based on contract sign dates
+        // This assumes revenue is recognized at contract signing for simplicity for this widget.
+        // A more accurate approach would involve payment terms and revenue recognition schedules.
+        LocalDate today = LocalDate.now();
+        LocalDate firstDayOfCurrentMonth = fromDate.withDayOfMonth(1); // Use fromDate from request to determine current month context
+        LocalDate firstDayOfCurrentQuarter = firstDayOfCurrentMonth.with(firstDayOfCurrentMonth.getMonth().firstMonthOfQuarter());
+        LocalDate firstDayOfCurrentYear = firstDayOfCurrentMonth.withDayOfYear(1);
 
-            actualMonthlyRevenue = contracts.getContent().stream()
-                .filter(c -> c.getSignDate() != null && 
-                             !c.getSignDate().isBefore(firstDayOfCurrentMonth) && 
-                             c.getSignDate().isBefore(firstDayOfCurrentMonth.plusMonths(1)))
-                .mapToLong(c -> c.getAmount() != null ? c.getAmount().longValue() : 0L)
-                .sum();
+        actualMonthlyRevenue = contracts.getContent().stream()
+            .filter(c -> c.getSignDate() != null && 
+                         !c.getSignDate().isBefore(firstDayOfCurrentMonth) && 
+                         c.getSignDate().isBefore(firstDayOfCurrentMonth.plusMonths(1)))
+            .mapToLong(c -> c.getAmount() != null ? c.getAmount().longValue() : 0L)
+            .sum();
 
-            actualQuarterlyRevenue = contracts.getContent().stream()
-                .filter(c -> c.getSignDate() != null && 
-                             !c.getSignDate().isBefore(firstDayOfCurrentQuarter) && 
-                             c.getSignDate().isBefore(firstDayOfCurrentQuarter.plusMonths(3)))
-                .mapToLong(c -> c.getAmount() != null ? c.getAmount().longValue() : 0L)
-                .sum();
+        actualQuarterlyRevenue = contracts.getContent().stream()
+            .filter(c -> c.getSignDate() != null && 
+                         !c.getSignDate().isBefore(firstDayOfCurrentQuarter) && 
+                         c.getSignDate().isBefore(firstDayOfCurrentQuarter.plusMonths(3)))
+            .mapToLong(c -> c.getAmount() != null ? c.getAmount().longValue() : 0L)
+            .sum();
 
-            actualYtdRevenue = contracts.getContent().stream()
-                .filter(c -> c.getSignDate() != null && 
-                             !c.getSignDate().isBefore(firstDayOfCurrentYear) && 
-                             c.getSignDate().isBefore(firstDayOfCurrentYear.plusYears(1)))
-                .mapToLong(c -> c.getAmount() != null ? c.getAmount().longValue() : 0L)
-                .sum();
+        actualYtdRevenue = contracts.getContent().stream()
+            .filter(c -> c.getSignDate() != null && 
+                         !c.getSignDate().isBefore(firstDayOfCurrentYear) && 
+                         c.getSignDate().isBefore(firstDayOfCurrentYear.plusYears(1)))
+            .mapToLong(c -> c.getAmount() != null ? c.getAmount().longValue() : 0L)
+            .sum();
 
-            // Simplified targets based on total revenue in the requested period (fromDate - toDate)
-            // This is a placeholder and should be replaced with actual business targets.
-            if (contracts.getTotalElements() > 0) {
-                 long totalRevenueInPeriod = contracts.getContent().stream()
-                    .mapToLong(contract -> contract.getAmount() != null ? contract.getAmount().longValue() : 0L)
-                    .sum();
-                // Distribute totalRevenueInPeriod as a mock target for month/quarter/year based on the period length.
-                // This is a very rough estimation.
-                long daysInPeriod = java.time.temporal.ChronoUnit.DAYS.between(fromDate, toDate.plusDays(1));
-                if (daysInPeriod > 0) {
-                    monthlyTarget = (long) (totalRevenueInPeriod * (30.0 / daysInPeriod));
-                    quarterlyTarget = (long) (totalRevenueInPeriod * (90.0 / daysInPeriod));
-                    ytdTarget = (long) (totalRevenueInPeriod * (365.0 / daysInPeriod)); 
-                }
+        // Simplified targets based on total revenue in the requested period (fromDate - toDate)
+        // This is a placeholder and should be replaced with actual business targets.
+        if (contracts.getTotalElements() > 0) {
+             long totalRevenueInPeriod = contracts.getContent().stream()
+                .mapToLong(contract -> contract.getAmount() != null ? contract.getAmount().longValue() : 0L)
+                .sum();
+            // Distribute totalRevenueInPeriod as a mock target for month/quarter/year based on the period length.
+            // This is a very rough estimation.
+            long daysInPeriod = java.time.temporal.ChronoUnit.DAYS.between(fromDate, toDate.plusDays(1));
+            if (daysInPeriod > 0) {
+                monthlyTarget = (long) (totalRevenueInPeriod * (30.0 / daysInPeriod));
+                quarterlyTarget = (long) (totalRevenueInPeriod * (90.0 / daysInPeriod));
+                ytdTarget = (long) (totalRevenueInPeriod * (365.0 / daysInPeriod)); 
             }
-
-            // Count new contracts in period
-            int newContractsCount = (int) contracts.getContent().stream()
-                    .filter(contract -> {
-                        LocalDate signedDate = contract.getSignDate();
-                        return signedDate != null && 
-                               !signedDate.isBefore(fromDate) && 
-                               !signedDate.isAfter(toDate);
-                    })
-                    .count();
-            
-            // Get payment information
-            List<ContractPaymentTermDTO> overduePayments = paymentTermService.findOverduePaymentTerms();
-            long overdueAmount = overduePayments.stream()
-                    .mapToLong(payment -> payment.getAmount() != null ? 
-                            payment.getAmount().longValue() : 0L)
-                    .sum();
-            
-            List<ContractPaymentTermDTO> upcomingPayments = paymentTermService.findPaymentTermsDueSoon(30);
-            long upcomingAmount = upcomingPayments.stream()
-                    .mapToLong(payment -> payment.getAmount() != null ? 
-                            payment.getAmount().longValue() : 0L)
-                    .sum();
-            
-            return RevenueSummaryDTO.builder()
-                    .currentMonth(RevenueSummaryDTO.RevenuePeriodDTO.builder()
-                            .target(monthlyTarget) // Placeholder target
-                            .actual(actualMonthlyRevenue)
-                            .achievement(monthlyTarget > 0 ? (double) actualMonthlyRevenue * 100 / monthlyTarget : (actualMonthlyRevenue > 0 ? 100.0 : 0.0))
-                            .build())
-                    .currentQuarter(RevenueSummaryDTO.RevenuePeriodDTO.builder()
-                            .target(quarterlyTarget) // Placeholder target
-                            .actual(actualQuarterlyRevenue)
-                            .achievement(quarterlyTarget > 0 ? (double) actualQuarterlyRevenue * 100 / quarterlyTarget : (actualQuarterlyRevenue > 0 ? 100.0 : 0.0))
-                            .build())
-                    .ytd(RevenueSummaryDTO.RevenuePeriodDTO.builder()
-                            .target(ytdTarget) // Placeholder target
-                            .actual(actualYtdRevenue)
-                            .achievement(ytdTarget > 0 ? (double) actualYtdRevenue * 100 / ytdTarget : (actualYtdRevenue > 0 ? 100.0 : 0.0))
-                            .build())
-                    .contracts(RevenueSummaryDTO.ContractsDTO.builder()
-                            .total((int) contracts.getTotalElements())
-                            .newlyAdded(newContractsCount)
-                            .build())
-                    .payment(RevenueSummaryDTO.PaymentDTO.builder()
-                            .totalDue(overdueAmount + upcomingAmount)
-                            .overdue(overdueAmount)
-                            .upcoming(upcomingAmount)
-                            .build())
-                    .build();
-            
-        } catch (Exception e) {
-            // Return fallback data if error occurs
-            return RevenueSummaryDTO.builder()
-                    .currentMonth(RevenueSummaryDTO.RevenuePeriodDTO.builder()
-                            .target(0L).actual(0L).achievement(0.0).build())
-                    .currentQuarter(RevenueSummaryDTO.RevenuePeriodDTO.builder()
-                            .target(0L).actual(0L).achievement(0.0).build())
-                    .ytd(RevenueSummaryDTO.RevenuePeriodDTO.builder()
-                            .target(0L).actual(0L).achievement(0.0).build())
-                    .contracts(RevenueSummaryDTO.ContractsDTO.builder()
-                            .total(0).newlyAdded(0).build())
-                    .payment(RevenueSummaryDTO.PaymentDTO.builder()
-                            .totalDue(0L).overdue(0L).upcoming(0L).build())
-                    .build();
         }
+
+        // Count new contracts in period
+        int newContractsCount = (int) contracts.getContent().stream()
+                .filter(contract -> {
+                    LocalDate signedDate = contract.getSignDate();
+                    return signedDate != null && 
+                           !signedDate.isBefore(fromDate) && 
+                           !signedDate.isAfter(toDate);
+                })
+                .count();
+        
+        // Get payment information
+        List<ContractPaymentTermDTO> overduePayments = paymentTermService.findOverduePaymentTerms();
+        long overdueAmount = overduePayments.stream()
+                .mapToLong(payment -> payment.getAmount() != null ? 
+                        payment.getAmount().longValue() : 0L)
+                .sum();
+        
+        List<ContractPaymentTermDTO> upcomingPayments = paymentTermService.findPaymentTermsDueSoon(30);
+        long upcomingAmount = upcomingPayments.stream()
+                .mapToLong(payment -> payment.getAmount() != null ? 
+                        payment.getAmount().longValue() : 0L)
+                .sum();
+        
+        return RevenueSummaryDTO.builder()
+                .currentMonth(RevenueSummaryDTO.RevenuePeriodDTO.builder()
+                        .target(monthlyTarget) // Placeholder target
+                        .actual(actualMonthlyRevenue)
+                        .achievement(monthlyTarget > 0 ? (double) actualMonthlyRevenue * 100 / monthlyTarget : (actualMonthlyRevenue > 0 ? 100.0 : 0.0))
+                        .build())
+                .currentQuarter(RevenueSummaryDTO.RevenuePeriodDTO.builder()
+                        .target(quarterlyTarget) // Placeholder target
+                        .actual(actualQuarterlyRevenue)
+                        .achievement(quarterlyTarget > 0 ? (double) actualQuarterlyRevenue * 100 / quarterlyTarget : (actualQuarterlyRevenue > 0 ? 100.0 : 0.0))
+                        .build())
+                .ytd(RevenueSummaryDTO.RevenuePeriodDTO.builder()
+                        .target(ytdTarget) // Placeholder target
+                        .actual(actualYtdRevenue)
+                        .achievement(ytdTarget > 0 ? (double) actualYtdRevenue * 100 / ytdTarget : (actualYtdRevenue > 0 ? 100.0 : 0.0))
+                        .build())
+                .contracts(RevenueSummaryDTO.ContractsDTO.builder()
+                        .total((int) contracts.getTotalElements())
+                        .newlyAdded(newContractsCount)
+                        .build())
+                .payment(RevenueSummaryDTO.PaymentDTO.builder()
+                        .totalDue(overdueAmount + upcomingAmount)
+                        .overdue(overdueAmount)
+                        .upcoming(upcomingAmount)
+                        .build())
+                .build();
     }
     
     /**
@@ -490,234 +486,222 @@ public class DashboardServiceImpl implements DashboardService {
             LocalDate fromDate, LocalDate toDate, Long teamId, 
             Long currentUserId, Authentication authentication) {
         
-        try {
-            // Get all employees
-            Pageable pageable = PageRequest.of(0, 1000);
-            Page<EmployeeDto> employees = employeeService.findEmployees(
-                    null, 
-                    teamId != null ? teamId.intValue() : null, 
-                    null, 
-                    null, 
-                    null, 
-                    null, 
-                    null, 
-                    pageable
-            );
-            
-            // Count employees by status
-            int totalEmployees = (int) employees.getTotalElements();
-            int allocatedCount = 0, availableCount = 0, endingSoonCount = 0, onLeaveCount = 0;
-            
-            for (EmployeeDto emp : employees.getContent()) {
-                String status = emp.getCurrentStatus();
-                if (status != null) {
-                    switch (status.toLowerCase()) {
-                        case "allocated": 
-                        case "active": 
-                            allocatedCount++; 
-                            break;
-                        case "available": 
-                        case "bench": 
-                            availableCount++; 
-                            break;
-                        case "ending_soon": 
-                            endingSoonCount++; 
-                            break;
-                        case "on_leave": 
-                        case "leave": 
-                            onLeaveCount++; 
-                            break;
-                    }
+        // Get all employees
+        Pageable pageable = PageRequest.of(0, 1000);
+        Page<EmployeeDto> employees = employeeService.findEmployees(
+                null, 
+                teamId != null ? teamId.intValue() : null, 
+                null, 
+                null, 
+                null, 
+                null, 
+                null, 
+                pageable
+        );
+        
+        // Count employees by status
+        int totalEmployees = (int) employees.getTotalElements();
+        int allocatedCount = 0, availableCount = 0, endingSoonCount = 0, onLeaveCount = 0;
+        
+        for (EmployeeDto emp : employees.getContent()) {
+            String status = emp.getCurrentStatus();
+            if (status != null) {
+                switch (status.toLowerCase()) {
+                    case "allocated": 
+                    case "active": 
+                        allocatedCount++; 
+                        break;
+                    case "available": 
+                    case "bench": 
+                        availableCount++; 
+                        break;
+                    case "ending_soon": 
+                        endingSoonCount++; 
+                        break;
+                    case "on_leave": 
+                    case "leave": 
+                        onLeaveCount++; 
+                        break;
                 }
             }
-            
-            // Get employees ending soon by querying EmployeeStatusLog
-            List<EmployeeStatusDTO.EmployeeBasicDTO> endingSoonList = employees.getContent().stream()
-                    .filter(emp -> "ending_soon".equalsIgnoreCase(emp.getCurrentStatus()))
-                    .limit(5)
-                    .map(emp -> {
-                        EmployeeStatusDTO.EmployeeBasicDTO.EmployeeBasicDTOBuilder builder = EmployeeStatusDTO.EmployeeBasicDTO.builder()
-                                .id(emp.getId().intValue())
-                                .name(emp.getFirstName() + " " + emp.getLastName());
-                        
-                        // Get project end date from latest status log
-                        try {
-                            com.company.internalmgmt.modules.hrm.dto.EmployeeStatusLogDto latestStatus = 
-                                    employeeStatusLogService.findMostRecentByEmployeeId(emp.getId());
-                            if (latestStatus != null && latestStatus.getExpectedEndDate() != null) {
-                                builder.projectEndDate(latestStatus.getExpectedEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
-                            } else {
-                                builder.projectEndDate(null);
-                            }
-                        } catch (Exception e) {
+        }
+        
+        // Get employees ending soon by querying EmployeeStatusLog
+        List<EmployeeStatusDTO.EmployeeBasicDTO> endingSoonList = employees.getContent().stream()
+                .filter(emp -> "ending_soon".equalsIgnoreCase(emp.getCurrentStatus()))
+                .limit(5)
+                .map(emp -> {
+                    EmployeeStatusDTO.EmployeeBasicDTO.EmployeeBasicDTOBuilder builder = EmployeeStatusDTO.EmployeeBasicDTO.builder()
+                            .id(emp.getId().intValue())
+                            .name(emp.getFirstName() + " " + emp.getLastName());
+                    
+                    // Get project end date from latest status log
+                    try {
+                        com.company.internalmgmt.modules.hrm.dto.EmployeeStatusLogDto latestStatus = 
+                                employeeStatusLogService.findMostRecentByEmployeeId(emp.getId());
+                        if (latestStatus != null && latestStatus.getExpectedEndDate() != null) {
+                            builder.projectEndDate(latestStatus.getExpectedEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+                        } else {
                             builder.projectEndDate(null);
                         }
-                        
-                        return builder.build();
-                    })
-                    .collect(Collectors.toList());
-            
-            return EmployeeStatusDTO.builder()
-                    .totalEmployees(totalEmployees)
-                    .byStatus(EmployeeStatusDTO.ByStatusDTO.builder()
-                            .allocated(allocatedCount)
-                            .available(availableCount)
-                            .endingSoon(endingSoonCount)
-                            .onLeave(onLeaveCount)
-                            .build())
-                    .endingSoonList(endingSoonList)
-                    .build();
-            
-        } catch (Exception e) {
-            // Return fallback data if error occurs
-            return EmployeeStatusDTO.builder()
-                    .totalEmployees(0)
-                    .byStatus(EmployeeStatusDTO.ByStatusDTO.builder()
-                            .allocated(0).available(0).endingSoon(0).onLeave(0).build())
-                    .endingSoonList(Collections.emptyList())
-                    .build();
-        }
+                    } catch (Exception e) {
+                        builder.projectEndDate(null);
+                    }
+                    
+                    return builder.build();
+                })
+                .collect(Collectors.toList());
+        
+        return EmployeeStatusDTO.builder()
+                .totalEmployees(totalEmployees)
+                .byStatus(EmployeeStatusDTO.ByStatusDTO.builder()
+                        .allocated(allocatedCount)
+                        .available(availableCount)
+                        .endingSoon(endingSoonCount)
+                        .onLeave(onLeaveCount)
+                        .build())
+                .endingSoonList(endingSoonList)
+                .build();
     }
     
     /**
-     * Build utilization rate widget data
+     * Build utilization rate widget data: current month overall and the last six months as trend
+     * from the monthly utilization snapshots, per team from the current statuses
      */
     private UtilizationRateDTO buildUtilizationRate(
             LocalDate fromDate, LocalDate toDate, Long teamId, 
             Long currentUserId, Authentication authentication) {
         
-        try {
-            // Get all active employees (not resigned/terminated)
-            // Assuming "active", "allocated", "available", "ending_soon", "on_leave" are active states
-            // and "resigned", "terminated" are inactive.
-            // For simplicity, let's consider all employees returned by default findEmployees as potentially active.
-            // A more precise filter might be needed based on actual status values.
-            Pageable allEmployeesPageable = PageRequest.of(0, Integer.MAX_VALUE); // Get all
-            Page<EmployeeDto> allActiveEmployeesPage = employeeService.findEmployees(
-                    null, null, null, null, null, null, null, allEmployeesPageable
-            );
-            List<EmployeeDto> allActiveEmployeesList = allActiveEmployeesPage.getContent();
-            long totalActiveEmployees = allActiveEmployeesList.stream()
-                .filter(emp -> emp.getCurrentStatus() != null && 
-                               !emp.getCurrentStatus().equalsIgnoreCase("Resigned") &&
-                               !emp.getCurrentStatus().equalsIgnoreCase("Terminated"))
-                .count();
-
-            // Get allocated employees
-            long allocatedEmployeesCount = allActiveEmployeesList.stream()
-                    .filter(emp -> emp.getCurrentStatus() != null && 
-                                   (emp.getCurrentStatus().equalsIgnoreCase("Allocated") || 
-                                    emp.getCurrentStatus().equalsIgnoreCase("Active"))) // Assuming "Active" also means allocated
-                    .count();
-            
-            double overallUtilization = totalActiveEmployees > 0 ? 
-                    (double) allocatedEmployeesCount * 100 / totalActiveEmployees : 0.0;
-            
-            // Build team utilization list
-            List<com.company.internalmgmt.modules.hrm.dto.TeamDto> teams = teamService.getAllTeams();
-            List<UtilizationRateDTO.TeamUtilizationDTO> teamUtilizations = teams.stream().map(t -> {
-                Page<EmployeeDto> teamEmployeesPage = employeeService.findEmployees(
-                        null, t.getId().intValue(), null, null, null, null, null, allEmployeesPageable
-                );
-                List<EmployeeDto> teamEmployeesList = teamEmployeesPage.getContent();
-
-                long totalActiveInTeam = teamEmployeesList.stream()
-                    .filter(emp -> emp.getCurrentStatus() != null &&
-                                   !emp.getCurrentStatus().equalsIgnoreCase("Resigned") &&
-                                   !emp.getCurrentStatus().equalsIgnoreCase("Terminated"))
-                    .count();
-                
-                long allocatedInTeam = teamEmployeesList.stream()
-                        .filter(emp -> emp.getCurrentStatus() != null &&
-                                       (emp.getCurrentStatus().equalsIgnoreCase("Allocated") ||
-                                        emp.getCurrentStatus().equalsIgnoreCase("Active")))
-                        .count();
-                
-                double teamRate = totalActiveInTeam > 0 ? 
-                        (double) allocatedInTeam * 100 / totalActiveInTeam : 0.0;
-                
-                return UtilizationRateDTO.TeamUtilizationDTO.builder()
-                        .team(t.getName())
-                        .rate(teamRate)
-                        .build();
-            }).collect(Collectors.toList());
-
-            // Build trend data (last 6 months)
-            List<UtilizationRateDTO.UtilizationTrendDTO> trendData = new ArrayList<>();
-            LocalDate currentTrendMonth = LocalDate.now(); // Start from the current month for the trend
-
-            for (int i = 0; i < 6; i++) {
-                LocalDate loopMonth = currentTrendMonth.minusMonths(i);
-                // For calculating utilization, we typically look at the state at a point in time
-                // or an average over a period. For simplicity, we'll re-calculate overall utilization
-                // as if it were for that past month. This might need more sophisticated historical tracking in a real system.
-
-                // Recalculate overall utilization for the specific month (loopMonth)
-                // This is still using current statuses. A real implementation needs to check statuses as of 'loopMonth'
-                // The following is an approximation for trend calculation as EmployeeDto reflects current state,
-                // and we don't have easy access to historical monthly snapshots of every employee's status for past months.
-                long monthlyTotalActiveEmployees = 0;
-                long monthlyAllocatedEmployeesCount = 0;
-                double monthlyOverallUtilization = 0.0;
-
-                try {
-                    // Note: employeeService.findEmployees doesn't directly support historical queries by date.
-                    // The following logic assumes current employee statuses reflect the past, which is an approximation.
-                    // For accurate historical trend, you would need to query historical employee status data (e.g., from EmployeeStatusLogTable for each employee active in that month)
-                    
-                    Pageable allEmployeesPageableForTrend = PageRequest.of(0, Integer.MAX_VALUE);
-                    Page<EmployeeDto> allActiveEmployeesPageForTrend = employeeService.findEmployees(
-                            null, null, null, null, null, null, null, allEmployeesPageableForTrend
-                    );
-                    List<EmployeeDto> allActiveEmployeesListForTrend = allActiveEmployeesPageForTrend.getContent();
-
-                    // This is still using current statuses. A real implementation needs to check statuses as of 'loopMonth'
-                    // The following is an approximation for trend calculation as EmployeeDto reflects current state,
-                    // and we don't have easy access to historical monthly snapshots of every employee's status for past months.
-                    monthlyTotalActiveEmployees = allActiveEmployeesListForTrend.stream()
-                        .filter(emp -> emp.getCurrentStatus() != null && 
-                                       !emp.getCurrentStatus().equalsIgnoreCase("Resigned") &&
-                                       !emp.getCurrentStatus().equalsIgnoreCase("Terminated") &&
-                                       (emp.getHireDate() == null || !emp.getHireDate().isAfter(loopMonth.withDayOfMonth(loopMonth.lengthOfMonth()))))
-                        .count();
-
-                    monthlyAllocatedEmployeesCount = allActiveEmployeesListForTrend.stream()
-                            .filter(emp -> emp.getCurrentStatus() != null && 
-                                           (emp.getCurrentStatus().equalsIgnoreCase("Allocated") || 
-                                            emp.getCurrentStatus().equalsIgnoreCase("Active")) &&
-                                           (emp.getHireDate() == null || !emp.getHireDate().isAfter(loopMonth.withDayOfMonth(loopMonth.lengthOfMonth()))))
-                            .count();
-
-                    monthlyOverallUtilization = monthlyTotalActiveEmployees > 0 ? 
-                            (double) monthlyAllocatedEmployeesCount * 100 / monthlyTotalActiveEmployees : 0.0;
-
-                } catch (Exception e) {
-                    System.err.println("Error calculating utilization for trend for month " + loopMonth.format(DateTimeFormatter.ofPattern("yyyy-MM")) + ": " + e.getMessage());
-                    monthlyOverallUtilization = 0.0; // Default to 0 if error
-                }
-
-                trendData.add(UtilizationRateDTO.UtilizationTrendDTO.builder()
-                        .month(loopMonth.format(DateTimeFormatter.ofPattern("yyyy-MM")))
-                        .value(monthlyOverallUtilization)
-                        .build());
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth firstTrendMonth = currentMonth.minusMonths(5);
+        List<UtilizationSnapshot> snapshots = utilizationSnapshotService.getSnapshots(firstTrendMonth, currentMonth);
+        
+        // Active and allocated head count per month
+        Map<YearMonth, long[]> totalsByMonth = new HashMap<>();
+        for (UtilizationSnapshot snapshot : snapshots) {
+            long[] totals = totalsByMonth.computeIfAbsent(YearMonth.of(snapshot.getYear(), snapshot.getMonth()), k -> new long[2]);
+            totals[0] += snapshot.getActiveCount();
+            totals[1] += snapshot.getAllocatedCount();
+        }
+        
+        // Build trend data (last 6 months, chronological)
+        List<UtilizationRateDTO.UtilizationTrendDTO> trendData = new ArrayList<>();
+        for (YearMonth month = firstTrendMonth; !month.isAfter(currentMonth); month = month.plusMonths(1)) {
+            trendData.add(UtilizationRateDTO.UtilizationTrendDTO.builder()
+                    .month(month.format(DateTimeFormatter.ofPattern("yyyy-MM")))
+                    .value(utilizationRate(totalsByMonth.get(month)))
+                    .build());
+        }
+        
+        return UtilizationRateDTO.builder()
+                .overall(utilizationRate(totalsByMonth.get(currentMonth)))
+                .byTeam(getTeamUtilization())
+                .trend(trendData)
+                .build();
+    }
+    
+    @Override
+    public List<UtilizationRateDTO.TeamUtilizationDTO> getTeamUtilization() {
+        // Rows come grouped by team; fold each team's status counts into [active, allocated]
+        Map<Long, String> teamNames = new LinkedHashMap<>();
+        Map<Long, long[]> countsByTeam = new HashMap<>();
+        for (Object[] row : teamRepository.countEmployeesByTeamAndStatus()) {
+            Long teamId = (Long) row[0];
+            String status = (String) row[2];
+            long count = ((Number) row[3]).longValue();
+            teamNames.put(teamId, (String) row[1]);
+            long[] counts = countsByTeam.computeIfAbsent(teamId, k -> new long[2]);
+            if (UtilizationSnapshot.isActiveStatus(status)) {
+                counts[0] += count;
+            }
+            if (UtilizationSnapshot.isAllocatedStatus(status)) {
+                counts[1] += count;
             }
-            Collections.reverse(trendData); // Ensure chronological order
-            
-            return UtilizationRateDTO.builder()
-                    .overall(overallUtilization)
-                    .byTeam(teamUtilizations)
-                    .trend(trendData)
-                    .build();
-            
-        } catch (Exception e) {
-            // Log the exception
-            // log.error("Error building utilization rate widget: {}", e.getMessage(), e);
-            // Return fallback data if error occurs
-            return UtilizationRateDTO.builder()
-                    .overall(0.0)
-                    .byTeam(Collections.emptyList())
-                    .trend(Collections.emptyList())
-                    .build();
         }
+        
+        List<UtilizationRateDTO.TeamUtilizationDTO> teamUtilizations = new ArrayList<>();
+        for (Map.Entry<Long, String> team : teamNames.entrySet()) {
+            teamUtilizations.add(UtilizationRateDTO.TeamUtilizationDTO.builder()
+                    .team(team.getValue())
+                    .rate(utilizationRate(countsByTeam.get(team.getKey())))
+                    .build());
+        }
+        return teamUtilizations;
+    }
+    
+    /**
+     * Allocated employees as a percentage of active employees, from an [active, allocated] pair
+     */
+    private double utilizationRate(long[] counts) {
+        return counts != null && counts[0] > 0 ? (double) counts[1] * 100 / counts[0] : 0.0;
+    }
+    
+    /**
+     * Empty opportunity status widget data, shown when the widget cannot be built
+     */
+    private OpportunityStatusDTO emptyOpportunityStatus() {
+        return OpportunityStatusDTO.builder()
+                .totalOpportunities(0)
+                .byStatus(OpportunityStatusDTO.ByStatusDTO.builder()
+                        .green(0).yellow(0).red(0).build())
+                .byDealStage(Collections.emptyList())
+                .topOpportunities(Collections.emptyList())
+                .build();
+    }
+    
+    /**
+     * Empty margin distribution widget data, shown when the widget cannot be built
+     */
+    private MarginDistributionDTO emptyMarginDistribution() {
+        return MarginDistributionDTO.builder()
+                .totalEmployees(0)
+                .distribution(MarginDistributionDTO.DistributionDTO.builder()
+                        .green(MarginDistributionDTO.DistributionCategoryDTO.builder().count(0).percentage(0.0).build())
+                        .yellow(MarginDistributionDTO.DistributionCategoryDTO.builder().count(0).percentage(0.0).build())
+                        .red(MarginDistributionDTO.DistributionCategoryDTO.builder().count(0).percentage(0.0).build())
+                        .build())
+                .trend(Collections.emptyList())
+                .build();
+    }
+    
+    /**
+     * Empty revenue summary widget data, shown when the widget cannot be built
+     */
+    private RevenueSummaryDTO emptyRevenueSummary() {
+        return RevenueSummaryDTO.builder()
+                .currentMonth(RevenueSummaryDTO.RevenuePeriodDTO.builder()
+                        .target(0L).actual(0L).achievement(0.0).build())
+                .currentQuarter(RevenueSummaryDTO.RevenuePeriodDTO.builder()
+                        .target(0L).actual(0L).achievement(0.0).build())
+                .ytd(RevenueSummaryDTO.RevenuePeriodDTO.builder()
+                        .target(0L).actual(0L).achievement(0.0).build())
+                .contracts(RevenueSummaryDTO.ContractsDTO.builder()
+                        .total(0).newlyAdded(0).build())
+                .payment(RevenueSummaryDTO.PaymentDTO.builder()
+                        .totalDue(0L).overdue(0L).upcoming(0L).build())
+                .build();
+    }
+    
+    /**
+     * Empty employee status widget data, shown when the widget cannot be built
+     */
+    private EmployeeStatusDTO emptyEmployeeStatus() {
+        return EmployeeStatusDTO.builder()
+                .totalEmployees(0)
+                .byStatus(EmployeeStatusDTO.ByStatusDTO.builder()
+                        .allocated(0).available(0).endingSoon(0).onLeave(0).build())
+                .endingSoonList(Collections.emptyList())
+                .build();
+    }
+    
+    /**
+     * Empty utilization rate widget data, shown when the widget cannot be built
+     */
+    private UtilizationRateDTO emptyUtilizationRate() {
+        return UtilizationRateDTO.builder()
+                .overall(0.0)
+                .byTeam(Collections.emptyList())
+                .trend(Collections.emptyList())
+                .build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,410 @@
+package com.company.internalmgmt.modules.dashboard.service.impl;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.company.internalmgmt.common.exception.BadRequestException;
+import com.company.internalmgmt.common.exception.SystemException;
+import com.company.internalmgmt.modules.dashboard.config.DashboardExecutorConfig;
+import com.company.internalmgmt.modules.dashboard.dto.DashboardStreamDeltaDTO;
+import com.company.internalmgmt.modules.dashboard.dto.DashboardSummaryDTO;
+import com.company.internalmgmt.modules.dashboard.service.DashboardService;
+import com.company.internalmgmt.modules.dashboard.service.DashboardStreamService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of DashboardStreamService.
+ * Streams showing the same widgets for the same visibility scope and team form one group: a data
+ * change recomputes the affected widgets once per group, through the shared widget cache, and only
+ * the sections that differ from what the group last sent are pushed to its subscribers.
+ * Each subscriber sends on the stream executor and keeps at most one pending value per widget,
+ * so a slow client receives the latest data late instead of buffering every change; a client that
+ * stays blocked on a send longer than the stall timeout is disconnected.
+ */
+@Slf4j
+@Service
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+
+    private final DashboardService dashboardService;
+    private final TaskExecutor streamExecutor;
+
+    private final Map<String, ScopeGroup> groups = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Value("${app.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.dashboard.stream.max-subscribers:500}")
+    private int maxSubscribers;
+
+    @Value("${app.dashboard.stream.stall-timeout-ms:30000}")
+    private long stallTimeoutMs;
+
+    public DashboardStreamServiceImpl(
+            DashboardService dashboardService,
+            @Qualifier(DashboardExecutorConfig.DASHBOARD_STREAM_EXECUTOR) TaskExecutor streamExecutor) {
+        this.dashboardService = dashboardService;
+        this.streamExecutor = streamExecutor;
+    }
+
+    @Override
+    public SseEmitter subscribe(Long teamId, List<String> widgets, Long currentUserId, Authentication authentication) {
+        Set<String> streamed = new TreeSet<>(widgets);
+        streamed.retainAll(DashboardService.ALL_WIDGETS);
+        if (streamed.isEmpty()) {
+            throw new BadRequestException("At least one known widget is required: " + DashboardService.ALL_WIDGETS);
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SystemException("Too many open dashboard streams, please retry later");
+        }
+
+        String key = dashboardService.getScopeKey(authentication, currentUserId) + "|" + teamId + "|" + String.join(",", streamed);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        ScopeGroup group = groups.compute(key, (k, existing) -> {
+            ScopeGroup target = existing != null
+                    ? existing
+                    : new ScopeGroup(k, teamId, new ArrayList<>(streamed), currentUserId, authentication);
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        subscriber.group = group;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // The first event is the full summary, from the same cache the group is refreshed from
+        DashboardSummaryDTO summary;
+        try {
+            summary = summarize(group, group.widgets);
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        for (Map.Entry<String, Object> section : sections(summary, group.widgets).entrySet()) {
+            if (summary.getDegradedWidgets().contains(section.getKey())) {
+                // Not ready yet: pushed once it can be built
+                group.retry.add(section.getKey());
+            } else {
+                group.lastSent.putIfAbsent(section.getKey(), section.getValue());
+            }
+        }
+        try {
+            emitter.send(SseEmitter.event().name("summary").data(summary, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dashboard stream closed before the summary was sent: {}", e.getMessage());
+            remove(subscriber);
+            emitter.complete();
+            return emitter;
+        }
+        subscriber.start();
+        log.debug("Dashboard stream opened for {} ({} subscribers)", key, subscriberCount.get());
+        return emitter;
+    }
+
+    @Override
+    public void onWidgetsChanged(Collection<String> widgets) {
+        for (ScopeGroup group : groups.values()) {
+            boolean affected = false;
+            for (String widget : widgets) {
+                if (group.widgets.contains(widget)) {
+                    group.dirty.add(widget);
+                    affected = true;
+                }
+            }
+            if (affected) {
+                scheduleRefresh(group);
+            }
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies, retry widgets that could not be built,
+     * and disconnect clients that stopped reading
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (ScopeGroup group : groups.values()) {
+            if (!group.retry.isEmpty()) {
+                group.dirty.addAll(group.retry);
+                group.retry.clear();
+            }
+            if (!group.dirty.isEmpty()) {
+                scheduleRefresh(group);
+            }
+            for (Subscriber subscriber : group.subscribers) {
+                long since = subscriber.sendingSince;
+                if (since > 0 && now - since > stallTimeoutMs) {
+                    log.info("Closing stalled dashboard stream for {}", group.key);
+                    remove(subscriber);
+                    subscriber.emitter.complete();
+                } else {
+                    subscriber.enqueueHeartbeat();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ScopeGroup group : groups.values()) {
+            for (Subscriber subscriber : group.subscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+        groups.clear();
+    }
+
+    private void scheduleRefresh(ScopeGroup group) {
+        if (!group.refreshing.compareAndSet(false, true)) {
+            // The running refresh picks up the new dirty widgets before it finishes
+            return;
+        }
+        try {
+            streamExecutor.execute(() -> refresh(group));
+        } catch (TaskRejectedException e) {
+            // Executor saturated: the widgets stay dirty and the next heartbeat retries
+            group.refreshing.set(false);
+            log.warn("Dashboard stream refresh rejected for {}", group.key);
+        }
+    }
+
+    /**
+     * Recompute the dirty widgets of a group once and push the sections that changed to every subscriber
+     */
+    private void refresh(ScopeGroup group) {
+        try {
+            while (!group.dirty.isEmpty() && !group.subscribers.isEmpty()) {
+                List<String> widgets = new ArrayList<>(group.dirty);
+                group.dirty.removeAll(widgets);
+
+                DashboardSummaryDTO summary = summarize(group, widgets);
+                Map<String, Object> changed = new LinkedHashMap<>();
+                for (Map.Entry<String, Object> section : sections(summary, widgets).entrySet()) {
+                    if (summary.getDegradedWidgets().contains(section.getKey())) {
+                        group.retry.add(section.getKey());
+                    } else if (!Objects.equals(group.lastSent.put(section.getKey(), section.getValue()), section.getValue())) {
+                        changed.put(section.getKey(), section.getValue());
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    DashboardStreamDeltaDTO delta = DashboardStreamDeltaDTO.builder()
+                            .dateRange(summary.getDateRange())
+                            .sections(changed)
+                            .build();
+                    for (Subscriber subscriber : group.subscribers) {
+                        subscriber.enqueue(delta);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to refresh dashboard stream for {}: {}", group.key, e.getMessage(), e);
+        } finally {
+            group.refreshing.set(false);
+        }
+        // A change may have arrived between the last check and the reset
+        if (!group.dirty.isEmpty() && !group.subscribers.isEmpty()) {
+            scheduleRefresh(group);
+        }
+    }
+
+    /**
+     * Build the given widgets for the default dashboard period, as the group's first subscriber
+     */
+    private DashboardSummaryDTO summarize(ScopeGroup group, List<String> widgets) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(group.authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            LocalDate toDate = LocalDate.now();
+            return dashboardService.getDashboardSummary(
+                    toDate.withDayOfMonth(1), toDate, group.teamId, widgets, group.userId, group.authentication);
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    private static Map<String, Object> sections(DashboardSummaryDTO summary, List<String> widgets) {
+        DashboardSummaryDTO.WidgetsDTO data = summary.getWidgets();
+        Map<String, Object> sections = new LinkedHashMap<>();
+        for (String widget : widgets) {
+            switch (widget) {
+                case DashboardService.WIDGET_OPPORTUNITY_STATUS:
+                    sections.put(widget, data.getOpportunityStatus());
+                    break;
+                case DashboardService.WIDGET_MARGIN_DISTRIBUTION:
+                    sections.put(widget, data.getMarginDistribution());
+                    break;
+                case DashboardService.WIDGET_REVENUE_SUMMARY:
+                    sections.put(widget, data.getRevenueSummary());
+                    break;
+                case DashboardService.WIDGET_EMPLOYEE_STATUS:
+                    sections.put(widget, data.getEmployeeStatus());
+                    break;
+                case DashboardService.WIDGET_UTILIZATION_RATE:
+                    sections.put(widget, data.getUtilizationRate());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return sections;
+    }
+
+    private void remove(Subscriber subscriber) {
+        ScopeGroup group = subscriber.group;
+        if (group == null || !group.subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        groups.computeIfPresent(group.key, (k, existing) -> existing.subscribers.isEmpty() ? null : existing);
+    }
+
+    /**
+     * Streams sharing one visibility scope, team and widget set
+     */
+    private static class ScopeGroup {
+        final String key;
+        final Long teamId;
+        final List<String> widgets;
+        // Widgets are computed as the first subscriber; everyone in the group sees the same data
+        final Long userId;
+        final Authentication authentication;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        // Last value sent per widget, to push only the sections that changed
+        final Map<String, Object> lastSent = new ConcurrentHashMap<>();
+        final Set<String> dirty = ConcurrentHashMap.newKeySet();
+        // Widgets that were degraded when last built, retried on the next heartbeat
+        final Set<String> retry = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        ScopeGroup(String key, Long teamId, List<String> widgets, Long userId, Authentication authentication) {
+            this.key = key;
+            this.teamId = teamId;
+            this.widgets = widgets;
+            this.userId = userId;
+            this.authentication = authentication;
+        }
+    }
+
+    /**
+     * One open stream; events are sent by at most one executor task at a time
+     */
+    private class Subscriber {
+        final SseEmitter emitter;
+        volatile ScopeGroup group;
+        // Guarded by this: sections not sent yet, newer values replacing older ones
+        private DashboardSummaryDTO.DateRangeDTO pendingDateRange;
+        private final Map<String, Object> pending = new LinkedHashMap<>();
+        private boolean heartbeatDue;
+        // Held until the initial summary is sent, so no delta can overtake it
+        private boolean sending = true;
+        volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void start() {
+            synchronized (this) {
+                sending = false;
+            }
+            scheduleSend();
+        }
+
+        void enqueue(DashboardStreamDeltaDTO delta) {
+            synchronized (this) {
+                pendingDateRange = delta.getDateRange();
+                pending.putAll(delta.getSections());
+            }
+            scheduleSend();
+        }
+
+        void enqueueHeartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            synchronized (this) {
+                if (sending || (pending.isEmpty() && !heartbeatDue)) {
+                    return;
+                }
+                sending = true;
+            }
+            try {
+                streamExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // Values stay pending and are sent with the next change or heartbeat
+                synchronized (this) {
+                    sending = false;
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    DashboardStreamDeltaDTO delta = null;
+                    synchronized (this) {
+                        if (pending.isEmpty() && !heartbeatDue) {
+                            sending = false;
+                            sendingSince = 0;
+                            return;
+                        }
+                        if (!pending.isEmpty()) {
+                            delta = DashboardStreamDeltaDTO.builder()
+                                    .dateRange(pendingDateRange)
+                                    .sections(new LinkedHashMap<>(pending))
+                                    .build();
+                            pending.clear();
+                        }
+                        // Any event keeps the connection alive
+                        heartbeatDue = false;
+                    }
+                    sendingSince = System.currentTimeMillis();
+                    if (delta != null) {
+                        emitter.send(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+                    } else {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client gone or emitter already completed
+                log.debug("Dashboard stream closed: {}", e.getMessage());
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.company.internalmgmt.modules.dashboard.service.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import com.company.internalmgmt.common.exception.AccessDeniedException;
+import com.company.internalmgmt.common.exception.BadRequestException;
+import com.company.internalmgmt.common.exception.ResourceNotFoundException;
+import com.company.internalmgmt.common.exception.SystemException;
+import com.company.internalmgmt.modules.dashboard.config.DashboardExecutorConfig;
+import com.company.internalmgmt.modules.dashboard.dto.job.ReportJobDTO;
+import com.company.internalmgmt.modules.dashboard.dto.job.ReportJobRequestDTO;
+import com.company.internalmgmt.modules.dashboard.service.DashboardService;
+import com.company.internalmgmt.modules.dashboard.service.ReportFilters;
+import com.company.internalmgmt.modules.dashboard.service.ReportJobService;
+import com.company.internalmgmt.modules.dashboard.service.ReportService;
+import com.company.internalmgmt.modules.dashboard.service.export.ReportExporter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs report jobs on a bounded executor and keeps their files in a local directory.
+ * Jobs are tracked in memory and keyed by permission scope, report type, export type and normalized
+ * filters, so identical requests share one job. Finished jobs and their files are removed once the
+ * retention period has passed; files left over from a previous run are removed on startup.
+ */
+@Slf4j
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final String QUEUED = "QUEUED";
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private static final String PART_SUFFIX = ".part";
+
+    // Authorities required by each report type, as on the report endpoints
+    private static final List<String> DEFAULT_AUTHORITIES = Arrays.asList("report:read:all", "report:read:team", "report:read:own");
+    private static final Map<String, List<String>> REQUIRED_AUTHORITIES = new HashMap<>();
+    static {
+        REQUIRED_AUTHORITIES.put(ReportService.MARGIN_DETAIL, Arrays.asList("report:read:all", "report:read:team"));
+        REQUIRED_AUTHORITIES.put(ReportService.KPI_PROGRESS, Arrays.asList("report:read:all", "report:read:own"));
+    }
+
+    private final ReportService reportService;
+    private final DashboardService dashboardService;
+    private final ReportExporter reportExporter;
+    private final TaskExecutor reportJobExecutor;
+
+    private final Map<String, Job> jobsById = new ConcurrentHashMap<>();
+    // Coalescing key -> latest job with that key; guarded by this together with jobsById
+    private final Map<String, Job> jobsByKey = new HashMap<>();
+
+    @Value("${app.report.jobs.directory:./reports/jobs}")
+    private String directory;
+
+    @Value("${app.report.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    // A completed job is handed out again for identical requests during this period
+    @Value("${app.report.jobs.reuse-minutes:5}")
+    private long reuseMinutes;
+
+    private Path root;
+
+    public ReportJobServiceImpl(
+            ReportService reportService,
+            DashboardService dashboardService,
+            ReportExporter reportExporter,
+            @Qualifier(DashboardExecutorConfig.REPORT_JOB_EXECUTOR) TaskExecutor reportJobExecutor) {
+        this.reportService = reportService;
+        this.dashboardService = dashboardService;
+        this.reportExporter = reportExporter;
+        this.reportJobExecutor = reportJobExecutor;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        // Jobs do not survive a restart, so neither do their files
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        }
+        log.info("Report job files are stored in {}, removed {} left over", root, removed);
+    }
+
+    @Override
+    public ReportJobDTO submit(ReportJobRequestDTO request, Long currentUserId, Authentication authentication) {
+        String reportType = request.getReportType();
+        List<String> acceptedFilters = ReportService.REPORT_FILTERS.get(reportType);
+        if (acceptedFilters == null) {
+            throw new BadRequestException("Unknown report type: " + reportType + ", expected one of "
+                    + ReportService.REPORT_FILTERS.keySet());
+        }
+        if (!reportExporter.supports(request.getExportType())) {
+            throw new BadRequestException("Unsupported export type: " + request.getExportType());
+        }
+        if (!hasAnyAuthority(authentication, REQUIRED_AUTHORITIES.getOrDefault(reportType, DEFAULT_AUTHORITIES))) {
+            throw new AccessDeniedException("Not allowed to run the " + reportType + " report");
+        }
+        ReportFilters filters = ReportFilters.of(request.getFilters());
+        for (String name : filters.names()) {
+            if (!acceptedFilters.contains(name)) {
+                throw new BadRequestException("Unknown filter for the " + reportType + " report: " + name);
+            }
+        }
+
+        String exportType = request.getExportType().toLowerCase();
+        String scope = dashboardService.getScopeKey(authentication, currentUserId);
+        String key = scope + "|" + reportType + "|" + exportType + "|" + filters.canonicalKey();
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            Job existing = jobsByKey.get(key);
+            if (existing != null && existing.isReusable(now.minusMinutes(reuseMinutes))) {
+                log.debug("Report job {} reused for an identical {} request", existing.id, reportType);
+                return toDto(existing);
+            }
+            Job job = new Job(UUID.randomUUID().toString(), key, scope, reportType, exportType, filters, now);
+            try {
+                reportJobExecutor.execute(() -> run(job, currentUserId, authentication));
+            } catch (TaskRejectedException e) {
+                throw new SystemException("Too many report jobs are queued, please retry later");
+            }
+            jobsById.put(job.id, job);
+            jobsByKey.put(key, job);
+            log.info("Report job {} queued: {} as {} with filters {}", job.id, reportType, exportType, filters.canonicalKey());
+            return toDto(job);
+        }
+    }
+
+    @Override
+    public ReportJobDTO getJob(String jobId, Long currentUserId, Authentication authentication) {
+        return toDto(findJob(jobId, currentUserId, authentication));
+    }
+
+    @Override
+    public void download(String jobId, Long currentUserId, Authentication authentication, HttpServletResponse response) {
+        Job job = findJob(jobId, currentUserId, authentication);
+        if (!COMPLETED.equals(job.status)) {
+            throw new BadRequestException("Report job " + jobId + " is " + job.status + ", not " + COMPLETED);
+        }
+        Path file = fileOf(job);
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("File of report job " + jobId + " is no longer available");
+        }
+        response.setContentType(reportExporter.contentType(job.exportType));
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + job.fileName + "\"");
+        response.setContentLengthLong(job.fileSize);
+        try {
+            Files.copy(file, response.getOutputStream());
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new SystemException("Failed to download report job " + jobId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Forget finished jobs past their retention period and delete their files
+     */
+    @Scheduled(fixedDelayString = "${app.report.jobs.cleanup-ms:60000}")
+    public void removeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+        for (Job job : jobsById.values()) {
+            if (job.expiresAt == null || job.expiresAt.isAfter(now)) {
+                continue;
+            }
+            synchronized (this) {
+                jobsById.remove(job.id);
+                jobsByKey.remove(job.key, job);
+            }
+            try {
+                Files.deleteIfExists(fileOf(job));
+            } catch (IOException e) {
+                log.warn("Could not delete the file of report job {}: {}", job.id, e.getMessage());
+            }
+            removed++;
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired report jobs", removed);
+        }
+    }
+
+    private void run(Job job, Long currentUserId, Authentication authentication) {
+        job.start();
+        Path part = root.resolve(job.id + PART_SUFFIX);
+        try {
+            long rows;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(part))) {
+                rows = reportService.writeReport(job.reportType, job.filters, job.exportType, outputStream,
+                        currentUserId, authentication);
+            }
+            Path file = fileOf(job);
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(rows, Files.size(file),
+                    reportExporter.fileName(job.exportType, job.reportType.replace('-', '_') + "_report"),
+                    LocalDateTime.now().plusMinutes(retentionMinutes));
+            log.info("Report job {} completed: {} rows in {}", job.id, rows, file);
+        } catch (Exception e) {
+            log.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+                // Removed with the directory contents on the next startup
+            }
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(),
+                    LocalDateTime.now().plusMinutes(retentionMinutes));
+        }
+    }
+
+    private Job findJob(String jobId, Long currentUserId, Authentication authentication) {
+        Job job = jobsById.get(jobId);
+        // Jobs of another scope could contain data the caller may not see
+        if (job == null || !job.scope.equals(dashboardService.getScopeKey(authentication, currentUserId))) {
+            throw new ResourceNotFoundException("Report job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private Path fileOf(Job job) {
+        return root.resolve(job.id + (ReportExporter.CSV.equals(job.exportType) ? ".csv" : ".xlsx"));
+    }
+
+    private boolean hasAnyAuthority(Authentication authentication, List<String> authorities) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authorities.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ReportJobDTO toDto(Job job) {
+        synchronized (job) {
+            return ReportJobDTO.builder()
+                    .id(job.id)
+                    .reportType(job.reportType)
+                    .exportType(job.exportType)
+                    .filters(job.filters.asMap())
+                    .status(job.status)
+                    .createdAt(job.createdAt)
+                    .startedAt(job.startedAt)
+                    .completedAt(job.completedAt)
+                    .expiresAt(job.expiresAt)
+                    .rowCount(job.rowCount)
+                    .fileName(job.fileName)
+                    .fileSize(job.fileSize)
+                    .downloadUrl(COMPLETED.equals(job.status) ? "/api/v1/reports/jobs/" + job.id + "/download" : null)
+                    .error(job.error)
+                    .build();
+        }
+    }
+
+    private static class Job {
+        final String id;
+        final String key;
+        final String scope;
+        final String reportType;
+        final String exportType;
+        final ReportFilters filters;
+        final LocalDateTime createdAt;
+
+        volatile String status = QUEUED;
+        LocalDateTime startedAt;
+        LocalDateTime completedAt;
+        volatile LocalDateTime expiresAt;
+        Long rowCount;
+        String fileName;
+        Long fileSize;
+        String error;
+
+        Job(String id, String key, String scope, String reportType, String exportType, ReportFilters filters,
+            LocalDateTime createdAt) {
+            this.id = id;
+            this.key = key;
+            this.scope = scope;
+            this.reportType = reportType;
+            this.exportType = exportType;
+            this.filters = filters;
+            this.createdAt = createdAt;
+        }
+
+        synchronized void start() {
+            status = RUNNING;
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void complete(long rows, long size, String name, LocalDateTime expiry) {
+            rowCount = rows;
+            fileSize = size;
+            fileName = name;
+            completedAt = LocalDateTime.now();
+            expiresAt = expiry;
+            status = COMPLETED;
+        }
+
+        synchronized void fail(String message, LocalDateTime expiry) {
+            error = message;
+            completedAt = LocalDateTime.now();
+            expiresAt = expiry;
+            status = FAILED;
+        }
+
+        /**
+         * Whether an identical request can share this job: it is still queued or running, or completed after the given time
+         */
+        synchronized boolean isReusable(LocalDateTime completedAfter) {
+            return QUEUED.equals(status) || RUNNING.equals(status)
+                    || (COMPLETED.equals(status) && completedAt.isAfter(completedAfter));
+        }
+    }
+}
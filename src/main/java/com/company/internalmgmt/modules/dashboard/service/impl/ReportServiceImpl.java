@@ -1,5 +1,8 @@
 package com.company.internalmgmt.modules.dashboard.service.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -12,21 +15,39 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.company.internalmgmt.common.exception.BadRequestException;
 import com.company.internalmgmt.modules.contract.dto.ContractEmployeeDTO;
+import com.company.internalmgmt.modules.contract.dto.SalesKpiProgressDTO;
+import com.company.internalmgmt.modules.contract.dto.mapper.ContractMapper;
+import com.company.internalmgmt.modules.contract.model.Contract;
+import com.company.internalmgmt.modules.contract.model.ContractPaymentTerm;
+import com.company.internalmgmt.modules.contract.model.enums.PaymentStatus;
+import com.company.internalmgmt.modules.contract.repository.ContractPaymentTermRepository;
+import com.company.internalmgmt.modules.contract.repository.ContractRepository;
+import com.company.internalmgmt.modules.contract.repository.specification.ContractPaymentTermSpecification;
+import com.company.internalmgmt.modules.contract.repository.specification.ContractSpecification;
 import com.company.internalmgmt.modules.contract.service.ContractEmployeeService;
 import com.company.internalmgmt.modules.contract.service.ContractPaymentTermService;
-import com.company.internalmgmt.modules.contract.service.ContractService;
+import com.company.internalmgmt.modules.contract.service.SalesKpiService;
 import com.company.internalmgmt.modules.dashboard.dto.common.PageableDTO;
 import com.company.internalmgmt.modules.dashboard.dto.common.ReportInfoDTO; // Already used by other reports
 import com.company.internalmgmt.modules.dashboard.dto.employee.EmployeeReportDTO; // Already used by other reports
@@ -36,18 +57,19 @@ import com.company.internalmgmt.modules.dashboard.dto.kpi.SalesKpiDetailDTO;
 import com.company.internalmgmt.modules.dashboard.dto.kpi.SalesKpiReportDTO;
 import com.company.internalmgmt.modules.dashboard.dto.kpi.SalesKpiSummaryMetricsDTO;
 import com.company.internalmgmt.modules.dashboard.dto.margin.MarginReportDTO;
+import com.company.internalmgmt.modules.dashboard.service.DashboardService;
+import com.company.internalmgmt.modules.dashboard.service.EmployeeReportRows;
+import com.company.internalmgmt.modules.dashboard.service.ReportPages;
+import com.company.internalmgmt.modules.dashboard.service.ReportFilters;
+import com.company.internalmgmt.modules.dashboard.service.ReportResultCache;
 import com.company.internalmgmt.modules.dashboard.service.ReportService;
-import com.company.internalmgmt.modules.hrm.dto.EmployeeDto;
-import com.company.internalmgmt.modules.hrm.dto.EmployeeSkillDto;
-import com.company.internalmgmt.modules.hrm.dto.EmployeeStatusLogDto;
+import com.company.internalmgmt.modules.dashboard.service.export.ReportExporter;
+import com.company.internalmgmt.modules.dashboard.service.export.ReportTable;
+import com.company.internalmgmt.modules.dashboard.service.export.ReportTables;
 import com.company.internalmgmt.modules.hrm.dto.TeamDto;
-import com.company.internalmgmt.modules.hrm.service.EmployeeService;
-import com.company.internalmgmt.modules.hrm.service.EmployeeSkillService;
-import com.company.internalmgmt.modules.hrm.service.EmployeeStatusLogService;
 import com.company.internalmgmt.modules.hrm.service.TeamService;
 import com.company.internalmgmt.modules.margin.dto.MarginSummaryDTO;
 import com.company.internalmgmt.modules.margin.service.MarginService;
-import com.company.internalmgmt.modules.opportunity.repository.OpportunityAssignmentRepository;
 import com.company.internalmgmt.modules.opportunity.service.OpportunityNoteService;
 import com.company.internalmgmt.modules.opportunity.service.OpportunityService;
 
@@ -61,43 +83,91 @@ import lombok.extern.slf4j.Slf4j;
 public class ReportServiceImpl implements ReportService {
     
     @Autowired
-    private EmployeeService employeeService;
+    private OpportunityService opportunityService;
     
     @Autowired
-    private OpportunityService opportunityService;
+    private MarginService marginService;
     
     @Autowired
-    private ContractService contractService;
+    private TeamService teamService;
     
     @Autowired
-    private MarginService marginService;
+    private ContractEmployeeService contractEmployeeService;
     
     @Autowired
-    private EmployeeSkillService employeeSkillService;
+    private ContractPaymentTermService paymentTermService;
     
     @Autowired
-    private EmployeeStatusLogService employeeStatusLogService;
+    private ContractPaymentTermRepository paymentTermRepository;
     
     @Autowired
-    private TeamService teamService;
+    private ContractRepository contractRepository;
     
     @Autowired
-    private ContractEmployeeService contractEmployeeService;
+    private OpportunityNoteService opportunityNoteService;
     
     @Autowired
-    private ContractPaymentTermService paymentTermService;
+    private ReportExporter reportExporter;
     
     @Autowired
-    private OpportunityAssignmentRepository opportunityAssignmentRepository;
+    private EmployeeReportRows employeeReportRows;
+    
+    private TransactionTemplate readOnlyTransactionTemplate;
     
+    // Rows read per chunk and converted together by exports
+    @Value("${app.report.export.chunk-size:500}")
+    private int exportChunkSize;
+
     @Autowired
-    private OpportunityNoteService opportunityNoteService;
+    private SalesKpiService salesKpiService;
+
+    @Autowired
+    private ReportResultCache reportResultCache;
+
+    @Autowired
+    private DashboardService dashboardService;
 
-    // @Autowired
-    // private SalesKpiService salesKpiService; // Uncomment when SalesKpiService is implemented
-    
     private static final DateTimeFormatter ISO_DATE_TIME_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
     private static final DateTimeFormatter ISO_DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    
+    // Sort fields of the contract list report, mapped to Contract properties
+    private static final Map<String, String> CONTRACT_SORT_PROPERTIES = new HashMap<String, String>() {{
+        put("id", "id");
+        put("contractCode", "contractCode");
+        put("clientName", "clientName");
+        put("projectName", "name");
+        put("contractType", "contractType");
+        put("status", "status");
+        put("totalValue", "totalValue");
+        put("currency", "currency");
+        put("signDate", "signDate");
+        put("signedDate", "signDate");
+        put("effectiveDate", "effectiveDate");
+        put("expiryDate", "expiryDate");
+        put("createdAt", "createdAt");
+        put("updatedAt", "updatedAt");
+    }};
+    
+    // Sort fields of the payment status report, mapped to ContractPaymentTerm properties
+    private static final Map<String, String> PAYMENT_TERM_SORT_PROPERTIES = new HashMap<String, String>() {{
+        put("id", "id");
+        put("termNumber", "termNumber");
+        put("description", "description");
+        put("dueDate", "expectedPaymentDate");
+        put("amount", "expectedAmount");
+        put("status", "paymentStatus");
+        put("paidDate", "actualPaymentDate");
+        put("paidAmount", "actualAmountPaid");
+        put("contractId", "contract.id");
+        put("contractCode", "contract.contractCode");
+        put("clientName", "contract.clientName");
+    }};
+    
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
 
     @Override
     public EmployeeReportDTO getEmployeeListReport(
@@ -107,25 +177,32 @@ public class ReportServiceImpl implements ReportService {
             Pageable pageable, Long currentUserId, Authentication authentication,
             HttpServletResponse response) {
         
-        // Handle export types (csv, excel)
+        // The report reads employees directly, so it applies the employee read authority itself
+        List<Long> visibleTeamIds = employeeReportRows.visibleTeamIds(currentUserId, authentication);
+
+        // Handle export types (csv, excel): every matching row, read in chunks and written as
+        // it is converted, without building the report in memory first
         if (!"json".equals(exportType)) {
-            handleExport(exportType, "employee_report", response);
+            exportTable(exportType, "employee_report", () -> ReportTables.employeeList(employeeReportRows.stream(
+                    visibleTeamIds, teamId, position, status, skills, Boolean.TRUE.equals(includeSkills),
+                    Boolean.TRUE.equals(includeProjects), exportChunkSize)), response);
             return null;
         }
-        
+
+        ReportResultCache.Lookup<EmployeeReportDTO> cached = cachedReport(EMPLOYEE_LIST, pageable, currentUserId,
+                authentication, "teamId", teamId, "position", position, "status", status, "skills", skills,
+                "minExperience", minExperience, "projectId", projectId, "utilization", utilization,
+                "includeSkills", includeSkills, "includeProjects", includeProjects);
+        if (cached.isHit()) {
+            return cached.get();
+        }
+
         try {
-            // Step 1: Fetch all employees matching the criteria (unpaged)
-            Page<EmployeeDto> allEmployeesPage = employeeService.findEmployees(
-                    null, // searchTerm
-                    teamId, 
-                    position, 
-                    status, 
-                    skills, // Pass skill IDs directly
-                    minExperience, 
-                    null, // marginStatus - not part of this report's filters
-                    Pageable.unpaged() // Fetch all for accurate summary
-            );
-            List<EmployeeDto> allMatchingEmployees = allEmployeesPage.getContent();
+            // Step 1: Fetch and enrich all matching employees: one query each for the employees with their
+            // team leaders, skills, active assignments and latest status log, whatever the number of employees
+            List<EmployeeReportDTO.EmployeeDetailDTO> allEmployeeDetails = employeeReportRows.list(
+                    visibleTeamIds, teamId, position, status, skills,
+                    Boolean.TRUE.equals(includeSkills), Boolean.TRUE.equals(includeProjects));
 
             // Build report info (remains the same)
             Map<String, Object> filtersApplied = new HashMap<>();
@@ -141,124 +218,7 @@ public class ReportServiceImpl implements ReportService {
                     .filters(filtersApplied)
                     .build();
             
-            // Step 2: Convert all matching employees to EmployeeDetailDTO
-            List<EmployeeReportDTO.EmployeeDetailDTO> allEmployeeDetails = allMatchingEmployees.stream()
-                    .map(emp -> {
-                        // Build skills list
-                        List<EmployeeReportDTO.SkillDTO> skillDTOs = Collections.emptyList();
-                        if (Boolean.TRUE.equals(includeSkills)) {
-                            try {
-                                List<EmployeeSkillDto> employeeSkills = employeeSkillService.findAllByEmployeeId(emp.getId());
-                                skillDTOs = employeeSkills.stream()
-                                        .map(skill -> EmployeeReportDTO.SkillDTO.builder()
-                                                .id(skill.getSkillId().intValue())
-                                                .name(skill.getSkillName())
-                                                .category(skill.getSkillCategoryName())
-                                                .level(skill.getLeaderAssessmentLevel() != null ? skill.getLeaderAssessmentLevel() : skill.getSelfAssessmentLevel())
-                                                .years(skill.getYearsExperience() != null ? 
-                                                        skill.getYearsExperience().intValue() : 0)
-                                                .build())
-                                        .collect(Collectors.toList());
-                            } catch (Exception e) {
-                                log.warn("Error fetching skills for employee {}: {}", emp.getId(), e.getMessage());
-                            }
-                        }
-                        
-                        // Get current project information
-                        EmployeeReportDTO.ProjectDTO currentProjectDto = null;
-                        if (Boolean.TRUE.equals(includeProjects)) {
-                            try {
-                                List<ContractEmployeeDTO> activeAssignments = contractEmployeeService.findActiveContractEmployeesForEmployeeAndDate(emp.getId(), LocalDate.now());
-                                if (!activeAssignments.isEmpty()) {
-                                    ContractEmployeeDTO mainAssignment = activeAssignments.get(0);
-                                    EmployeeStatusLogDto latestStatus = employeeStatusLogService.findMostRecentByEmployeeId(emp.getId());
-                                    if (latestStatus != null && latestStatus.getProjectName() != null) {
-                                        currentProjectDto = EmployeeReportDTO.ProjectDTO.builder()
-                                            .id(null)
-                                            .name(latestStatus.getProjectName())
-                                            .customer(latestStatus.getClientName())
-                                            .allocation(latestStatus.getAllocationPercentage())
-                                            .startDate(latestStatus.getStartDate() != null ? 
-                                                    latestStatus.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                                            .endDate(latestStatus.getExpectedEndDate() != null ? 
-                                                    latestStatus.getExpectedEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                                            .build();
-                                    } else if (mainAssignment != null) {
-                                         currentProjectDto = EmployeeReportDTO.ProjectDTO.builder()
-                                            .name("Project from Contract (Details N/A)")
-                                            .customer("Customer from Contract (Details N/A)")
-                                            .allocation(mainAssignment.getAllocationPercentage() != null ? mainAssignment.getAllocationPercentage().intValue() : null)
-                                            .startDate(mainAssignment.getStartDate() != null ? mainAssignment.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                                            .endDate(mainAssignment.getEndDate() != null ? mainAssignment.getEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                                            .build();
-                                    }
-                                }
-                            } catch (Exception e) {
-                                log.warn("Error fetching project info for employee {}: {}", emp.getId(), e.getMessage());
-                            }
-                        }
-                        
-                        // Calculate utilization
-                        Integer utilRate = 0;
-                        try {
-                            List<ContractEmployeeDTO> activeAssignments = contractEmployeeService.findActiveContractEmployeesForEmployeeAndDate(emp.getId(), LocalDate.now());
-                            if (!activeAssignments.isEmpty()) {
-                                utilRate = activeAssignments.stream()
-                                        .mapToInt(assign -> assign.getAllocationPercentage() != null ? assign.getAllocationPercentage().intValue() : 0)
-                                        .sum();
-                                if (utilRate > 100) utilRate = 100; 
-                            }
-                        } catch (Exception e) {
-                             log.warn("Error calculating utilization for employee {}: {}", emp.getId(), e.getMessage());
-                        }
-
-                        // Calculate experience in years
-                        Integer totalExperienceYears = 0;
-                        if (emp.getHireDate() != null) {
-                            totalExperienceYears = (int) java.time.temporal.ChronoUnit.YEARS.between(
-                                    emp.getHireDate(), LocalDate.now());
-                        }
-                        
-                        // Get team leader info
-                        EmployeeReportDTO.LeaderDTO teamLeader = null;
-                        if (emp.getTeam() != null && emp.getTeam().getId() != null) {
-                            try {
-                                TeamDto teamDetail = teamService.getTeamById(emp.getTeam().getId());
-                                if (teamDetail != null && teamDetail.getLeaderId() != null) {
-                                    teamLeader = EmployeeReportDTO.LeaderDTO.builder()
-                                            .id(teamDetail.getLeaderId().intValue())
-                                            .name(teamDetail.getLeaderName())
-                                            .build();
-                                }
-                            } catch (Exception e) {
-                                log.warn("Error fetching team leader for team {}: {}", emp.getTeam().getId(), e.getMessage());
-                            }
-                        }
-                        
-                        return EmployeeReportDTO.EmployeeDetailDTO.builder()
-                                .id(emp.getId().intValue())
-                                .employeeCode(emp.getEmployeeCode())
-                                .name(emp.getFirstName() + " " + emp.getLastName())
-                                .email(emp.getCompanyEmail())
-                                .position(emp.getPosition())
-                                .team(emp.getTeam() != null ? 
-                                        EmployeeReportDTO.TeamDTO.builder()
-                                                .id(emp.getTeam().getId() != null ? emp.getTeam().getId().intValue() : null)
-                                                .name(emp.getTeam().getName())
-                                                .leader(teamLeader)
-                                                .build() : null)
-                                .status(emp.getCurrentStatus())
-                                .currentProject(currentProjectDto)
-                                .utilization(utilRate)
-                                .skills(skillDTOs)
-                                .joinDate(emp.getHireDate() != null ? 
-                                        emp.getHireDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                                .totalExperience(totalExperienceYears)
-                                .build();
-                    })
-                    .collect(Collectors.toList());
-            
-            // Step 3: Calculate summary metrics based on allEmployeeDetails
+            // Step 2: Calculate summary metrics based on allEmployeeDetails
             long allocatedCount = 0;
             long availableCount = 0;
             long endingSoonCount = 0;
@@ -311,7 +271,7 @@ public class ReportServiceImpl implements ReportService {
                     .topSkills(topSkills)
                     .build();
             
-            // Step 4: Manual pagination for the content
+            // Step 3: Manual pagination for the content
             List<EmployeeReportDTO.EmployeeDetailDTO> pagedContent;
             int totalElements = allEmployeeDetails.size();
             int pageSize = pageable.getPageSize();
@@ -322,10 +282,11 @@ public class ReportServiceImpl implements ReportService {
                 pagedContent = Collections.emptyList();
             } else {
                 int endItem = Math.min(startItem + pageSize, totalElements);
-                pagedContent = allEmployeeDetails.subList(startItem, endItem);
+                // Copied so that a cached page does not hold on to every employee
+                pagedContent = new ArrayList<>(allEmployeeDetails.subList(startItem, endItem));
             }
             
-            // Step 5: Build pageable info
+            // Step 4: Build pageable info
             int totalPages = (totalElements == 0) ? 0 : (int) Math.ceil((double) totalElements / pageSize);
             if (totalPages == 0 && totalElements > 0) totalPages = 1; // if less than one page of data, still 1 page
 
@@ -337,12 +298,12 @@ public class ReportServiceImpl implements ReportService {
                     .sort(pageable.getSort().toString())
                     .build();
             
-            return EmployeeReportDTO.builder()
+            return cached.store(EmployeeReportDTO.builder()
                     .reportInfo(reportInfo)
                     .content(pagedContent) // Use paged content
                     .summaryMetrics(summaryMetrics) // Use summary from all data
                     .pageable(pageableInfo)
-                    .build();
+                    .build());
                     
         } catch (Exception e) {
             log.error("Error generating employee list report: {}", e.getMessage(), e);
@@ -399,12 +360,21 @@ public class ReportServiceImpl implements ReportService {
             Boolean includeDetails, String exportType, Pageable pageable, // original pageable from controller
             Long currentUserId, Authentication authentication, HttpServletResponse response) {
         
-        // Handle export types (csv, excel)
+        // Handle export types (csv, excel): every matching row, not just the requested page, read in chunks
         if (!"json".equals(exportType)) {
-            handleExport(exportType, "margin_detail_report", response);
+            exportTable(exportType, "margin_detail_report", () -> marginDetailTable(teamId, employeeId, period,
+                    fromDate, toDate, groupBy, pageable.getSort()), response);
             return null;
         }
-        
+
+        ReportResultCache.Lookup<MarginReportDTO> cached = cachedReport(MARGIN_DETAIL, pageable, currentUserId,
+                authentication, "teamId", teamId, "employeeId", employeeId, "period", period, "fromDate", fromDate,
+                "toDate", toDate, "marginThreshold", marginThreshold, "groupBy", groupBy,
+                "includeDetails", includeDetails);
+        if (cached.isHit()) {
+            return cached.get();
+        }
+
         try {
             if ("employee".equals(groupBy)) {
                 // Step 1: Fetch all employee margin data (unpaged)
@@ -427,51 +397,7 @@ public class ReportServiceImpl implements ReportService {
 
                 // Step 2: Convert all raw DTOs to Report DTOs
                 List<Object> allEmployeeMarginReportItems = allRawEmployeeMargins.stream()
-                        .map(empMargin -> {
-                            MarginReportDTO.LeaderDTO teamLeader = null;
-                            if (empMargin.getTeam() != null && empMargin.getTeam().getId() != null) {
-                                try {
-                                    TeamDto teamDetail = teamService.getTeamById(empMargin.getTeam().getId());
-                                    if (teamDetail != null && teamDetail.getLeaderId() != null) {
-                                        teamLeader = MarginReportDTO.LeaderDTO.builder()
-                                                .id(teamDetail.getLeaderId().intValue())
-                                                .name(teamDetail.getLeaderName())
-                                                .build();
-                                    }
-                                } catch (Exception e) {
-                                    log.warn("Error fetching team leader for employee margin team {}: {}", empMargin.getTeam().getId(), e.getMessage());
-                                }
-                            }
-                            
-                            double empAverageMargin = empMargin.getPeriods().stream()
-                                    .filter(p -> p.getMargin() != null)
-                                    .mapToDouble(p -> p.getMargin().doubleValue())
-                                    .average()
-                                    .orElse(0.0);
-
-                            return MarginReportDTO.EmployeeMarginDTO.builder()
-                                    .employeeId(empMargin.getEmployeeId().intValue())
-                                    .employeeCode(empMargin.getEmployeeCode())
-                                    .employeeName(empMargin.getName())
-                                    .team(empMargin.getTeam() != null ? 
-                                            MarginReportDTO.TeamBasicDTO.builder()
-                                                    .id(empMargin.getTeam().getId().intValue())
-                                                    .name(empMargin.getTeam().getName())
-                                                    .build() : null)
-                                    .position(empMargin.getPosition())
-                                    .marginData(empMargin.getPeriods().stream()
-                                            .map(periodData -> MarginReportDTO.MarginDataDTO.builder()
-                                                    .period(periodData.getPeriod())
-                                                    .cost(periodData.getCost() != null ? periodData.getCost().longValue() : 0L)
-                                                    .revenue(periodData.getRevenue() != null ? periodData.getRevenue().longValue() : 0L)
-                                                    .margin(periodData.getMargin() != null ? periodData.getMargin().doubleValue() : 0.0)
-                                                    .status(periodData.getMarginStatus())
-                                                    .build())
-                                            .collect(Collectors.toList()))
-                                    .averageMargin(empAverageMargin)
-                                    .status(empMargin.getStatus())
-                                    .build();
-                        })
+                        .map(this::employeeMarginItem)
                         .collect(Collectors.toList());
                 
                 // Step 3: Calculate overall summary metrics from allRawEmployeeMargins
@@ -500,11 +426,11 @@ public class ReportServiceImpl implements ReportService {
                 double overallAverageMarginForAllEmployees = overallMarginDataPoints > 0 ? overallTotalMarginSum / overallMarginDataPoints : 0.0;
                 
                 // Step 4: Call buildMarginReport with overall metrics and original pageable
-                return buildMarginReport("employee", allEmployeeMarginReportItems, 
-                                         overallAverageMarginForAllEmployees, 
-                                         (int) overallRedCount, (int) overallYellowCount, (int) overallGreenCount, 
+                return cached.store(buildMarginReport("employee", allEmployeeMarginReportItems,
+                                         overallAverageMarginForAllEmployees,
+                                         (int) overallRedCount, (int) overallYellowCount, (int) overallGreenCount,
                                          pageable, // Pass original pageable
-                                         period, fromDate, toDate, teamId, employeeId, null, marginThreshold);
+                                         period, fromDate, toDate, teamId, employeeId, null, marginThreshold));
                         
             } else { // Default to "team"
                 MarginSummaryDTO marginSummary = marginService.getMarginSummary(
@@ -515,42 +441,7 @@ public class ReportServiceImpl implements ReportService {
                         null, null, null, "table", "team"
                 );
                 
-                List<Object> teamMarginReportItems = marginSummary.getTeams().stream()
-                        .map(teamSummary -> {
-                            MarginReportDTO.LeaderDTO teamLeader = null;
-                            if (teamSummary.getId() != null) {
-                                try {
-                                    TeamDto teamDetail = teamService.getTeamById(teamSummary.getId());
-                                    if (teamDetail != null && teamDetail.getLeaderId() != null) {
-                                        teamLeader = MarginReportDTO.LeaderDTO.builder()
-                                                .id(teamDetail.getLeaderId().intValue())
-                                                .name(teamDetail.getLeaderName())
-                                                .build();
-                                    }
-                                } catch (Exception e) {
-                                    log.warn("Error fetching team leader for team margin {}: {}", teamSummary.getId(), e.getMessage());
-                                }
-                            }
-                            
-                            return MarginReportDTO.TeamMarginDTO.builder()
-                                    .teamId(teamSummary.getId().intValue())
-                                    .teamName(teamSummary.getName())
-                                    .leader(teamLeader)
-                                    .employeeCount(teamSummary.getEmployeeCount())
-                                    .marginData(teamSummary.getPeriods().stream()
-                                            .map(periodData -> MarginReportDTO.TeamMarginDataDTO.builder()
-                                                    .period(periodData.getPeriod())
-                                                    .totalCost(periodData.getCost() != null ? periodData.getCost().longValue() : 0L)
-                                                    .totalRevenue(periodData.getRevenue() != null ? periodData.getRevenue().longValue() : 0L)
-                                                    .margin(periodData.getMargin() != null ? periodData.getMargin().doubleValue() : 0.0)
-                                                    .status(periodData.getMarginStatus())
-                                                    .build())
-                                            .collect(Collectors.toList()))
-                                    .averageMargin(teamSummary.getMargin() != null ? teamSummary.getMargin().doubleValue() : 0.0)
-                                    .status(teamSummary.getMarginStatus())
-                                    .build();
-                        })
-                        .collect(Collectors.toList());
+                List<Object> teamMarginReportItems = teamMarginItems(marginSummary);
                 
                 Map<String, Integer> statusCounts = marginSummary.getSummary() != null && marginSummary.getSummary().getStatusCounts() != null ? 
                                                     marginSummary.getSummary().getStatusCounts() : new HashMap<>();
@@ -561,10 +452,10 @@ public class ReportServiceImpl implements ReportService {
                 double summaryAverageMargin = marginSummary.getSummary() != null && marginSummary.getSummary().getAverageMargin() != null ? 
                         marginSummary.getSummary().getAverageMargin().doubleValue() : 0.0;
                 
-                return buildMarginReport("team", teamMarginReportItems, summaryAverageMargin, 
-                                         summaryRedCount, summaryYellowCount, summaryGreenCount, 
+                return cached.store(buildMarginReport("team", teamMarginReportItems, summaryAverageMargin,
+                                         summaryRedCount, summaryYellowCount, summaryGreenCount,
                                          pageable, // Pass original pageable
-                                         period, fromDate, toDate, teamId, employeeId, null, marginThreshold);
+                                         period, fromDate, toDate, teamId, employeeId, null, marginThreshold));
             }
             
         } catch (Exception e) {
@@ -573,6 +464,103 @@ public class ReportServiceImpl implements ReportService {
         }
     }
     
+    /**
+     * Margin report row of an employee
+     */
+    private MarginReportDTO.EmployeeMarginDTO employeeMarginItem(
+            com.company.internalmgmt.modules.margin.dto.EmployeeMarginDTO empMargin) {
+        double empAverageMargin = empMargin.getPeriods().stream()
+                .filter(p -> p.getMargin() != null)
+                .mapToDouble(p -> p.getMargin().doubleValue())
+                .average()
+                .orElse(0.0);
+        
+        return MarginReportDTO.EmployeeMarginDTO.builder()
+                .employeeId(empMargin.getEmployeeId().intValue())
+                .employeeCode(empMargin.getEmployeeCode())
+                .employeeName(empMargin.getName())
+                .team(empMargin.getTeam() != null ? 
+                        MarginReportDTO.TeamBasicDTO.builder()
+                                .id(empMargin.getTeam().getId().intValue())
+                                .name(empMargin.getTeam().getName())
+                                .build() : null)
+                .position(empMargin.getPosition())
+                .marginData(empMargin.getPeriods().stream()
+                        .map(periodData -> MarginReportDTO.MarginDataDTO.builder()
+                                .period(periodData.getPeriod())
+                                .cost(periodData.getCost() != null ? periodData.getCost().longValue() : 0L)
+                                .revenue(periodData.getRevenue() != null ? periodData.getRevenue().longValue() : 0L)
+                                .margin(periodData.getMargin() != null ? periodData.getMargin().doubleValue() : 0.0)
+                                .status(periodData.getMarginStatus())
+                                .build())
+                        .collect(Collectors.toList()))
+                .averageMargin(empAverageMargin)
+                .status(empMargin.getStatus())
+                .build();
+    }
+    
+    /**
+     * Margin report rows of the teams of a margin summary
+     */
+    private List<Object> teamMarginItems(MarginSummaryDTO marginSummary) {
+        return marginSummary.getTeams().stream()
+                .map(teamSummary -> {
+                    MarginReportDTO.LeaderDTO teamLeader = null;
+                    if (teamSummary.getId() != null) {
+                        try {
+                            TeamDto teamDetail = teamService.getTeamById(teamSummary.getId());
+                            if (teamDetail != null && teamDetail.getLeaderId() != null) {
+                                teamLeader = MarginReportDTO.LeaderDTO.builder()
+                                        .id(teamDetail.getLeaderId().intValue())
+                                        .name(teamDetail.getLeaderName())
+                                        .build();
+                            }
+                        } catch (Exception e) {
+                            log.warn("Error fetching team leader for team margin {}: {}", teamSummary.getId(), e.getMessage());
+                        }
+                    }
+        
+                    return MarginReportDTO.TeamMarginDTO.builder()
+                            .teamId(teamSummary.getId().intValue())
+                            .teamName(teamSummary.getName())
+                            .leader(teamLeader)
+                            .employeeCount(teamSummary.getEmployeeCount())
+                            .marginData(teamSummary.getPeriods().stream()
+                                    .map(periodData -> MarginReportDTO.TeamMarginDataDTO.builder()
+                                            .period(periodData.getPeriod())
+                                            .totalCost(periodData.getCost() != null ? periodData.getCost().longValue() : 0L)
+                                            .totalRevenue(periodData.getRevenue() != null ? periodData.getRevenue().longValue() : 0L)
+                                            .margin(periodData.getMargin() != null ? periodData.getMargin().doubleValue() : 0.0)
+                                            .status(periodData.getMarginStatus())
+                                            .build())
+                                    .collect(Collectors.toList()))
+                            .averageMargin(teamSummary.getMargin() != null ? teamSummary.getMargin().doubleValue() : 0.0)
+                            .status(teamSummary.getMarginStatus())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Every row of the margin detail report for export. Employees are read page by page from the margin
+     * service in chunks of {@link #exportChunkSize}; teams come from one margin summary, a row per team.
+     */
+    private ReportTable marginDetailTable(Integer teamId, Integer employeeId, String period, LocalDate fromDate,
+                                          LocalDate toDate, String groupBy, Sort sort) {
+        if ("employee".equals(groupBy)) {
+            // The margin service breaks ties of the requested sort by employee ID
+            return ReportTables.marginDetail(groupBy, ReportPages.stream(exportChunkSize, sort,
+                    chunk -> marginService.getEmployeeMargins(
+                            employeeId != null ? employeeId.longValue() : null,
+                            teamId != null ? teamId.longValue() : null,
+                            period, fromDate, toDate, null, null, null, null, chunk).getContent())
+                    .map(this::employeeMarginItem));
+        }
+        MarginSummaryDTO marginSummary = marginService.getMarginSummary(teamId != null ? teamId.longValue() : null,
+                period != null ? period : "month", fromDate, toDate, null, null, null, "table", "team");
+        return ReportTables.marginDetail(groupBy, teamMarginItems(marginSummary));
+    }
+    
     /**
      * Build margin report from actual data
      */
@@ -636,7 +624,7 @@ public class ReportServiceImpl implements ReportService {
         } else {
             int startItem = pageNumber * pageSize;
             int endItem = Math.min(startItem + pageSize, totalElements);
-            pagedDisplayContent = fullContent.subList(startItem, endItem);
+            pagedDisplayContent = new ArrayList<>(fullContent.subList(startItem, endItem));
         }
         
         int totalPages = (totalElements == 0) ? 0 : (int) Math.ceil((double) totalElements / pageSize);
@@ -716,41 +704,33 @@ public class ReportServiceImpl implements ReportService {
             Pageable pageable, Long currentUserId, Authentication authentication,
             HttpServletResponse response) {
         
-        // Handle export types
+        // Handle export types: every matching row, not just the requested page, read in chunks
         if (!"json".equals(exportType)) {
-            handleExport(exportType, "opportunity_report", response);
+            exportTable(exportType, "opportunity_report", () -> opportunityListTable(opportunityRequest(salesId,
+                    leaderId, dealStage, onsite, fromDate, toDate, keyword, pageable.getSort()), followUpStatus,
+                    includeNotes, includeLeaders), response);
             return null;
         }
-        
+
+        ReportResultCache.Lookup<Object> cached = cachedReport(OPPORTUNITY_LIST, pageable, currentUserId,
+                authentication, "customerId", customerId, "salesId", salesId, "leaderId", leaderId,
+                "dealStage", dealStage, "followUpStatus", followUpStatus, "onsite", onsite, "fromDate", fromDate,
+                "toDate", toDate, "keyword", keyword, "includeNotes", includeNotes, "includeLeaders", includeLeaders);
+        if (cached.isHit()) {
+            return cached.get();
+        }
+
         List<com.company.internalmgmt.modules.opportunity.dto.OpportunityDTO> allFetchedOpportunities;
         // com.company.internalmgmt.modules.opportunity.dto.response.OpportunitySummaryDTO initialSummaryFromService;
         // long totalElementsFromService;
 
         try {
-            com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest serviceRequest = 
-                    new com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest();
-            
+            com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest serviceRequest =
+                    opportunityRequest(salesId, leaderId, dealStage, onsite, fromDate, toDate, keyword,
+                            pageable.getSort());
             serviceRequest.setPage(1); 
             serviceRequest.setSize(10000); // Fetch large number for manual filtering
 
-            if (pageable.getSort().isSorted()) {
-                pageable.getSort().stream().findFirst().ifPresent(order -> {
-                    serviceRequest.setSortBy(order.getProperty());
-                    serviceRequest.setSortDir(order.getDirection().name().toLowerCase());
-                });
-            } else {
-                serviceRequest.setSortBy("lastInteractionDate");
-                serviceRequest.setSortDir("desc");
-            }
-            
-            if (keyword != null) serviceRequest.setKeyword(keyword);
-            if (dealStage != null) serviceRequest.setStatus(dealStage);
-            if (onsite != null) serviceRequest.setPriority(onsite); 
-            if (salesId != null) serviceRequest.setAssignedTo(salesId.longValue());
-            if (leaderId != null) serviceRequest.setEmployeeId(leaderId.longValue()); 
-            if (fromDate != null) serviceRequest.setFromDate(fromDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
-            if (toDate != null) serviceRequest.setToDate(toDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
-
             com.company.internalmgmt.modules.opportunity.dto.response.ListOpportunitiesResponse oppServiceResponse = 
                     opportunityService.getOpportunities(serviceRequest);
             
@@ -771,13 +751,7 @@ public class ReportServiceImpl implements ReportService {
                 log.info("customerId filter requested but not applied directly on OpportunityDTO post-service call due to missing field. Assumed to be handled by keyword search or needs DTO update.");
             }
             
-            final String finalFollowUpStatusFilter = followUpStatus;
-            if (finalFollowUpStatusFilter != null && !finalFollowUpStatusFilter.isEmpty()) {
-                manuallyFilteredOpportunities.removeIf(opp -> {
-                    String calculatedFollowUpStatus = calculateFollowUpStatus(opp.getLastInteractionDate());
-                    return !finalFollowUpStatusFilter.equalsIgnoreCase(calculatedFollowUpStatus);
-                });
-            }
+            manuallyFilteredOpportunities.removeIf(opp -> !matchesFollowUpStatus(opp, followUpStatus));
             // --- Manual Filtering Ends Here ---
 
             // --- Pagination on Manually Filtered Data ---
@@ -810,95 +784,7 @@ public class ReportServiceImpl implements ReportService {
             reportInfo.put("filters", filtersApplied);
             
             List<Map<String, Object>> content = pagedOpportunities.stream() // Use pagedOpportunities
-                    .map(opp -> {
-                        Map<String, Object> oppMap = new HashMap<>();
-                        oppMap.put("id", opp.getId());
-                        oppMap.put("hubspotId", opp.getExternalId()); 
-                        oppMap.put("name", opp.getName());
-                        
-                        Map<String, Object> customerMapData = new HashMap<>();
-                        customerMapData.put("id", null); 
-                        customerMapData.put("name", opp.getCustomerName());
-                        customerMapData.put("industry", null); 
-                        oppMap.put("customer", customerMapData);
-
-                        oppMap.put("dealStage", opp.getStatus());
-                        oppMap.put("estimatedValue", opp.getAmount() != null ? opp.getAmount().longValue() : 0L);
-                        oppMap.put("createdDate", opp.getCreatedAt() != null ? opp.getCreatedAt().format(ISO_DATE_TIME_FORMATTER) : null);
-                        oppMap.put("lastInteractionDate", opp.getLastInteractionDate() != null ? opp.getLastInteractionDate().format(ISO_DATE_TIME_FORMATTER) : null);
-                        
-                        oppMap.put("followUpStatus", calculateFollowUpStatus(opp.getLastInteractionDate()));
-
-                        Map<String, Object> salesMapData = new HashMap<>();
-                        if (opp.getAssignedTo() != null) {
-                            salesMapData.put("id", opp.getAssignedTo().getId());
-                            salesMapData.put("name", opp.getAssignedTo().getName());
-                            salesMapData.put("email", opp.getAssignedTo().getEmail());
-                        } else {
-                            salesMapData.put("id", null);
-                            salesMapData.put("name", null);
-                            salesMapData.put("email", null);
-                        }
-                        oppMap.put("sales", salesMapData);
-                        
-                        oppMap.put("onsite", opp.getPriority() != null ? opp.getPriority() : false);
-                        
-                        if (Boolean.TRUE.equals(includeLeaders)) {
-                            try {
-                                com.company.internalmgmt.modules.opportunity.model.Opportunity oppEntity = 
-                                        opportunityService.getOpportunityEntityById(opp.getId());
-                                List<com.company.internalmgmt.modules.opportunity.model.OpportunityAssignment> assignments = 
-                                        opportunityAssignmentRepository.findByOpportunity(oppEntity);
-                                List<Map<String, Object>> assignedLeaders = assignments.stream()
-                                        .map(assignment -> {
-                                            Map<String, Object> leaderMap = new HashMap<>();
-                                            if (assignment.getEmployee() != null) {
-                                                leaderMap.put("id", assignment.getEmployee().getId());
-                                                leaderMap.put("name", assignment.getEmployee().getFirstName() + " " + 
-                                                                      assignment.getEmployee().getLastName());
-                                                // leaderMap.put("email", assignment.getEmployee().getCompanyEmail()); // Not in spec RPT-004 Leader Obj
-                                                leaderMap.put("assignDate", assignment.getAssignedAt() != null ? 
-                                                                        assignment.getAssignedAt().format(ISO_DATE_TIME_FORMATTER) : null);
-                                            }
-                                            return leaderMap;
-                                        })
-                                        .filter(m -> !m.isEmpty())
-                                        .collect(Collectors.toList());
-                                oppMap.put("leaders", assignedLeaders);
-                            } catch (Exception e) {
-                                log.warn("Error getting assigned leaders for opportunity {}: {}", opp.getId(), e.getMessage());
-                                oppMap.put("leaders", Collections.emptyList());
-                            }
-                        }
-                        
-                        if (Boolean.TRUE.equals(includeNotes)) {
-                            try {
-                                com.company.internalmgmt.common.dto.PageableInfo notesPi = new com.company.internalmgmt.common.dto.PageableInfo();
-                                org.springframework.data.domain.Pageable notesPg = org.springframework.data.domain.PageRequest.of(0, 5);
-                                List<com.company.internalmgmt.modules.opportunity.dto.OpportunityNoteDTO> notesDto = 
-                                        opportunityNoteService.getNotesByOpportunity(opp.getId(), notesPg, notesPi);
-                                List<Map<String, Object>> notesMap = notesDto.stream()
-                                        .map(note -> {
-                                            Map<String, Object> noteMap = new HashMap<>();
-                                            noteMap.put("id", note.getId());
-                                            noteMap.put("content", note.getContent());
-                                            Map<String, Object> createdByMap = new HashMap<>();
-                                            createdByMap.put("id", note.getAuthorId());
-                                            createdByMap.put("name", note.getAuthorName());
-                                            noteMap.put("createdBy", createdByMap);
-                                            noteMap.put("createdAt", note.getCreatedAt() != null ? 
-                                                                    note.getCreatedAt().format(ISO_DATE_TIME_FORMATTER) : null);
-                                            return noteMap;
-                                        })
-                                        .collect(Collectors.toList());
-                                oppMap.put("notes", notesMap);
-                            } catch (Exception e) {
-                                log.warn("Error getting notes for opportunity {}: {}", opp.getId(), e.getMessage());
-                                oppMap.put("notes", Collections.emptyList());
-                            }
-                        }
-                        return oppMap;
-                    })
+                    .map(opp -> opportunityRow(opp, includeNotes, includeLeaders))
                     .collect(Collectors.toList());
             
             // Build summary metrics from manuallyFilteredOpportunities (before pagination)
@@ -971,7 +857,7 @@ public class ReportServiceImpl implements ReportService {
             result.put("summaryMetrics", summaryMetrics);
             result.put("pageable", pageableInfo);
             
-            return result;
+            return cached.store(result);
             
         } catch (Exception e) {
             log.error("Error generating opportunity list report: {}", e.getMessage(), e);
@@ -990,6 +876,144 @@ public class ReportServiceImpl implements ReportService {
         }
     }
     
+    /**
+     * Opportunity service request with the filters and sort of the opportunity list report; the page is set by the caller
+     */
+    private com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest opportunityRequest(
+            Integer salesId, Integer leaderId, String dealStage, Boolean onsite, LocalDate fromDate,
+            LocalDate toDate, String keyword, Sort sort) {
+        com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest serviceRequest = 
+                new com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest();
+        
+        if (sort.isSorted()) {
+            sort.stream().findFirst().ifPresent(order -> {
+                serviceRequest.setSortBy(order.getProperty());
+                serviceRequest.setSortDir(order.getDirection().name().toLowerCase());
+            });
+        } else {
+            serviceRequest.setSortBy("lastInteractionDate");
+            serviceRequest.setSortDir("desc");
+        }
+        
+        if (keyword != null) serviceRequest.setKeyword(keyword);
+        if (dealStage != null) serviceRequest.setStatus(dealStage);
+        if (onsite != null) serviceRequest.setPriority(onsite); 
+        if (salesId != null) serviceRequest.setAssignedTo(salesId.longValue());
+        if (leaderId != null) serviceRequest.setEmployeeId(leaderId.longValue()); 
+        if (fromDate != null) serviceRequest.setFromDate(fromDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        if (toDate != null) serviceRequest.setToDate(toDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        return serviceRequest;
+    }
+    
+    /**
+     * Whether an opportunity matches the follow-up status filter, which the opportunity service cannot apply
+     */
+    private boolean matchesFollowUpStatus(com.company.internalmgmt.modules.opportunity.dto.OpportunityDTO opp,
+                                          String followUpStatus) {
+        return followUpStatus == null || followUpStatus.isEmpty()
+                || followUpStatus.equalsIgnoreCase(calculateFollowUpStatus(opp.getLastInteractionDate()));
+    }
+    
+    /**
+     * Content row of an opportunity of the opportunity list report
+     */
+    private Map<String, Object> opportunityRow(com.company.internalmgmt.modules.opportunity.dto.OpportunityDTO opp,
+                                               Boolean includeNotes, Boolean includeLeaders) {
+        Map<String, Object> oppMap = new HashMap<>();
+        oppMap.put("id", opp.getId());
+        oppMap.put("hubspotId", opp.getExternalId()); 
+        oppMap.put("name", opp.getName());
+        
+        Map<String, Object> customerMapData = new HashMap<>();
+        customerMapData.put("id", null); 
+        customerMapData.put("name", opp.getCustomerName());
+        customerMapData.put("industry", null); 
+        oppMap.put("customer", customerMapData);
+        
+        oppMap.put("dealStage", opp.getStatus());
+        oppMap.put("estimatedValue", opp.getAmount() != null ? opp.getAmount().longValue() : 0L);
+        oppMap.put("createdDate", opp.getCreatedAt() != null ? opp.getCreatedAt().format(ISO_DATE_TIME_FORMATTER) : null);
+        oppMap.put("lastInteractionDate", opp.getLastInteractionDate() != null ? opp.getLastInteractionDate().format(ISO_DATE_TIME_FORMATTER) : null);
+        
+        oppMap.put("followUpStatus", calculateFollowUpStatus(opp.getLastInteractionDate()));
+        
+        Map<String, Object> salesMapData = new HashMap<>();
+        if (opp.getAssignedTo() != null) {
+            salesMapData.put("id", opp.getAssignedTo().getId());
+            salesMapData.put("name", opp.getAssignedTo().getName());
+            salesMapData.put("email", opp.getAssignedTo().getEmail());
+        } else {
+            salesMapData.put("id", null);
+            salesMapData.put("name", null);
+            salesMapData.put("email", null);
+        }
+        oppMap.put("sales", salesMapData);
+        
+        oppMap.put("onsite", opp.getPriority() != null ? opp.getPriority() : false);
+        
+        // Assignments come with the opportunity page, loaded with their employees in one query
+        if (Boolean.TRUE.equals(includeLeaders)) {
+            List<Map<String, Object>> assignedLeaders = opp.getEmployeeAssignments() == null
+                    ? Collections.emptyList()
+                    : opp.getEmployeeAssignments().stream()
+                            .map(assignment -> {
+                                Map<String, Object> leaderMap = new HashMap<>();
+                                leaderMap.put("id", assignment.getEmployeeId());
+                                leaderMap.put("name", assignment.getEmployeeName());
+                                leaderMap.put("assignDate", assignment.getAssignedAt() != null ?
+                                                        assignment.getAssignedAt().format(ISO_DATE_TIME_FORMATTER) : null);
+                                return leaderMap;
+                            })
+                            .collect(Collectors.toList());
+            oppMap.put("leaders", assignedLeaders);
+        }
+        
+        if (Boolean.TRUE.equals(includeNotes)) {
+            try {
+                com.company.internalmgmt.common.dto.PageableInfo notesPi = new com.company.internalmgmt.common.dto.PageableInfo();
+                org.springframework.data.domain.Pageable notesPg = org.springframework.data.domain.PageRequest.of(0, 5);
+                List<com.company.internalmgmt.modules.opportunity.dto.OpportunityNoteDTO> notesDto = 
+                        opportunityNoteService.getNotesByOpportunity(opp.getId(), notesPg, notesPi);
+                List<Map<String, Object>> notesMap = notesDto.stream()
+                        .map(note -> {
+                            Map<String, Object> noteMap = new HashMap<>();
+                            noteMap.put("id", note.getId());
+                            noteMap.put("content", note.getContent());
+                            Map<String, Object> createdByMap = new HashMap<>();
+                            createdByMap.put("id", note.getAuthorId());
+                            createdByMap.put("name", note.getAuthorName());
+                            noteMap.put("createdBy", createdByMap);
+                            noteMap.put("createdAt", note.getCreatedAt() != null ? 
+                                                    note.getCreatedAt().format(ISO_DATE_TIME_FORMATTER) : null);
+                            return noteMap;
+                        })
+                        .collect(Collectors.toList());
+                oppMap.put("notes", notesMap);
+            } catch (Exception e) {
+                log.warn("Error getting notes for opportunity {}: {}", opp.getId(), e.getMessage());
+                oppMap.put("notes", Collections.emptyList());
+            }
+        }
+        return oppMap;
+    }
+    
+    /**
+     * Every opportunity of the opportunity list report for export, read page by page from the opportunity
+     * service in chunks of {@link #exportChunkSize}
+     */
+    private ReportTable opportunityListTable(
+            com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest serviceRequest,
+            String followUpStatus, Boolean includeNotes, Boolean includeLeaders) {
+        // The service sorts the pages and breaks ties by ID
+        return ReportTables.opportunityList(ReportPages.stream(exportChunkSize, Sort.unsorted(), chunk -> {
+                    serviceRequest.setPage(chunk.getPageNumber() + 1);
+                    serviceRequest.setSize(chunk.getPageSize());
+                    return opportunityService.getOpportunityPage(serviceRequest).getContent();
+                })
+                .filter(opp -> matchesFollowUpStatus(opp, followUpStatus))
+                .map(opp -> opportunityRow(opp, includeNotes, includeLeaders)));
+    }
+    
     @Override
     public Object getContractListReport(
             Integer customerId, Integer salesId, String status, String type,
@@ -999,91 +1023,34 @@ public class ReportServiceImpl implements ReportService {
             Boolean includeEmployees, String exportType, Pageable pageable,
             Long currentUserId, Authentication authentication, HttpServletResponse response) {
         
-        // Handle export types
+        // Handle export types: every matching row, not just the requested page, read in chunks
         if (!"json".equals(exportType)) {
-            handleExport(exportType, "contract_report", response);
+            exportTable(exportType, "contract_report", () -> contractListTable(contractSpecification(salesId, status,
+                    type, opportunityId, minValue, maxValue, fromDate, toDate, expiryFromDate, expiryToDate,
+                    paymentStatus, keyword), pageable.getSort(), includePayments, includeEmployees), response);
             return null;
         }
-        
-        List<com.company.internalmgmt.modules.contract.dto.ContractDTO> allFetchedContracts;
-        Pageable initialPageable = pageable;
-        boolean needsManualFiltering = customerId != null || opportunityId != null || expiryFromDate != null || expiryToDate != null;
-
-        if (needsManualFiltering) {
-            // Fetch a large page if manual filtering is needed.
-            // Use original sort from 'pageable' but override page number and size.
-            initialPageable = org.springframework.data.domain.PageRequest.of(0, 10000, pageable.getSort());
-            log.info("Manual filtering required for contract report. Fetching up to 10000 records for filtering.");
-        }
-
-        try {
-            Page<com.company.internalmgmt.modules.contract.dto.ContractDTO> contractServicePage =
-                    contractService.searchContracts(
-                            keyword,
-                            null,    // contractCode specific filter (can be part of keyword)
-                            status,
-                            type,
-                            salesId != null ? salesId.longValue() : null,
-                            minValue,
-                            maxValue,
-                            fromDate,
-                            toDate,
-                            paymentStatus,
-                            initialPageable // Use initialPageable (could be large page or original)
-                    );
-            
-            allFetchedContracts = new ArrayList<>(contractServicePage.getContent());
 
-            // --- Manual Filtering Starts Here ---
-            List<com.company.internalmgmt.modules.contract.dto.ContractDTO> manuallyFilteredContracts = 
-                    new ArrayList<>(allFetchedContracts);
-
-            if (customerId != null) {
-                // This relies on customerId being reliably searchable via keyword by the service,
-                // or ContractDTO having a customerId field.
-                // For now, assuming ContractDTO has customerName and we filter by it if customerId is present.
-                // This is a simplification. A more robust solution might involve a separate customer lookup.
-                // We will filter by customerName based on the provided customerId if the keyword search wasn't sufficient.
-                // This part is tricky without knowing how customerId maps to customerName or if ContractDTO gets customerId.
-                // Let's assume for now that 'keyword' should ideally handle customer searches.
-                // If ContractDTO had customerId:
-                // manuallyFilteredContracts.removeIf(c -> c.getCustomerId() == null || !c.getCustomerId().equals(customerId.longValue()));
-                // Since it has customerName, and we don't have customerId in ContractDTO,
-                // this filter is hard to apply precisely here unless customerId IS the name or part of keyword.
-                log.info("customerId filter requested. Current implementation relies on 'keyword' search for customer matching. Manual post-filter for exact customerId is not directly supported on ContractDTO without customerId field.");
-            }
-
-            if (opportunityId != null) {
-                manuallyFilteredContracts.removeIf(contract -> 
-                    contract.getRelatedOpportunity() == null || 
-                    contract.getRelatedOpportunity().getId() == null ||
-                    !contract.getRelatedOpportunity().getId().equals(opportunityId.longValue())
-                );
-            }
-
-            if (expiryFromDate != null) {
-                manuallyFilteredContracts.removeIf(contract -> 
-                    contract.getEndDate() == null || contract.getEndDate().isBefore(expiryFromDate)
-                );
-            }
-            if (expiryToDate != null) {
-                manuallyFilteredContracts.removeIf(contract -> 
-                    contract.getEndDate() == null || contract.getEndDate().isAfter(expiryToDate)
-                );
-            }
-            // --- Manual Filtering Ends Here ---
+        ReportResultCache.Lookup<Object> cached = cachedReport(CONTRACT_LIST, pageable, currentUserId,
+                authentication, "customerId", customerId, "salesId", salesId, "status", status, "type", type,
+                "opportunityId", opportunityId, "minValue", minValue, "maxValue", maxValue, "fromDate", fromDate,
+                "toDate", toDate, "expiryFromDate", expiryFromDate, "expiryToDate", expiryToDate,
+                "paymentStatus", paymentStatus, "keyword", keyword, "includePayments", includePayments,
+                "includeEmployees", includeEmployees);
+        if (cached.isHit()) {
+            return cached.get();
+        }
 
-            // --- Pagination on Manually Filtered Data ---
-            List<com.company.internalmgmt.modules.contract.dto.ContractDTO> pagedContracts;
-            int totalFilteredElements = manuallyFilteredContracts.size();
-            int pageStart = pageable.getPageNumber() * pageable.getPageSize(); // pageable is 0-indexed from controller
-            int pageEnd = Math.min(pageStart + pageable.getPageSize(), totalFilteredElements);
+        // Sort fields of the report are named after the DTO; fails fast on a field the query cannot sort by
+        Pageable contractPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                contractSort(pageable.getSort()));
 
-            if (pageStart >= totalFilteredElements) {
-                pagedContracts = Collections.emptyList();
-            } else {
-                pagedContracts = manuallyFilteredContracts.subList(pageStart, pageEnd);
-            }
+        try {
+            Specification<Contract> spec = contractSpecification(salesId, status, type, opportunityId, minValue,
+                    maxValue, fromDate, toDate, expiryFromDate, expiryToDate, paymentStatus, keyword);
+            Page<Map<String, Object>> contractPage = contractRows(spec, contractPageable, includePayments,
+                    includeEmployees);
+            int totalFilteredElements = (int) contractPage.getTotalElements();
             
             // Build report structure
             Map<String, Object> reportInfo = new HashMap<>();
@@ -1106,98 +1073,18 @@ public class ReportServiceImpl implements ReportService {
             if (keyword != null) filtersApplied.put("keyword", keyword);
             reportInfo.put("filters", filtersApplied);
             
-            List<Map<String, Object>> content = pagedContracts.stream() // Use pagedContracts
-                    .map(contract -> {
-                        Map<String, Object> contractMap = new HashMap<>();
-                        contractMap.put("id", contract.getId());
-                        contractMap.put("contractCode", contract.getContractCode());
-                        contractMap.put("clientName", contract.getCustomerName());
-                        contractMap.put("projectName", contract.getName()); // API spec uses projectName for contract name
-                        contractMap.put("contractType", contract.getContractType());
-                        contractMap.put("status", contract.getStatus());
-                        contractMap.put("totalValue", contract.getAmount() != null ? contract.getAmount().longValue() : 0L);
-                        contractMap.put("currency", contract.getCurrency());
-                        contractMap.put("effectiveDate", contract.getStartDate() != null ? 
-                                contract.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                        contractMap.put("expiryDate", contract.getEndDate() != null ? 
-                                contract.getEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                        contractMap.put("signDate", contract.getSignDate() != null ? 
-                                contract.getSignDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                        
-                        // Payment status from ContractDTO itself if available and summarized
-                        String overallPaymentStatus = "Unknown";
-                        if (contract.getPaymentStatus() != null && contract.getPaymentStatus().getStatus() != null) { // Changed getOverallStatus() to getStatus()
-                            overallPaymentStatus = contract.getPaymentStatus().getStatus(); // Changed getOverallStatus() to getStatus()
-                        }
-                        contractMap.put("paymentStatus", overallPaymentStatus);
-                        
-                        if (Boolean.TRUE.equals(includePayments)) {
-                            try {
-                                List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO> payments = 
-                                        paymentTermService.getPaymentTermsByContractId(contract.getId());
-                                contractMap.put("paymentTerms", payments.stream()
-                                        .map(payment -> {
-                                            Map<String, Object> paymentMap = new HashMap<>();
-                                            paymentMap.put("id", payment.getId());
-                                            paymentMap.put("termNumber", payment.getTermNumber());
-                                            paymentMap.put("amount", payment.getAmount() != null ? payment.getAmount().longValue() : 0L);
-                                            paymentMap.put("dueDate", payment.getDueDate() != null ? 
-                                                    payment.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                                            paymentMap.put("status", payment.getStatus());
-                                            paymentMap.put("paidDate", payment.getPaidDate() != null ? 
-                                                    payment.getPaidDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                                            return paymentMap;
-                                        })
-                                        .collect(Collectors.toList()));
-                            } catch (Exception e) {
-                                log.warn("Error fetching payment terms for contract {}: {}", contract.getId(), e.getMessage());
-                                contractMap.put("paymentTerms", new java.util.ArrayList<>());
-                            }
-                        }
-                        
-                        if (Boolean.TRUE.equals(includeEmployees)) {
-                            try {
-                                List<com.company.internalmgmt.modules.contract.dto.ContractEmployeeDTO> employees = 
-                                        contractEmployeeService.getContractEmployeesByContractId(contract.getId());
-                                contractMap.put("assignedEmployees", employees.stream()
-                                        .map(emp -> {
-                                            Map<String, Object> empMap = new HashMap<>();
-                                            empMap.put("employeeId", emp.getEmployee() != null ? emp.getEmployee().getId() : null);
-                                            empMap.put("employeeName", emp.getEmployee() != null ? emp.getEmployee().getName() : "Unknown");
-                                            empMap.put("role", emp.getRole());
-                                            empMap.put("billableRate", emp.getBillRate() != null ? emp.getBillRate().doubleValue() : 0.0);
-                                            empMap.put("startDate", emp.getStartDate() != null ? 
-                                                    emp.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                                            empMap.put("endDate", emp.getEndDate() != null ? 
-                                                    emp.getEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                                            return empMap;
-                                        })
-                                        .collect(Collectors.toList()));
-                            } catch (Exception e) {
-                                 log.warn("Error fetching employees for contract {}: {}", contract.getId(), e.getMessage());
-                                contractMap.put("assignedEmployees", new java.util.ArrayList<>());
-                            }
-                        }
-                        
-                        return contractMap;
-                    })
-                    .collect(Collectors.toList());
-            
-            // Calculate summary metrics based on manuallyFilteredContracts (entire filtered dataset)
-            long totalValueAllFiltered = manuallyFilteredContracts.stream()
-                    .filter(contract -> contract.getAmount() != null)
-                    .mapToLong(contract -> contract.getAmount().longValue())
-                    .sum();
+            List<Map<String, Object>> content = contractPage.getContent();
             
-            Map<String, Integer> statusCountsAllFiltered = manuallyFilteredContracts.stream()
-                    .collect(Collectors.groupingBy(
-                            contract -> contract.getStatus() != null ? contract.getStatus().toString() : "Unknown",
-                            Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
-            
-            Map<String, Integer> typeCountsAllFiltered = manuallyFilteredContracts.stream()
-                    .collect(Collectors.groupingBy(
-                            contract -> contract.getContractType() != null ? contract.getContractType().toString() : "Unknown",
-                            Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
+            // Summary metrics cover every matching contract, not only the page
+            long totalValueAllFiltered = 0L;
+            Map<String, Integer> statusCountsAllFiltered = new HashMap<>();
+            Map<String, Integer> typeCountsAllFiltered = new HashMap<>();
+            for (Object[] row : contractRepository.summarizeByStatusAndType(spec)) {
+                int contractCount = ((Long) row[2]).intValue();
+                statusCountsAllFiltered.merge(row[0] != null ? (String) row[0] : "Unknown", contractCount, Integer::sum);
+                typeCountsAllFiltered.merge(row[1] != null ? (String) row[1] : "Unknown", contractCount, Integer::sum);
+                totalValueAllFiltered += row[3] != null ? ((BigDecimal) row[3]).longValue() : 0L;
+            }
             
             Map<String, Object> summaryMetrics = new HashMap<>();
             summaryMetrics.put("totalContracts", totalFilteredElements);
@@ -1207,7 +1094,7 @@ public class ReportServiceImpl implements ReportService {
             summaryMetrics.put("byStatus", statusCountsAllFiltered);
             summaryMetrics.put("byType", typeCountsAllFiltered);
             
-            // Build pageable info based on manual pagination
+            // Build pageable info
             Map<String, Object> pageableInfo = new HashMap<>();
             pageableInfo.put("pageNumber", pageable.getPageNumber() + 1); // Convert to 1-based for response
             pageableInfo.put("pageSize", pageable.getPageSize());
@@ -1221,7 +1108,7 @@ public class ReportServiceImpl implements ReportService {
             result.put("summaryMetrics", summaryMetrics);
             result.put("pageable", pageableInfo);
             
-            return result;
+            return cached.store(result);
             
         } catch (Exception e) {
             log.error("Error generating contract list report: {}", e.getMessage(), e);
@@ -1250,6 +1137,141 @@ public class ReportServiceImpl implements ReportService {
         }
     }
     
+    /**
+     * Filters of the contract list report. Every filter is applied by the query, so pages and counts come
+     * from the database. customerId is not applied: contracts only store a client name, matched by keyword.
+     */
+    private Specification<Contract> contractSpecification(Integer salesId, String status, String type,
+                                                          Integer opportunityId, Double minValue, Double maxValue,
+                                                          LocalDate fromDate, LocalDate toDate,
+                                                          LocalDate expiryFromDate, LocalDate expiryToDate,
+                                                          String paymentStatus, String keyword) {
+        return ContractSpecification.searchContracts(
+                        keyword,
+                        null,    // contractCode specific filter (can be part of keyword)
+                        status,
+                        type,
+                        salesId != null ? salesId.longValue() : null,
+                        minValue != null ? BigDecimal.valueOf(minValue) : null,
+                        maxValue != null ? BigDecimal.valueOf(maxValue) : null,
+                        fromDate,
+                        toDate,
+                        paymentStatus)
+                .and(opportunityId != null ? ContractSpecification.findByOpportunityId(opportunityId.longValue()) : null)
+                .and(ContractSpecification.expiringBetween(expiryFromDate, expiryToDate));
+    }
+    
+    /**
+     * Content rows of a page of the contract list report.
+     * Mapped in a read-only transaction, so that report jobs can read lazy associations too.
+     * The payment terms of the whole page are loaded by one query.
+     */
+    private Page<Map<String, Object>> contractRows(Specification<Contract> spec, Pageable pageable,
+                                                   Boolean includePayments, Boolean includeEmployees) {
+        Map<Long, List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO>> paymentsByContract = new HashMap<>();
+        Page<com.company.internalmgmt.modules.contract.dto.ContractDTO> contractPage =
+                readOnlyTransactionTemplate.execute(transactionStatus -> {
+                    Page<Contract> contracts = contractRepository.findAll(spec, pageable);
+                    Map<Long, List<ContractPaymentTerm>> termsByContract = new HashMap<>();
+                    if (contracts.hasContent()) {
+                        for (ContractPaymentTerm term : paymentTermRepository.findByContractIdIn(
+                                contracts.map(Contract::getId).getContent())) {
+                            termsByContract.computeIfAbsent(term.getContract().getId(), id -> new ArrayList<>()).add(term);
+                        }
+                    }
+                    termsByContract.forEach((id, terms) -> paymentsByContract.put(id, terms.stream()
+                            .sorted(Comparator.comparing(ContractPaymentTerm::getTermNumber))
+                            .map(ContractMapper::toPaymentTermDto)
+                            .collect(Collectors.toList())));
+                    return contracts.map(contract -> ContractMapper.toDtoWithPaymentStatus(
+                            contract, termsByContract.getOrDefault(contract.getId(), Collections.emptyList())));
+                });
+        return contractPage.map(contract -> {
+            Map<String, Object> contractMap = new HashMap<>();
+            contractMap.put("id", contract.getId());
+            contractMap.put("contractCode", contract.getContractCode());
+            contractMap.put("clientName", contract.getCustomerName());
+            contractMap.put("projectName", contract.getName()); // API spec uses projectName for contract name
+            contractMap.put("contractType", contract.getContractType());
+            contractMap.put("status", contract.getStatus());
+            contractMap.put("totalValue", contract.getAmount() != null ? contract.getAmount().longValue() : 0L);
+            contractMap.put("currency", contract.getCurrency());
+            contractMap.put("effectiveDate", contract.getStartDate() != null ? 
+                    contract.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+            contractMap.put("expiryDate", contract.getEndDate() != null ? 
+                    contract.getEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+            contractMap.put("signDate", contract.getSignDate() != null ? 
+                    contract.getSignDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+            
+            // Payment status from ContractDTO itself if available and summarized
+            String overallPaymentStatus = "Unknown";
+            if (contract.getPaymentStatus() != null && contract.getPaymentStatus().getStatus() != null) { // Changed getOverallStatus() to getStatus()
+                overallPaymentStatus = contract.getPaymentStatus().getStatus(); // Changed getOverallStatus() to getStatus()
+            }
+            contractMap.put("paymentStatus", overallPaymentStatus);
+            
+            if (Boolean.TRUE.equals(includePayments)) {
+                try {
+                    List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO> payments = 
+                            paymentsByContract.getOrDefault(contract.getId(), Collections.emptyList());
+                    contractMap.put("paymentTerms", payments.stream()
+                            .map(payment -> {
+                                Map<String, Object> paymentMap = new HashMap<>();
+                                paymentMap.put("id", payment.getId());
+                                paymentMap.put("termNumber", payment.getTermNumber());
+                                paymentMap.put("amount", payment.getAmount() != null ? payment.getAmount().longValue() : 0L);
+                                paymentMap.put("dueDate", payment.getDueDate() != null ? 
+                                        payment.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+                                paymentMap.put("status", payment.getStatus());
+                                paymentMap.put("paidDate", payment.getPaidDate() != null ? 
+                                        payment.getPaidDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+                                return paymentMap;
+                            })
+                            .collect(Collectors.toList()));
+                } catch (Exception e) {
+                    log.warn("Error fetching payment terms for contract {}: {}", contract.getId(), e.getMessage());
+                    contractMap.put("paymentTerms", new java.util.ArrayList<>());
+                }
+            }
+            
+            if (Boolean.TRUE.equals(includeEmployees)) {
+                try {
+                    List<com.company.internalmgmt.modules.contract.dto.ContractEmployeeDTO> employees = 
+                            contractEmployeeService.getContractEmployeesByContractId(contract.getId());
+                    contractMap.put("assignedEmployees", employees.stream()
+                            .map(emp -> {
+                                Map<String, Object> empMap = new HashMap<>();
+                                empMap.put("employeeId", emp.getEmployee() != null ? emp.getEmployee().getId() : null);
+                                empMap.put("employeeName", emp.getEmployee() != null ? emp.getEmployee().getName() : "Unknown");
+                                empMap.put("role", emp.getRole());
+                                empMap.put("billableRate", emp.getBillRate() != null ? emp.getBillRate().doubleValue() : 0.0);
+                                empMap.put("startDate", emp.getStartDate() != null ? 
+                                        emp.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+                                empMap.put("endDate", emp.getEndDate() != null ? 
+                                        emp.getEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+                                return empMap;
+                            })
+                            .collect(Collectors.toList()));
+                } catch (Exception e) {
+                     log.warn("Error fetching employees for contract {}: {}", contract.getId(), e.getMessage());
+                    contractMap.put("assignedEmployees", new java.util.ArrayList<>());
+                }
+            }
+            
+            return contractMap;
+        });
+    }
+    
+    /**
+     * Every contract of the contract list report for export, read and converted in chunks of
+     * {@link #exportChunkSize}, so that the payment terms are looked up for one chunk at a time
+     */
+    private ReportTable contractListTable(Specification<Contract> spec, Sort sort, Boolean includePayments,
+                                          Boolean includeEmployees) {
+        return ReportTables.contractList(ReportPages.stream(exportChunkSize, contractSort(sort).and(Sort.by("id")),
+                chunk -> contractRows(spec, chunk, includePayments, includeEmployees).getContent()));
+    }
+    
     @Override
     public Object getPaymentStatusReport(
             Integer customerId, Integer salesId, Integer contractId, String status,
@@ -1258,130 +1280,33 @@ public class ReportServiceImpl implements ReportService {
             Boolean includeDetails, String exportType, Pageable pageable,
             Long currentUserId, Authentication authentication, HttpServletResponse response) {
         
+        // Handle export types: every matching row, not just the requested page, read in chunks
         if (!"json".equals(exportType)) {
-            handleExport(exportType, "payment_report", response);
+            exportTable(exportType, "payment_report", () -> paymentStatusTable(paymentTermSpecification(salesId,
+                    contractId, status, fromDate, toDate, paidFromDate, paidToDate, minAmount, maxAmount),
+                    pageable.getSort()), response);
             return null;
         }
-        
-        List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO> allRelevantPaymentTerms = new ArrayList<>();
-        com.company.internalmgmt.modules.contract.dto.ContractDTO targetContractDto = null;
-        Map<Long, com.company.internalmgmt.modules.contract.dto.ContractDTO> contractDetailsMap = new HashMap<>(); // For aggregated view
 
+        ReportResultCache.Lookup<Object> cached = cachedReport(PAYMENT_STATUS, pageable, currentUserId,
+                authentication, "customerId", customerId, "salesId", salesId, "contractId", contractId,
+                "status", status, "fromDate", fromDate, "toDate", toDate, "paidFromDate", paidFromDate,
+                "paidToDate", paidToDate, "minAmount", minAmount, "maxAmount", maxAmount,
+                "includeDetails", includeDetails);
+        if (cached.isHit()) {
+            return cached.get();
+        }
+
+        // Sort fields of the report are named after the DTO; fails fast on a field the query cannot sort by
+        Pageable termPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                paymentTermSort(pageable.getSort()));
+        
         try {
-            if (contractId != null) {
-                allRelevantPaymentTerms = paymentTermService.getPaymentTermsByContractId(contractId.longValue());
-                try {
-                    targetContractDto = contractService.getContractById(contractId.longValue(), false, false, false);
-                    if (targetContractDto != null) {
-                        contractDetailsMap.put(targetContractDto.getId(), targetContractDto);
-                    }
-                } catch (Exception e) {
-                    log.warn("Could not fetch details for contractId {}: {}", contractId, e.getMessage());
-                }
-            } else {
-                // Aggregated report: Fetch based on broader criteria if possible, or all terms and then filter.
-                // Current approach: Overdue and upcoming. This does not directly support customerId/salesId filtering efficiently.
-                // For a more robust customerId/salesId filter on aggregated payments, service layer changes would be ideal.
-                
-                // Placeholder: If we were to fetch ALL payment terms for manual filtering (could be very large):
-                // Page<ContractPaymentTermDTO> allTermsPage = paymentTermService.getAllPaymentTerms(PageRequest.of(0, Integer.MAX_VALUE));
-                // allRelevantPaymentTerms.addAll(allTermsPage.getContent());
-                // Then, we would need to fetch contract details for each term, which is inefficient.
-
-                // Sticking to existing logic of overdue/upcoming for non-contractId specific general view
-                List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO> overduePayments = 
-                        paymentTermService.findOverduePaymentTerms(); // This should return terms with contractId
-                List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO> upcomingPayments = 
-                        paymentTermService.findPaymentTermsDueSoon(30); // This should return terms with contractId
-
-                if (overduePayments != null) allRelevantPaymentTerms.addAll(overduePayments);
-                if (upcomingPayments != null) {
-                    // Avoid duplicates if a payment is both overdue and upcoming (edge case, but possible)
-                    for (com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO upcoming : upcomingPayments) {
-                        if (!allRelevantPaymentTerms.stream().anyMatch(p -> p.getId().equals(upcoming.getId()))) {
-                            allRelevantPaymentTerms.add(upcoming);
-                        }
-                    }
-                }
-                // Populate contractDetailsMap for terms fetched in aggregated view
-                // This is inefficient but necessary if contract details are needed per term and not filtered by a single contractId
-                // ContractPaymentTermDTO should ideally include contractId to make this efficient.
-                // Assuming ContractPaymentTermDTO *does* have contractId based on previous context (even if not explicitly shown in search)
-                if (includeDetails) { // Only fetch if details are needed
-                    List<Long> distinctContractIds = allRelevantPaymentTerms.stream()
-                        .map(com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO::getContractId) // Assuming getContractId() exists!
-                        .filter(cId -> cId != null)
-                        .distinct()
-                        .collect(Collectors.toList());
-                    for (Long cId : distinctContractIds) {
-                        if (!contractDetailsMap.containsKey(cId)) {
-                            try {
-                                com.company.internalmgmt.modules.contract.dto.ContractDTO cDto = contractService.getContractById(cId, false, false, false);
-                                if (cDto != null) contractDetailsMap.put(cId, cDto);
-                            } catch (Exception e) {
-                                log.warn("Could not fetch details for contractId {} in aggregated payment report: {}", cId, e.getMessage());
-                            }
-                        }
-                    }
-                }
-            }
-            
-            final com.company.internalmgmt.modules.contract.dto.ContractDTO finalTargetContractDto = targetContractDto;
-
-            List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO> filteredPayments = 
-                    allRelevantPaymentTerms.stream()
-                    .filter(payment -> {
-                        com.company.internalmgmt.modules.contract.dto.ContractDTO currentContractForPayment = 
-                            finalTargetContractDto != null ? finalTargetContractDto : contractDetailsMap.get(payment.getContractId());
-
-                        if (customerId != null) {
-                            if (currentContractForPayment == null || currentContractForPayment.getCustomerName() == null) return false; // Cannot filter
-                            // This is a name match, not ID match. CustomerID on ContractDTO would be better.
-                            // Assuming customerId parameter is actually a name or part of it if used for filtering here.
-                            // boolean customerMatch = currentContractForPayment.getCustomerName().toLowerCase().contains(customerId.toString().toLowerCase());
-                            // For now, if customerId is passed, we assume it's for a specific contract report (targetContractDto should exist)
-                            // or it's not effectively filterable in aggregate view without better DTOs/services.
-                            if (finalTargetContractDto == null) {
-                                // log.warn("customerId filter on aggregated payment report is indicative and may not be precise.");
-                            } else { // Only apply if it's for the specific contract's customer
-                                // if (currentContractForPayment.getCustomerId() != customerId) return false; // Ideal check
-                                // We don't have customerId on ContractDTO for a direct match here.
-                            }
-                        }
-                        if (salesId != null) {
-                            if (currentContractForPayment == null || currentContractForPayment.getSalesPerson() == null || currentContractForPayment.getSalesPerson().getId() == null) return false;
-                            if (!currentContractForPayment.getSalesPerson().getId().equals(salesId.longValue())) return false;
-                        }
-                        if (status != null && (payment.getStatus() == null || !status.equalsIgnoreCase(payment.getStatus()))) {
-                            return false;
-                        }
-                        if (minAmount != null && (payment.getAmount() == null || payment.getAmount().doubleValue() < minAmount)) {
-                            return false;
-                        }
-                        if (maxAmount != null && (payment.getAmount() == null || payment.getAmount().doubleValue() > maxAmount)) {
-                            return false;
-                        }
-                        if (fromDate != null && (payment.getDueDate() == null || payment.getDueDate().isBefore(fromDate))) {
-                            return false;
-                        }
-                        if (toDate != null && (payment.getDueDate() == null || payment.getDueDate().isAfter(toDate))) {
-                            return false;
-                        }
-                        if (paidFromDate != null && (payment.getPaidDate() == null || payment.getPaidDate().isBefore(paidFromDate))) {
-                            return false;
-                        }
-                        if (paidToDate != null && (payment.getPaidDate() == null || payment.getPaidDate().isAfter(paidToDate))) {
-                            return false;
-                        }
-                        return true;
-                    })
-                    .collect(Collectors.toList());
-            
-            int totalFilteredElements = filteredPayments.size();
-            int pageStart = pageable.getPageNumber() * pageable.getPageSize();
-            int pageEnd = Math.min(pageStart + pageable.getPageSize(), totalFilteredElements);
-            List<com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO> pagedPayments = 
-                    (pageStart <= pageEnd && pageStart < totalFilteredElements) ? filteredPayments.subList(pageStart, pageEnd) : Collections.emptyList();
+            Specification<ContractPaymentTerm> spec = paymentTermSpecification(salesId, contractId, status,
+                    fromDate, toDate, paidFromDate, paidToDate, minAmount, maxAmount);
+            Page<ContractPaymentTerm> paymentPage = paymentTermRepository.findAll(spec, termPageable);
+            int totalFilteredElements = (int) paymentPage.getTotalElements();
+            LocalDate today = LocalDate.now();
             
             Map<String, Object> reportInfo = new HashMap<>();
             reportInfo.put("reportName", "Báo cáo tình trạng thanh toán/công nợ");
@@ -1400,74 +1325,24 @@ public class ReportServiceImpl implements ReportService {
             if (maxAmount != null) filtersApplied.put("maxAmount", maxAmount);
             reportInfo.put("filters", filtersApplied);
             
-            List<Map<String, Object>> content = pagedPayments.stream()
-                    .map(payment -> {
-                        Map<String, Object> paymentMap = new HashMap<>();
-                        paymentMap.put("id", payment.getId());
-                        
-                        com.company.internalmgmt.modules.contract.dto.ContractDTO contractForPayment = 
-                            finalTargetContractDto != null ? finalTargetContractDto : contractDetailsMap.get(payment.getContractId());
-
-                        if (contractForPayment != null) {
-                            paymentMap.put("contractId", contractForPayment.getId());
-                            paymentMap.put("contractCode", contractForPayment.getContractCode());
-                            paymentMap.put("clientName", contractForPayment.getCustomerName());
-                            paymentMap.put("currency", contractForPayment.getCurrency());
-                        } else {
-                            paymentMap.put("contractId", payment.getContractId()); // Keep payment's contractId if parent DTO not found
-                            paymentMap.put("contractCode", "N/A"); 
-                            paymentMap.put("clientName", "N/A"); 
-                            paymentMap.put("currency", "N/A"); 
-                        }
-                        
-                        paymentMap.put("termNumber", payment.getTermNumber());
-                        paymentMap.put("description", payment.getDescription());
-                        paymentMap.put("amount", payment.getAmount() != null ? payment.getAmount().longValue() : 0L);
-                        paymentMap.put("dueDate", payment.getDueDate() != null ? 
-                                payment.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                        paymentMap.put("status", payment.getStatus());
-                        paymentMap.put("paidDate", payment.getPaidDate() != null ? 
-                                payment.getPaidDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
-                        paymentMap.put("paidAmount", payment.getPaidAmount() != null ? payment.getPaidAmount().longValue() : 0L);
-                        
-                        if (payment.getDueDate() != null && !"Paid".equalsIgnoreCase(payment.getStatus())) {
-                            long daysDiff = java.time.temporal.ChronoUnit.DAYS.between(payment.getDueDate(), LocalDate.now());
-                            if (daysDiff > 0) {
-                                paymentMap.put("daysOverdue", daysDiff);
-                            } else {
-                                paymentMap.put("daysToDue", Math.abs(daysDiff));
-                            }
-                        } else {
-                            paymentMap.put("daysOverdue", 0);
-                            paymentMap.put("daysToDue", 0);
-                        }
-                        
-                        return paymentMap;
-                    })
-                    .collect(Collectors.toList());
-            
-            long totalAmount = filteredPayments.stream()
-                    .filter(p -> p.getAmount() != null)
-                    .mapToLong(p -> p.getAmount().longValue())
-                    .sum();
+            List<Map<String, Object>> content = paymentRows(paymentPage.getContent(), today);
             
-            long paidAmountTotal = filteredPayments.stream()
-                    .filter(p -> "Paid".equalsIgnoreCase(p.getStatus()) && p.getPaidAmount() != null)
-                    .mapToLong(p -> p.getPaidAmount().longValue())
-                    .sum();
-            
-            long overdueAmount = filteredPayments.stream()
-                    .filter(p -> p.getDueDate() != null && 
-                            p.getDueDate().isBefore(LocalDate.now()) && 
-                            !"Paid".equalsIgnoreCase(p.getStatus()) &&
-                            p.getAmount() != null)
-                    .mapToLong(p -> p.getAmount().longValue())
-                    .sum();
-            
-            Map<String, Integer> statusCounts = filteredPayments.stream()
-                    .collect(Collectors.groupingBy(
-                            payment -> payment.getStatus() != null ? payment.getStatus() : "Unknown",
-                            Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
+            // Totals cover every matching payment term, not only the page
+            long totalAmount = 0L;
+            long paidAmountTotal = 0L;
+            long overdueAmount = 0L;
+            Map<String, Integer> statusCounts = new HashMap<>();
+            for (Object[] row : paymentTermRepository.summarizeByStatus(spec, today)) {
+                String termStatus = (String) row[0];
+                // Statuses differing only in case are grouped apart by case-sensitive collations
+                statusCounts.merge(termStatus != null ? termStatus.toLowerCase(Locale.ROOT) : "Unknown",
+                        ((Long) row[1]).intValue(), Integer::sum);
+                totalAmount += row[2] != null ? ((BigDecimal) row[2]).longValue() : 0L;
+                if (PaymentStatus.PAID.getValue().equalsIgnoreCase(termStatus) && row[3] != null) {
+                    paidAmountTotal += ((BigDecimal) row[3]).longValue();
+                }
+                overdueAmount += row[4] != null ? ((BigDecimal) row[4]).longValue() : 0L;
+            }
             
             Map<String, Object> summaryMetrics = new HashMap<>();
             summaryMetrics.put("totalPaymentTerms", totalFilteredElements);
@@ -1490,7 +1365,7 @@ public class ReportServiceImpl implements ReportService {
             result.put("summaryMetrics", summaryMetrics);
             result.put("pageable", pageableInfo);
             
-            return result;
+            return cached.store(result);
             
         } catch (Exception e) {
             log.error("Error generating payment status report: {}", e.getMessage(), e);
@@ -1519,6 +1394,77 @@ public class ReportServiceImpl implements ReportService {
         }
     }
     
+    /**
+     * Filters of the payment status report. Every filter is applied by the query, over all payment terms
+     * rather than only overdue and upcoming ones. customerId is not applied: contracts only store a client name.
+     */
+    private Specification<ContractPaymentTerm> paymentTermSpecification(Integer salesId, Integer contractId,
+                                                                        String status, LocalDate fromDate,
+                                                                        LocalDate toDate, LocalDate paidFromDate,
+                                                                        LocalDate paidToDate, Double minAmount,
+                                                                        Double maxAmount) {
+        return ContractPaymentTermSpecification.searchPaymentTerms(
+                contractId != null ? contractId.longValue() : null,
+                salesId != null ? salesId.longValue() : null,
+                status, fromDate, toDate, paidFromDate, paidToDate,
+                minAmount != null ? BigDecimal.valueOf(minAmount) : null,
+                maxAmount != null ? BigDecimal.valueOf(maxAmount) : null);
+    }
+    
+    /**
+     * Content rows of payment terms of the payment status report
+     */
+    private List<Map<String, Object>> paymentRows(List<ContractPaymentTerm> terms, LocalDate today) {
+        return terms.stream()
+                .map(term -> {
+                    com.company.internalmgmt.modules.contract.dto.ContractPaymentTermDTO payment = 
+                            ContractMapper.toPaymentTermDto(term);
+                    Contract contractForPayment = term.getContract();
+                    
+                    Map<String, Object> paymentMap = new HashMap<>();
+                    paymentMap.put("id", payment.getId());
+                    paymentMap.put("contractId", contractForPayment.getId());
+                    paymentMap.put("contractCode", contractForPayment.getContractCode());
+                    paymentMap.put("clientName", contractForPayment.getClientName());
+                    paymentMap.put("currency", contractForPayment.getCurrency());
+                    
+                    paymentMap.put("termNumber", payment.getTermNumber());
+                    paymentMap.put("description", payment.getDescription());
+                    paymentMap.put("amount", payment.getAmount() != null ? payment.getAmount().longValue() : 0L);
+                    paymentMap.put("dueDate", payment.getDueDate() != null ? 
+                            payment.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+                    paymentMap.put("status", payment.getStatus());
+                    paymentMap.put("paidDate", payment.getPaidDate() != null ? 
+                            payment.getPaidDate().format(DateTimeFormatter.ISO_LOCAL_DATE) : null);
+                    paymentMap.put("paidAmount", payment.getPaidAmount() != null ? payment.getPaidAmount().longValue() : 0L);
+                    
+                    if (payment.getDueDate() != null && !"Paid".equalsIgnoreCase(payment.getStatus())) {
+                        long daysDiff = java.time.temporal.ChronoUnit.DAYS.between(payment.getDueDate(), today);
+                        if (daysDiff > 0) {
+                            paymentMap.put("daysOverdue", daysDiff);
+                        } else {
+                            paymentMap.put("daysToDue", Math.abs(daysDiff));
+                        }
+                    } else {
+                        paymentMap.put("daysOverdue", 0);
+                        paymentMap.put("daysToDue", 0);
+                    }
+                    
+                    return paymentMap;
+                })
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Every payment term of the payment status report for export, read and converted in chunks of
+     * {@link #exportChunkSize}
+     */
+    private ReportTable paymentStatusTable(Specification<ContractPaymentTerm> spec, Sort sort) {
+        LocalDate today = LocalDate.now();
+        return ReportTables.paymentStatus(ReportPages.stream(exportChunkSize, paymentTermSort(sort).and(Sort.by("id")),
+                chunk -> paymentRows(paymentTermRepository.findAll(spec, chunk).getContent(), today)));
+    }
+    
     @Override
     public SalesKpiReportDTO getKpiProgressReport(
             Integer salesId, Integer year, Integer quarter, Integer month,
@@ -1527,32 +1473,33 @@ public class ReportServiceImpl implements ReportService {
             Authentication authentication, HttpServletResponse response) {
         
         if (!"json".equals(exportType)) {
-            handleExport(exportType, "kpi_report", response);
-            return null; 
+            if (reportExporter.supports(exportType)) {
+                SalesKpiReportDTO report = getKpiProgressReport(salesId, year, quarter, month, minAchievement,
+                        maxAchievement, includeDetails, "json", exportPageable(pageable), currentUserId,
+                        authentication, response);
+                reportExporter.export(exportType, "kpi_report", ReportTables.kpiProgress(report.getContent()), response);
+            } else {
+                handleExport(exportType, "kpi_report", response);
+            }
+            return null;
         }
 
-        // This is a placeholder for the actual SalesKpiService and SalesKpiData.
-        // When SalesKpiService is implemented, replace this simulated data fetching.
-        // SalesKpiFilter kpiFilter = SalesKpiFilter.builder()
-        //         .salesPersonId(salesId)
-        //         .year(year)
-        //         .quarter(quarter)
-        //         .month(month)
-        //         .build();
-        // IMPORTANT: Use Pageable.unpaged() to fetch ALL data for correct summary calculation
-        // Page<SalesKpiData> allKpisPage = salesKpiService.getSalesKpis(kpiFilter, Pageable.unpaged());
-        // List<SalesKpiData> allRawKpiData = allKpisPage.getContent();
-        
-        // --- SIMULATED DATA FETCHING START ---
-        // Replace this block with actual salesKpiService call when available.
-        List<SimulatedSalesKpiData> allRawKpiData = getSimulatedSalesKpiData(salesId, year, quarter, month);
-        // --- SIMULATED DATA FETCHING END ---
+        ReportResultCache.Lookup<SalesKpiReportDTO> cached = cachedReport(KPI_PROGRESS, pageable, currentUserId,
+                authentication, "salesId", salesId, "year", year, "quarter", quarter, "month", month,
+                "minAchievement", minAchievement, "maxAchievement", maxAchievement, "includeDetails", includeDetails);
+        if (cached.isHit()) {
+            return cached.get();
+        }
+
+        // Targets from sales_kpis and collected revenue from the monthly roll-up, one query each
+        int reportYear = (year != null) ? year : LocalDate.now().getYear();
+        List<SalesKpiProgressDTO> allRawKpiData = salesKpiService.getKpiProgress(reportYear, quarter, month,
+                salesId != null ? salesId.longValue() : null);
 
         try {
             // 1. Build ReportInfo
             // Assuming ReportInfoDTO can hold a generic 'periodDetails' or adapt KpiPeriodInfoDTO
              Map<String, Object> periodDetailsMap = new HashMap<>();
-            int reportYear = (year != null) ? year : LocalDate.now().getYear();
             String periodDescription = "Năm " + reportYear;
             periodDetailsMap.put("year", reportYear);
             if (quarter != null) {
@@ -1589,7 +1536,7 @@ public class ReportServiceImpl implements ReportService {
             // 2. Transform raw data to SalesKpiDetailDTO list
             List<SalesKpiDetailDTO> allKpiDetails = allRawKpiData.stream()
                 .map(rawData -> {
-                    BigDecimal target = rawData.getKpiTargetAmount();
+                    BigDecimal target = rawData.getTargetRevenue();
                     BigDecimal actual = rawData.getActualRevenue();
                     double achievementRate = 0.0;
 
@@ -1617,10 +1564,10 @@ public class ReportServiceImpl implements ReportService {
                     }
 
                     return SalesKpiDetailDTO.builder()
-                        .salesPersonId(rawData.getSalesPersonId())
-                        .salesPersonName(rawData.getSalesPersonName())
+                        .salesPersonId(rawData.getSalesUserId())
+                        .salesPersonName(rawData.getSalesUserName())
                         .teamName(rawData.getTeamName())
-                        .period(rawData.getPeriodIdentifier())
+                        .period(rawData.getPeriod())
                         .kpiTargetAmount(target)
                         .actualRevenue(actual)
                         .achievementRate(achievementRate)
@@ -1696,9 +1643,9 @@ public class ReportServiceImpl implements ReportService {
                 pagedContent = Collections.emptyList();
             } else {
                 int endItem = Math.min(startItem + pageSize, totalElements);
-                pagedContent = filteredKpiDetails.subList(startItem, endItem);
+                pagedContent = new ArrayList<>(filteredKpiDetails.subList(startItem, endItem));
             }
-            
+
             int totalPages = (totalElements == 0) ? 0 : (int) Math.ceil((double) totalElements / pageSize);
             if (totalPages == 0 && totalElements > 0) totalPages = 1;
 
@@ -1707,12 +1654,12 @@ public class ReportServiceImpl implements ReportService {
                 .totalPages(totalPages).totalElements(totalElements)
                 .sort(pageable.getSort().toString()).build();
 
-            return SalesKpiReportDTO.builder()
+            return cached.store(SalesKpiReportDTO.builder()
                 .reportInfo(finalReportInfo)
                 .summaryMetrics(summaryMetrics)
                 .content(pagedContent)
                 .pageable(pageableInfo)
-                .build();
+                .build());
 
         } catch (Exception e) {
             log.error("Error generating KPI progress report: {}", e.getMessage(), e);
@@ -1751,71 +1698,6 @@ public class ReportServiceImpl implements ReportService {
 
     // --- Helper Methods --- 
 
-    // SIMULATED DATA HELPER - REMOVE WHEN SalesKpiService IS REAL
-    // This class should be SalesKpiData from your sales module when implemented
-    private static class SimulatedSalesKpiData { 
-        private Long salesPersonId;
-        private String salesPersonName;
-        private String teamName;
-        private String periodIdentifier;
-        private BigDecimal kpiTargetAmount;
-        private BigDecimal actualRevenue;
-
-        public SimulatedSalesKpiData(Long id, String name, String team, String period, BigDecimal target, BigDecimal actual) {
-            this.salesPersonId = id; this.salesPersonName = name; this.teamName = team;
-            this.periodIdentifier = period; this.kpiTargetAmount = target; this.actualRevenue = actual;
-        }
-        public Long getSalesPersonId() { return salesPersonId; }
-        public String getSalesPersonName() { return salesPersonName; }
-        public String getTeamName() { return teamName; }
-        public String getPeriodIdentifier() { return periodIdentifier; }
-        public BigDecimal getKpiTargetAmount() { return kpiTargetAmount; }
-        public BigDecimal getActualRevenue() { return actualRevenue; }
-    }
-
-    private List<SimulatedSalesKpiData> getSimulatedSalesKpiData(Integer salesIdFilter, Integer yearFilter, Integer qFilter, Integer mFilter) {
-        List<SimulatedSalesKpiData> data = new ArrayList<>();
-        int currentYear = LocalDate.now().getYear();
-        String periodSuffix = "";
-        if (yearFilter == null) yearFilter = currentYear;
-
-        if (mFilter != null && qFilter != null) { // Month takes precedence if both are given
-             periodSuffix = String.format("-%02d", mFilter);
-        } else if (mFilter != null) {
-             periodSuffix = String.format("-%02d", mFilter);
-        } else if (qFilter != null) {
-             periodSuffix = "-Q" + qFilter;
-        }
-        String simPeriod = yearFilter + periodSuffix;
-        if (simPeriod.equals(String.valueOf(yearFilter)) && yearFilter == currentYear && qFilter == null && mFilter == null) { // Default to current month if only year is current year
-            simPeriod = yearFilter + String.format("-%02d", LocalDate.now().getMonthValue());
-        } else if (simPeriod.equals(String.valueOf(yearFilter))) { // If only year is specified, assume it's annual.
-             // For annual, periodIdentifier might just be the year or have a suffix like "-Annual"
-             // For simulation, let's just use year.
-        }
-
-
-        data.add(new SimulatedSalesKpiData(1L, "Nguyễn Văn A", "Team Alpha", simPeriod, new BigDecimal("100000000"), new BigDecimal("120000000"))); // 120%
-        data.add(new SimulatedSalesKpiData(2L, "Trần Thị B", "Team Alpha", simPeriod, new BigDecimal("150000000"), new BigDecimal("135000000"))); // 90%
-        data.add(new SimulatedSalesKpiData(3L, "Lê Văn C", "Team Beta", simPeriod, new BigDecimal("120000000"), new BigDecimal("80000000")));   // 66.67%
-        data.add(new SimulatedSalesKpiData(4L, "Phạm Thị D", "Team Beta", simPeriod, new BigDecimal("200000000"), new BigDecimal("220000000"))); // 110%
-        data.add(new SimulatedSalesKpiData(5L, "Hoàng Văn E", "Team Gamma", simPeriod, new BigDecimal("80000000"), new BigDecimal("75000000")));  // 93.75%
-        data.add(new SimulatedSalesKpiData(6L, "Vũ Thị F", "Team Gamma", simPeriod, new BigDecimal("100000000"), null));                        // 0% (no actual)
-        data.add(new SimulatedSalesKpiData(7L, "Đỗ Văn G", "Team Alpha", simPeriod, null, new BigDecimal("50000000")));                         // 200% (no target, but revenue)
-        data.add(new SimulatedSalesKpiData(8L, "Bùi Thị H", "Team Beta", simPeriod, new BigDecimal("50000000"), new BigDecimal("30000000")));    // 60%
-        data.add(new SimulatedSalesKpiData(9L, "Ngô Văn I", "Team Gamma", simPeriod, new BigDecimal("120000000"), new BigDecimal("120000000"))); // 100%
-        data.add(new SimulatedSalesKpiData(10L, "Đặng Thị K", "Team Alpha", simPeriod, new BigDecimal("0"), new BigDecimal("10000000")));        // 200% (zero target, but revenue)
-        data.add(new SimulatedSalesKpiData(11L, "Trịnh Văn L", "Team Beta", simPeriod, new BigDecimal("100000000"), new BigDecimal("0")));        // 0% (target, but zero revenue)
-
-
-        if (salesIdFilter != null) {
-            data.removeIf(d -> !d.getSalesPersonId().equals(salesIdFilter.longValue()));
-        }
-        return data;
-    }
-    // END OF SIMULATED DATA HELPER
-
-
     private String calculateFollowUpStatus(LocalDateTime lastInteractionDate) {
         if (lastInteractionDate == null) {
             return "red"; 
@@ -1854,18 +1736,178 @@ public class ReportServiceImpl implements ReportService {
         }
     }
 
-    private void handleExport(String exportType, String reportName, HttpServletResponse response) {
-        // ... (current implementation for handleExport) ...
-        log.info("Handling export for type: {} and report: {}", exportType, reportName);
-        // Actual export logic (e.g., writing to CSV/Excel) would go here.
-        // For now, just sets headers as in the original example if provided.
-        if ("excel".equalsIgnoreCase(exportType)) {
-            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-            response.setHeader("Content-Disposition", "attachment; filename=\"" + reportName + "_" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".xlsx\"");
-        } else if ("csv".equalsIgnoreCase(exportType)) {
-            response.setContentType("text/csv");
-            response.setHeader("Content-Disposition", "attachment; filename=\"" + reportName + "_" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".csv\"");
+    @Override
+    public long writeReport(String reportType, ReportFilters filters, String exportType, OutputStream outputStream,
+                            Long currentUserId, Authentication authentication) throws IOException {
+        LocalDate today = LocalDate.now();
+        switch (reportType) {
+            case EMPLOYEE_LIST: {
+                List<Long> visibleTeamIds = employeeReportRows.visibleTeamIds(currentUserId, authentication);
+                return writeTable(exportType, "employee_report", () -> ReportTables.employeeList(
+                        employeeReportRows.stream(visibleTeamIds, filters.getInteger("teamId"),
+                                filters.getString("position"), filters.getString("status"),
+                                filters.getIntegerList("skills"), filters.getBoolean("includeSkills", true),
+                                filters.getBoolean("includeProjects", true), exportChunkSize)), outputStream);
+            }
+            case MARGIN_DETAIL:
+                return writeTable(exportType, "margin_detail_report", () -> marginDetailTable(
+                        filters.getInteger("teamId"), filters.getInteger("employeeId"),
+                        filters.getString("period", "month"), dateOrDefault(filters, "fromDate", today.minusYears(1)),
+                        dateOrDefault(filters, "toDate", today), filters.getString("groupBy", "employee"),
+                        reportSort(filters, "margin", "desc")), outputStream);
+            case OPPORTUNITY_LIST:
+                return writeTable(exportType, "opportunity_report", () -> opportunityListTable(opportunityRequest(
+                        filters.getInteger("salesId"), filters.getInteger("leaderId"), filters.getString("dealStage"),
+                        filters.getBoolean("onsite", null), dateOrDefault(filters, "fromDate", today.minusYears(1)),
+                        dateOrDefault(filters, "toDate", today), filters.getString("keyword"),
+                        reportSort(filters, "lastInteractionDate", "desc")), filters.getString("followUpStatus"),
+                        filters.getBoolean("includeNotes", false), filters.getBoolean("includeLeaders", true)),
+                        outputStream);
+            case CONTRACT_LIST:
+                return writeTable(exportType, "contract_report", () -> contractListTable(contractSpecification(
+                        filters.getInteger("salesId"), filters.getString("status"), filters.getString("type"),
+                        filters.getInteger("opportunityId"), filters.getDouble("minValue"), filters.getDouble("maxValue"),
+                        dateOrDefault(filters, "fromDate", today.minusYears(1)), dateOrDefault(filters, "toDate", today),
+                        filters.getDate("expiryFromDate"), filters.getDate("expiryToDate"),
+                        filters.getString("paymentStatus"), filters.getString("keyword")),
+                        reportSort(filters, "signedDate", "desc"), filters.getBoolean("includePayments", true),
+                        filters.getBoolean("includeEmployees", true)), outputStream);
+            case PAYMENT_STATUS:
+                return writeTable(exportType, "payment_report", () -> paymentStatusTable(paymentTermSpecification(
+                        filters.getInteger("salesId"), filters.getInteger("contractId"), filters.getString("status"),
+                        dateOrDefault(filters, "fromDate", today.minusMonths(6)),
+                        dateOrDefault(filters, "toDate", today.plusMonths(6)), filters.getDate("paidFromDate"),
+                        filters.getDate("paidToDate"), filters.getDouble("minAmount"), filters.getDouble("maxAmount")),
+                        reportSort(filters, "dueDate", "asc")), outputStream);
+            case KPI_PROGRESS: {
+                Integer year = filters.getInteger("year");
+                SalesKpiReportDTO report = getKpiProgressReport(filters.getInteger("salesId"),
+                        year != null ? year : today.getYear(), filters.getInteger("quarter"), filters.getInteger("month"),
+                        filters.getDouble("minAchievement"), filters.getDouble("maxAchievement"),
+                        filters.getBoolean("includeDetails", true), "json",
+                        reportPageable(filters, "achievementPercentage", "desc"), currentUserId, authentication, null);
+                return reportExporter.write(exportType, "kpi_report",
+                        ReportTables.kpiProgress(report.getContent()), outputStream);
+            }
+            default:
+                throw new BadRequestException("Unknown report type: " + reportType);
         }
     }
+    
+    private LocalDate dateOrDefault(ReportFilters filters, String name, LocalDate defaultValue) {
+        LocalDate date = filters.getDate(name);
+        return date != null ? date : defaultValue;
+    }
+    
+    /**
+     * Sort of a report, as the report endpoint would sort it
+     */
+    private Sort reportSort(ReportFilters filters, String defaultSortBy, String defaultSortDir) {
+        Sort sort = Sort.by(filters.getString("sortBy", defaultSortBy));
+        return "asc".equalsIgnoreCase(filters.getString("sortDir", defaultSortDir)) ? sort.ascending() : sort.descending();
+    }
+    
+    /**
+     * Page covering every row of a report, sorted as the report endpoint would sort it
+     */
+    private Pageable reportPageable(ReportFilters filters, String defaultSortBy, String defaultSortDir) {
+        return PageRequest.of(0, Integer.MAX_VALUE, reportSort(filters, defaultSortBy, defaultSortDir));
+    }
+    
+    /**
+     * Export a report table read in chunks to the response. Every chunk is read within one read-only
+     * transaction, for a consistent read.
+     */
+    private void exportTable(String exportType, String reportName, Supplier<ReportTable> table,
+                             HttpServletResponse response) {
+        if (!reportExporter.supports(exportType)) {
+            handleExport(exportType, reportName, response);
+        }
+        readOnlyTransactionTemplate.executeWithoutResult(tx -> reportExporter.export(exportType, reportName,
+                table.get(), response));
+    }
+    
+    /**
+     * Write a report table read in chunks to an output stream, within one read-only transaction like {@link #exportTable}
+     *
+     * @return the number of rows written
+     */
+    private long writeTable(String exportType, String reportName, Supplier<ReportTable> table,
+                            OutputStream outputStream) throws IOException {
+        try {
+            return readOnlyTransactionTemplate.execute(tx -> {
+                try {
+                    return reportExporter.write(exportType, reportName, table.get(), outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Look up a report in the result cache. The key holds the caller's permission scope, the page and
+     * the filters in canonical form, so that equivalent requests share an entry.
+     *
+     * @param namesAndValues filter names of {@link #REPORT_FILTERS} alternating with their values
+     */
+    private <T> ReportResultCache.Lookup<T> cachedReport(String reportType, Pageable pageable, Long currentUserId,
+                                                         Authentication authentication, Object... namesAndValues) {
+        Map<String, Object> filters = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            filters.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        String key = reportType + "|" + dashboardService.getScopeKey(authentication, currentUserId)
+                + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort()
+                + "|" + ReportFilters.of(filters).canonicalKey();
+        return reportResultCache.lookup(reportType, key, pageable.getPageSize());
+    }
+
+    /**
+     * Contract list report sort translated to Contract properties
+     */
+    private Sort contractSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String property = CONTRACT_SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new BadRequestException("Unsupported sort field for the contract list report: " + order.getProperty());
+            }
+            orders.add(order.withProperty(property));
+        }
+        return Sort.by(orders);
+    }
+    
+    /**
+     * Payment status report sort translated to ContractPaymentTerm properties
+     */
+    private Sort paymentTermSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String property = PAYMENT_TERM_SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new BadRequestException("Unsupported sort field for the payment status report: " + order.getProperty());
+            }
+            orders.add(order.withProperty(property));
+        }
+        return Sort.by(orders);
+    }
+    
+    /**
+     * Page covering every row of a report, keeping the requested sort
+     */
+    private Pageable exportPageable(Pageable pageable) {
+        return PageRequest.of(0, Integer.MAX_VALUE, pageable.getSort());
+    }
+    
+    /**
+     * Export types not written by {@link ReportExporter}
+     */
+    private void handleExport(String exportType, String reportName, HttpServletResponse response) {
+        log.info("Rejecting export for type: {} and report: {}", exportType, reportName);
+        throw new BadRequestException("Unsupported export type: " + exportType);
+    }
 
 } // End of ReportServiceImpl class 
\ No newline at end of file
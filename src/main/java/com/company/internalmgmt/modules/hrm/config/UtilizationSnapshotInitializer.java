@@ -0,0 +1,38 @@
+package com.company.internalmgmt.modules.hrm.config;
+
+import com.company.internalmgmt.modules.hrm.service.UtilizationSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfill the utilization_snapshot table on startup when it is still empty
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UtilizationSnapshotInitializer implements CommandLineRunner {
+
+    private final UtilizationSnapshotService utilizationSnapshotService;
+
+    @Value("${app.utilization.snapshot.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        try {
+            if (utilizationSnapshotService.isEmpty()) {
+                log.info("Utilization snapshot table is empty, rebuilding from employee status logs...");
+                utilizationSnapshotService.rebuildAll();
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill utilization snapshots: {}", e.getMessage(), e);
+        }
+    }
+}
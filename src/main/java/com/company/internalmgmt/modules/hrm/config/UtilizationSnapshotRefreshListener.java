@@ -0,0 +1,39 @@
+package com.company.internalmgmt.modules.hrm.config;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
+import com.company.internalmgmt.modules.hrm.service.UtilizationSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recompute the current month's utilization snapshot once a status change or an employee edit is committed.
+ * Runs before other listeners so that caches invalidated by the same event reload fresh snapshots.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UtilizationSnapshotRefreshListener {
+
+    private final UtilizationSnapshotService utilizationSnapshotService;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainDataChanged(DomainDataChangedEvent event) {
+        if (event.getDomain() != DomainDataChangedEvent.Domain.EMPLOYEE_STATUS
+                && event.getDomain() != DomainDataChangedEvent.Domain.HRM) {
+            return;
+        }
+        try {
+            utilizationSnapshotService.refreshCurrentMonth();
+        } catch (Exception e) {
+            // The nightly job repairs the snapshot
+            log.error("Failed to refresh the current utilization snapshot: {}", e.getMessage(), e);
+        }
+    }
+}
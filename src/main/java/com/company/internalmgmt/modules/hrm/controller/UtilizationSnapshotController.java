@@ -0,0 +1,91 @@
+package com.company.internalmgmt.modules.hrm.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.company.internalmgmt.common.dto.ApiResponse;
+import com.company.internalmgmt.modules.hrm.dto.UtilizationSnapshotDto;
+import com.company.internalmgmt.modules.hrm.model.UtilizationSnapshot;
+import com.company.internalmgmt.modules.hrm.service.UtilizationSnapshotService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REST controller for monthly utilization snapshots
+ */
+@RestController
+@RequestMapping("/api/v1/utilization-snapshots")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Utilization Snapshot", description = "API for monthly head count and utilization per team")
+public class UtilizationSnapshotController {
+
+    private final UtilizationSnapshotService utilizationSnapshotService;
+
+    /**
+     * GET /api/v1/utilization-snapshots : Get the utilization of every team for a range of months
+     *
+     * @param fromMonth first month (yyyy-MM)
+     * @param toMonth last month (yyyy-MM), defaults to the first month
+     * @return the ResponseEntity with status 200 (OK) and the snapshots in body
+     */
+    @GetMapping
+    @PreAuthorize("hasAuthority('employee-status:read:all')")
+    @Operation(summary = "Get utilization snapshots", description = "Returns active and allocated head count per team at each month end")
+    public ResponseEntity<ApiResponse<List<UtilizationSnapshotDto>>> getSnapshots(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth fromMonth,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth toMonth) {
+        log.debug("REST request to get utilization snapshots from {} to {}", fromMonth, toMonth);
+
+        List<UtilizationSnapshotDto> snapshots = utilizationSnapshotService
+                .getSnapshots(fromMonth, toMonth != null ? toMonth : fromMonth).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(snapshots));
+    }
+
+    /**
+     * POST /api/v1/utilization-snapshots/rebuild : Rebuild the snapshots from the employee status log
+     *
+     * @param fromMonth first month (yyyy-MM); all months since the oldest status change when omitted
+     * @param toMonth last month (yyyy-MM), defaults to the current month
+     * @return the ResponseEntity with status 200 (OK) and the number of snapshots written in body
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAuthority('employee-status:update:all')")
+    @Operation(summary = "Rebuild utilization snapshots", description = "Recomputes the snapshots of a range of months from the employee status log")
+    public ResponseEntity<ApiResponse<Integer>> rebuildSnapshots(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth fromMonth,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth toMonth) {
+        log.debug("REST request to rebuild utilization snapshots from {} to {}", fromMonth, toMonth);
+
+        int written = fromMonth == null
+                ? utilizationSnapshotService.rebuildAll()
+                : utilizationSnapshotService.rebuild(fromMonth, toMonth != null ? toMonth : YearMonth.now());
+        return ResponseEntity.ok(ApiResponse.success(written));
+    }
+
+    private UtilizationSnapshotDto toDto(UtilizationSnapshot snapshot) {
+        return UtilizationSnapshotDto.builder()
+                .month(YearMonth.of(snapshot.getYear(), snapshot.getMonth()).toString())
+                .teamId(snapshot.getTeamId())
+                .activeCount(snapshot.getActiveCount())
+                .allocatedCount(snapshot.getAllocatedCount())
+                .utilizationRate(snapshot.getActiveCount() > 0
+                        ? (double) snapshot.getAllocatedCount() * 100 / snapshot.getActiveCount() : 0.0)
+                .build();
+    }
+}
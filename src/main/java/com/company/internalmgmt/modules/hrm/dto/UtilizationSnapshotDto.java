@@ -0,0 +1,35 @@
+package com.company.internalmgmt.modules.hrm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the head count of a team at the end of a month
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationSnapshotDto {
+
+    /**
+     * Month in yyyy-MM format
+     */
+    private String month;
+
+    /**
+     * Team ID, null for employees without a team
+     */
+    private Long teamId;
+
+    private Integer activeCount;
+
+    private Integer allocatedCount;
+
+    /**
+     * Allocated employees as a percentage of active employees
+     */
+    private Double utilizationRate;
+}
@@ -0,0 +1,35 @@
+package com.company.internalmgmt.modules.hrm.job;
+
+import com.company.internalmgmt.modules.hrm.service.UtilizationSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly rebuild of the recent utilization snapshots, picking up back-dated status changes
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UtilizationSnapshotJob {
+
+    private final UtilizationSnapshotService utilizationSnapshotService;
+
+    @Value("${app.utilization.snapshot.schedule-enabled:true}")
+    private boolean scheduleEnabled;
+
+    @Scheduled(cron = "${app.utilization.snapshot.cron:0 0 2 * * *}")
+    public void refreshSnapshots() {
+        if (!scheduleEnabled) {
+            return;
+        }
+
+        try {
+            utilizationSnapshotService.refreshRecentMonths();
+        } catch (Exception e) {
+            log.error("Scheduled utilization snapshot rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.PrePersist;
@@ -27,7 +28,10 @@ import lombok.NoArgsConstructor;
  * Entity class for employee status log
  */
 @Entity
-@Table(name = "employee_status_logs")
+@Table(name = "employee_status_logs", indexes = {
+    @Index(name = "idx_employee_status_logs_employee_time", columnList = "employee_id, log_timestamp"),
+    @Index(name = "idx_employee_status_logs_employee_created", columnList = "employee_id, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,72 @@
+package com.company.internalmgmt.modules.hrm.model;
+
+import com.company.internalmgmt.common.model.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.persistence.*;
+
+/**
+ * Head count of a team at the end of one month, reconstructed from employee_status_logs.
+ * One row per team (null for employees without a team) and month; the current month reflects
+ * statuses at the time it was last recomputed.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "utilization_snapshot", indexes = {
+    @Index(name = "idx_utilization_snapshot_period_team", columnList = "period_key, team_id")
+})
+public class UtilizationSnapshot extends BaseEntity {
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "year", nullable = false)
+    private Integer year;
+
+    @Column(name = "month", nullable = false)
+    private Integer month;
+
+    /**
+     * year * 100 + month, so period ranges become a single indexed BETWEEN
+     */
+    @Column(name = "period_key", nullable = false)
+    private Integer periodKey;
+
+    /**
+     * Employees hired by the end of the month and not resigned or terminated
+     */
+    @Column(name = "active_count", nullable = false)
+    private Integer activeCount;
+
+    /**
+     * Active employees allocated to a project at the end of the month
+     */
+    @Column(name = "allocated_count", nullable = false)
+    private Integer allocatedCount;
+
+    public static int toPeriodKey(int year, int month) {
+        return year * 100 + month;
+    }
+
+    /**
+     * Whether an employee in this status counts as active: any known status but resigned or terminated
+     */
+    public static boolean isActiveStatus(String status) {
+        return status != null && !status.equalsIgnoreCase("Resigned") && !status.equalsIgnoreCase("Terminated");
+    }
+
+    /**
+     * Whether an employee in this status counts as allocated; "Active" is an allocated state
+     */
+    public static boolean isAllocatedStatus(String status) {
+        return status != null && (status.equalsIgnoreCase("Allocated") || status.equalsIgnoreCase("Active"));
+    }
+}
@@ -1,8 +1,11 @@
 package com.company.internalmgmt.modules.hrm.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -97,4 +100,94 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSp
      * @return a page of available employees
      */
     Page<Employee> findByCurrentStatusEqualsIgnoreCase(String status, Pageable pageable);
-} 
+
+    /**
+     * Find employees by IDs with their team fetched in the same query
+     *
+     * @param employeeIds the employee IDs
+     * @return list of employees with team initialized
+     */
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.team WHERE e.id IN :employeeIds")
+    List<Employee> findAllWithTeamByIdIn(@Param("employeeIds") Collection<Long> employeeIds);
+
+    /**
+     * Find the team ID of each employee (team ID is null for employees without a team)
+     *
+     * @param employeeIds the employee IDs
+     * @return list of [employeeId, teamId] pairs
+     */
+    @Query("SELECT e.id, t.id FROM Employee e LEFT JOIN e.team t WHERE e.id IN :employeeIds")
+    List<Object[]> findTeamIdsByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds);
+
+    /**
+     * Find which of the given IDs belong to existing (non-deleted) employees
+     *
+     * @param employeeIds the employee IDs
+     * @return list of existing employee IDs
+     */
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :employeeIds")
+    List<Long> findExistingIds(@Param("employeeIds") Collection<Long> employeeIds);
+
+    /**
+     * Find employee IDs by employee codes
+     *
+     * @param employeeCodes the employee codes
+     * @return list of [employeeCode, employeeId] pairs
+     */
+    @Query("SELECT e.employeeCode, e.id FROM Employee e WHERE e.employeeCode IN :employeeCodes")
+    List<Object[]> findIdsByEmployeeCodes(@Param("employeeCodes") Collection<String> employeeCodes);
+
+    /**
+     * Count employees of each of the given teams
+     *
+     * @param teamIds the team IDs
+     * @return list of [teamId, employeeCount] pairs, teams without employees are omitted
+     */
+    @Query("SELECT e.team.id, COUNT(e) FROM Employee e WHERE e.team.id IN :teamIds GROUP BY e.team.id")
+    List<Object[]> countByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * Find the fields needed to reconstruct utilization of every employee
+     *
+     * @return list of [employeeId, teamId, hireDate, currentStatus] rows (team ID is null for employees without a team)
+     */
+    @Query("SELECT e.id, t.id, e.hireDate, e.currentStatus FROM Employee e LEFT JOIN e.team t")
+    List<Object[]> findUtilizationBasis();
+
+    /**
+     * Find the employee-list report rows matching the report filters with an ID above {@code afterId},
+     * for reading all of them in keyset-paged chunks
+     *
+     * @param teamId the team ID, or null for every team
+     * @param allTeams whether every team is visible to the caller; otherwise only the employees of {@code teamIds}
+     * @param teamIds the teams visible to the caller, ignored when {@code allTeams}
+     * @param position lower-case LIKE pattern of the position, or null for any position
+     * @param status the current status, or null for any status
+     * @param skillIds IDs of skills the employee must all have; ignored when skillCount is 0
+     * @param skillCount number of distinct skill IDs required, 0 for no skill filter
+     * @param afterId the last employee ID of the previous chunk, 0 for the first chunk
+     * @param pageable the chunk size, as the first page; unpaged for every remaining row
+     * @return list of [id, employeeCode, firstName, lastName, companyEmail, position, teamId, teamName,
+     *         leaderId, leaderFirstName, leaderLastName, currentStatus, hireDate] rows ordered by employee ID
+     */
+    @Query("SELECT e.id, e.employeeCode, e.firstName, e.lastName, e.companyEmail, e.position, t.id, t.name, " +
+           "l.id, l.firstName, l.lastName, e.currentStatus, e.hireDate " +
+           "FROM Employee e LEFT JOIN e.team t LEFT JOIN t.leader l " +
+           "WHERE e.id > :afterId " +
+           "AND (:teamId IS NULL OR t.id = :teamId) " +
+           "AND (:allTeams = true OR t.id IN :teamIds) " +
+           "AND (:position IS NULL OR LOWER(e.position) LIKE :position) " +
+           "AND (:status IS NULL OR e.currentStatus = :status) " +
+           "AND (:skillCount = 0 OR e.id IN (SELECT es.employee.id FROM EmployeeSkill es WHERE es.skill.id IN :skillIds " +
+           "GROUP BY es.employee.id HAVING COUNT(DISTINCT es.skill.id) = :skillCount)) " +
+           "ORDER BY e.id")
+    List<Object[]> findReportRowsAfter(@Param("teamId") Long teamId,
+                                       @Param("allTeams") boolean allTeams,
+                                       @Param("teamIds") Collection<Long> teamIds,
+                                       @Param("position") String position,
+                                       @Param("status") String status,
+                                       @Param("skillIds") Collection<Long> skillIds,
+                                       @Param("skillCount") int skillCount,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
+}
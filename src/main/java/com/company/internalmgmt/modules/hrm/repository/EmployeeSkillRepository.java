@@ -1,5 +1,6 @@
 package com.company.internalmgmt.modules.hrm.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -124,4 +125,16 @@ public interface EmployeeSkillRepository extends JpaRepository<EmployeeSkill, Lo
      * @return số lượng employee
      */
     long countBySkillId(Long skillId);
+
+    /**
+     * Find the skills of several employees in one query
+     *
+     * @param employeeIds the employee IDs
+     * @return list of [employeeId, skillId, skillName, categoryName, leaderAssessmentLevel, selfAssessmentLevel,
+     *         yearsExperience] rows ordered by employee
+     */
+    @Query("SELECT es.employee.id, s.id, s.name, c.name, es.leaderAssessmentLevel, es.selfAssessmentLevel, es.yearsExperience " +
+           "FROM EmployeeSkill es JOIN es.skill s LEFT JOIN s.category c " +
+           "WHERE es.employee.id IN :employeeIds ORDER BY es.employee.id, es.id")
+    List<Object[]> findSkillRowsByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds);
 } 
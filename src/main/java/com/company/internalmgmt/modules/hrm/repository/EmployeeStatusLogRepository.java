@@ -2,6 +2,7 @@ package com.company.internalmgmt.modules.hrm.repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -95,4 +96,40 @@ public interface EmployeeStatusLogRepository extends JpaRepository<EmployeeStatu
      * Tìm log theo khoảng thời gian logTimestamp
      */
     List<EmployeeStatusLog> findByLogTimestampBetween(LocalDateTime start, LocalDateTime end);
-} 
+
+    /**
+     * Status changes as [employeeId, status, logTimestamp] needed to replay statuses from {@code since}
+     * until {@code until}: the latest change of each employee before {@code since}, then every change up
+     * to {@code until}. Ordered by employee and time, so that statuses can be replayed in a single pass.
+     * Logs without a timestamp count as the oldest.
+     */
+    @Query("SELECT esl.employee.id, esl.status, esl.logTimestamp FROM EmployeeStatusLog esl " +
+           "WHERE (esl.logTimestamp >= :since AND esl.logTimestamp < :until) " +
+           "OR ((esl.logTimestamp IS NULL OR esl.logTimestamp < :since) AND NOT EXISTS (" +
+           "  SELECT later.id FROM EmployeeStatusLog later WHERE later.employee = esl.employee " +
+           "  AND (later.logTimestamp IS NULL OR later.logTimestamp < :since) " +
+           "  AND ((later.logTimestamp IS NOT NULL AND esl.logTimestamp IS NULL) " +
+           "    OR later.logTimestamp > esl.logTimestamp " +
+           "    OR ((later.logTimestamp = esl.logTimestamp OR (later.logTimestamp IS NULL AND esl.logTimestamp IS NULL)) " +
+           "      AND later.id > esl.id)))) " +
+           "ORDER BY esl.employee.id, esl.logTimestamp, esl.id")
+    List<Object[]> findStatusChangesForReplay(@Param("since") LocalDateTime since,
+                                              @Param("until") LocalDateTime until);
+
+    /**
+     * Find the timestamp of the oldest status change
+     */
+    @Query("SELECT MIN(esl.logTimestamp) FROM EmployeeStatusLog esl")
+    LocalDateTime findEarliestLogTimestamp();
+
+    /**
+     * Project details of the status logs of several employees, newest first for each employee
+     *
+     * @param employeeIds the employee IDs
+     * @return list of [employeeId, projectName, clientName, allocationPercentage, startDate, expectedEndDate] rows
+     */
+    @Query("SELECT esl.employee.id, esl.projectName, esl.clientName, esl.allocationPercentage, esl.startDate, esl.expectedEndDate " +
+           "FROM EmployeeStatusLog esl WHERE esl.employee.id IN :employeeIds " +
+           "ORDER BY esl.employee.id, esl.logTimestamp DESC, esl.id DESC")
+    List<Object[]> findProjectRowsByEmployeeIdsNewestFirst(@Param("employeeIds") Collection<Long> employeeIds);
+}
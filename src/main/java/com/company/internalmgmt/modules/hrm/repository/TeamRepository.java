@@ -63,4 +63,25 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
      */
     @Query("SELECT t FROM Team t WHERE t.deletedAt IS NULL")
     List<Team> findAllActive();
-} 
\ No newline at end of file
+
+    /**
+     * Find the parent of every team, used to build the team hierarchy
+     *
+     * @return list of [teamId, parentTeamId] pairs, parentTeamId is null for root teams
+     */
+    @Query("SELECT t.id, p.id FROM Team t LEFT JOIN t.parentTeam p")
+    List<Object[]> findAllTeamParentIds();
+
+    /**
+     * Count the employees of every non-deleted team by current status
+     *
+     * @return list of [teamId, teamName, currentStatus, employeeCount] rows; a team without employees
+     *         has a single row with a null status and a zero count
+     */
+    @Query("SELECT t.id, t.name, e.currentStatus, COUNT(e.id) FROM Team t " +
+           "LEFT JOIN t.employees e ON e.deletedAt IS NULL " +
+           "WHERE t.deletedAt IS NULL " +
+           "GROUP BY t.id, t.name, e.currentStatus " +
+           "ORDER BY t.id")
+    List<Object[]> countEmployeesByTeamAndStatus();
+}
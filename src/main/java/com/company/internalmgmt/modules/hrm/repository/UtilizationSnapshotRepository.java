@@ -0,0 +1,26 @@
+package com.company.internalmgmt.modules.hrm.repository;
+
+import com.company.internalmgmt.modules.hrm.model.UtilizationSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UtilizationSnapshotRepository extends JpaRepository<UtilizationSnapshot, Long> {
+
+    /**
+     * Find the snapshots of every team within a period key range
+     */
+    List<UtilizationSnapshot> findByPeriodKeyBetweenOrderByPeriodKeyAsc(Integer fromKey, Integer toKey);
+
+    /**
+     * Delete the snapshots within a period key range before they are rebuilt
+     */
+    @Modifying
+    @Query("DELETE FROM UtilizationSnapshot s WHERE s.periodKey BETWEEN :fromKey AND :toKey")
+    int deleteByPeriodKeyRange(@Param("fromKey") Integer fromKey, @Param("toKey") Integer toKey);
+}
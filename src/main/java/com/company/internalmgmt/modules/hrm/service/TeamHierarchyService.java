@@ -0,0 +1,49 @@
+package com.company.internalmgmt.modules.hrm.service;
+
+import java.util.List;
+
+/**
+ * Service answering team hierarchy questions (descendants, ancestors)
+ * from an in-memory index of the team tree
+ */
+public interface TeamHierarchyService {
+
+    /**
+     * Get the IDs of all teams
+     *
+     * @return list of team IDs
+     */
+    List<Long> getAllTeamIds();
+
+    /**
+     * Get a team and all its descendant teams at any depth
+     *
+     * @param teamId the team ID
+     * @return list of team IDs, starting with the given team
+     * @throws com.company.internalmgmt.common.exception.ResourceNotFoundException if the team does not exist
+     */
+    List<Long> getTeamAndDescendantIds(Long teamId);
+
+    /**
+     * Get the ancestors of a team, from its parent up to the root team
+     *
+     * @param teamId the team ID
+     * @return list of ancestor team IDs
+     */
+    List<Long> getAncestorTeamIds(Long teamId);
+
+    /**
+     * Check whether a team is the given ancestor team or one of its descendants
+     *
+     * @param ancestorTeamId the ancestor team ID
+     * @param teamId the team ID to check
+     * @return true if the team is within the ancestor's subtree
+     */
+    boolean isSameOrDescendant(Long ancestorTeamId, Long teamId);
+
+    /**
+     * Discard the cached hierarchy so that it is reloaded on next use.
+     * When called inside a transaction, the cache is discarded again after commit.
+     */
+    void invalidate();
+}
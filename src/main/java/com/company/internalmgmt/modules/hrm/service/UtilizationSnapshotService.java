@@ -0,0 +1,62 @@
+package com.company.internalmgmt.modules.hrm.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import com.company.internalmgmt.modules.hrm.model.UtilizationSnapshot;
+
+/**
+ * Maintains the utilization_snapshot table: active and allocated head count per team at each month end,
+ * reconstructed from the employee status log.
+ * Employees are counted in their current team.
+ */
+public interface UtilizationSnapshotService {
+
+    /**
+     * Recompute the snapshots of a range of months
+     *
+     * @param from first month
+     * @param to last month
+     * @return number of snapshots written
+     * @throws com.company.internalmgmt.common.exception.BadRequestException if the range is invalid
+     */
+    int rebuild(YearMonth from, YearMonth to);
+
+    /**
+     * Recompute every month from the oldest status change up to the current month
+     *
+     * @return number of snapshots written
+     */
+    int rebuildAll();
+
+    /**
+     * Recompute the trailing months configured for the nightly job, ending with the current month
+     *
+     * @return number of snapshots written
+     */
+    int refreshRecentMonths();
+
+    /**
+     * Recompute the current month after a status change; runs in its own transaction
+     *
+     * @return number of snapshots written
+     */
+    int refreshCurrentMonth();
+
+    /**
+     * Get the snapshots of a range of months, ordered by month.
+     * Months not stored yet are computed from the status log without being persisted.
+     *
+     * @param from first month
+     * @param to last month
+     * @return snapshots of every team with employees in each month
+     */
+    List<UtilizationSnapshot> getSnapshots(YearMonth from, YearMonth to);
+
+    /**
+     * Check whether the snapshot table has been populated
+     *
+     * @return true if no snapshot exists yet
+     */
+    boolean isEmpty();
+}
@@ -10,6 +10,7 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.ResourceAlreadyExistsException;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.hrm.dto.EmployeeDto;
@@ -51,6 +53,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final EmployeeStatusLogRepository employeeStatusLogRepository;
     private final EmployeeMapper employeeMapper;
     private final EmployeeStatusLogService employeeStatusLogService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     @PreAuthorize("hasAnyAuthority('employee:read:all', 'employee:read:team')")
@@ -183,6 +186,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         statusLog.setLogTimestamp(LocalDateTime.now());
         employeeStatusLogRepository.save(statusLog);
         
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.EMPLOYEE_STATUS));
         return employeeMapper.toDto(savedEmployee);
     }
 
@@ -206,6 +210,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         
         employeeMapper.updateEntityFromRequest(request, employee);
         Employee updatedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
         
         return employeeMapper.toDto(updatedEmployee);
     }
@@ -217,6 +222,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         Employee employee = findEmployeeById(id);
         employee.setDeletedAt(LocalDateTime.now());
         employeeRepository.save(employee);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
     }
 
     @Override
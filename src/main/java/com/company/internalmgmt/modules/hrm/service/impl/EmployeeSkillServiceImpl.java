@@ -1,5 +1,6 @@
 package com.company.internalmgmt.modules.hrm.service.impl;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.ResourceAlreadyExistsException;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.hrm.dto.EmployeeSkillDto;
@@ -14,6 +15,7 @@ import com.company.internalmgmt.modules.hrm.repository.SkillRepository;
 import com.company.internalmgmt.modules.hrm.service.EmployeeSkillService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -35,6 +37,7 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
     private final EmployeeRepository employeeRepository;
     private final SkillRepository skillRepository;
     private final EmployeeSkillMapper employeeSkillMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Page<EmployeeSkillDto> findByEmployeeId(Long employeeId, Pageable pageable) {
@@ -121,6 +124,7 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         employeeSkill.setLeaderComment(request.getLeaderComment());
         
         employeeSkill = employeeSkillRepository.save(employeeSkill);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
         return employeeSkillMapper.toDto(employeeSkill);
     }
 
@@ -147,6 +151,7 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         }
         
         employeeSkill = employeeSkillRepository.save(employeeSkill);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
         return employeeSkillMapper.toDto(employeeSkill);
     }
 
@@ -162,6 +167,7 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         }
         
         employeeSkillRepository.deleteByEmployeeIdAndSkillId(employeeId, skillId);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
     }
 
     @Override
@@ -180,6 +186,7 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         employeeSkill.setLeaderComment(comment);
         
         employeeSkill = employeeSkillRepository.save(employeeSkill);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
         return employeeSkillMapper.toDto(employeeSkill);
     }
 
@@ -243,7 +250,9 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         employeeSkill.setEmployee(employee);
         employeeSkill.setSkill(skill);
         
-        return employeeSkillRepository.save(employeeSkill);
+        EmployeeSkill savedEmployeeSkill = employeeSkillRepository.save(employeeSkill);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
+        return savedEmployeeSkill;
     }
 
     @Override
@@ -264,7 +273,9 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
             existingEmployeeSkill.setLeaderComment(employeeSkill.getLeaderComment());
         }
         
-        return employeeSkillRepository.save(existingEmployeeSkill);
+        EmployeeSkill savedEmployeeSkill = employeeSkillRepository.save(existingEmployeeSkill);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
+        return savedEmployeeSkill;
     }
 
     @Override
@@ -279,7 +290,9 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         employeeSkill.setLeaderAssessmentLevel(leaderAssessmentLevel);
         employeeSkill.setLeaderComment(leaderComment);
         
-        return employeeSkillRepository.save(employeeSkill);
+        EmployeeSkill savedEmployeeSkill = employeeSkillRepository.save(employeeSkill);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
+        return savedEmployeeSkill;
     }
 
     @Override
@@ -289,6 +302,7 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         
         EmployeeSkill employeeSkill = getEmployeeSkillById(id);
         employeeSkillRepository.delete(employeeSkill);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
     }
 
     @Override
@@ -302,6 +316,7 @@ public class EmployeeSkillServiceImpl implements EmployeeSkillService {
         }
         
         employeeSkillRepository.deleteByEmployeeIdAndSkillId(employeeId, skillId);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
     }
 
     @Override
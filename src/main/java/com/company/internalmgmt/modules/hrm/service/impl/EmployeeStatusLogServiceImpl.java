@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -13,6 +14,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.hrm.dto.EmployeeStatusLogDto;
 import com.company.internalmgmt.modules.hrm.dto.StatusUpdateRequest;
@@ -37,6 +39,7 @@ public class EmployeeStatusLogServiceImpl implements EmployeeStatusLogService {
     private final EmployeeStatusLogRepository employeeStatusLogRepository;
     private final EmployeeRepository employeeRepository;
     private final EmployeeStatusLogMapper employeeStatusLogMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * {@inheritDoc}
@@ -130,6 +133,7 @@ public class EmployeeStatusLogServiceImpl implements EmployeeStatusLogService {
         
         EmployeeStatusLog savedLog = employeeStatusLogRepository.save(statusLog);
         log.info("Created status log for employee {}: {}", employee.getId(), request.getStatus());
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.EMPLOYEE_STATUS));
         
         return employeeStatusLogMapper.toDto(savedLog);
     }
@@ -168,6 +172,7 @@ public class EmployeeStatusLogServiceImpl implements EmployeeStatusLogService {
         employeeStatusLogRepository.save(employeeStatusLog);
         
         log.info("Updated employee status log with id: {}", id);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.EMPLOYEE_STATUS));
         return employeeStatusLogMapper.toDto(employeeStatusLog);
     }
     
@@ -194,5 +199,6 @@ public class EmployeeStatusLogServiceImpl implements EmployeeStatusLogService {
         
         employeeStatusLogRepository.delete(employeeStatusLog);
         log.info("Deleted employee status log with id: {}", id);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.EMPLOYEE_STATUS));
     }
 } 
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.company.internalmgmt.modules.hrm.service.impl;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.hrm.model.Employee;
 import com.company.internalmgmt.modules.hrm.model.EmployeeStatusLog;
 import com.company.internalmgmt.modules.hrm.repository.EmployeeRepository;
 import com.company.internalmgmt.modules.hrm.repository.EmployeeStatusLogRepository;
 import com.company.internalmgmt.modules.hrm.service.StatusService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,10 +28,13 @@ public class StatusServiceImpl implements StatusService {
 
     private final EmployeeStatusLogRepository employeeStatusLogRepository;
     private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public StatusServiceImpl(EmployeeStatusLogRepository employeeStatusLogRepository, EmployeeRepository employeeRepository) {
+    public StatusServiceImpl(EmployeeStatusLogRepository employeeStatusLogRepository, EmployeeRepository employeeRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.employeeStatusLogRepository = employeeStatusLogRepository;
         this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -88,6 +93,7 @@ public class StatusServiceImpl implements StatusService {
         employee.setUpdatedAt(LocalDateTime.now());
         employeeRepository.save(employee);
         
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.EMPLOYEE_STATUS));
         return savedStatusLog;
     }
 
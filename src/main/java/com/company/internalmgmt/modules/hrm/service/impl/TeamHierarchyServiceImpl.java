@@ -0,0 +1,172 @@
+package com.company.internalmgmt.modules.hrm.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.company.internalmgmt.common.exception.ResourceNotFoundException;
+import com.company.internalmgmt.modules.hrm.repository.TeamRepository;
+import com.company.internalmgmt.modules.hrm.service.TeamHierarchyService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the TeamHierarchyService.
+ * The whole team tree is loaded with one query and kept as an immutable snapshot;
+ * team changes made through TeamService invalidate it, and it also expires after a TTL
+ * to pick up changes made outside the service.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamHierarchyServiceImpl implements TeamHierarchyService {
+
+    private final TeamRepository teamRepository;
+
+    @Value("${app.team-hierarchy.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private volatile TeamTree tree;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> getAllTeamIds() {
+        return new ArrayList<>(getTree().parentById.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> getTeamAndDescendantIds(Long teamId) {
+        TeamTree current = getTree();
+        if (!current.parentById.containsKey(teamId)) {
+            throw new ResourceNotFoundException("Team not found with id: " + teamId);
+        }
+
+        // Breadth-first walk; the visited set guards against cycles in bad data
+        Set<Long> result = new LinkedHashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(teamId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            if (result.add(id)) {
+                queue.addAll(current.childrenById.getOrDefault(id, Collections.emptyList()));
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> getAncestorTeamIds(Long teamId) {
+        TeamTree current = getTree();
+        List<Long> ancestors = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        visited.add(teamId);
+
+        Long parentId = current.parentById.get(teamId);
+        while (parentId != null && visited.add(parentId)) {
+            ancestors.add(parentId);
+            parentId = current.parentById.get(parentId);
+        }
+        return ancestors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSameOrDescendant(Long ancestorTeamId, Long teamId) {
+        if (ancestorTeamId == null || teamId == null) {
+            return false;
+        }
+        return ancestorTeamId.equals(teamId) || getAncestorTeamIds(teamId).contains(ancestorTeamId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidate() {
+        tree = null;
+        // A reader may reload the old tree before the change is committed, so drop it again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tree = null;
+                }
+            });
+        }
+        log.debug("Team hierarchy cache invalidated");
+    }
+
+    private TeamTree getTree() {
+        TeamTree current = tree;
+        if (current != null && !current.isExpired()) {
+            return current;
+        }
+        synchronized (this) {
+            current = tree;
+            if (current == null || current.isExpired()) {
+                current = loadTree();
+                tree = current;
+            }
+            return current;
+        }
+    }
+
+    private TeamTree loadTree() {
+        Map<Long, Long> parentById = new HashMap<>();
+        Map<Long, List<Long>> childrenById = new HashMap<>();
+
+        for (Object[] row : teamRepository.findAllTeamParentIds()) {
+            Long teamId = (Long) row[0];
+            Long parentId = (Long) row[1];
+            parentById.put(teamId, parentId);
+            if (parentId != null) {
+                childrenById.computeIfAbsent(parentId, k -> new ArrayList<>()).add(teamId);
+            }
+        }
+
+        log.debug("Loaded team hierarchy with {} teams", parentById.size());
+        return new TeamTree(parentById, childrenById, System.currentTimeMillis() + ttlSeconds * 1000);
+    }
+
+    /**
+     * Immutable snapshot of the team tree
+     */
+    private static class TeamTree {
+        final Map<Long, Long> parentById;
+        final Map<Long, List<Long>> childrenById;
+        final long expiresAt;
+
+        TeamTree(Map<Long, Long> parentById, Map<Long, List<Long>> childrenById, long expiresAt) {
+            this.parentById = Collections.unmodifiableMap(parentById);
+            this.childrenById = Collections.unmodifiableMap(childrenById);
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
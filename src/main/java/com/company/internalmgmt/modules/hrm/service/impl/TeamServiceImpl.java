@@ -3,12 +3,14 @@ package com.company.internalmgmt.modules.hrm.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.hrm.dto.TeamDto;
 import com.company.internalmgmt.modules.hrm.dto.TeamRequest;
@@ -17,6 +19,7 @@ import com.company.internalmgmt.modules.hrm.model.Employee;
 import com.company.internalmgmt.modules.hrm.model.Team;
 import com.company.internalmgmt.modules.hrm.repository.EmployeeRepository;
 import com.company.internalmgmt.modules.hrm.repository.TeamRepository;
+import com.company.internalmgmt.modules.hrm.service.TeamHierarchyService;
 import com.company.internalmgmt.modules.hrm.service.TeamService;
 
 import lombok.RequiredArgsConstructor;
@@ -33,6 +36,8 @@ public class TeamServiceImpl implements TeamService {
     private final TeamRepository teamRepository;
     private final EmployeeRepository employeeRepository;
     private final TeamMapper teamMapper;
+    private final TeamHierarchyService teamHierarchyService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * {@inheritDoc}
@@ -42,6 +47,8 @@ public class TeamServiceImpl implements TeamService {
     public TeamDto createTeam(TeamRequest request) {
         Team team = teamMapper.toEntity(request);
         Team savedTeam = teamRepository.save(team);
+        teamHierarchyService.invalidate();
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
         log.info("Created team with ID: {}", savedTeam.getId());
         return teamMapper.toDto(savedTeam);
     }
@@ -57,6 +64,8 @@ public class TeamServiceImpl implements TeamService {
         
         teamMapper.updateEntityFromRequest(request, team);
         Team updatedTeam = teamRepository.save(team);
+        teamHierarchyService.invalidate();
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
         log.info("Updated team with ID: {}", id);
         return teamMapper.toDto(updatedTeam);
     }
@@ -111,6 +120,8 @@ public class TeamServiceImpl implements TeamService {
         
         // Or hard delete
         teamRepository.delete(team);
+        teamHierarchyService.invalidate();
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.HRM));
         log.info("Deleted team with ID: {}", id);
     }
 
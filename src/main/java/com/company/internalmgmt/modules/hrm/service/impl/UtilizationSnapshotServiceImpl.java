@@ -0,0 +1,233 @@
+package com.company.internalmgmt.modules.hrm.service.impl;
+
+import com.company.internalmgmt.common.exception.BadRequestException;
+import com.company.internalmgmt.modules.hrm.model.UtilizationSnapshot;
+import com.company.internalmgmt.modules.hrm.repository.EmployeeRepository;
+import com.company.internalmgmt.modules.hrm.repository.EmployeeStatusLogRepository;
+import com.company.internalmgmt.modules.hrm.repository.UtilizationSnapshotRepository;
+import com.company.internalmgmt.modules.hrm.service.UtilizationSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UtilizationSnapshotServiceImpl implements UtilizationSnapshotService {
+
+    // Upper bound on a single rebuild, to keep the count arrays small
+    private static final int MAX_MONTHS = 240;
+
+    private static final String INITIAL_STATUS = "Available";
+
+    private final UtilizationSnapshotRepository snapshotRepository;
+    private final EmployeeStatusLogRepository employeeStatusLogRepository;
+    private final EmployeeRepository employeeRepository;
+
+    @Value("${app.utilization.snapshot.months:12}")
+    private int recentMonths;
+
+    @Override
+    @Transactional
+    public int rebuild(YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        List<UtilizationSnapshot> snapshots = compute(from, to);
+
+        int fromKey = UtilizationSnapshot.toPeriodKey(from.getYear(), from.getMonthValue());
+        int toKey = UtilizationSnapshot.toPeriodKey(to.getYear(), to.getMonthValue());
+        snapshotRepository.deleteByPeriodKeyRange(fromKey, toKey);
+        snapshotRepository.saveAll(snapshots);
+
+        log.info("Rebuilt {} utilization snapshots for {} to {}", snapshots.size(), from, to);
+        return snapshots.size();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildAll() {
+        YearMonth to = YearMonth.now();
+        LocalDateTime earliest = employeeStatusLogRepository.findEarliestLogTimestamp();
+        YearMonth from = earliest != null ? YearMonth.from(earliest) : to;
+        if (from.isAfter(to)) {
+            from = to;
+        }
+        if (from.until(to, ChronoUnit.MONTHS) >= MAX_MONTHS) {
+            from = to.minusMonths(MAX_MONTHS - 1);
+        }
+        return rebuild(from, to);
+    }
+
+    @Override
+    @Transactional
+    public int refreshRecentMonths() {
+        YearMonth to = YearMonth.now();
+        return rebuild(to.minusMonths(Math.max(recentMonths, 1) - 1), to);
+    }
+
+    @Override
+    // Runs in its own transaction: it is triggered after status changes are committed
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int refreshCurrentMonth() {
+        YearMonth current = YearMonth.now();
+        return rebuild(current, current);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UtilizationSnapshot> getSnapshots(YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        int fromKey = UtilizationSnapshot.toPeriodKey(from.getYear(), from.getMonthValue());
+        int toKey = UtilizationSnapshot.toPeriodKey(to.getYear(), to.getMonthValue());
+        List<UtilizationSnapshot> snapshots = new ArrayList<>(
+                snapshotRepository.findByPeriodKeyBetweenOrderByPeriodKeyAsc(fromKey, toKey));
+
+        Set<Integer> storedKeys = new HashSet<>();
+        for (UtilizationSnapshot snapshot : snapshots) {
+            storedKeys.add(snapshot.getPeriodKey());
+        }
+        YearMonth firstMissing = null;
+        YearMonth lastMissing = null;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!storedKeys.contains(UtilizationSnapshot.toPeriodKey(month.getYear(), month.getMonthValue()))) {
+                firstMissing = firstMissing == null ? month : firstMissing;
+                lastMissing = month;
+            }
+        }
+        if (firstMissing == null) {
+            return snapshots;
+        }
+
+        // Not built yet (or a month without any employee): fill the gap from the status log
+        for (UtilizationSnapshot snapshot : compute(firstMissing, lastMissing)) {
+            if (!storedKeys.contains(snapshot.getPeriodKey())) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort(Comparator.comparing(UtilizationSnapshot::getPeriodKey));
+        return snapshots;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return snapshotRepository.count() == 0;
+    }
+
+    private void validateRange(YearMonth from, YearMonth to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Both the first and the last month are required");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("The first month must not be after the last month");
+        }
+        if (from.until(to, ChronoUnit.MONTHS) >= MAX_MONTHS) {
+            throw new BadRequestException("A utilization range cannot exceed " + MAX_MONTHS + " months");
+        }
+    }
+
+    /**
+     * Replay the status log once, in employee and time order, and count each employee
+     * at every month end of the range. Only the latest change before the first month end
+     * and the changes up to the last month end are read.
+     */
+    private List<UtilizationSnapshot> compute(YearMonth from, YearMonth to) {
+        int months = (int) from.until(to, ChronoUnit.MONTHS) + 1;
+        LocalDate[] lastDays = new LocalDate[months];
+        LocalDateTime[] monthEnds = new LocalDateTime[months];
+        for (int m = 0; m < months; m++) {
+            YearMonth month = from.plusMonths(m);
+            lastDays[m] = month.atEndOfMonth();
+            monthEnds[m] = month.plusMonths(1).atDay(1).atStartOfDay();
+        }
+
+        Map<Long, Object[]> employees = new HashMap<>();
+        for (Object[] row : employeeRepository.findUtilizationBasis()) {
+            employees.put((Long) row[0], row);
+        }
+
+        // Per team (null for employees without a team): active and allocated counts, two slots per month
+        Map<Long, int[]> countsByTeam = new HashMap<>();
+
+        List<Object[]> changes = employeeStatusLogRepository.findStatusChangesForReplay(monthEnds[0], monthEnds[months - 1]);
+        int start = 0;
+        while (start < changes.size()) {
+            Long employeeId = (Long) changes.get(start)[0];
+            int end = start;
+            while (end < changes.size() && employeeId.equals(changes.get(end)[0])) {
+                end++;
+            }
+
+            // Deleted employees are not returned by the employee query and are skipped
+            Object[] employee = employees.remove(employeeId);
+            if (employee != null) {
+                int[] counts = countsByTeam.computeIfAbsent((Long) employee[1], k -> new int[months * 2]);
+                int next = start;
+                // Before the first change the employee is in the initial state set on creation
+                String status = INITIAL_STATUS;
+                for (int m = 0; m < months; m++) {
+                    while (next < end && isBefore((LocalDateTime) changes.get(next)[2], monthEnds[m])) {
+                        status = (String) changes.get(next)[1];
+                        next++;
+                    }
+                    count(counts, m, (LocalDate) employee[2], lastDays[m], status);
+                }
+            }
+            start = end;
+        }
+
+        // Employees without any status change keep their current status over the whole range
+        for (Object[] employee : employees.values()) {
+            int[] counts = countsByTeam.computeIfAbsent((Long) employee[1], k -> new int[months * 2]);
+            for (int m = 0; m < months; m++) {
+                count(counts, m, (LocalDate) employee[2], lastDays[m], (String) employee[3]);
+            }
+        }
+
+        List<UtilizationSnapshot> snapshots = new ArrayList<>();
+        for (int m = 0; m < months; m++) {
+            YearMonth month = from.plusMonths(m);
+            for (Map.Entry<Long, int[]> entry : countsByTeam.entrySet()) {
+                int active = entry.getValue()[m * 2];
+                if (active == 0) {
+                    continue;
+                }
+                snapshots.add(UtilizationSnapshot.builder()
+                        .teamId(entry.getKey())
+                        .year(month.getYear())
+                        .month(month.getMonthValue())
+                        .periodKey(UtilizationSnapshot.toPeriodKey(month.getYear(), month.getMonthValue()))
+                        .activeCount(active)
+                        .allocatedCount(entry.getValue()[m * 2 + 1])
+                        .build());
+            }
+        }
+        return snapshots;
+    }
+
+    private static boolean isBefore(LocalDateTime timestamp, LocalDateTime monthEnd) {
+        // Legacy logs without a timestamp are treated as the oldest
+        return timestamp == null || timestamp.isBefore(monthEnd);
+    }
+
+    private static void count(int[] counts, int month, LocalDate hireDate, LocalDate lastDay, String status) {
+        if (hireDate != null && hireDate.isAfter(lastDay)) {
+            return;
+        }
+        if (!UtilizationSnapshot.isActiveStatus(status)) {
+            return;
+        }
+        counts[month * 2]++;
+        if (UtilizationSnapshot.isAllocatedStatus(status)) {
+            counts[month * 2 + 1]++;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.company.internalmgmt.modules.margin.config;
+
+import com.company.internalmgmt.modules.margin.service.MarginFactService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfill the employee_margin_monthly fact table on startup when it is still empty
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarginFactInitializer implements CommandLineRunner {
+
+    private final MarginFactService marginFactService;
+
+    @Value("${app.margin.facts.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        try {
+            if (marginFactService.isEmpty()) {
+                log.info("Margin fact table is empty, rebuilding from employee costs and revenues...");
+                marginFactService.rebuildAll();
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill margin facts: {}", e.getMessage(), e);
+        }
+    }
+}
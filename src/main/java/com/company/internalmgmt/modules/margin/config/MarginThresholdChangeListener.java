@@ -0,0 +1,34 @@
+package com.company.internalmgmt.modules.margin.config;
+
+import com.company.internalmgmt.common.event.SystemConfigChangedEvent;
+import com.company.internalmgmt.modules.margin.service.MarginCalculator;
+import com.company.internalmgmt.modules.margin.service.MarginFactService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-apply margin thresholds to the stored margin facts when they change in system configs
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarginThresholdChangeListener {
+
+    private final MarginFactService marginFactService;
+
+    @EventListener
+    public void onSystemConfigChanged(SystemConfigChangedEvent event) {
+        if (!event.isChanged(MarginCalculator.THRESHOLD_RED_KEY)
+                && !event.isChanged(MarginCalculator.THRESHOLD_YELLOW_KEY)) {
+            return;
+        }
+
+        try {
+            marginFactService.reclassifyStatuses();
+        } catch (Exception e) {
+            log.error("Failed to reclassify margin facts after threshold change: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.company.internalmgmt.modules.margin.controller;
 
 import com.company.internalmgmt.common.dto.ApiResponse;
+import com.company.internalmgmt.modules.margin.dto.CostImportResultDTO;
 import com.company.internalmgmt.modules.margin.dto.EmployeeMarginDTO;
+import com.company.internalmgmt.modules.margin.dto.MarginSimulationResultDTO;
 import com.company.internalmgmt.modules.margin.dto.MarginSummaryDTO;
+import com.company.internalmgmt.modules.margin.dto.MarginTrendDTO;
+import com.company.internalmgmt.modules.margin.dto.RevenueCalculationResultDTO;
 import com.company.internalmgmt.modules.margin.dto.request.ImportCostRequestDTO;
+import com.company.internalmgmt.modules.margin.dto.request.MarginSimulationRequestDTO;
 import com.company.internalmgmt.modules.margin.dto.request.UpdateCostRequestDTO;
 import com.company.internalmgmt.modules.margin.service.MarginService;
+import com.company.internalmgmt.modules.margin.service.RevenueCalculationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -24,7 +30,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
 import java.time.LocalDate;
-import java.util.Map;
+import java.util.List;
 
 /**
  * REST controller for managing employee margins.
@@ -37,6 +43,7 @@ import java.util.Map;
 public class MarginController {
 
     private final MarginService marginService;
+    private final RevenueCalculationService revenueCalculationService;
 
     /**
      * GET /api/v1/margins/employee : Get employee margins with various filters.
@@ -134,6 +141,43 @@ public class MarginController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    /**
+     * GET /api/v1/margins/trend : Get margin and status distribution for consecutive months.
+     *
+     * @param teamId Optional team ID to filter by
+     * @param toMonth Optional last month (YYYY-MM), defaults to the current month
+     * @param months Number of months ending with toMonth
+     * @return the ResponseEntity with status 200 (OK) and one entry per month in body
+     */
+    @GetMapping("/trend")
+    @PreAuthorize("hasAnyAuthority('margin-summary:read:all', 'margin-summary:read:team')")
+    public ResponseEntity<ApiResponse<MarginTrendDTO>> getMarginTrend(
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) String toMonth,
+            @RequestParam(defaultValue = "6") Integer months) {
+
+        MarginTrendDTO result = marginService.getMarginTrend(teamId, toMonth, months);
+        ApiResponse<MarginTrendDTO> apiResponse = ApiResponse.success(result);
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    /**
+     * POST /api/v1/margins/simulate : Evaluate hypothetical rate, allocation, cost and team changes.
+     * Nothing is saved.
+     *
+     * @param request The period filters and adjustments to simulate
+     * @return the ResponseEntity with status 200 (OK) and the baseline and simulated margins in body
+     */
+    @PostMapping("/simulate")
+    @PreAuthorize("hasAnyAuthority('margin:read:all', 'margin:read:team')")
+    public ResponseEntity<ApiResponse<MarginSimulationResultDTO>> simulateMargins(
+            @Valid @RequestBody MarginSimulationRequestDTO request) {
+
+        MarginSimulationResultDTO result = marginService.simulateMargins(request);
+        ApiResponse<MarginSimulationResultDTO> apiResponse = ApiResponse.success(result);
+        return ResponseEntity.ok(apiResponse);
+    }
+
     /**
      * POST /api/v1/margins/costs/import : Import employee costs from Excel or CSV file.
      *
@@ -143,12 +187,12 @@ public class MarginController {
      */
     @PostMapping(value = "/costs/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAuthority('employee-cost:import')")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> importEmployeeCosts(
+    public ResponseEntity<ApiResponse<CostImportResultDTO>> importEmployeeCosts(
             @RequestParam MultipartFile file,
             @Valid ImportCostRequestDTO request) {
 
-        Map<String, Object> result = marginService.importEmployeeCosts(file, request);
-        ApiResponse<Map<String, Object>> apiResponse = ApiResponse.success(result);
+        CostImportResultDTO result = marginService.importEmployeeCosts(file, request);
+        ApiResponse<CostImportResultDTO> apiResponse = ApiResponse.success(result);
         return ResponseEntity.ok(apiResponse);
     }
 
@@ -160,11 +204,37 @@ public class MarginController {
      */
     @PostMapping("/costs")
     @PreAuthorize("hasAnyAuthority('employee-cost:update:all', 'employee-cost:update:team')")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> updateEmployeeCosts(
+    public ResponseEntity<ApiResponse<CostImportResultDTO>> updateEmployeeCosts(
             @Valid @RequestBody UpdateCostRequestDTO request) {
 
-        Map<String, Object> result = marginService.updateEmployeeCosts(request);
-        ApiResponse<Map<String, Object>> apiResponse = ApiResponse.success(result);
+        CostImportResultDTO result = marginService.updateEmployeeCosts(request);
+        ApiResponse<CostImportResultDTO> apiResponse = ApiResponse.success(result);
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    /**
+     * POST /api/v1/margins/revenues/recalculate : Recalculate employee revenues from contract allocations.
+     *
+     * @param mode Calculation mode (incremental, full); ignored when contractIds is given
+     * @param contractIds Optional contract IDs to recalculate
+     * @return the ResponseEntity with status 200 (OK) and calculation results in body
+     */
+    @PostMapping("/revenues/recalculate")
+    @PreAuthorize("hasAuthority('employee-revenue:calculate')")
+    public ResponseEntity<ApiResponse<RevenueCalculationResultDTO>> recalculateRevenues(
+            @RequestParam(defaultValue = "incremental") String mode,
+            @RequestParam(required = false) List<Long> contractIds) {
+
+        RevenueCalculationResultDTO result;
+        if (contractIds != null && !contractIds.isEmpty()) {
+            result = revenueCalculationService.recalculateContracts(contractIds);
+        } else if ("full".equalsIgnoreCase(mode)) {
+            result = revenueCalculationService.recalculateAll();
+        } else {
+            result = revenueCalculationService.recalculateIncremental();
+        }
+
+        ApiResponse<RevenueCalculationResultDTO> apiResponse = ApiResponse.success(result);
         return ResponseEntity.ok(apiResponse);
     }
 } 
\ No newline at end of file
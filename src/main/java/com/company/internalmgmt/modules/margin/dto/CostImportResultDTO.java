@@ -0,0 +1,47 @@
+package com.company.internalmgmt.modules.margin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of writing employee costs (file import or manual update)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostImportResultDTO {
+    private int processed;
+    private int created;
+    private int updated;
+    private int skipped;
+
+    @Builder.Default
+    private List<RowErrorDTO> errors = new ArrayList<>();
+
+    public void addError(Integer row, Long employeeId, String employeeCode, String message) {
+        errors.add(RowErrorDTO.builder()
+                .row(row)
+                .employeeId(employeeId)
+                .employeeCode(employeeCode)
+                .message(message)
+                .build());
+        skipped++;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowErrorDTO {
+        private Integer row; // File row number (import) or 1-based entry index (manual update)
+        private Long employeeId;
+        private String employeeCode;
+        private String message;
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.internalmgmt.modules.margin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Baseline and simulated margins over the requested period, with their differences
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarginSimulationResultDTO {
+    private String fromPeriod; // "YYYY-MM"
+    private String toPeriod; // "YYYY-MM"
+    private FiguresDTO baseline;
+    private FiguresDTO simulated;
+    private DeltaDTO delta;
+    private List<EmployeeDeltaDTO> employees;
+    private List<TeamDeltaDTO> teams;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FiguresDTO {
+        private BigDecimal cost;
+        private BigDecimal revenue;
+        private BigDecimal margin; // Percentage
+        private String marginStatus; // Red, Yellow, Green
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeltaDTO {
+        private BigDecimal cost;
+        private BigDecimal revenue;
+        private BigDecimal margin; // Percentage points
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EmployeeDeltaDTO {
+        private Long employeeId;
+        private String employeeCode;
+        private String name;
+        private Long baselineTeamId;
+        private Long simulatedTeamId;
+        private FiguresDTO baseline;
+        private FiguresDTO simulated;
+        private DeltaDTO delta;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TeamDeltaDTO {
+        private Long teamId;
+        private String teamName;
+        private Integer baselineEmployeeCount;
+        private Integer simulatedEmployeeCount;
+        private FiguresDTO baseline;
+        private FiguresDTO simulated;
+        private DeltaDTO delta;
+    }
+}
@@ -0,0 +1,38 @@
+package com.company.internalmgmt.modules.margin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Margin and red/yellow/green distribution of employees for consecutive months
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarginTrendDTO {
+    private String fromPeriod; // "YYYY-MM"
+    private String toPeriod; // "YYYY-MM"
+    private List<MonthDTO> months; // Chronological, one entry per month even without data
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthDTO {
+        private String period; // "YYYY-MM"
+        private String periodLabel;
+        private BigDecimal cost;
+        private BigDecimal revenue;
+        private BigDecimal margin; // Percentage over all employees in scope
+        private String marginStatus; // Red, Yellow, Green
+        private Integer employeeCount; // Employees with cost or revenue in the month
+        private Map<String, Integer> statusCounts; // Employees per margin status
+    }
+}
@@ -0,0 +1,26 @@
+package com.company.internalmgmt.modules.margin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueCalculationResultDTO {
+    private String mode; // "full", "incremental", "contracts"
+    private LocalDateTime startedAt;
+    private Long durationMs;
+    private Integer contractsProcessed;
+    private Integer partitions;
+    private Integer revenuesCreated;
+    private Integer revenuesUpdated;
+    private Integer revenuesRemoved;
+    private Integer employeeMonthsRefreshed;
+    private List<Long> failedContractIds;
+}
@@ -0,0 +1,70 @@
+package com.company.internalmgmt.modules.margin.dto.request;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Hypothetical changes to evaluate against current margin data without saving them.
+ * The period fields follow the margin listing filters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarginSimulationRequestDTO {
+    
+    private Long teamId;
+    
+    @Builder.Default
+    private String period = "month";
+    
+    private LocalDate fromDate;
+    
+    private LocalDate toDate;
+    
+    private String yearMonth;
+    
+    private String yearQuarter;
+    
+    private Integer year;
+    
+    @NotEmpty(message = "At least one adjustment is required")
+    @Valid
+    private List<Adjustment> adjustments;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Adjustment {
+        @NotNull(message = "Employee ID is required")
+        private Long employeeId;
+        
+        // Billing rate change in percent, e.g. 10 raises every revenue of the employee by 10%
+        @DecimalMin(value = "-100", message = "Billing rate change cannot be below -100%")
+        private BigDecimal billingRateChangePercent;
+        
+        // New allocation (0-100) replacing the allocation of every contract assignment
+        @DecimalMin(value = "0", message = "Allocation must be between 0 and 100")
+        @DecimalMax(value = "100", message = "Allocation must be between 0 and 100")
+        private BigDecimal allocationPercentage;
+        
+        // Monthly cost replacing the recorded cost of every month in the period
+        @DecimalMin(value = "0", message = "Monthly cost cannot be negative")
+        private BigDecimal monthlyCost;
+        
+        // Team the employee moves to
+        private Long teamId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.company.internalmgmt.modules.margin.job;
+
+import com.company.internalmgmt.modules.margin.service.RevenueCalculationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly incremental recalculation of employee revenues from contract allocations
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevenueCalculationJob {
+
+    private final RevenueCalculationService revenueCalculationService;
+
+    @Value("${app.margin.revenue.schedule-enabled:true}")
+    private boolean scheduleEnabled;
+
+    @Scheduled(cron = "${app.margin.revenue.cron:0 30 1 * * *}")
+    public void recalculateRevenues() {
+        if (!scheduleEnabled) {
+            return;
+        }
+
+        try {
+            revenueCalculationService.recalculateIncremental();
+        } catch (Exception e) {
+            log.error("Scheduled revenue calculation failed: {}", e.getMessage(), e);
+        }
+    }
+}
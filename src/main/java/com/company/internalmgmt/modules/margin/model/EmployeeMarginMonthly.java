@@ -0,0 +1,67 @@
+package com.company.internalmgmt.modules.margin.model;
+
+import com.company.internalmgmt.common.model.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Materialized margin of an employee for one month.
+ * Maintained from employee_costs and employee_revenues so that margin listings can be
+ * paged, sorted and filtered by status directly in the database.
+ * The team is the employee's team at the time the month was last recomputed.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "employee_margin_monthly", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_employee_margin_period", columnNames = {"employee_id", "year", "month"})
+}, indexes = {
+    @Index(name = "idx_employee_margin_period_status", columnList = "period_key, margin_status"),
+    @Index(name = "idx_employee_margin_team_period", columnList = "team_id, period_key"),
+    @Index(name = "idx_employee_margin_employee_period", columnList = "employee_id, period_key")
+})
+public class EmployeeMarginMonthly extends BaseEntity {
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "year", nullable = false)
+    private Integer year;
+
+    @Column(name = "month", nullable = false)
+    private Integer month;
+
+    /**
+     * year * 100 + month, so period ranges become a single indexed BETWEEN
+     */
+    @Column(name = "period_key", nullable = false)
+    private Integer periodKey;
+
+    @Column(name = "cost_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal costAmount;
+
+    @Column(name = "revenue_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal revenueAmount;
+
+    @Column(name = "margin", nullable = false, precision = 15, scale = 2)
+    private BigDecimal margin;
+
+    @Column(name = "margin_status", nullable = false, length = 10)
+    private String marginStatus;
+
+    public static int toPeriodKey(int year, int month) {
+        return year * 100 + month;
+    }
+}
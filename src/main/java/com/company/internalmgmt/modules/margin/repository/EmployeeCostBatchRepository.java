@@ -0,0 +1,109 @@
+package com.company.internalmgmt.modules.margin.repository;
+
+import com.company.internalmgmt.modules.margin.model.EmployeeCost;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * JDBC batch writes for employee costs.
+ * Costs use IDENTITY keys, which prevents Hibernate from batching inserts, so bulk writes go through JDBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmployeeCostBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO employee_costs (employee_id, year, month, cost_amount, " +
+            "basic_salary, allowance, overtime, other_costs, currency, note, created_by, updated_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Also revives soft-deleted rows, which still hold the (employee, year, month) key
+    private static final String UPDATE_SQL = "UPDATE employee_costs SET cost_amount = ?, basic_salary = ?, allowance = ?, " +
+            "overtime = ?, other_costs = ?, currency = ?, note = ?, updated_by = ?, updated_at = ?, deleted_at = NULL " +
+            "WHERE id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Find the cost row of each employee for a period, including soft-deleted rows
+     *
+     * @return map of employee ID to the existing row key
+     */
+    public Map<Long, ExistingCost> findCostKeysForPeriod(Collection<Long> employeeIds, int year, int month) {
+        if (employeeIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("employeeIds", employeeIds)
+                .addValue("year", year)
+                .addValue("month", month);
+
+        Map<Long, ExistingCost> result = new HashMap<>();
+        jdbcTemplate.query("SELECT id, employee_id, deleted_at FROM employee_costs " +
+                        "WHERE year = :year AND month = :month AND employee_id IN (:employeeIds)",
+                params,
+                rs -> {
+                    result.put(rs.getLong("employee_id"),
+                            new ExistingCost(rs.getLong("id"), rs.getTimestamp("deleted_at") != null));
+                });
+        return result;
+    }
+
+    /**
+     * Insert new costs in one JDBC batch
+     */
+    public void batchInsert(List<EmployeeCost> costs) {
+        if (costs.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(costs.size());
+        for (EmployeeCost cost : costs) {
+            args.add(new Object[]{
+                    cost.getEmployeeId(), cost.getYear(), cost.getMonth(), cost.getCostAmount(),
+                    cost.getBasicSalary(), cost.getAllowance(), cost.getOvertime(), cost.getOtherCosts(),
+                    cost.getCurrency(), cost.getNote(), cost.getCreatedBy(), cost.getUpdatedBy(), now, now
+            });
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, args);
+    }
+
+    /**
+     * Update existing costs (matched by {@code id}) in one JDBC batch
+     */
+    public void batchUpdate(List<EmployeeCost> costs) {
+        if (costs.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(costs.size());
+        for (EmployeeCost cost : costs) {
+            args.add(new Object[]{
+                    cost.getCostAmount(), cost.getBasicSalary(), cost.getAllowance(), cost.getOvertime(),
+                    cost.getOtherCosts(), cost.getCurrency(), cost.getNote(), cost.getUpdatedBy(), now,
+                    cost.getId()
+            });
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_SQL, args);
+    }
+
+    /**
+     * Key of an existing cost row
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ExistingCost {
+        private final Long id;
+        private final boolean deleted;
+    }
+}
@@ -55,4 +55,16 @@ public interface EmployeeCostRepository extends JpaRepository<EmployeeCost, Long
             @Param("startMonth") Integer startMonth,
             @Param("endYear") Integer endYear,
             @Param("endMonth") Integer endMonth);
-} 
\ No newline at end of file
+
+    /**
+     * Find every (year, month) that has at least one cost record
+     */
+    @Query("SELECT DISTINCT ec.year, ec.month FROM EmployeeCost ec")
+    List<Object[]> findDistinctPeriods();
+
+    /**
+     * Find ids of employees having a cost record for a specific year and month
+     */
+    @Query("SELECT ec.employeeId FROM EmployeeCost ec WHERE ec.year = :year AND ec.month = :month")
+    List<Long> findEmployeeIdsByYearAndMonth(@Param("year") Integer year, @Param("month") Integer month);
+}
@@ -0,0 +1,125 @@
+package com.company.internalmgmt.modules.margin.repository;
+
+import com.company.internalmgmt.modules.margin.model.EmployeeMarginMonthly;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmployeeMarginMonthlyRepository extends JpaRepository<EmployeeMarginMonthly, Long> {
+
+    /**
+     * Find margin facts by employee ids for a specific year and month
+     */
+    List<EmployeeMarginMonthly> findByEmployeeIdInAndYearAndMonth(Collection<Long> employeeIds, Integer year, Integer month);
+
+    /**
+     * Find margin facts by employee ids within a period key range, ordered for DTO assembly
+     */
+    List<EmployeeMarginMonthly> findByEmployeeIdInAndPeriodKeyBetweenOrderByEmployeeIdAscPeriodKeyAsc(
+            Collection<Long> employeeIds, Integer fromKey, Integer toKey);
+
+    /**
+     * Page employee ids having margin data in the period range.
+     * Scope is either every team ({@code allTeams}) or the employees currently in the given teams;
+     * {@code employeeId} narrows to one employee.
+     * When {@code status} is set, only employees with at least one month in that status are returned;
+     * {@code gapMatches} additionally matches employees with months missing from the range (shown as zero margin).
+     * Sorting is applied on aggregated columns by the caller through {@code JpaSort.unsafe}.
+     */
+    @Query(value = "SELECT f.employeeId FROM EmployeeMarginMonthly f " +
+           "WHERE f.periodKey BETWEEN :fromKey AND :toKey " +
+           "AND (:allTeams = true OR f.employeeId IN (SELECT e.id FROM Employee e WHERE e.team.id IN :teamIds)) " +
+           "AND (:employeeId IS NULL OR f.employeeId = :employeeId) " +
+           "AND (:status IS NULL " +
+           "OR f.employeeId IN (SELECT s.employeeId FROM EmployeeMarginMonthly s " +
+           "WHERE s.periodKey BETWEEN :fromKey AND :toKey AND s.marginStatus = :status) " +
+           "OR (:gapMatches = true AND f.employeeId IN (SELECT g.employeeId FROM EmployeeMarginMonthly g " +
+           "WHERE g.periodKey BETWEEN :fromKey AND :toKey GROUP BY g.employeeId HAVING COUNT(g) < :monthCount))) " +
+           "GROUP BY f.employeeId",
+           countQuery = "SELECT COUNT(DISTINCT f.employeeId) FROM EmployeeMarginMonthly f " +
+           "WHERE f.periodKey BETWEEN :fromKey AND :toKey " +
+           "AND (:allTeams = true OR f.employeeId IN (SELECT e.id FROM Employee e WHERE e.team.id IN :teamIds)) " +
+           "AND (:employeeId IS NULL OR f.employeeId = :employeeId) " +
+           "AND (:status IS NULL " +
+           "OR f.employeeId IN (SELECT s.employeeId FROM EmployeeMarginMonthly s " +
+           "WHERE s.periodKey BETWEEN :fromKey AND :toKey AND s.marginStatus = :status) " +
+           "OR (:gapMatches = true AND f.employeeId IN (SELECT g.employeeId FROM EmployeeMarginMonthly g " +
+           "WHERE g.periodKey BETWEEN :fromKey AND :toKey GROUP BY g.employeeId HAVING COUNT(g) < :monthCount)))")
+    Page<Long> findEmployeeIdPage(
+            @Param("fromKey") Integer fromKey,
+            @Param("toKey") Integer toKey,
+            @Param("allTeams") boolean allTeams,
+            @Param("teamIds") Collection<Long> teamIds,
+            @Param("employeeId") Long employeeId,
+            @Param("status") String status,
+            @Param("gapMatches") boolean gapMatches,
+            @Param("monthCount") long monthCount,
+            Pageable pageable);
+
+    /**
+     * Sum cost and revenue per team and month over the employees currently in the given teams.
+     * Returns rows of [teamId, year, month, costSum, revenueSum]; team-months without data are omitted.
+     */
+    @Query("SELECT e.team.id, f.year, f.month, SUM(f.costAmount), SUM(f.revenueAmount) " +
+           "FROM EmployeeMarginMonthly f, Employee e " +
+           "WHERE e.id = f.employeeId AND e.team.id IN :teamIds " +
+           "AND f.periodKey BETWEEN :fromKey AND :toKey " +
+           "GROUP BY e.team.id, f.year, f.month")
+    List<Object[]> sumByTeamAndPeriod(
+            @Param("teamIds") Collection<Long> teamIds,
+            @Param("fromKey") Integer fromKey,
+            @Param("toKey") Integer toKey);
+
+    /**
+     * Count employees and sum cost and revenue per month and margin status in one pass over the period range.
+     * Scope is either every employee ({@code allTeams}) or the employees currently in the given teams.
+     * Returns rows of [year, month, marginStatus, employeeCount, costSum, revenueSum]; months without data are omitted.
+     */
+    @Query("SELECT f.year, f.month, f.marginStatus, COUNT(f), SUM(f.costAmount), SUM(f.revenueAmount) " +
+           "FROM EmployeeMarginMonthly f " +
+           "WHERE f.periodKey BETWEEN :fromKey AND :toKey " +
+           "AND (:allTeams = true OR f.employeeId IN (SELECT e.id FROM Employee e WHERE e.team.id IN :teamIds)) " +
+           "GROUP BY f.year, f.month, f.marginStatus")
+    List<Object[]> sumByPeriodAndStatus(
+            @Param("fromKey") Integer fromKey,
+            @Param("toKey") Integer toKey,
+            @Param("allTeams") boolean allTeams,
+            @Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * Load monthly cost and revenue in the period range together with the employee's current team.
+     * Scope is either every team ({@code allTeams}), the employees currently in the given teams,
+     * or the given employees. Returns rows of [employeeId, teamId, year, month, cost, revenue];
+     * teamId is null for employees without a team.
+     */
+    @Query("SELECT f.employeeId, t.id, f.year, f.month, f.costAmount, f.revenueAmount " +
+           "FROM EmployeeMarginMonthly f, Employee e LEFT JOIN e.team t " +
+           "WHERE e.id = f.employeeId AND f.periodKey BETWEEN :fromKey AND :toKey " +
+           "AND (:allTeams = true OR t.id IN :teamIds OR f.employeeId IN :employeeIds)")
+    List<Object[]> findCellsWithTeam(
+            @Param("fromKey") Integer fromKey,
+            @Param("toKey") Integer toKey,
+            @Param("allTeams") boolean allTeams,
+            @Param("teamIds") Collection<Long> teamIds,
+            @Param("employeeIds") Collection<Long> employeeIds);
+
+    /**
+     * Re-apply margin thresholds to every stored month without recomputing amounts
+     */
+    @Modifying
+    @Query("UPDATE EmployeeMarginMonthly f SET f.marginStatus = " +
+           "CASE WHEN f.margin <= :redThreshold THEN 'Red' " +
+           "WHEN f.margin <= :yellowThreshold THEN 'Yellow' ELSE 'Green' END")
+    int reclassifyStatuses(
+            @Param("redThreshold") BigDecimal redThreshold,
+            @Param("yellowThreshold") BigDecimal yellowThreshold);
+}
@@ -0,0 +1,51 @@
+package com.company.internalmgmt.modules.margin.repository;
+
+import com.company.internalmgmt.modules.margin.model.EmployeeRevenue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for employee revenues.
+ * Rows are upserted on the (employee, contract, year, month) unique key, so a row inserted by a concurrent
+ * writer between reading the existing revenues and writing is updated instead of failing the batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmployeeRevenueBatchRepository {
+
+    // Also revives soft-deleted rows, which still hold the unique key
+    private static final String UPSERT_SQL = "INSERT INTO employee_revenues (employee_id, contract_id, year, month, " +
+            "billing_rate, allocation_percentage, calculated_revenue, currency, note, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE billing_rate = VALUES(billing_rate), " +
+            "allocation_percentage = VALUES(allocation_percentage), calculated_revenue = VALUES(calculated_revenue), " +
+            "currency = VALUES(currency), note = VALUES(note), updated_at = VALUES(updated_at), deleted_at = NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert or update revenues, matched on (employee, contract, year, month), in one JDBC batch
+     */
+    public void batchUpsert(List<EmployeeRevenue> revenues) {
+        if (revenues.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(revenues.size());
+        for (EmployeeRevenue revenue : revenues) {
+            args.add(new Object[]{
+                    revenue.getEmployeeId(), revenue.getContractId(), revenue.getYear(), revenue.getMonth(),
+                    revenue.getBillingRate(), revenue.getAllocationPercentage(), revenue.getCalculatedRevenue(),
+                    revenue.getCurrency(), revenue.getNote(), now, now
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+}
@@ -3,10 +3,12 @@ package com.company.internalmgmt.modules.margin.repository;
 import com.company.internalmgmt.modules.margin.model.EmployeeRevenue;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,4 +74,36 @@ public interface EmployeeRevenueRepository extends JpaRepository<EmployeeRevenue
             @Param("startMonth") Integer startMonth,
             @Param("endYear") Integer endYear,
             @Param("endMonth") Integer endMonth);
-} 
\ No newline at end of file
+
+    /**
+     * Find every (year, month) that has at least one revenue record
+     */
+    @Query("SELECT DISTINCT er.year, er.month FROM EmployeeRevenue er")
+    List<Object[]> findDistinctPeriods();
+
+    /**
+     * Find ids of employees having revenue for a specific year and month
+     */
+    @Query("SELECT DISTINCT er.employeeId FROM EmployeeRevenue er WHERE er.year = :year AND er.month = :month")
+    List<Long> findEmployeeIdsByYearAndMonth(@Param("year") Integer year, @Param("month") Integer month);
+
+    /**
+     * Find revenues by contract ids
+     */
+    List<EmployeeRevenue> findByContractIdIn(Collection<Long> contractIds);
+
+    /**
+     * Find ids of contracts having revenue for a specific year and month
+     */
+    @Query("SELECT DISTINCT er.contractId FROM EmployeeRevenue er WHERE er.year = :year AND er.month = :month")
+    List<Long> findContractIdsByYearAndMonth(@Param("year") Integer year, @Param("month") Integer month);
+
+    /**
+     * Physically remove soft-deleted revenues of the given contracts so that their
+     * (employee, contract, year, month) keys can be written again
+     */
+    @Modifying
+    @Query(value = "DELETE FROM employee_revenues WHERE contract_id IN :contractIds AND deleted_at IS NOT NULL",
+           nativeQuery = true)
+    int purgeDeletedByContractIds(@Param("contractIds") Collection<Long> contractIds);
+}
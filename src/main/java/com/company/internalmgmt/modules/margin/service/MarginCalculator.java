@@ -0,0 +1,101 @@
+package com.company.internalmgmt.modules.margin.service;
+
+import com.company.internalmgmt.common.service.SystemConfigService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Margin arithmetic and Red/Yellow/Green classification shared by the margin services.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MarginCalculator {
+
+    public static final String THRESHOLD_RED_KEY = "margin.threshold.red";
+    public static final String THRESHOLD_YELLOW_KEY = "margin.threshold.yellow";
+
+    // Default margin thresholds
+    private static final BigDecimal RED_THRESHOLD = BigDecimal.valueOf(20.0);
+    private static final BigDecimal YELLOW_THRESHOLD = BigDecimal.valueOf(30.0);
+
+    private final SystemConfigService systemConfigService;
+
+    /**
+     * Tính margin từ doanh thu và chi phí
+     * @param revenue doanh thu
+     * @param cost chi phí
+     * @return margin tính theo phần trăm
+     */
+    public BigDecimal calculateMargin(BigDecimal revenue, BigDecimal cost) {
+        if (revenue.compareTo(BigDecimal.ZERO) == 0) {
+            // Nếu không có doanh thu, margin là 0
+            return BigDecimal.ZERO;
+        }
+
+        if (cost.compareTo(BigDecimal.ZERO) == 0) {
+            // Nếu không có chi phí nhưng có doanh thu, margin là 100%
+            return new BigDecimal("100.0");
+        }
+
+        // Margin = (Revenue - Cost) / Revenue * 100
+        return revenue.subtract(cost)
+                .multiply(new BigDecimal("100"))
+                .divide(revenue, 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Classify a margin percentage using the current system thresholds
+     *
+     * @param margin Margin percentage
+     * @return Status string: "Red", "Yellow", "Green" or "Unknown"
+     */
+    public String calculateMarginStatus(BigDecimal margin) {
+        if (margin == null) {
+            return "Unknown";
+        }
+        return calculateMarginStatus(margin, getMarginThresholds());
+    }
+
+    /**
+     * Classify a margin percentage using thresholds that were already loaded
+     *
+     * @param margin Margin percentage
+     * @param thresholds Map containing red and yellow thresholds
+     * @return Status string: "Red", "Yellow", "Green" or "Unknown"
+     */
+    public String calculateMarginStatus(BigDecimal margin, Map<String, BigDecimal> thresholds) {
+        if (margin == null) {
+            return "Unknown";
+        }
+
+        BigDecimal redThreshold = thresholds.get("red");
+        BigDecimal yellowThreshold = thresholds.get("yellow");
+
+        if (margin.compareTo(redThreshold) <= 0) {
+            return "Red";
+        } else if (margin.compareTo(yellowThreshold) <= 0) {
+            return "Yellow";
+        } else {
+            return "Green";
+        }
+    }
+
+    /**
+     * Load margin thresholds from the cached system configs, falling back to defaults
+     *
+     * @return Map containing red and yellow thresholds
+     */
+    public Map<String, BigDecimal> getMarginThresholds() {
+        Map<String, BigDecimal> thresholds = new HashMap<>();
+        thresholds.put("red", systemConfigService.getBigDecimal(THRESHOLD_RED_KEY, RED_THRESHOLD));
+        thresholds.put("yellow", systemConfigService.getBigDecimal(THRESHOLD_YELLOW_KEY, YELLOW_THRESHOLD));
+        return thresholds;
+    }
+}
@@ -0,0 +1,40 @@
+package com.company.internalmgmt.modules.margin.service;
+
+import java.util.Collection;
+
+/**
+ * Maintains the employee_margin_monthly fact table from employee costs and revenues.
+ */
+public interface MarginFactService {
+
+    /**
+     * Recompute the margin facts of the given employees for one month.
+     * Facts of employees that no longer have any cost or revenue in that month are removed.
+     *
+     * @param employeeIds Employee IDs whose cost or revenue changed
+     * @param year Year
+     * @param month Month (1-12)
+     */
+    void refreshEmployeeMonths(Collection<Long> employeeIds, int year, int month);
+
+    /**
+     * Rebuild the facts for every month that has cost or revenue data
+     *
+     * @return Number of facts written
+     */
+    int rebuildAll();
+
+    /**
+     * Re-apply the current margin thresholds to all stored facts
+     *
+     * @return Number of facts updated
+     */
+    int reclassifyStatuses();
+
+    /**
+     * Check whether the fact table has been populated
+     *
+     * @return true if no fact exists yet
+     */
+    boolean isEmpty();
+}
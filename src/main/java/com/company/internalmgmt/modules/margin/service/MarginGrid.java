@@ -0,0 +1,281 @@
+package com.company.internalmgmt.modules.margin.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Fixed-point margin kernel over a (row, month) grid, where a row is an employee or a team.
+ * Costs and revenues are accumulated as cents in primitive arrays and converted to {@link BigDecimal}
+ * only when a DTO is built. Results are identical to {@link MarginCalculator#calculateMargin}:
+ * same HALF_UP rounding to 2 decimals and the same zero/100.0 special cases, and amounts keep the
+ * scale they would have had when summed as BigDecimal (0 when a cell has no data).
+ * Amounts must have at most 2 decimals, as stored in the cost and revenue tables.
+ */
+public final class MarginGrid {
+
+    private static final BigDecimal FULL_MARGIN = new BigDecimal("100.0");
+    private static final long FULL_MARGIN_HUNDREDTHS = 10000L;
+    private static final byte NO_DATA = -1;
+
+    private final int rows;
+    private final int months;
+    private final long[] costCents;
+    private final long[] revenueCents;
+    // Largest scale added to each cell, NO_DATA while empty
+    private final byte[] costScale;
+    private final byte[] revenueScale;
+
+    public MarginGrid(int rows, int months) {
+        this.rows = rows;
+        this.months = months;
+        int cells = Math.multiplyExact(rows, months);
+        this.costCents = new long[cells];
+        this.revenueCents = new long[cells];
+        this.costScale = new byte[cells];
+        this.revenueScale = new byte[cells];
+        Arrays.fill(costScale, NO_DATA);
+        Arrays.fill(revenueScale, NO_DATA);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getMonths() {
+        return months;
+    }
+
+    /**
+     * Month slot of a year/month relative to the first month of the grid
+     */
+    public static int monthSlot(int startYear, int startMonth, int year, int month) {
+        return (year - startYear) * 12 + (month - startMonth);
+    }
+
+    public void addCost(int row, int month, BigDecimal amount) {
+        int cell = cell(row, month);
+        costCents[cell] = Math.addExact(costCents[cell], toCents(amount));
+        costScale[cell] = (byte) Math.max(costScale[cell], amount.scale());
+    }
+
+    public void addRevenue(int row, int month, BigDecimal amount) {
+        int cell = cell(row, month);
+        revenueCents[cell] = Math.addExact(revenueCents[cell], toCents(amount));
+        revenueScale[cell] = (byte) Math.max(revenueScale[cell], amount.scale());
+    }
+
+    /**
+     * Replace the cost of a cell, as if {@code amount} were its only cost
+     */
+    public void setCost(int row, int month, BigDecimal amount) {
+        int cell = cell(row, month);
+        costCents[cell] = toCents(amount);
+        costScale[cell] = (byte) amount.scale();
+    }
+
+    /**
+     * Add every month of a row of another grid with the same month range to a row of this grid
+     */
+    public void addRow(int row, MarginGrid source, int sourceRow) {
+        if (source.months != months) {
+            throw new IllegalArgumentException("Grids must cover the same months");
+        }
+        int target = cell(row, 0);
+        int from = source.cell(sourceRow, 0);
+        for (int month = 0; month < months; month++) {
+            costCents[target + month] = Math.addExact(costCents[target + month], source.costCents[from + month]);
+            revenueCents[target + month] = Math.addExact(revenueCents[target + month], source.revenueCents[from + month]);
+            costScale[target + month] = (byte) Math.max(costScale[target + month], source.costScale[from + month]);
+            revenueScale[target + month] = (byte) Math.max(revenueScale[target + month], source.revenueScale[from + month]);
+        }
+    }
+
+    /**
+     * Independent copy of this grid
+     */
+    public MarginGrid copy() {
+        MarginGrid copy = new MarginGrid(rows, months);
+        System.arraycopy(costCents, 0, copy.costCents, 0, costCents.length);
+        System.arraycopy(revenueCents, 0, copy.revenueCents, 0, revenueCents.length);
+        System.arraycopy(costScale, 0, copy.costScale, 0, costScale.length);
+        System.arraycopy(revenueScale, 0, copy.revenueScale, 0, revenueScale.length);
+        return copy;
+    }
+
+    public boolean hasData(int row, int month) {
+        int cell = cell(row, month);
+        return costScale[cell] != NO_DATA || revenueScale[cell] != NO_DATA;
+    }
+
+    public BigDecimal cost(int row, int month) {
+        int cell = cell(row, month);
+        return toAmount(costCents[cell], costScale[cell]);
+    }
+
+    public BigDecimal revenue(int row, int month) {
+        int cell = cell(row, month);
+        return toAmount(revenueCents[cell], revenueScale[cell]);
+    }
+
+    public long marginHundredths(int row, int month) {
+        int cell = cell(row, month);
+        return marginHundredths(revenueCents[cell], costCents[cell]);
+    }
+
+    public BigDecimal margin(int row, int month) {
+        int cell = cell(row, month);
+        return margin(revenueCents[cell], costCents[cell]);
+    }
+
+    /**
+     * Totals of a row over all months, or of the whole grid when {@code row} is negative
+     */
+    public Totals totals(int row) {
+        int from = row < 0 ? 0 : row * months;
+        int to = row < 0 ? costCents.length : from + months;
+        Totals totals = new Totals();
+        for (int cell = from; cell < to; cell++) {
+            totals.costCents = Math.addExact(totals.costCents, costCents[cell]);
+            totals.revenueCents = Math.addExact(totals.revenueCents, revenueCents[cell]);
+            totals.costScale = (byte) Math.max(totals.costScale, costScale[cell]);
+            totals.revenueScale = (byte) Math.max(totals.revenueScale, revenueScale[cell]);
+        }
+        return totals;
+    }
+
+    private int cell(int row, int month) {
+        return row * months + month;
+    }
+
+    /**
+     * Margin percentage in hundredths of a percent: (revenue - cost) * 100 / revenue rounded HALF_UP to 2 decimals
+     */
+    public static long marginHundredths(long revenueCents, long costCents) {
+        if (revenueCents == 0) {
+            return 0;
+        }
+        if (costCents == 0) {
+            return FULL_MARGIN_HUNDREDTHS;
+        }
+        long numerator;
+        try {
+            numerator = Math.multiplyExact(Math.subtractExact(revenueCents, costCents), 10000L);
+        } catch (ArithmeticException e) {
+            // Beyond long range only for implausible totals; fall back to decimal arithmetic
+            return BigDecimal.valueOf(revenueCents).subtract(BigDecimal.valueOf(costCents))
+                    .multiply(BigDecimal.valueOf(10000L))
+                    .divide(BigDecimal.valueOf(revenueCents), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+        long quotient = numerator / revenueCents;
+        long remainder = numerator % revenueCents;
+        // HALF_UP: round away from zero when the discarded fraction is at least one half
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(revenueCents) - Math.abs(remainder)) {
+            quotient += (numerator < 0) == (revenueCents < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Same value and scale as {@link MarginCalculator#calculateMargin} for amounts given in cents
+     */
+    public static BigDecimal margin(long revenueCents, long costCents) {
+        if (revenueCents == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (costCents == 0) {
+            return FULL_MARGIN;
+        }
+        return BigDecimal.valueOf(marginHundredths(revenueCents, costCents), 2);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal toAmount(long cents, byte scale) {
+        if (scale == NO_DATA) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal amount = BigDecimal.valueOf(cents, 2);
+        return scale == 2 ? amount : amount.setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Cost and revenue totals in cents, with the scale the BigDecimal sums would have had
+     */
+    public static final class Totals {
+        private long costCents;
+        private long revenueCents;
+        private byte costScale = NO_DATA;
+        private byte revenueScale = NO_DATA;
+
+        public long getCostCents() {
+            return costCents;
+        }
+
+        public long getRevenueCents() {
+            return revenueCents;
+        }
+
+        public BigDecimal cost() {
+            return toAmount(costCents, costScale);
+        }
+
+        public BigDecimal revenue() {
+            return toAmount(revenueCents, revenueScale);
+        }
+
+        public long marginHundredths() {
+            return MarginGrid.marginHundredths(revenueCents, costCents);
+        }
+
+        public BigDecimal margin() {
+            return MarginGrid.margin(revenueCents, costCents);
+        }
+
+        public void add(Totals other) {
+            costCents = Math.addExact(costCents, other.costCents);
+            revenueCents = Math.addExact(revenueCents, other.revenueCents);
+            costScale = (byte) Math.max(costScale, other.costScale);
+            revenueScale = (byte) Math.max(revenueScale, other.revenueScale);
+        }
+    }
+
+    /**
+     * Margin thresholds in hundredths of a percent, for classifying fixed-point margins
+     */
+    public static final class StatusLimits {
+        private final long red;
+        private final long yellow;
+
+        private StatusLimits(long red, long yellow) {
+            this.red = red;
+            this.yellow = yellow;
+        }
+
+        /**
+         * @param thresholds Map containing red and yellow thresholds, as returned by {@link MarginCalculator#getMarginThresholds()}
+         */
+        public static StatusLimits of(Map<String, BigDecimal> thresholds) {
+            // An integral margin m satisfies m <= t exactly when m <= floor(t)
+            return new StatusLimits(
+                    thresholds.get("red").movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact(),
+                    thresholds.get("yellow").movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact());
+        }
+
+        /**
+         * Same classification as {@link MarginCalculator#calculateMarginStatus(BigDecimal, Map)}
+         */
+        public String statusOf(long marginHundredths) {
+            if (marginHundredths <= red) {
+                return "Red";
+            } else if (marginHundredths <= yellow) {
+                return "Yellow";
+            }
+            return "Green";
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.company.internalmgmt.modules.margin.service;
 
+import com.company.internalmgmt.modules.margin.dto.CostImportResultDTO;
 import com.company.internalmgmt.modules.margin.dto.EmployeeMarginDTO;
+import com.company.internalmgmt.modules.margin.dto.MarginSimulationResultDTO;
 import com.company.internalmgmt.modules.margin.dto.MarginSummaryDTO;
+import com.company.internalmgmt.modules.margin.dto.MarginTrendDTO;
 import com.company.internalmgmt.modules.margin.dto.request.ImportCostRequestDTO;
+import com.company.internalmgmt.modules.margin.dto.request.MarginSimulationRequestDTO;
 import com.company.internalmgmt.modules.margin.dto.request.UpdateCostRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -88,6 +92,26 @@ public interface MarginService {
             String view,
             String groupBy);
 
+    /**
+     * Get the margin and the red/yellow/green distribution of employees for consecutive months,
+     * computed together from the materialized monthly margins
+     *
+     * @param teamId Optional filter for specific team (includes its descendant teams)
+     * @param toMonth Last month (YYYY-MM), the current month when null
+     * @param months Number of months ending with {@code toMonth}, 6 when null
+     * @return One entry per month in chronological order
+     */
+    MarginTrendDTO getMarginTrend(Long teamId, String toMonth, Integer months);
+
+    /**
+     * Evaluate hypothetical billing rate, allocation, cost and team changes against current margin data.
+     * Nothing is written to the database.
+     *
+     * @param request Period filters and the adjustments to apply
+     * @return Baseline and simulated margins per adjusted employee, per team and in total
+     */
+    MarginSimulationResultDTO simulateMargins(MarginSimulationRequestDTO request);
+
     /**
      * Import employee costs from file
      *
@@ -95,7 +119,7 @@ public interface MarginService {
      * @param request Import parameters
      * @return Import result with success/error counts
      */
-    Map<String, Object> importEmployeeCosts(MultipartFile file, ImportCostRequestDTO request);
+    CostImportResultDTO importEmployeeCosts(MultipartFile file, ImportCostRequestDTO request);
 
     /**
      * Update employee costs manually
@@ -103,7 +127,7 @@ public interface MarginService {
      * @param request Update request with employee costs
      * @return Update result with success/error counts
      */
-    Map<String, Object> updateEmployeeCosts(UpdateCostRequestDTO request);
+    CostImportResultDTO updateEmployeeCosts(UpdateCostRequestDTO request);
 
     /**
      * Calculate margin status based on margin percentage
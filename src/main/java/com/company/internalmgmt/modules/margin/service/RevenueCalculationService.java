@@ -0,0 +1,36 @@
+package com.company.internalmgmt.modules.margin.service;
+
+import com.company.internalmgmt.modules.margin.dto.RevenueCalculationResultDTO;
+
+import java.util.Collection;
+
+/**
+ * Derives monthly employee revenues from contract allocations.
+ * Revenue of an assignment for a month = bill rate * allocation percentage / 100,
+ * prorated by the number of days the assignment is active in that month.
+ */
+public interface RevenueCalculationService {
+
+    /**
+     * Recalculate revenues of every contract
+     *
+     * @return Calculation result
+     */
+    RevenueCalculationResultDTO recalculateAll();
+
+    /**
+     * Recalculate only contracts touched since the last successful run,
+     * plus contracts billing in the current month. Falls back to a full run the first time.
+     *
+     * @return Calculation result
+     */
+    RevenueCalculationResultDTO recalculateIncremental();
+
+    /**
+     * Recalculate revenues of specific contracts
+     *
+     * @param contractIds Contract IDs
+     * @return Calculation result
+     */
+    RevenueCalculationResultDTO recalculateContracts(Collection<Long> contractIds);
+}
@@ -0,0 +1,172 @@
+package com.company.internalmgmt.modules.margin.service.impl;
+
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
+import com.company.internalmgmt.modules.hrm.repository.EmployeeRepository;
+import com.company.internalmgmt.modules.margin.model.EmployeeCost;
+import com.company.internalmgmt.modules.margin.model.EmployeeMarginMonthly;
+import com.company.internalmgmt.modules.margin.repository.EmployeeCostRepository;
+import com.company.internalmgmt.modules.margin.repository.EmployeeMarginMonthlyRepository;
+import com.company.internalmgmt.modules.margin.repository.EmployeeRevenueRepository;
+import com.company.internalmgmt.modules.margin.service.MarginCalculator;
+import com.company.internalmgmt.modules.margin.service.MarginFactService;
+import com.company.internalmgmt.modules.margin.service.MarginGrid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MarginFactServiceImpl implements MarginFactService {
+
+    // Keep IN lists well below database parameter limits
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final EmployeeMarginMonthlyRepository marginMonthlyRepository;
+    private final EmployeeCostRepository employeeCostRepository;
+    private final EmployeeRevenueRepository employeeRevenueRepository;
+    private final EmployeeRepository employeeRepository;
+    private final MarginCalculator marginCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public void refreshEmployeeMonths(Collection<Long> employeeIds, int year, int month) {
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, BigDecimal> thresholds = marginCalculator.getMarginThresholds();
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(employeeIds));
+
+        for (int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size()));
+            refreshChunk(chunk, year, month, thresholds);
+        }
+
+        log.debug("Refreshed margin facts for {} employees in {}-{}", distinctIds.size(), year, month);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.MARGIN));
+    }
+
+    @Override
+    @Transactional
+    public int rebuildAll() {
+        // Collect every period that has either cost or revenue data
+        Set<List<Integer>> periods = new TreeSet<>(Comparator
+                .comparing((List<Integer> p) -> p.get(0))
+                .thenComparing(p -> p.get(1)));
+        for (Object[] row : employeeCostRepository.findDistinctPeriods()) {
+            periods.add(Arrays.asList((Integer) row[0], (Integer) row[1]));
+        }
+        for (Object[] row : employeeRevenueRepository.findDistinctPeriods()) {
+            periods.add(Arrays.asList((Integer) row[0], (Integer) row[1]));
+        }
+
+        int written = 0;
+        for (List<Integer> period : periods) {
+            int year = period.get(0);
+            int month = period.get(1);
+
+            Set<Long> employeeIds = new LinkedHashSet<>(
+                    employeeCostRepository.findEmployeeIdsByYearAndMonth(year, month));
+            employeeIds.addAll(employeeRevenueRepository.findEmployeeIdsByYearAndMonth(year, month));
+
+            refreshEmployeeMonths(employeeIds, year, month);
+            written += employeeIds.size();
+        }
+
+        log.info("Rebuilt margin facts: {} employee-months over {} periods", written, periods.size());
+        return written;
+    }
+
+    @Override
+    // Runs in its own transaction: it is triggered from after-commit callbacks of config updates
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int reclassifyStatuses() {
+        Map<String, BigDecimal> thresholds = marginCalculator.getMarginThresholds();
+        int updated = marginMonthlyRepository.reclassifyStatuses(thresholds.get("red"), thresholds.get("yellow"));
+        log.info("Reclassified {} margin facts with thresholds red={}, yellow={}",
+                updated, thresholds.get("red"), thresholds.get("yellow"));
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.MARGIN));
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return marginMonthlyRepository.count() == 0;
+    }
+
+    private void refreshChunk(List<Long> employeeIds, int year, int month, Map<String, BigDecimal> thresholds) {
+        // One grid row per employee of the chunk, a single month column
+        MarginGrid grid = new MarginGrid(employeeIds.size(), 1);
+        MarginGrid.StatusLimits limits = MarginGrid.StatusLimits.of(thresholds);
+        Map<Long, Integer> rowByEmployee = new HashMap<>();
+        for (int row = 0; row < employeeIds.size(); row++) {
+            rowByEmployee.put(employeeIds.get(row), row);
+        }
+
+        for (EmployeeCost cost : employeeCostRepository.findByEmployeeIdsAndPeriod(employeeIds, year, month, month)) {
+            grid.addCost(rowByEmployee.get(cost.getEmployeeId()), 0,
+                    cost.getCostAmount() != null ? cost.getCostAmount() : BigDecimal.ZERO);
+        }
+
+        for (Object[] row : employeeRevenueRepository.sumRevenueByEmployeeIdsAndPeriod(employeeIds, year, month)) {
+            BigDecimal revenue = row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+            grid.addRevenue(rowByEmployee.get((Long) row[0]), 0, revenue);
+        }
+
+        Map<Long, Long> teamByEmployee = new HashMap<>();
+        for (Object[] row : employeeRepository.findTeamIdsByEmployeeIds(employeeIds)) {
+            teamByEmployee.put((Long) row[0], (Long) row[1]);
+        }
+
+        Map<Long, EmployeeMarginMonthly> existingFacts = new HashMap<>();
+        for (EmployeeMarginMonthly fact : marginMonthlyRepository.findByEmployeeIdInAndYearAndMonth(employeeIds, year, month)) {
+            existingFacts.put(fact.getEmployeeId(), fact);
+        }
+
+        List<EmployeeMarginMonthly> toSave = new ArrayList<>();
+        List<EmployeeMarginMonthly> toDelete = new ArrayList<>();
+
+        for (int row = 0; row < employeeIds.size(); row++) {
+            Long employeeId = employeeIds.get(row);
+            EmployeeMarginMonthly fact = existingFacts.get(employeeId);
+
+            if (!grid.hasData(row, 0)) {
+                if (fact != null) {
+                    toDelete.add(fact);
+                }
+                continue;
+            }
+
+            if (fact == null) {
+                fact = EmployeeMarginMonthly.builder()
+                        .employeeId(employeeId)
+                        .year(year)
+                        .month(month)
+                        .periodKey(EmployeeMarginMonthly.toPeriodKey(year, month))
+                        .build();
+            }
+            fact.setTeamId(teamByEmployee.get(employeeId));
+            fact.setCostAmount(grid.cost(row, 0));
+            fact.setRevenueAmount(grid.revenue(row, 0));
+            fact.setMargin(grid.margin(row, 0));
+            fact.setMarginStatus(limits.statusOf(grid.marginHundredths(row, 0)));
+            toSave.add(fact);
+        }
+
+        if (!toDelete.isEmpty()) {
+            marginMonthlyRepository.deleteAll(toDelete);
+        }
+        if (!toSave.isEmpty()) {
+            marginMonthlyRepository.saveAll(toSave);
+        }
+    }
+}
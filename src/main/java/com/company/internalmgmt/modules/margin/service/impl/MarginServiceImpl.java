@@ -3,31 +3,46 @@ package com.company.internalmgmt.modules.margin.service.impl;
 import com.company.internalmgmt.common.exception.AccessDeniedException;
 import com.company.internalmgmt.common.exception.BadRequestException;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
-import com.company.internalmgmt.common.model.SystemConfig;
-import com.company.internalmgmt.common.repository.SystemConfigRepository;
 import com.company.internalmgmt.modules.hrm.model.Employee;
 import com.company.internalmgmt.modules.hrm.model.Team;
 import com.company.internalmgmt.modules.hrm.repository.EmployeeRepository;
 import com.company.internalmgmt.modules.hrm.repository.TeamRepository;
+import com.company.internalmgmt.modules.hrm.service.TeamHierarchyService;
+import com.company.internalmgmt.modules.margin.dto.CostImportResultDTO;
 import com.company.internalmgmt.modules.margin.dto.EmployeeMarginDTO;
+import com.company.internalmgmt.modules.margin.dto.MarginSimulationResultDTO;
 import com.company.internalmgmt.modules.margin.dto.MarginSummaryDTO;
+import com.company.internalmgmt.modules.margin.dto.MarginTrendDTO;
 import com.company.internalmgmt.modules.margin.dto.request.ImportCostRequestDTO;
+import com.company.internalmgmt.modules.margin.dto.request.MarginSimulationRequestDTO;
 import com.company.internalmgmt.modules.margin.dto.request.UpdateCostRequestDTO;
 import com.company.internalmgmt.modules.margin.model.EmployeeCost;
+import com.company.internalmgmt.modules.margin.model.EmployeeMarginMonthly;
 import com.company.internalmgmt.modules.margin.model.EmployeeRevenue;
+import com.company.internalmgmt.modules.margin.repository.EmployeeCostBatchRepository;
 import com.company.internalmgmt.modules.margin.repository.EmployeeCostRepository;
+import com.company.internalmgmt.modules.margin.repository.EmployeeMarginMonthlyRepository;
 import com.company.internalmgmt.modules.margin.repository.EmployeeRevenueRepository;
+import com.company.internalmgmt.modules.margin.service.MarginCalculator;
+import com.company.internalmgmt.modules.margin.service.MarginFactService;
+import com.company.internalmgmt.modules.margin.service.MarginGrid;
 import com.company.internalmgmt.modules.margin.service.MarginService;
+import com.company.internalmgmt.modules.margin.service.importer.EmployeeCostFileParser;
+import com.company.internalmgmt.modules.margin.service.importer.EmployeeCostImportRow;
 import com.company.internalmgmt.security.jwt.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -47,12 +62,24 @@ public class MarginServiceImpl implements MarginService {
     private final EmployeeCostRepository employeeCostRepository;
     private final EmployeeRevenueRepository employeeRevenueRepository;
     private final TeamRepository teamRepository;
+    private final TeamHierarchyService teamHierarchyService;
     private final EmployeeRepository employeeRepository;
-    private final SystemConfigRepository systemConfigRepository;
-    
-    // Default margin thresholds
-    private static final BigDecimal RED_THRESHOLD = BigDecimal.valueOf(20.0);
-    private static final BigDecimal YELLOW_THRESHOLD = BigDecimal.valueOf(30.0);
+    private final EmployeeMarginMonthlyRepository marginMonthlyRepository;
+    private final MarginFactService marginFactService;
+    private final MarginCalculator marginCalculator;
+    private final EmployeeCostFileParser employeeCostFileParser;
+    private final EmployeeCostBatchRepository employeeCostBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final int DEFAULT_TREND_MONTHS = 6;
+    private static final int MAX_TREND_MONTHS = 36;
+
+    // Sort expressions over the aggregated margin facts of an employee
+    private static final String SORT_COST = "SUM(f.costAmount)";
+    private static final String SORT_REVENUE = "SUM(f.revenueAmount)";
+    private static final String SORT_MARGIN = "CASE WHEN SUM(f.revenueAmount) = 0 THEN 0 " +
+            "ELSE ((SUM(f.revenueAmount) - SUM(f.costAmount)) * 100 / SUM(f.revenueAmount)) END";
 
     @Override
     public Page<EmployeeMarginDTO> getEmployeeMargins(
@@ -85,61 +112,59 @@ public class MarginServiceImpl implements MarginService {
         // 2. Parse and validate date parameters
         DateRange dateRange = parseDateParameters(period, fromDate, toDate, yearMonth, yearQuarter, year);
         
-        // 3. Get employee IDs based on filters
-        List<Long> employeeIds = getEmployeeIdsBasedOnFilters(employeeId, teamId, hasAllAccess, hasTeamAccess);
-        
-        log.debug("Employee IDs based on filters: {}", employeeIds);
-
-        if (employeeIds.isEmpty()) {
+        // 3. Resolve which employees the caller may see
+        MarginScope scope = resolveMarginScope(employeeId, teamId, hasAllAccess, hasTeamAccess);
+        if (scope == null) {
             return new PageImpl<>(Collections.emptyList(), pageable, 0);
         }
         
-        // 4. Get costs and revenues
-        Map<EmployeeKey, EmployeeCost> costMap = getCostsForPeriod(employeeIds, dateRange);
-        log.debug("Cost map for employeeIds {}: {}", employeeIds, costMap.size());
-        Map<EmployeeKey, List<EmployeeRevenue>> revenueMap = getRevenuesForPeriod(employeeIds, dateRange);
-        log.debug("Revenue map for employeeIds {}: {}", employeeIds, revenueMap.size());
-
+        // 4. Page employee ids directly on the margin fact table
+        int fromKey = EmployeeMarginMonthly.toPeriodKey(dateRange.startYear, dateRange.startMonth);
+        int toKey = EmployeeMarginMonthly.toPeriodKey(dateRange.endYear, dateRange.endMonth);
+        long monthCount = dateRange.monthCount();
         
-        // 5. Calculate margins and create DTOs
-        List<EmployeeMarginDTO> marginDTOs = new ArrayList<>();
+        Map<String, BigDecimal> thresholds = marginCalculator.getMarginThresholds();
+        String zeroStatus = marginCalculator.calculateMarginStatus(BigDecimal.ZERO, thresholds);
+        String statusFilter = normalizeMarginStatus(status);
+        // Months without data are shown as zero margin, so they match the status of a zero margin
+        boolean gapMatches = statusFilter != null && statusFilter.equals(zeroStatus);
         
-        for (Long empId : employeeIds) {
-            // Skip if no data for this employee
-            if (!hasDataForEmployee(empId, costMap, revenueMap)) {
-                continue;
-            }
-            
-            EmployeeMarginDTO dto = createEmployeeMarginDTO(empId, period, costMap, revenueMap, dateRange);
-            
-            // Filter by status if requested
-            if (status != null && !status.isEmpty()) {
-                // Check if any period has the requested status
-                boolean hasMatchingStatus = dto.getPeriods().stream()
-                        .anyMatch(p -> status.equalsIgnoreCase(p.getMarginStatus()));
-                
-                if (!hasMatchingStatus) {
-                    continue;
-                }
-            }
-            
-            marginDTOs.add(dto);
+        Page<Long> idPage = marginMonthlyRepository.findEmployeeIdPage(
+                fromKey, toKey,
+                scope.allTeams, scope.teamIds, scope.employeeId,
+                statusFilter, gapMatches, monthCount,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), buildFactSort(pageable.getSort())));
+        
+        List<Long> pageEmployeeIds = idPage.getContent();
+        log.debug("Employee IDs on page {}: {}", pageable.getPageNumber(), pageEmployeeIds);
+        
+        if (pageEmployeeIds.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, idPage.getTotalElements());
+        }
+        
+        // 5. Load facts and employees for the current page only
+        Map<Long, Map<Integer, EmployeeMarginMonthly>> factsByEmployee = new HashMap<>();
+        for (EmployeeMarginMonthly fact : marginMonthlyRepository
+                .findByEmployeeIdInAndPeriodKeyBetweenOrderByEmployeeIdAscPeriodKeyAsc(pageEmployeeIds, fromKey, toKey)) {
+            factsByEmployee.computeIfAbsent(fact.getEmployeeId(), k -> new HashMap<>())
+                    .put(fact.getPeriodKey(), fact);
         }
         
-        // 6. Apply pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), marginDTOs.size());
+        Map<Long, Employee> employees = employeeRepository.findAllWithTeamByIdIn(pageEmployeeIds).stream()
+                .collect(Collectors.toMap(Employee::getId, e -> e));
         
-        // Sort results if needed
-        if (pageable.getSort().isSorted()) {
-            sortMarginDTOs(marginDTOs, pageable);
+        // 6. Build DTOs in page order
+        List<EmployeeMarginDTO> marginDTOs = new ArrayList<>(pageEmployeeIds.size());
+        for (Long empId : pageEmployeeIds) {
+            Employee employee = employees.get(empId);
+            if (employee == null) {
+                continue;
+            }
+            marginDTOs.add(buildEmployeeMarginDTO(employee, period,
+                    factsByEmployee.getOrDefault(empId, Collections.emptyMap()), dateRange, zeroStatus));
         }
         
-        List<EmployeeMarginDTO> pagedResult = start < end 
-                ? marginDTOs.subList(start, end) 
-                : Collections.emptyList();
-                
-        return new PageImpl<>(pagedResult, pageable, marginDTOs.size());
+        return new PageImpl<>(marginDTOs, pageable, idPage.getTotalElements());
     }
 
     @Override
@@ -175,22 +200,18 @@ public class MarginServiceImpl implements MarginService {
         // 2. Parse and validate date filters
         DateRange dateRange = parseDateParameters(period, fromDate, toDate, yearMonth, yearQuarter, year);
         
-        // 3. Query detailed costs and revenues for the period
-        Map<EmployeeKey, EmployeeCost> costMap = getCostsForPeriod(
-                Collections.singletonList(employeeId), dateRange);
-        log.debug("Cost map for employee {}: {}", employeeId, costMap.size());
-                
-        Map<EmployeeKey, List<EmployeeRevenue>> revenueMap = getRevenuesForPeriod(
-                Collections.singletonList(employeeId), dateRange);
-        log.debug("Revenue map for employee {}: {}", employeeId, revenueMap.size());
+        // 3. Load costs and revenues for the period into a single-row grid
+        MarginGrid grid = new MarginGrid(1, dateRange.monthCount());
+        boolean hasData = loadCostsForPeriod(employeeId, dateRange, grid);
+        hasData |= loadRevenuesForPeriod(employeeId, dateRange, grid);
         // Check if there's any data
-        if (costMap.isEmpty() && revenueMap.isEmpty()) {
+        if (!hasData) {
             throw new ResourceNotFoundException("No margin data found for employee ID: " + employeeId);
         }
         
         // 4. Calculate margins for each period and determine status
         // 5. Map to detailed DTO
-        return createEmployeeMarginDTO(employeeId, period, costMap, revenueMap, dateRange);
+        return createEmployeeMarginDTO(employeeId, period, grid, dateRange);
     }
 
     @Override
@@ -230,16 +251,17 @@ public class MarginServiceImpl implements MarginService {
             return createEmptySummary(period, dateRange);
         }
         
-        // 4. Query aggregated costs and revenues by team/period
-        Map<TeamPeriodKey, BigDecimal> teamCosts = getTeamCostsByPeriod(teamIds, dateRange);
-        Map<TeamPeriodKey, BigDecimal> teamRevenues = getTeamRevenuesByPeriod(teamIds, dateRange);
+        // 4. Aggregate costs and revenues by team/period in the database
+        MarginGrid teamGrid = buildTeamGrid(teamIds, dateRange);
         
-        // Get employee counts for each team
+        // Get team names and employee counts for each team
+        Map<Long, String> teamNames = teamRepository.findAllById(teamIds).stream()
+                .collect(Collectors.toMap(Team::getId, Team::getName));
         Map<Long, Integer> teamEmployeeCounts = getTeamEmployeeCounts(teamIds);
         
         // 5. Calculate team margins and build DTO
         MarginSummaryDTO summaryDTO = buildMarginSummary(
-                teamIds, period, dateRange, teamCosts, teamRevenues, teamEmployeeCounts, groupBy);
+                teamIds, teamNames, period, dateRange, teamGrid, teamEmployeeCounts, groupBy);
         
         // Apply view-specific formatting if needed (chart vs table)
         applyViewFormatting(summaryDTO, view);
@@ -248,8 +270,341 @@ public class MarginServiceImpl implements MarginService {
     }
 
     @Override
-    @Transactional
-    public Map<String, Object> importEmployeeCosts(MultipartFile file, ImportCostRequestDTO request) {
+    @Transactional(readOnly = true)
+    public MarginTrendDTO getMarginTrend(Long teamId, String toMonth, Integer months) {
+        log.info("Getting margin trend with filters: teamId={}, toMonth={}, months={}", teamId, toMonth, months);
+        
+        int monthCount = months != null ? months : DEFAULT_TREND_MONTHS;
+        if (monthCount < 1 || monthCount > MAX_TREND_MONTHS) {
+            throw new BadRequestException("Months must be between 1 and " + MAX_TREND_MONTHS);
+        }
+        
+        // 1. Validate user's access to team data
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean hasAllAccess = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("margin-summary:read:all"));
+        boolean hasTeamAccess = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("margin-summary:read:team"));
+        
+        if (!hasAllAccess && teamId != null && !userHasAccessToTeam(teamId)) {
+            throw new AccessDeniedException("You don't have permission to access margin data for this team");
+        }
+        
+        // 2. Resolve the month range
+        DateRange dateRange = parseDateParameters("month", null, null, toMonth, null, null);
+        YearMonth first = YearMonth.of(dateRange.endYear, dateRange.endMonth).minusMonths(monthCount - 1);
+        dateRange.startYear = first.getYear();
+        dateRange.startMonth = first.getMonthValue();
+        
+        // 3. Every employee for all-access users without a team filter, otherwise the visible teams
+        boolean allTeams = hasAllAccess && teamId == null;
+        List<Long> teamIds = allTeams ? Collections.singletonList(-1L)
+                : getTeamIdsBasedOnFilters(teamId, hasAllAccess, hasTeamAccess);
+        
+        // 4. One grouped pass over the materialized months: totals in a single-row grid, employees per status
+        MarginGrid grid = new MarginGrid(1, monthCount);
+        List<Map<String, Integer>> statusCounts = new ArrayList<>(monthCount);
+        for (int slot = 0; slot < monthCount; slot++) {
+            Map<String, Integer> counts = new HashMap<>();
+            counts.put("Red", 0);
+            counts.put("Yellow", 0);
+            counts.put("Green", 0);
+            statusCounts.add(counts);
+        }
+        
+        if (allTeams || !teamIds.isEmpty()) {
+            int fromKey = EmployeeMarginMonthly.toPeriodKey(dateRange.startYear, dateRange.startMonth);
+            int toKey = EmployeeMarginMonthly.toPeriodKey(dateRange.endYear, dateRange.endMonth);
+            for (Object[] row : marginMonthlyRepository.sumByPeriodAndStatus(fromKey, toKey, allTeams, teamIds)) {
+                int slot = MarginGrid.monthSlot(dateRange.startYear, dateRange.startMonth, (Integer) row[0], (Integer) row[1]);
+                statusCounts.get(slot).merge((String) row[2], ((Long) row[3]).intValue(), Integer::sum);
+                grid.addCost(0, slot, (BigDecimal) row[4]);
+                grid.addRevenue(0, slot, (BigDecimal) row[5]);
+            }
+        }
+        
+        // 5. Build one entry per month, months without data at zero
+        MarginGrid.StatusLimits limits = MarginGrid.StatusLimits.of(marginCalculator.getMarginThresholds());
+        List<MarginTrendDTO.MonthDTO> monthDTOs = new ArrayList<>(monthCount);
+        YearMonth yearMonth = first;
+        for (int slot = 0; slot < monthCount; slot++, yearMonth = yearMonth.plusMonths(1)) {
+            Map<String, Integer> counts = statusCounts.get(slot);
+            monthDTOs.add(MarginTrendDTO.MonthDTO.builder()
+                    .period(String.format("%04d-%02d", yearMonth.getYear(), yearMonth.getMonthValue()))
+                    .periodLabel(formatPeriodLabel(yearMonth.getYear(), yearMonth.getMonthValue(), "month"))
+                    .cost(grid.cost(0, slot))
+                    .revenue(grid.revenue(0, slot))
+                    .margin(grid.margin(0, slot))
+                    .marginStatus(limits.statusOf(grid.marginHundredths(0, slot)))
+                    .employeeCount(counts.values().stream().mapToInt(Integer::intValue).sum())
+                    .statusCounts(counts)
+                    .build());
+        }
+        
+        return MarginTrendDTO.builder()
+                .fromPeriod(monthDTOs.get(0).getPeriod())
+                .toPeriod(monthDTOs.get(monthCount - 1).getPeriod())
+                .months(monthDTOs)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MarginSimulationResultDTO simulateMargins(MarginSimulationRequestDTO request) {
+        List<MarginSimulationRequestDTO.Adjustment> adjustments = request.getAdjustments();
+        log.info("Simulating margins: teamId={}, period={}, adjustments={}",
+                request.getTeamId(), request.getPeriod(), adjustments.size());
+        
+        // 1. Validate user access to the team filter, the adjusted employees and their target teams
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean hasAllAccess = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("margin:read:all"));
+        boolean hasTeamAccess = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("margin:read:team"));
+        
+        if (!hasAllAccess && request.getTeamId() != null && !userHasAccessToTeam(request.getTeamId())) {
+            throw new AccessDeniedException("You don't have permission to access margin data for this team");
+        }
+        
+        Map<Long, MarginSimulationRequestDTO.Adjustment> adjustmentsByEmployee = new LinkedHashMap<>();
+        for (MarginSimulationRequestDTO.Adjustment adjustment : adjustments) {
+            if (adjustmentsByEmployee.put(adjustment.getEmployeeId(), adjustment) != null) {
+                throw new BadRequestException("Duplicate adjustment for employee ID " + adjustment.getEmployeeId());
+            }
+        }
+        
+        Map<Long, Employee> adjustedEmployees = employeeRepository.findAllWithTeamByIdIn(adjustmentsByEmployee.keySet())
+                .stream()
+                .collect(Collectors.toMap(Employee::getId, e -> e));
+        Set<Long> affectedTeamIds = new TreeSet<>();
+        for (MarginSimulationRequestDTO.Adjustment adjustment : adjustmentsByEmployee.values()) {
+            Employee employee = adjustedEmployees.get(adjustment.getEmployeeId());
+            if (employee == null) {
+                throw new ResourceNotFoundException("Employee not found with id: " + adjustment.getEmployeeId());
+            }
+            Long employeeTeamId = employee.getTeam() != null ? employee.getTeam().getId() : null;
+            if (!hasAllAccess && employeeTeamId != null && !userHasAccessToTeam(employeeTeamId)) {
+                throw new AccessDeniedException("You don't have permission to access margin data for employee ID "
+                        + adjustment.getEmployeeId());
+            }
+            
+            Long targetTeamId = adjustment.getTeamId();
+            if (targetTeamId != null && !targetTeamId.equals(employeeTeamId)) {
+                if (hasAllAccess) {
+                    if (!teamRepository.existsById(targetTeamId)) {
+                        throw new ResourceNotFoundException("Team not found with id: " + targetTeamId);
+                    }
+                } else if (!userHasAccessToTeam(targetTeamId)) {
+                    throw new AccessDeniedException("You don't have permission to access margin data for team ID "
+                            + targetTeamId);
+                }
+                if (employeeTeamId != null) {
+                    affectedTeamIds.add(employeeTeamId);
+                }
+                affectedTeamIds.add(targetTeamId);
+            } else if (employeeTeamId != null) {
+                affectedTeamIds.add(employeeTeamId);
+            }
+        }
+        
+        // 2. Parse period and resolve the employees to evaluate
+        DateRange dateRange = parseDateParameters(request.getPeriod(), request.getFromDate(), request.getToDate(),
+                request.getYearMonth(), request.getYearQuarter(), request.getYear());
+        MarginScope scope = resolveMarginScope(null, request.getTeamId(), hasAllAccess, hasTeamAccess);
+        if (scope == null) {
+            scope = new MarginScope();
+        }
+        // Affected teams are always loaded in full so that their rollups are complete
+        List<Long> snapshotTeamIds = new ArrayList<>(scope.teamIds);
+        snapshotTeamIds.addAll(affectedTeamIds);
+        
+        // 3. Load the baseline snapshot: one grid row per employee, adjusted employees first
+        int fromKey = EmployeeMarginMonthly.toPeriodKey(dateRange.startYear, dateRange.startMonth);
+        int toKey = EmployeeMarginMonthly.toPeriodKey(dateRange.endYear, dateRange.endMonth);
+        List<Object[]> cells = marginMonthlyRepository.findCellsWithTeam(
+                fromKey, toKey, scope.allTeams, snapshotTeamIds, adjustmentsByEmployee.keySet());
+        
+        Map<Long, Integer> employeeRows = new HashMap<>();
+        List<Long> rowTeamIds = new ArrayList<>();
+        for (Long employeeId : adjustmentsByEmployee.keySet()) {
+            Team team = adjustedEmployees.get(employeeId).getTeam();
+            employeeRows.put(employeeId, rowTeamIds.size());
+            rowTeamIds.add(team != null ? team.getId() : null);
+        }
+        for (Object[] cell : cells) {
+            Long employeeId = (Long) cell[0];
+            if (!employeeRows.containsKey(employeeId)) {
+                employeeRows.put(employeeId, rowTeamIds.size());
+                rowTeamIds.add((Long) cell[1]);
+            }
+        }
+        
+        MarginGrid baseline = new MarginGrid(rowTeamIds.size(), dateRange.monthCount());
+        for (Object[] cell : cells) {
+            int row = employeeRows.get((Long) cell[0]);
+            int slot = MarginGrid.monthSlot(dateRange.startYear, dateRange.startMonth, (Integer) cell[2], (Integer) cell[3]);
+            baseline.addCost(row, slot, (BigDecimal) cell[4]);
+            baseline.addRevenue(row, slot, (BigDecimal) cell[5]);
+        }
+        
+        // 4. Apply the adjustments to a copy of the snapshot
+        MarginGrid simulated = baseline.copy();
+        List<Long> revenueAdjustedIds = new ArrayList<>();
+        for (MarginSimulationRequestDTO.Adjustment adjustment : adjustmentsByEmployee.values()) {
+            if (adjustment.getMonthlyCost() != null) {
+                int row = employeeRows.get(adjustment.getEmployeeId());
+                BigDecimal monthlyCost = adjustment.getMonthlyCost().setScale(2, RoundingMode.HALF_UP);
+                for (int slot = 0; slot < simulated.getMonths(); slot++) {
+                    simulated.setCost(row, slot, monthlyCost);
+                }
+            }
+            if (adjustment.getBillingRateChangePercent() != null || adjustment.getAllocationPercentage() != null) {
+                revenueAdjustedIds.add(adjustment.getEmployeeId());
+            }
+        }
+        
+        if (!revenueAdjustedIds.isEmpty()) {
+            // Revenue changes are applied per contract assignment, as the difference to the recorded revenue
+            for (EmployeeRevenue revenue : findRevenuesForPeriod(revenueAdjustedIds, dateRange)) {
+                BigDecimal simulatedRevenue = simulateRevenue(revenue, adjustmentsByEmployee.get(revenue.getEmployeeId()));
+                BigDecimal difference = simulatedRevenue.subtract(revenue.getCalculatedRevenue());
+                if (difference.signum() != 0) {
+                    simulated.addRevenue(employeeRows.get(revenue.getEmployeeId()),
+                            MarginGrid.monthSlot(dateRange.startYear, dateRange.startMonth, revenue.getYear(), revenue.getMonth()),
+                            difference);
+                }
+            }
+        }
+        
+        // 5. Roll employees up into their current and simulated teams
+        List<Long> teamIds = new ArrayList<>(affectedTeamIds);
+        Map<Long, Integer> teamRows = new HashMap<>();
+        for (int row = 0; row < teamIds.size(); row++) {
+            teamRows.put(teamIds.get(row), row);
+        }
+        
+        MarginGrid baselineTeams = new MarginGrid(teamIds.size(), dateRange.monthCount());
+        MarginGrid simulatedTeams = new MarginGrid(teamIds.size(), dateRange.monthCount());
+        Long[] simulatedTeamIds = rowTeamIds.toArray(new Long[0]);
+        for (MarginSimulationRequestDTO.Adjustment adjustment : adjustmentsByEmployee.values()) {
+            if (adjustment.getTeamId() != null) {
+                simulatedTeamIds[employeeRows.get(adjustment.getEmployeeId())] = adjustment.getTeamId();
+            }
+        }
+        for (int row = 0; row < rowTeamIds.size(); row++) {
+            Integer baselineTeamRow = teamRows.get(rowTeamIds.get(row));
+            if (baselineTeamRow != null) {
+                baselineTeams.addRow(baselineTeamRow, baseline, row);
+            }
+            Integer simulatedTeamRow = teamRows.get(simulatedTeamIds[row]);
+            if (simulatedTeamRow != null) {
+                simulatedTeams.addRow(simulatedTeamRow, simulated, row);
+            }
+        }
+        
+        // 6. Build the result
+        MarginGrid.StatusLimits limits = MarginGrid.StatusLimits.of(marginCalculator.getMarginThresholds());
+        
+        List<MarginSimulationResultDTO.EmployeeDeltaDTO> employeeDeltas = new ArrayList<>(adjustmentsByEmployee.size());
+        for (Long employeeId : adjustmentsByEmployee.keySet()) {
+            Employee employee = adjustedEmployees.get(employeeId);
+            int row = employeeRows.get(employeeId);
+            MarginGrid.Totals before = baseline.totals(row);
+            MarginGrid.Totals after = simulated.totals(row);
+            employeeDeltas.add(MarginSimulationResultDTO.EmployeeDeltaDTO.builder()
+                    .employeeId(employeeId)
+                    .employeeCode(employee.getEmployeeCode())
+                    .name(employee.getFirstName() + " " + employee.getLastName())
+                    .baselineTeamId(rowTeamIds.get(row))
+                    .simulatedTeamId(simulatedTeamIds[row])
+                    .baseline(toSimulationFigures(before, limits))
+                    .simulated(toSimulationFigures(after, limits))
+                    .delta(toSimulationDelta(before, after))
+                    .build());
+        }
+        
+        Map<Long, String> teamNames = teamRepository.findAllById(teamIds).stream()
+                .collect(Collectors.toMap(Team::getId, Team::getName));
+        Map<Long, Integer> baselineCounts = getTeamEmployeeCounts(teamIds);
+        Map<Long, Integer> simulatedCounts = new HashMap<>(baselineCounts);
+        for (Long employeeId : adjustmentsByEmployee.keySet()) {
+            int row = employeeRows.get(employeeId);
+            if (!Objects.equals(rowTeamIds.get(row), simulatedTeamIds[row])) {
+                if (rowTeamIds.get(row) != null) {
+                    simulatedCounts.merge(rowTeamIds.get(row), -1, Integer::sum);
+                }
+                simulatedCounts.merge(simulatedTeamIds[row], 1, Integer::sum);
+            }
+        }
+        
+        List<MarginSimulationResultDTO.TeamDeltaDTO> teamDeltas = new ArrayList<>(teamIds.size());
+        for (int row = 0; row < teamIds.size(); row++) {
+            Long teamId = teamIds.get(row);
+            MarginGrid.Totals before = baselineTeams.totals(row);
+            MarginGrid.Totals after = simulatedTeams.totals(row);
+            teamDeltas.add(MarginSimulationResultDTO.TeamDeltaDTO.builder()
+                    .teamId(teamId)
+                    .teamName(teamNames.get(teamId))
+                    .baselineEmployeeCount(baselineCounts.getOrDefault(teamId, 0))
+                    .simulatedEmployeeCount(simulatedCounts.getOrDefault(teamId, 0))
+                    .baseline(toSimulationFigures(before, limits))
+                    .simulated(toSimulationFigures(after, limits))
+                    .delta(toSimulationDelta(before, after))
+                    .build());
+        }
+        
+        MarginGrid.Totals baselineTotals = baseline.totals(-1);
+        MarginGrid.Totals simulatedTotals = simulated.totals(-1);
+        return MarginSimulationResultDTO.builder()
+                .fromPeriod(String.format("%d-%02d", dateRange.startYear, dateRange.startMonth))
+                .toPeriod(String.format("%d-%02d", dateRange.endYear, dateRange.endMonth))
+                .baseline(toSimulationFigures(baselineTotals, limits))
+                .simulated(toSimulationFigures(simulatedTotals, limits))
+                .delta(toSimulationDelta(baselineTotals, simulatedTotals))
+                .employees(employeeDeltas)
+                .teams(teamDeltas)
+                .build();
+    }
+    
+    /**
+     * Revenue of one contract assignment under the simulated allocation and billing rate.
+     * An allocation change scales the revenue proportionally, so it is ignored for assignments recorded at 0%.
+     */
+    private BigDecimal simulateRevenue(EmployeeRevenue revenue, MarginSimulationRequestDTO.Adjustment adjustment) {
+        BigDecimal amount = revenue.getCalculatedRevenue();
+        BigDecimal recordedAllocation = revenue.getAllocationPercentage();
+        if (adjustment.getAllocationPercentage() != null
+                && recordedAllocation != null && recordedAllocation.signum() > 0) {
+            amount = amount.multiply(adjustment.getAllocationPercentage())
+                    .divide(recordedAllocation, 10, RoundingMode.HALF_UP);
+        }
+        if (adjustment.getBillingRateChangePercent() != null) {
+            amount = amount.multiply(ONE_HUNDRED.add(adjustment.getBillingRateChangePercent()))
+                    .divide(ONE_HUNDRED, 10, RoundingMode.HALF_UP);
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private MarginSimulationResultDTO.FiguresDTO toSimulationFigures(MarginGrid.Totals totals,
+                                                                   MarginGrid.StatusLimits limits) {
+        return MarginSimulationResultDTO.FiguresDTO.builder()
+                .cost(totals.cost())
+                .revenue(totals.revenue())
+                .margin(totals.margin())
+                .marginStatus(limits.statusOf(totals.marginHundredths()))
+                .build();
+    }
+    
+    private MarginSimulationResultDTO.DeltaDTO toSimulationDelta(MarginGrid.Totals before, MarginGrid.Totals after) {
+        return MarginSimulationResultDTO.DeltaDTO.builder()
+                .cost(BigDecimal.valueOf(after.getCostCents() - before.getCostCents(), 2))
+                .revenue(BigDecimal.valueOf(after.getRevenueCents() - before.getRevenueCents(), 2))
+                .margin(BigDecimal.valueOf(after.marginHundredths() - before.marginHundredths(), 2))
+                .build();
+    }
+
+    @Override
+    public CostImportResultDTO importEmployeeCosts(MultipartFile file, ImportCostRequestDTO request) {
         log.info("Importing employee costs from file for month: {}", request.getMonth());
         
         if (file == null || file.isEmpty()) {
@@ -270,83 +625,137 @@ public class MarginServiceImpl implements MarginService {
             throw new AccessDeniedException("You don't have permission to import costs for this team");
         }
         
-        // Initialize result map
-        Map<String, Object> result = new HashMap<>();
-        result.put("processed", 0);
-        result.put("created", 0);
-        result.put("updated", 0);
-        result.put("skipped", 0);
-        result.put("errors", new ArrayList<String>());
+        CostImportResultDTO result = CostImportResultDTO.builder().build();
+        boolean overwrite = Boolean.TRUE.equals(request.getOverwrite());
+        Long currentUserId = getCurrentUserId();
+        // Employees already written by earlier chunks, to detect duplicate rows across the file
+        Set<Long> importedEmployeeIds = new HashSet<>();
         
-        try {
-            // Parse file based on type (Excel or CSV)
-            List<EmployeeCost> costs = parseEmployeeCostsFromFile(file, month.getYear(), month.getMonthValue());
-            
-            // Process each cost
-            for (EmployeeCost cost : costs) {
-                try {
-                    // Increment processed count
-                    result.put("processed", (int)result.get("processed") + 1);
-                    
-                    // Skip if employee doesn't exist
-                    if (!employeeExists(cost.getEmployeeId())) {
-                        ((List<String>)result.get("errors")).add(
-                                "Employee ID " + cost.getEmployeeId() + " not found");
-                        result.put("skipped", (int)result.get("skipped") + 1);
-                        continue;
-                    }
-                    
-                    // Check if cost already exists for this employee and period
-                    Optional<EmployeeCost> existingCost = employeeCostRepository.findByEmployeeIdAndYearAndMonth(
-                            cost.getEmployeeId(), cost.getYear(), cost.getMonth());
-                    
-                    if (existingCost.isPresent()) {
-                        if (request.getOverwrite()) {
-                            // Update existing cost
-                            EmployeeCost updated = existingCost.get();
-                            updated.setCostAmount(cost.getCostAmount());
-                            updated.setBasicSalary(cost.getBasicSalary());
-                            updated.setAllowance(cost.getAllowance());
-                            updated.setOvertime(cost.getOvertime());
-                            updated.setOtherCosts(cost.getOtherCosts());
-                            updated.setCurrency(cost.getCurrency());
-                            updated.setNote(cost.getNote());
-                            
-                            employeeCostRepository.save(updated);
-                            result.put("updated", (int)result.get("updated") + 1);
-                        } else {
-                            // Skip if overwrite is false
-                            result.put("skipped", (int)result.get("skipped") + 1);
-                        }
-                    } else {
-                        // Save new cost
-                        employeeCostRepository.save(cost);
-                        result.put("created", (int)result.get("created") + 1);
-                    }
-                } catch (Exception e) {
-                    log.error("Error processing cost for employee ID {}: {}", 
-                            cost.getEmployeeId(), e.getMessage());
-                    ((List<String>)result.get("errors")).add(
-                            "Error processing employee ID " + cost.getEmployeeId() + ": " + e.getMessage());
-                    result.put("skipped", (int)result.get("skipped") + 1);
+        // Stream the file; each chunk is resolved with set-based queries and written in its own transaction
+        employeeCostFileParser.parse(file, chunk -> {
+            try {
+                CostImportChunk outcome = transactionTemplate.execute(status ->
+                        importCostChunk(chunk, month, overwrite, currentUserId, importedEmployeeIds));
+                mergeChunkResult(result, outcome.result);
+                importedEmployeeIds.addAll(outcome.writtenEmployeeIds);
+            } catch (Exception e) {
+                log.error("Failed to import cost rows {}-{}: {}", chunk.get(0).getRowNumber(),
+                        chunk.get(chunk.size() - 1).getRowNumber(), e.getMessage(), e);
+                for (EmployeeCostImportRow row : chunk) {
+                    result.setProcessed(result.getProcessed() + 1);
+                    result.addError(row.getRowNumber(), row.getEmployeeId(), null,
+                            "Error processing employee ID " + row.getEmployeeId() + ": " + e.getMessage());
                 }
             }
+        });
+        
+        result.getErrors().sort(Comparator.comparing(CostImportResultDTO.RowErrorDTO::getRow,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        
+        log.info("Import completed: processed={}, created={}, updated={}, skipped={}, errors={}",
+                result.getProcessed(), result.getCreated(), result.getUpdated(),
+                result.getSkipped(), result.getErrors().size());
+        
+        return result;
+    }
+    
+    /**
+     * Outcome of one import chunk, applied to the overall result only once the chunk is committed
+     */
+    private static class CostImportChunk {
+        final CostImportResultDTO result = CostImportResultDTO.builder().build();
+        final Set<Long> writtenEmployeeIds = new HashSet<>();
+    }
+    
+    /**
+     * Validate and upsert one chunk of imported rows:
+     * one query for employees, one for existing costs, then batched inserts and updates
+     */
+    private CostImportChunk importCostChunk(List<EmployeeCostImportRow> chunk, YearMonth month, boolean overwrite,
+                                            Long currentUserId, Set<Long> importedEmployeeIds) {
+        CostImportChunk outcome = new CostImportChunk();
+        CostImportResultDTO result = outcome.result;
+        
+        // 1. Drop unparseable rows and duplicates of rows seen earlier in the file
+        List<EmployeeCostImportRow> candidates = new ArrayList<>(chunk.size());
+        Set<Long> candidateEmployeeIds = new HashSet<>();
+        for (EmployeeCostImportRow row : chunk) {
+            result.setProcessed(result.getProcessed() + 1);
+            
+            if (!row.isValid()) {
+                result.addError(row.getRowNumber(), null, null, row.getError());
+            } else if (importedEmployeeIds.contains(row.getEmployeeId())
+                    || !candidateEmployeeIds.add(row.getEmployeeId())) {
+                result.addError(row.getRowNumber(), row.getEmployeeId(), null,
+                        "Duplicate row for employee ID " + row.getEmployeeId());
+            } else {
+                candidates.add(row);
+            }
+        }
+        
+        if (candidates.isEmpty()) {
+            return outcome;
+        }
+        
+        // 2. Resolve employees and existing costs of the month with one query each
+        Set<Long> existingEmployeeIds = new HashSet<>(employeeRepository.findExistingIds(candidateEmployeeIds));
+        Map<Long, EmployeeCostBatchRepository.ExistingCost> existingCosts = employeeCostBatchRepository
+                .findCostKeysForPeriod(existingEmployeeIds, month.getYear(), month.getMonthValue());
+        
+        // 3. Split into inserts and updates
+        List<EmployeeCost> inserts = new ArrayList<>();
+        List<EmployeeCost> updates = new ArrayList<>();
+        for (EmployeeCostImportRow row : candidates) {
+            Long employeeId = row.getEmployeeId();
+            if (!existingEmployeeIds.contains(employeeId)) {
+                result.addError(row.getRowNumber(), employeeId, null, "Employee ID " + employeeId + " not found");
+                continue;
+            }
             
-            log.info("Import completed: processed={}, created={}, updated={}, skipped={}, errors={}",
-                    result.get("processed"), result.get("created"), result.get("updated"), 
-                    result.get("skipped"), ((List<String>)result.get("errors")).size());
-                    
-            return result;
-            
-        } catch (Exception e) {
-            log.error("Failed to import employee costs: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to import employee costs: " + e.getMessage(), e);
+            EmployeeCost cost = row.toEmployeeCost(month.getYear(), month.getMonthValue());
+            cost.setUpdatedBy(currentUserId);
+            
+            EmployeeCostBatchRepository.ExistingCost existing = existingCosts.get(employeeId);
+            if (existing == null) {
+                cost.setCreatedBy(currentUserId);
+                inserts.add(cost);
+                result.setCreated(result.getCreated() + 1);
+            } else if (existing.isDeleted()) {
+                // A soft-deleted cost still holds the period key, so it is revived instead of inserted
+                cost.setId(existing.getId());
+                updates.add(cost);
+                result.setCreated(result.getCreated() + 1);
+            } else if (overwrite) {
+                cost.setId(existing.getId());
+                updates.add(cost);
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                // Skip if overwrite is false
+                result.setSkipped(result.getSkipped() + 1);
+                continue;
+            }
+            outcome.writtenEmployeeIds.add(employeeId);
         }
+        
+        // 4. Write in JDBC batches and keep materialized margins in sync
+        employeeCostBatchRepository.batchInsert(inserts);
+        employeeCostBatchRepository.batchUpdate(updates);
+        marginFactService.refreshEmployeeMonths(outcome.writtenEmployeeIds, month.getYear(), month.getMonthValue());
+        
+        return outcome;
+    }
+    
+    private void mergeChunkResult(CostImportResultDTO target, CostImportResultDTO chunk) {
+        target.setProcessed(target.getProcessed() + chunk.getProcessed());
+        target.setCreated(target.getCreated() + chunk.getCreated());
+        target.setUpdated(target.getUpdated() + chunk.getUpdated());
+        target.setSkipped(target.getSkipped() + chunk.getSkipped());
+        target.getErrors().addAll(chunk.getErrors());
     }
     
     @Override
     @Transactional
-    public Map<String, Object> updateEmployeeCosts(UpdateCostRequestDTO request) {
+    public CostImportResultDTO updateEmployeeCosts(UpdateCostRequestDTO request) {
         log.info("Updating employee costs manually for month: {}", request.getMonth());
         
         // Parse month from request
@@ -357,190 +766,145 @@ public class MarginServiceImpl implements MarginService {
             throw new BadRequestException("Invalid month format. Expected YYYY-MM");
         }
         
-        // Initialize result map
-        Map<String, Object> result = new HashMap<>();
-        result.put("processed", 0);
-        result.put("created", 0);
-        result.put("updated", 0);
-        result.put("skipped", 0);
-        result.put("errors", new ArrayList<String>());
+        boolean overwrite = Boolean.TRUE.equals(request.getOverwrite());
+        List<UpdateCostRequestDTO.EmployeeCostEntry> entries = request.getEmployees();
+        CostImportResultDTO result = CostImportResultDTO.builder().build();
+        Long currentUserId = getCurrentUserId();
         
-        // Process each cost entry
-        for (UpdateCostRequestDTO.EmployeeCostEntry entry : request.getEmployees()) {
-            try {
-                // Increment processed count
-                result.put("processed", (int)result.get("processed") + 1);
-                
-                // Determine employee ID (either directly or by code)
-                Long employeeId = entry.getEmployeeId();
-                
-                // If employeeId is null but employeeCode is provided, look up by code
-                if (employeeId == null && entry.getEmployeeCode() != null) {
-                    Optional<Employee> employee = employeeRepository.findByEmployeeCode(entry.getEmployeeCode());
-                    if (employee.isPresent()) {
-                        employeeId = employee.get().getId();
-                    } else {
-                        ((List<String>)result.get("errors")).add(
-                                "Employee Code " + entry.getEmployeeCode() + " not found");
-                        result.put("skipped", (int)result.get("skipped") + 1);
-                        continue;
-                    }
-                }
-                
-                // Skip if employee doesn't exist
-                if (employeeId == null || !employeeExists(employeeId)) {
-                    String errorMessage = employeeId == null ? 
-                            "Employee ID is required if employee code is not provided" : 
-                            "Employee ID " + employeeId + " not found";
-                    ((List<String>)result.get("errors")).add(errorMessage);
-                    result.put("skipped", (int)result.get("skipped") + 1);
+        // 1. Resolve all employee codes and IDs with one query each
+        Set<String> employeeCodes = new HashSet<>();
+        Set<Long> requestedIds = new HashSet<>();
+        for (UpdateCostRequestDTO.EmployeeCostEntry entry : entries) {
+            if (entry.getEmployeeId() != null) {
+                requestedIds.add(entry.getEmployeeId());
+            } else if (entry.getEmployeeCode() != null) {
+                employeeCodes.add(entry.getEmployeeCode());
+            }
+        }
+        
+        Map<String, Long> idsByCode = new HashMap<>();
+        if (!employeeCodes.isEmpty()) {
+            for (Object[] row : employeeRepository.findIdsByEmployeeCodes(employeeCodes)) {
+                idsByCode.put((String) row[0], (Long) row[1]);
+            }
+        }
+        Set<Long> existingEmployeeIds = requestedIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(employeeRepository.findExistingIds(requestedIds));
+        existingEmployeeIds.addAll(idsByCode.values());
+        
+        // 2. Prefetch existing costs of the month
+        Map<Long, EmployeeCostBatchRepository.ExistingCost> existingCosts = employeeCostBatchRepository
+                .findCostKeysForPeriod(existingEmployeeIds, month.getYear(), month.getMonthValue());
+        
+        // 3. Validate each entry and split into inserts and updates
+        List<EmployeeCost> inserts = new ArrayList<>();
+        List<EmployeeCost> updates = new ArrayList<>();
+        Set<Long> changedEmployeeIds = new HashSet<>();
+        
+        for (int i = 0; i < entries.size(); i++) {
+            UpdateCostRequestDTO.EmployeeCostEntry entry = entries.get(i);
+            int entryNumber = i + 1;
+            result.setProcessed(result.getProcessed() + 1);
+            
+            // Determine employee ID (either directly or by code)
+            Long employeeId = entry.getEmployeeId();
+            if (employeeId == null && entry.getEmployeeCode() != null) {
+                employeeId = idsByCode.get(entry.getEmployeeCode());
+                if (employeeId == null) {
+                    result.addError(entryNumber, null, entry.getEmployeeCode(),
+                            "Employee Code " + entry.getEmployeeCode() + " not found");
                     continue;
                 }
-                
-                // Check if cost already exists for this employee and period
-                Optional<EmployeeCost> existingCost = employeeCostRepository.findByEmployeeIdAndYearAndMonth(
-                        employeeId, month.getYear(), month.getMonthValue());
-                
-                if (existingCost.isPresent()) {
-                    if (request.getOverwrite()) {
-                        // Update existing cost
-                        EmployeeCost updated = existingCost.get();
-                        
-                        // Update basic salary and other components
-                        updated.setBasicSalary(entry.getBasicCost());
-                        updated.setAllowance(entry.getAllowance());
-                        updated.setOvertime(entry.getOvertime());
-                        updated.setOtherCosts(entry.getOtherCosts());
-                        
-                        // Calculate total cost
-                        BigDecimal totalCost = entry.getBasicCost()
-                                .add(entry.getAllowance() != null ? entry.getAllowance() : BigDecimal.ZERO)
-                                .add(entry.getOvertime() != null ? entry.getOvertime() : BigDecimal.ZERO)
-                                .add(entry.getOtherCosts() != null ? entry.getOtherCosts() : BigDecimal.ZERO);
-                                
-                        updated.setCostAmount(totalCost);
-                        updated.setCurrency(entry.getCurrency());
-                        updated.setNote(entry.getNote());
-                        
-                        // Update audit information
-                        updated.setUpdatedBy(getCurrentUserId());
-                        
-                        employeeCostRepository.save(updated);
-                        result.put("updated", (int)result.get("updated") + 1);
-                    } else {
-                        // Skip if overwrite is false
-                        result.put("skipped", (int)result.get("skipped") + 1);
-                    }
-                } else {
-                    // Create new cost
-                    BigDecimal totalCost = entry.getBasicCost()
-                            .add(entry.getAllowance() != null ? entry.getAllowance() : BigDecimal.ZERO)
-                            .add(entry.getOvertime() != null ? entry.getOvertime() : BigDecimal.ZERO)
-                            .add(entry.getOtherCosts() != null ? entry.getOtherCosts() : BigDecimal.ZERO);
-                    
-                    // Get current user ID for audit
-                    Long currentUserId = getCurrentUserId();
-                    
-                    EmployeeCost newCost = EmployeeCost.builder()
-                            .employeeId(employeeId)
-                            .year(month.getYear())
-                            .month(month.getMonthValue())
-                            .basicSalary(entry.getBasicCost())
-                            .allowance(entry.getAllowance())
-                            .overtime(entry.getOvertime())
-                            .otherCosts(entry.getOtherCosts())
-                            .costAmount(totalCost)
-                            .currency(entry.getCurrency())
-                            .note(entry.getNote())
-                            .createdBy(currentUserId)
-                            .updatedBy(currentUserId)
-                            .build();
-                            
-                    employeeCostRepository.save(newCost);
-                    result.put("created", (int)result.get("created") + 1);
-                }
-            } catch (Exception e) {
-                log.error("Error processing cost for employee: {}", e.getMessage());
-                ((List<String>)result.get("errors")).add("Error processing employee: " + e.getMessage());
-                result.put("skipped", (int)result.get("skipped") + 1);
             }
+            
+            if (employeeId == null) {
+                result.addError(entryNumber, null, null, "Employee ID is required if employee code is not provided");
+                continue;
+            }
+            if (!existingEmployeeIds.contains(employeeId)) {
+                result.addError(entryNumber, employeeId, entry.getEmployeeCode(), "Employee ID " + employeeId + " not found");
+                continue;
+            }
+            if (entry.getBasicCost() == null) {
+                result.addError(entryNumber, employeeId, entry.getEmployeeCode(), "Basic cost is required");
+                continue;
+            }
+            if (entry.getCurrency() == null) {
+                // The column is NOT NULL and there is no default; a single save used to fail on it
+                result.addError(entryNumber, employeeId, entry.getEmployeeCode(), "Currency is required");
+                continue;
+            }
+            if (changedEmployeeIds.contains(employeeId)) {
+                result.addError(entryNumber, employeeId, entry.getEmployeeCode(),
+                        "Duplicate entry for employee ID " + employeeId);
+                continue;
+            }
+            
+            // Calculate total cost
+            BigDecimal totalCost = entry.getBasicCost()
+                    .add(entry.getAllowance() != null ? entry.getAllowance() : BigDecimal.ZERO)
+                    .add(entry.getOvertime() != null ? entry.getOvertime() : BigDecimal.ZERO)
+                    .add(entry.getOtherCosts() != null ? entry.getOtherCosts() : BigDecimal.ZERO);
+            
+            EmployeeCost cost = EmployeeCost.builder()
+                    .employeeId(employeeId)
+                    .year(month.getYear())
+                    .month(month.getMonthValue())
+                    .basicSalary(entry.getBasicCost())
+                    .allowance(entry.getAllowance())
+                    .overtime(entry.getOvertime())
+                    .otherCosts(entry.getOtherCosts())
+                    .costAmount(totalCost)
+                    .currency(entry.getCurrency())
+                    .note(entry.getNote())
+                    .createdBy(currentUserId)
+                    .updatedBy(currentUserId)
+                    .build();
+            
+            EmployeeCostBatchRepository.ExistingCost existing = existingCosts.get(employeeId);
+            if (existing == null) {
+                inserts.add(cost);
+                result.setCreated(result.getCreated() + 1);
+            } else if (existing.isDeleted()) {
+                // A soft-deleted cost still holds the period key, so it is revived instead of inserted
+                cost.setId(existing.getId());
+                updates.add(cost);
+                result.setCreated(result.getCreated() + 1);
+            } else if (overwrite) {
+                cost.setId(existing.getId());
+                updates.add(cost);
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                // Skip if overwrite is false
+                result.setSkipped(result.getSkipped() + 1);
+                continue;
+            }
+            changedEmployeeIds.add(employeeId);
         }
         
+        // 4. Apply all changes as batched writes
+        employeeCostBatchRepository.batchInsert(inserts);
+        employeeCostBatchRepository.batchUpdate(updates);
+        
+        // Keep materialized margins in sync with the updated costs
+        marginFactService.refreshEmployeeMonths(changedEmployeeIds, month.getYear(), month.getMonthValue());
+        
         log.info("Update completed: processed={}, created={}, updated={}, skipped={}, errors={}",
-                result.get("processed"), result.get("created"), result.get("updated"), 
-                result.get("skipped"), ((List<String>)result.get("errors")).size());
+                result.getProcessed(), result.getCreated(), result.getUpdated(),
+                result.getSkipped(), result.getErrors().size());
                 
         return result;
     }
 
     @Override
     public String calculateMarginStatus(BigDecimal margin) {
-        if (margin == null) {
-            return "Unknown";
-        }
-        
-        Map<String, BigDecimal> thresholds = getMarginThresholds();
-        BigDecimal redThreshold = thresholds.get("red");
-        BigDecimal yellowThreshold = thresholds.get("yellow");
-        
-        if (margin.compareTo(redThreshold) <= 0) {
-            return "Red";
-        } else if (margin.compareTo(yellowThreshold) <= 0) {
-            return "Yellow";
-        } else {
-            return "Green";
-        }
+        return marginCalculator.calculateMarginStatus(margin);
     }
 
     @Override
     public Map<String, BigDecimal> getMarginThresholds() {
-        Map<String, BigDecimal> thresholds = new HashMap<>();
-        
-        try {
-            // Get thresholds from system_configs table
-            Optional<SystemConfig> redThresholdConfig = systemConfigRepository.findByConfigKey("margin.threshold.red");
-            Optional<SystemConfig> yellowThresholdConfig = systemConfigRepository.findByConfigKey("margin.threshold.yellow");
-            
-            BigDecimal redThreshold = RED_THRESHOLD;
-            BigDecimal yellowThreshold = YELLOW_THRESHOLD;
-            
-            if (redThresholdConfig.isPresent()) {
-                try {
-                    redThreshold = new BigDecimal(redThresholdConfig.get().getConfigValue());
-                    log.debug("Loaded red threshold from config: {}", redThreshold);
-                } catch (NumberFormatException e) {
-                    log.warn("Invalid red threshold value in config: {}, using default: {}", 
-                            redThresholdConfig.get().getConfigValue(), RED_THRESHOLD);
-                }
-            } else {
-                log.debug("Red threshold not found in config, using default: {}", RED_THRESHOLD);
-            }
-            
-            if (yellowThresholdConfig.isPresent()) {
-                try {
-                    yellowThreshold = new BigDecimal(yellowThresholdConfig.get().getConfigValue());
-                    log.debug("Loaded yellow threshold from config: {}", yellowThreshold);
-                } catch (NumberFormatException e) {
-                    log.warn("Invalid yellow threshold value in config: {}, using default: {}", 
-                            yellowThresholdConfig.get().getConfigValue(), YELLOW_THRESHOLD);
-                }
-            } else {
-                log.debug("Yellow threshold not found in config, using default: {}", YELLOW_THRESHOLD);
-            }
-            
-            thresholds.put("red", redThreshold);
-            thresholds.put("yellow", yellowThreshold);
-            
-            log.info("Using margin thresholds: red={}, yellow={}", 
-                    thresholds.get("red"), thresholds.get("yellow"));
-            
-        } catch (Exception e) {
-            log.warn("Failed to load margin thresholds from config, using defaults: {}", e.getMessage());
-            thresholds.put("red", RED_THRESHOLD);
-            thresholds.put("yellow", YELLOW_THRESHOLD);
-        }
-        
-        return thresholds;
+        return marginCalculator.getMarginThresholds();
     }
     
     /**
@@ -550,20 +914,7 @@ public class MarginServiceImpl implements MarginService {
      * @return margin tính theo phần trăm
      */
     private BigDecimal calculateMargin(BigDecimal revenue, BigDecimal cost) {
-        if (revenue.compareTo(BigDecimal.ZERO) == 0) {
-            // Nếu không có doanh thu, margin là 0
-            return BigDecimal.ZERO;
-        }
-        
-        if (cost.compareTo(BigDecimal.ZERO) == 0) {
-            // Nếu không có chi phí nhưng có doanh thu, margin là 100%
-            return new BigDecimal("100.0");
-        }
-        
-        // Margin = (Revenue - Cost) / Revenue * 100
-        return revenue.subtract(cost)
-                .multiply(new BigDecimal("100"))
-                .divide(revenue, 2, RoundingMode.HALF_UP);
+        return marginCalculator.calculateMargin(revenue, cost);
     }
     
     // Helper methods for getEmployeeMargins
@@ -574,99 +925,112 @@ public class MarginServiceImpl implements MarginService {
             return false;
         }
         
-        Team userTeam = currentEmployee.getTeam();
-        
-        // Check if the target team is the user's team
-        if (userTeam.getId().equals(teamId)) {
+        // The target team must be the user's team or one of its descendant teams
+        Long userTeamId = currentEmployee.getTeam().getId();
+        if (userTeamId.equals(teamId)) {
             return true;
         }
-        
-        // Check if the target team is a child team of the user's team
-        Team targetTeam = teamRepository.findById(teamId)
-                .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
-        
-        // Check if user's team is the parent of the target team
-        if (targetTeam.getParentTeam() != null && 
-                targetTeam.getParentTeam().getId().equals(userTeam.getId())) {
-            return true;
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team not found with id: " + teamId);
         }
-        
-        return false;
+        return teamHierarchyService.isSameOrDescendant(userTeamId, teamId);
+    }
+    
+    /**
+     * Employees visible in a margin listing: every team, the employees of some teams, or a single employee
+     */
+    private static class MarginScope {
+        boolean allTeams;
+        List<Long> teamIds = Collections.singletonList(-1L);
+        Long employeeId;
     }
     
-    private List<Long> getEmployeeIdsBasedOnFilters(Long employeeId, Long teamId, boolean hasAllAccess, boolean hasTeamAccess) {
-        log.debug("Getting employee IDs based on filters: employeeId={}, teamId={}", employeeId, teamId);
+    /**
+     * Resolve the listing scope from filters and user access
+     *
+     * @return the scope, or null if the user cannot see any employee
+     */
+    private MarginScope resolveMarginScope(Long employeeId, Long teamId, boolean hasAllAccess, boolean hasTeamAccess) {
+        log.debug("Resolving margin scope: employeeId={}, teamId={}", employeeId, teamId);
+        MarginScope scope = new MarginScope();
         
         // If specific employee ID is provided, just return that
         if (employeeId != null) {
-            return Collections.singletonList(employeeId);
+            scope.allTeams = true;
+            scope.employeeId = employeeId;
+            return scope;
         }
-
-        List<Long> employeeIds = new ArrayList<>();
         
-        // If team ID is provided, get all employees in that team
+        // If team ID is provided, use that team and its descendant teams
         if (teamId != null) {
-            Team team = teamRepository.findById(teamId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
-            
-            log.debug("Finding employees in team: {}", team.getName());
-            Page<Employee> employees = employeeRepository.findByTeam_Id(team.getId(), Pageable.unpaged());
-            
-            employeeIds.addAll(employees.getContent().stream()
-                    .map(Employee::getId)
-                    .collect(Collectors.toList()));
-            
-            // Also get employees from child teams
-            List<Team> childTeams = teamRepository.findByParentTeam_Id(teamId);
-            for (Team childTeam : childTeams) {
-                Page<Employee> childTeamEmployees = employeeRepository.findByTeam_Id(childTeam.getId(), Pageable.unpaged());
-                employeeIds.addAll(childTeamEmployees.getContent().stream()
-                        .map(Employee::getId)
-                        .collect(Collectors.toList()));
-            }
-            
-            return employeeIds;
+            scope.teamIds = teamHierarchyService.getTeamAndDescendantIds(teamId);
+            return scope;
         }
         
         // No filters, apply access controls
         if (hasAllAccess) {
-            // User has access to all employees
-            Page<Employee> allEmployees = employeeRepository.findAll(Pageable.unpaged());
-            return allEmployees.getContent().stream()
-                    .map(Employee::getId)
-                    .collect(Collectors.toList());
-        } else if (hasTeamAccess) {
-            // User has access only to their team
-            Employee currentEmployee = getCurrentEmployee();
+            scope.allTeams = true;
+            return scope;
+        }
+        
+        Employee currentEmployee = getCurrentEmployee();
+        if (hasTeamAccess) {
+            // User has access only to their team and its descendant teams
             if (currentEmployee == null || currentEmployee.getTeam() == null) {
-                return Collections.emptyList();
-            }
-            
-            Team userTeam = currentEmployee.getTeam();
-            Page<Employee> teamEmployees = employeeRepository.findByTeam_Id(userTeam.getId(), Pageable.unpaged());
-            
-            employeeIds.addAll(teamEmployees.getContent().stream()
-                    .map(Employee::getId)
-                    .collect(Collectors.toList()));
-            
-            // Also get employees from child teams if current user is a leader
-            List<Team> childTeams = teamRepository.findByParentTeam_Id(userTeam.getId());
-            for (Team childTeam : childTeams) {
-                log.debug("Getting employees from child team: {}", childTeam.getName());
-                Page<Employee> childTeamEmployees = employeeRepository.findByTeam_Id(childTeam.getId(), Pageable.unpaged());
-                employeeIds.addAll(childTeamEmployees.getContent().stream()
-                        .map(Employee::getId)
-                        .collect(Collectors.toList()));
+                return null;
             }
-            
-            return employeeIds;
+            scope.teamIds = teamHierarchyService.getTeamAndDescendantIds(currentEmployee.getTeam().getId());
+            return scope;
         }
         
         // User has no team access, return their own employee ID only
-        Employee currentEmployee = getCurrentEmployee();
-        return currentEmployee != null 
-                ? Collections.singletonList(currentEmployee.getId()) 
-                : Collections.emptyList();
+        if (currentEmployee == null) {
+            return null;
+        }
+        scope.allTeams = true;
+        scope.employeeId = currentEmployee.getId();
+        return scope;
+    }
+    
+    /**
+     * Normalize a status filter to the stored form (Red, Yellow, Green)
+     */
+    private String normalizeMarginStatus(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = status.trim();
+        return trimmed.substring(0, 1).toUpperCase() + trimmed.substring(1).toLowerCase();
+    }
+    
+    /**
+     * Translate the requested sort into expressions over the aggregated margin facts.
+     * Employee id is always appended so that pages are stable.
+     */
+    private Sort buildFactSort(Sort requested) {
+        Sort sort = Sort.unsorted();
+        for (Sort.Order order : requested) {
+            String expression;
+            switch (order.getProperty()) {
+                case "margin":
+                    expression = SORT_MARGIN;
+                    break;
+                case "cost":
+                    expression = SORT_COST;
+                    break;
+                case "revenue":
+                    expression = SORT_REVENUE;
+                    break;
+                case "employeeId":
+                    expression = "employeeId";
+                    break;
+                default:
+                    log.debug("Unsupported margin sort property: {}", order.getProperty());
+                    continue;
+            }
+            sort = sort.and(JpaSort.unsafe(order.getDirection(), expression));
+        }
+        return sort.and(JpaSort.unsafe(Sort.Direction.ASC, "employeeId"));
     }
     
     /**
@@ -689,6 +1053,10 @@ public class MarginServiceImpl implements MarginService {
         int startMonth;
         int endYear;
         int endMonth;
+        
+        int monthCount() {
+            return Math.max(0, (endYear - startYear) * 12 + endMonth - startMonth + 1);
+        }
     }
     
     private DateRange parseDateParameters(String period, LocalDate fromDate, LocalDate toDate, 
@@ -767,37 +1135,13 @@ public class MarginServiceImpl implements MarginService {
         return range;
     }
     
-    private static class EmployeeKey {
-        final Long employeeId;
-        final int year;
-        final int month;
-        
-        EmployeeKey(Long employeeId, int year, int month) {
-            this.employeeId = employeeId;
-            this.year = year;
-            this.month = month;
-        }
-        
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            EmployeeKey that = (EmployeeKey) o;
-            return year == that.year && 
-                   month == that.month && 
-                   Objects.equals(employeeId, that.employeeId);
-        }
-        
-        @Override
-        public int hashCode() {
-            return Objects.hash(employeeId, year, month);
-        }
-    }
-    
-    private Map<EmployeeKey, EmployeeCost> getCostsForPeriod(List<Long> employeeIds, DateRange range) {
-        // Lấy dữ liệu chi phí thực tế từ repository
-        Map<EmployeeKey, EmployeeCost> result = new HashMap<>();
-        
+    /**
+     * Add the employee's costs within the range to row 0 of the grid
+     *
+     * @return true if any cost was found
+     */
+    private boolean loadCostsForPeriod(Long employeeId, DateRange range, MarginGrid grid) {
+        List<Long> employeeIds = Collections.singletonList(employeeId);
         List<EmployeeCost> costs;
         
         // Nếu khoảng thời gian nằm trong cùng một năm
@@ -811,105 +1155,118 @@ public class MarginServiceImpl implements MarginService {
                     range.endYear, range.endMonth);
         }
         
-        // Đưa dữ liệu vào map để tìm kiếm nhanh
         for (EmployeeCost cost : costs) {
-            EmployeeKey key = new EmployeeKey(cost.getEmployeeId(), cost.getYear(), cost.getMonth());
-            result.put(key, cost);
+            grid.addCost(0, MarginGrid.monthSlot(range.startYear, range.startMonth, cost.getYear(), cost.getMonth()),
+                    cost.getCostAmount());
         }
-        
-        return result;
+        return !costs.isEmpty();
     }
     
-    private Map<EmployeeKey, List<EmployeeRevenue>> getRevenuesForPeriod(List<Long> employeeIds, DateRange range) {
-        // Lấy dữ liệu doanh thu thực tế từ repository
-        Map<EmployeeKey, List<EmployeeRevenue>> result = new HashMap<>();
-        
-        List<EmployeeRevenue> revenues;
-        
-        // Nếu khoảng thời gian nằm trong cùng một năm
-        if (range.startYear == range.endYear) {
-            revenues = employeeRevenueRepository.findByEmployeeIdsAndPeriod(
-                    employeeIds, range.startYear, range.startMonth, range.endMonth);
-        } else {
-            // Nếu khoảng thời gian trải dài nhiều năm
-            revenues = employeeRevenueRepository.findByEmployeeIdsAndDateRange(
-                    employeeIds, range.startYear, range.startMonth, 
-                    range.endYear, range.endMonth);
-        }
+    /**
+     * Add the employee's revenues within the range to row 0 of the grid
+     *
+     * @return true if any revenue was found
+     */
+    private boolean loadRevenuesForPeriod(Long employeeId, DateRange range, MarginGrid grid) {
+        List<EmployeeRevenue> revenues = findRevenuesForPeriod(Collections.singletonList(employeeId), range);
         
-        // Đưa dữ liệu vào map để tìm kiếm nhanh
         for (EmployeeRevenue revenue : revenues) {
-            EmployeeKey key = new EmployeeKey(revenue.getEmployeeId(), revenue.getYear(), revenue.getMonth());
-            
-            // Thêm revenue vào danh sách cho employee trong kỳ
-            if (!result.containsKey(key)) {
-                result.put(key, new ArrayList<>());
-            }
-            result.get(key).add(revenue);
+            grid.addRevenue(0, MarginGrid.monthSlot(range.startYear, range.startMonth, revenue.getYear(), revenue.getMonth()),
+                    revenue.getCalculatedRevenue());
         }
-        
-        return result;
+        return !revenues.isEmpty();
     }
     
-    private boolean hasDataForEmployee(Long employeeId, 
-                                     Map<EmployeeKey, EmployeeCost> costMap, 
-                                     Map<EmployeeKey, List<EmployeeRevenue>> revenueMap) {
-        // Check if there's any cost or revenue data for this employee
-        return costMap.keySet().stream().anyMatch(key -> key.employeeId.equals(employeeId)) ||
-               revenueMap.keySet().stream().anyMatch(key -> key.employeeId.equals(employeeId));
+    private List<EmployeeRevenue> findRevenuesForPeriod(List<Long> employeeIds, DateRange range) {
+        // Nếu khoảng thời gian nằm trong cùng một năm
+        if (range.startYear == range.endYear) {
+            return employeeRevenueRepository.findByEmployeeIdsAndPeriod(
+                    employeeIds, range.startYear, range.startMonth, range.endMonth);
+        }
+        // Nếu khoảng thời gian trải dài nhiều năm
+        return employeeRevenueRepository.findByEmployeeIdsAndDateRange(
+                employeeIds, range.startYear, range.startMonth, 
+                range.endYear, range.endMonth);
     }
     
     private EmployeeMarginDTO createEmployeeMarginDTO(Long employeeId, String period,
-                                                     Map<EmployeeKey, EmployeeCost> costMap,
-                                                     Map<EmployeeKey, List<EmployeeRevenue>> revenueMap,
-                                                     DateRange dateRange) {
+                                                     MarginGrid grid, DateRange dateRange) {
         // Lấy thông tin employee
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
+        MarginGrid.StatusLimits limits = MarginGrid.StatusLimits.of(marginCalculator.getMarginThresholds());
+        
+        // Tạo DTO cơ bản
+        EmployeeMarginDTO dto = EmployeeMarginDTO.builder()
+                .employeeId(employeeId)
+                .employeeCode(employee.getEmployeeCode())
+                .name(employee.getFirstName() + " " + employee.getLastName())
+                .position(employee.getPosition())
+                .team(getTeamForEmployee(employeeId))
+                .status(employee.getCurrentStatus())
+                .periods(new ArrayList<>())
+                .build();
+        
+        // Xác định khoảng thời gian cần hiển thị
+        for (int year = dateRange.startYear; year <= dateRange.endYear; year++) {
+            int startMonth = (year == dateRange.startYear) ? dateRange.startMonth : 1;
+            int endMonth = (year == dateRange.endYear) ? dateRange.endMonth : 12;
+            
+            for (int month = startMonth; month <= endMonth; month++) {
+                int slot = MarginGrid.monthSlot(dateRange.startYear, dateRange.startMonth, year, month);
+                
+                // Tạo PeriodMarginDTO
+                EmployeeMarginDTO.PeriodMarginDTO periodDTO = EmployeeMarginDTO.PeriodMarginDTO.builder()
+                        .period(String.format("%d-%02d", year, month))
+                        .periodLabel(formatPeriodLabel(year, month, period))
+                        .cost(grid.cost(0, slot))
+                        .revenue(grid.revenue(0, slot))
+                        .margin(grid.margin(0, slot))
+                        .marginStatus(limits.statusOf(grid.marginHundredths(0, slot)))
+                        .build();
+                
+                dto.getPeriods().add(periodDTO);
+            }
+        }
         
-        // Tạo DTO cơ bản
+        return dto;
+    }
+    
+    /**
+     * Build the margin DTO of an employee from materialized facts, filling months without data with zero
+     */
+    private EmployeeMarginDTO buildEmployeeMarginDTO(Employee employee, String period,
+                                                    Map<Integer, EmployeeMarginMonthly> factsByPeriodKey,
+                                                    DateRange dateRange, String zeroStatus) {
+        Team team = employee.getTeam();
         EmployeeMarginDTO dto = EmployeeMarginDTO.builder()
-                .employeeId(employeeId)
+                .employeeId(employee.getId())
                 .employeeCode(employee.getEmployeeCode())
                 .name(employee.getFirstName() + " " + employee.getLastName())
                 .position(employee.getPosition())
-                .team(getTeamForEmployee(employeeId))
+                .team(team == null ? null : EmployeeMarginDTO.TeamDTO.builder()
+                        .id(team.getId())
+                        .name(team.getName())
+                        .build())
                 .status(employee.getCurrentStatus())
                 .periods(new ArrayList<>())
                 .build();
         
-        // Xác định khoảng thời gian cần hiển thị
         for (int year = dateRange.startYear; year <= dateRange.endYear; year++) {
             int startMonth = (year == dateRange.startYear) ? dateRange.startMonth : 1;
             int endMonth = (year == dateRange.endYear) ? dateRange.endMonth : 12;
             
             for (int month = startMonth; month <= endMonth; month++) {
-                // Lấy chi phí tháng
-                EmployeeKey key = new EmployeeKey(employeeId, year, month);
-                EmployeeCost cost = costMap.get(key);
-                BigDecimal costAmount = (cost != null) ? cost.getCostAmount() : BigDecimal.ZERO;
-                
-                // Lấy doanh thu tháng
-                List<EmployeeRevenue> monthRevenues = revenueMap.getOrDefault(key, Collections.emptyList());
-                BigDecimal revenueAmount = monthRevenues.stream()
-                        .map(EmployeeRevenue::getCalculatedRevenue)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-                // Tính margin
-                BigDecimal margin = calculateMargin(revenueAmount, costAmount);
-                String marginStatus = calculateMarginStatus(margin);
+                EmployeeMarginMonthly fact = factsByPeriodKey.get(EmployeeMarginMonthly.toPeriodKey(year, month));
                 
-                // Tạo PeriodMarginDTO
-                EmployeeMarginDTO.PeriodMarginDTO periodDTO = EmployeeMarginDTO.PeriodMarginDTO.builder()
+                dto.getPeriods().add(EmployeeMarginDTO.PeriodMarginDTO.builder()
                         .period(String.format("%d-%02d", year, month))
                         .periodLabel(formatPeriodLabel(year, month, period))
-                        .cost(costAmount)
-                        .revenue(revenueAmount)
-                        .margin(margin)
-                        .marginStatus(marginStatus)
-                        .build();
-                
-                dto.getPeriods().add(periodDTO);
+                        .cost(fact != null ? fact.getCostAmount() : BigDecimal.ZERO)
+                        .revenue(fact != null ? fact.getRevenueAmount() : BigDecimal.ZERO)
+                        .margin(fact != null ? fact.getMargin() : BigDecimal.ZERO)
+                        .marginStatus(fact != null ? fact.getMarginStatus() : zeroStatus)
+                        .build());
             }
         }
         
@@ -927,11 +1284,6 @@ public class MarginServiceImpl implements MarginService {
         }
     }
     
-    private void sortMarginDTOs(List<EmployeeMarginDTO> marginDTOs, Pageable pageable) {
-        // Implementation depends on sort criteria
-        // This is a placeholder implementation
-    }
-    
     /**
      * Get team ID for an employee
      */
@@ -952,48 +1304,25 @@ public class MarginServiceImpl implements MarginService {
     private List<Long> getTeamIdsBasedOnFilters(Long teamId, boolean hasAllAccess, boolean hasTeamAccess) {
         log.debug("Getting team IDs based on filters: teamId={}", teamId);
         
-        // If a specific team ID is provided, just return that and its child teams
+        // If a specific team ID is provided, return that team and its descendant teams
         if (teamId != null) {
-            List<Long> teamIds = new ArrayList<>();
-            teamIds.add(teamId);
-            
-            // Also include child teams
-            List<Team> childTeams = teamRepository.findByParentTeam_Id(teamId);
-            for (Team childTeam : childTeams) {
-                teamIds.add(childTeam.getId());
-            }
-            
-            return teamIds;
+            return teamHierarchyService.getTeamAndDescendantIds(teamId);
         }
         
         // No specific team, apply access controls
-        List<Long> teamIds = new ArrayList<>();
-        
         if (hasAllAccess) {
             // User has access to all teams
-            List<Team> allTeams = teamRepository.findAll();
-            return allTeams.stream()
-                    .map(Team::getId)
-                    .collect(Collectors.toList());
+            return teamHierarchyService.getAllTeamIds();
         } else if (hasTeamAccess) {
-            // User has access to their team and child teams
+            // User has access to their team and its descendant teams
             Employee currentEmployee = getCurrentEmployee();
             if (currentEmployee == null || currentEmployee.getTeam() == null) {
                 return Collections.emptyList();
             }
-            
-            // Add user's team
-            Team userTeam = currentEmployee.getTeam();
-            teamIds.add(userTeam.getId());
-            
-            // Add child teams if user is a leader
-            List<Team> childTeams = teamRepository.findByParentTeam_Id(userTeam.getId());
-            for (Team childTeam : childTeams) {
-                teamIds.add(childTeam.getId());
-            }
+            return teamHierarchyService.getTeamAndDescendantIds(currentEmployee.getTeam().getId());
         }
         
-        return teamIds;
+        return Collections.emptyList();
     }
     
     /**
@@ -1018,177 +1347,30 @@ public class MarginServiceImpl implements MarginService {
                 .build();
     }
     
-    private static class TeamPeriodKey {
-        final Long teamId;
-        final int year;
-        final int month;
-        
-        TeamPeriodKey(Long teamId, int year, int month) {
-            this.teamId = teamId;
-            this.year = year;
-            this.month = month;
-        }
-        
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            TeamPeriodKey that = (TeamPeriodKey) o;
-            return year == that.year && 
-                   month == that.month && 
-                   Objects.equals(teamId, that.teamId);
-        }
-        
-        @Override
-        public int hashCode() {
-            return Objects.hash(teamId, year, month);
-        }
-        
-        String getPeriodString() {
-            return String.format("%04d-%02d", year, month);
-        }
-    }
-    
-    /**
-     * Get aggregated costs by team and period
-     */
-    private Map<TeamPeriodKey, BigDecimal> getTeamCostsByPeriod(List<Long> teamIds, DateRange dateRange) {
-        Map<TeamPeriodKey, BigDecimal> result = new HashMap<>();
-        
-        // Get all employees from these teams
-        List<Long> allEmployeeIds = new ArrayList<>();
-        Map<Long, Team> teamMap = new HashMap<>();
-        
-        for (Long teamId : teamIds) {
-            Team team = teamRepository.findById(teamId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
-            teamMap.put(teamId, team);
-            
-            Page<Employee> employeesPage = employeeRepository.findByTeam_Id(team.getId(), Pageable.unpaged());
-            allEmployeeIds.addAll(employeesPage.getContent().stream()
-                    .map(Employee::getId)
-                    .collect(Collectors.toList()));
-        }
-        
-        if (allEmployeeIds.isEmpty()) {
-            return result;
-        }
-        
-        // Get costs for all these employees in the date range
-        List<EmployeeCost> costs;
-        if (dateRange.startYear == dateRange.endYear) {
-            costs = employeeCostRepository.findByEmployeeIdsAndPeriod(
-                    allEmployeeIds, dateRange.startYear, dateRange.startMonth, dateRange.endMonth);
-        } else {
-            costs = employeeCostRepository.findByEmployeeIdsAndDateRange(
-                    allEmployeeIds, dateRange.startYear, dateRange.startMonth, 
-                    dateRange.endYear, dateRange.endMonth);
-        }
-        
-        // Group by team and period
-        Map<Long, Long> employeeTeamMap = new HashMap<>();
-        
-        for (EmployeeCost cost : costs) {
-            Long employeeId = cost.getEmployeeId();
-            
-            // Get team for this employee
-            Long teamId = employeeTeamMap.computeIfAbsent(
-                    employeeId, id -> getTeamIdForEmployee(id, teamMap));
-            
-            if (teamId == null) {
-                // Employee not in any team, skip
-                continue;
-            }
-            
-            // Only include costs for employees in the requested teams
-            if (!teamIds.contains(teamId)) {
-                continue;
-            }
-            
-            TeamPeriodKey key = new TeamPeriodKey(teamId, cost.getYear(), cost.getMonth());
-            BigDecimal currentTotal = result.getOrDefault(key, BigDecimal.ZERO);
-            result.put(key, currentTotal.add(cost.getCostAmount()));
-        }
-        
-        return result;
-    }
-    
-    /**
-     * Lấy team ID cho nhân viên cụ thể dựa vào danh sách team đã lấy
-     */
-    private Long getTeamIdForEmployee(Long employeeId, Map<Long, Team> teamMap) {
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
-        
-        if (employee.getTeam() == null) {
-            return null;
-        }
-        
-        return employee.getTeam().getId();
-    }
-    
     /**
-     * Get aggregated revenues by team and period
+     * Load cost and revenue sums by team and month into a grid whose rows follow {@code teamIds}
      */
-    private Map<TeamPeriodKey, BigDecimal> getTeamRevenuesByPeriod(List<Long> teamIds, DateRange dateRange) {
-        Map<TeamPeriodKey, BigDecimal> result = new HashMap<>();
-        
-        // Get all employees from these teams
-        List<Long> allEmployeeIds = new ArrayList<>();
-        Map<Long, Team> teamMap = new HashMap<>();
-        
-        for (Long teamId : teamIds) {
-            Team team = teamRepository.findById(teamId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
-            teamMap.put(teamId, team);
-            
-            Page<Employee> employeesPage = employeeRepository.findByTeam_Id(team.getId(), Pageable.unpaged());
-            allEmployeeIds.addAll(employeesPage.getContent().stream()
-                    .map(Employee::getId)
-                    .collect(Collectors.toList()));
-        }
-        
-        if (allEmployeeIds.isEmpty()) {
-            return result;
-        }
+    private MarginGrid buildTeamGrid(List<Long> teamIds, DateRange dateRange) {
+        int fromKey = EmployeeMarginMonthly.toPeriodKey(dateRange.startYear, dateRange.startMonth);
+        int toKey = EmployeeMarginMonthly.toPeriodKey(dateRange.endYear, dateRange.endMonth);
+        MarginGrid grid = new MarginGrid(teamIds.size(), dateRange.monthCount());
         
-        // Get revenues for all these employees in the date range
-        List<EmployeeRevenue> revenues;
-        if (dateRange.startYear == dateRange.endYear) {
-            revenues = employeeRevenueRepository.findByEmployeeIdsAndPeriod(
-                    allEmployeeIds, dateRange.startYear, dateRange.startMonth, dateRange.endMonth);
-        } else {
-            revenues = employeeRevenueRepository.findByEmployeeIdsAndDateRange(
-                    allEmployeeIds, dateRange.startYear, dateRange.startMonth, 
-                    dateRange.endYear, dateRange.endMonth);
+        Map<Long, Integer> teamRows = new HashMap<>();
+        for (int row = 0; row < teamIds.size(); row++) {
+            teamRows.put(teamIds.get(row), row);
         }
         
-        // Group by team and period
-        Map<Long, Long> employeeTeamMap = new HashMap<>();
-        
-        for (EmployeeRevenue revenue : revenues) {
-            Long employeeId = revenue.getEmployeeId();
-            
-            // Get team for this employee
-            Long teamId = employeeTeamMap.computeIfAbsent(
-                    employeeId, id -> getTeamIdForEmployee(id, teamMap));
-            
-            if (teamId == null) {
-                // Employee not in any team, skip
-                continue;
-            }
-            
-            // Only include revenues for employees in the requested teams
-            if (!teamIds.contains(teamId)) {
+        for (Object[] row : marginMonthlyRepository.sumByTeamAndPeriod(teamIds, fromKey, toKey)) {
+            Integer teamRow = teamRows.get((Long) row[0]);
+            if (teamRow == null) {
                 continue;
             }
-            
-            TeamPeriodKey key = new TeamPeriodKey(teamId, revenue.getYear(), revenue.getMonth());
-            BigDecimal currentTotal = result.getOrDefault(key, BigDecimal.ZERO);
-            result.put(key, currentTotal.add(revenue.getCalculatedRevenue()));
+            int monthSlot = MarginGrid.monthSlot(dateRange.startYear, dateRange.startMonth,
+                    (Integer) row[1], (Integer) row[2]);
+            grid.addCost(teamRow, monthSlot, (BigDecimal) row[3]);
+            grid.addRevenue(teamRow, monthSlot, (BigDecimal) row[4]);
         }
-        
-        return result;
+        return grid;
     }
     
     /**
@@ -1196,14 +1378,12 @@ public class MarginServiceImpl implements MarginService {
      */
     private Map<Long, Integer> getTeamEmployeeCounts(List<Long> teamIds) {
         Map<Long, Integer> counts = new HashMap<>();
-        
         for (Long teamId : teamIds) {
-            Team team = teamRepository.findById(teamId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
-            
-            Page<Employee> employeesPage = employeeRepository.findByTeam_Id(team.getId(), Pageable.unpaged());
-            int count = employeesPage.getContent().size();
-            counts.put(teamId, count);
+            counts.put(teamId, 0);
+        }
+        
+        for (Object[] row : employeeRepository.countByTeamIds(teamIds)) {
+            counts.put((Long) row[0], ((Long) row[1]).intValue());
         }
         
         return counts;
@@ -1214,84 +1394,68 @@ public class MarginServiceImpl implements MarginService {
      */
     private MarginSummaryDTO buildMarginSummary(
             List<Long> teamIds, 
+            Map<Long, String> teamNames,
             String period, 
             DateRange dateRange,
-            Map<TeamPeriodKey, BigDecimal> teamCosts,
-            Map<TeamPeriodKey, BigDecimal> teamRevenues,
+            MarginGrid teamGrid,
             Map<Long, Integer> teamEmployeeCounts,
             String groupBy) {
         
+        MarginGrid.StatusLimits limits = MarginGrid.StatusLimits.of(marginCalculator.getMarginThresholds());
+        
         // Create team margin DTOs
         List<MarginSummaryDTO.TeamMarginDTO> teamMargins = new ArrayList<>();
-        
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalRevenue = BigDecimal.ZERO;
+        MarginGrid.Totals grandTotals = teamGrid.totals(-1);
         int totalEmployees = 0;
         
         // Tạo danh sách tất cả các kỳ trong khoảng thời gian đã chọn
-        List<YearMonth> allPeriods = new ArrayList<>();
-        for (int year = dateRange.startYear; year <= dateRange.endYear; year++) {
-            int startMonth = (year == dateRange.startYear) ? dateRange.startMonth : 1;
-            int endMonth = (year == dateRange.endYear) ? dateRange.endMonth : 12;
-            
-            for (int month = startMonth; month <= endMonth; month++) {
-                allPeriods.add(YearMonth.of(year, month));
-            }
-        }
-        
-        // Lấy thông tin team từ database
-        for (Long teamId : teamIds) {
-            Team team = teamRepository.findById(teamId).orElse(null);
-            if (team == null) {
+        int monthCount = teamGrid.getMonths();
+        String[] periodKeys = new String[monthCount];
+        String[] periodLabels = new String[monthCount];
+        String[] monthLabels = new String[monthCount];
+        YearMonth yearMonth = YearMonth.of(dateRange.startYear, dateRange.startMonth);
+        for (int slot = 0; slot < monthCount; slot++, yearMonth = yearMonth.plusMonths(1)) {
+            periodKeys[slot] = String.format("%04d-%02d", yearMonth.getYear(), yearMonth.getMonthValue());
+            periodLabels[slot] = formatPeriodLabel(yearMonth.getYear(), yearMonth.getMonthValue(), period);
+            monthLabels[slot] = formatPeriodLabel(yearMonth.getYear(), yearMonth.getMonthValue(), "month");
+        }
+        
+        for (int row = 0; row < teamIds.size(); row++) {
+            Long teamId = teamIds.get(row);
+            String teamName = teamNames.get(teamId);
+            if (teamName == null) {
                 continue;
             }
             
-            String teamName = team.getName();
             int employeeCount = teamEmployeeCounts.getOrDefault(teamId, 0);
             totalEmployees += employeeCount;
             
-            // Calculate totals for this team
-            BigDecimal teamTotalCost = BigDecimal.ZERO;
-            BigDecimal teamTotalRevenue = BigDecimal.ZERO;
-            
             // Create period margins
-            List<MarginSummaryDTO.PeriodMarginDTO> periodMargins = new ArrayList<>();
+            List<MarginSummaryDTO.PeriodMarginDTO> periodMargins = new ArrayList<>(monthCount);
             Map<String, Integer> statusCounts = new HashMap<>();
             statusCounts.put("Red", 0);
             statusCounts.put("Yellow", 0);
             statusCounts.put("Green", 0);
             
             // Tạo dữ liệu cho các trend
-            List<BigDecimal> marginTrend = new ArrayList<>();
-            List<String> periodLabels = new ArrayList<>();
+            List<BigDecimal> marginTrend = new ArrayList<>(monthCount);
             
-            for (YearMonth yearMonth : allPeriods) {
-                int year = yearMonth.getYear();
-                int month = yearMonth.getMonthValue();
-                TeamPeriodKey key = new TeamPeriodKey(teamId, year, month);
-                
-                BigDecimal cost = teamCosts.getOrDefault(key, BigDecimal.ZERO);
-                BigDecimal revenue = teamRevenues.getOrDefault(key, BigDecimal.ZERO);
-                BigDecimal margin = calculateMargin(revenue, cost);
-                String marginStatus = calculateMarginStatus(margin);
+            for (int slot = 0; slot < monthCount; slot++) {
+                BigDecimal margin = teamGrid.margin(row, slot);
+                String marginStatus = limits.statusOf(teamGrid.marginHundredths(row, slot));
                 
                 // Cập nhật số lượng theo status
-                statusCounts.put(marginStatus, statusCounts.getOrDefault(marginStatus, 0) + 1);
-                
-                // Add to totals
-                teamTotalCost = teamTotalCost.add(cost);
-                teamTotalRevenue = teamTotalRevenue.add(revenue);
+                statusCounts.merge(marginStatus, 1, Integer::sum);
                 
                 // Add to trend data
                 marginTrend.add(margin);
-                periodLabels.add(formatPeriodLabel(year, month, "month"));
                 
                 // Create period margin
                 MarginSummaryDTO.PeriodMarginDTO periodMargin = MarginSummaryDTO.PeriodMarginDTO.builder()
-                        .period(key.getPeriodString())
-                        .periodLabel(formatPeriodLabel(year, month, period))
-                        .cost(cost)
-                        .revenue(revenue)
+                        .period(periodKeys[slot])
+                        .periodLabel(periodLabels[slot])
+                        .cost(teamGrid.cost(row, slot))
+                        .revenue(teamGrid.revenue(row, slot))
                         .margin(margin)
                         .marginStatus(marginStatus)
                         .build();
@@ -1300,28 +1464,23 @@ public class MarginServiceImpl implements MarginService {
             }
             
             // Calculate overall margin for this team
-            BigDecimal teamMargin = calculateMargin(teamTotalRevenue, teamTotalCost);
-            String teamMarginStatus = calculateMarginStatus(teamMargin);
+            MarginGrid.Totals teamTotals = teamGrid.totals(row);
             
             // Tạo đối tượng trend
             MarginSummaryDTO.TeamMarginDTO.TrendsDTO trendsDTO = MarginSummaryDTO.TeamMarginDTO.TrendsDTO.builder()
                     .margin(marginTrend)
-                    .periods(periodLabels)
+                    .periods(new ArrayList<>(Arrays.asList(monthLabels)))
                     .build();
             
-            // Add to global totals
-            totalCost = totalCost.add(teamTotalCost);
-            totalRevenue = totalRevenue.add(teamTotalRevenue);
-            
             // Create team margin DTO
             MarginSummaryDTO.TeamMarginDTO teamMarginDTO = MarginSummaryDTO.TeamMarginDTO.builder()
                     .id(teamId)
                     .name(teamName)
                     .employeeCount(employeeCount)
-                    .cost(teamTotalCost)
-                    .revenue(teamTotalRevenue)
-                    .margin(teamMargin)
-                    .marginStatus(teamMarginStatus)
+                    .cost(teamTotals.cost())
+                    .revenue(teamTotals.revenue())
+                    .margin(teamTotals.margin())
+                    .marginStatus(limits.statusOf(teamTotals.marginHundredths()))
                     .statusCounts(statusCounts)
                     .periods(periodMargins)
                     .trends(trendsDTO)
@@ -1330,6 +1489,9 @@ public class MarginServiceImpl implements MarginService {
             teamMargins.add(teamMarginDTO);
         }
         
+        BigDecimal totalCost = grandTotals.cost();
+        BigDecimal totalRevenue = grandTotals.revenue();
+        
         // Calculate overall averages
         BigDecimal averageCost = totalEmployees > 0 ? 
                 totalCost.divide(BigDecimal.valueOf(totalEmployees), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
@@ -1337,7 +1499,7 @@ public class MarginServiceImpl implements MarginService {
         BigDecimal averageRevenue = totalEmployees > 0 ? 
                 totalRevenue.divide(BigDecimal.valueOf(totalEmployees), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
                 
-        BigDecimal averageMargin = calculateMargin(totalRevenue, totalCost);
+        BigDecimal averageMargin = grandTotals.margin();
         
         // Tính tổng số lượng theo trạng thái
         Map<String, Integer> totalStatusCounts = new HashMap<>();
@@ -1457,345 +1619,6 @@ public class MarginServiceImpl implements MarginService {
         }
     }
     
-    /**
-     * Parse employee costs from uploaded file
-     */
-    private List<EmployeeCost> parseEmployeeCostsFromFile(MultipartFile file, int year, int month) {
-        log.info("Parsing employee costs from file for {}-{}", year, month);
-        List<EmployeeCost> costs = new ArrayList<>();
-        
-        try {
-            // Xác định loại file (Excel hoặc CSV) dựa vào phần mở rộng
-            String originalFilename = file.getOriginalFilename();
-            if (originalFilename == null) {
-                throw new BadRequestException("Invalid file name");
-            }
-            
-            if (originalFilename.endsWith(".xlsx") || originalFilename.endsWith(".xls")) {
-                // Xử lý file Excel
-                costs = parseExcelFile(file, year, month);
-            } else if (originalFilename.endsWith(".csv")) {
-                // Xử lý file CSV
-                costs = parseCsvFile(file, year, month);
-            } else {
-                throw new BadRequestException("Unsupported file format. Please upload Excel or CSV file");
-            }
-            
-            log.info("Successfully parsed {} employee cost records", costs.size());
-            return costs;
-            
-        } catch (Exception e) {
-            log.error("Error parsing employee costs file: {}", e.getMessage(), e);
-            throw new BadRequestException("Failed to parse file: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * Parse Excel file to extract employee costs
-     */
-    private List<EmployeeCost> parseExcelFile(MultipartFile file, int year, int month) {
-        List<EmployeeCost> costs = new ArrayList<>();
-        
-        try {
-            // Use Apache POI to read Excel file
-            org.apache.poi.ss.usermodel.Workbook workbook = org.apache.poi.ss.usermodel.WorkbookFactory.create(file.getInputStream());
-            org.apache.poi.ss.usermodel.Sheet sheet = workbook.getSheetAt(0);
-            
-            // Expected columns: Employee ID, Basic Salary, Allowance, Overtime, Other Costs, Currency, Note
-            int rowNum = 0;
-            for (org.apache.poi.ss.usermodel.Row row : sheet) {
-                if (rowNum == 0) {
-                    // Skip header row
-                    rowNum++;
-                    continue;
-                }
-                
-                try {
-                    // Read Employee ID (column 0)
-                    org.apache.poi.ss.usermodel.Cell employeeIdCell = row.getCell(0);
-                    if (employeeIdCell == null) {
-                        log.warn("Skipping row {} - Employee ID is empty", rowNum);
-                        continue;
-                    }
-                    
-                    Long employeeId;
-                    if (employeeIdCell.getCellType() == org.apache.poi.ss.usermodel.CellType.NUMERIC) {
-                        employeeId = (long) employeeIdCell.getNumericCellValue();
-                    } else {
-                        employeeId = Long.parseLong(employeeIdCell.getStringCellValue());
-                    }
-                    
-                    // Validate employee exists
-                    if (!employeeExists(employeeId)) {
-                        log.warn("Skipping row {} - Employee ID {} not found", rowNum, employeeId);
-                        continue;
-                    }
-                    
-                    // Read Basic Salary (column 1)
-                    BigDecimal basicSalary = getCellValueAsBigDecimal(row.getCell(1));
-                    
-                    // Read Allowance (column 2)
-                    BigDecimal allowance = getCellValueAsBigDecimal(row.getCell(2));
-                    
-                    // Read Overtime (column 3)
-                    BigDecimal overtime = getCellValueAsBigDecimal(row.getCell(3));
-                    
-                    // Read Other Costs (column 4)
-                    BigDecimal otherCosts = getCellValueAsBigDecimal(row.getCell(4));
-                    
-                    // Read Currency (column 5)
-                    String currency = getCellValueAsString(row.getCell(5));
-                    if (currency == null || currency.trim().isEmpty()) {
-                        currency = "USD"; // Default currency
-                    }
-                    
-                    // Read Note (column 6)
-                    String note = getCellValueAsString(row.getCell(6));
-                    
-                    // Calculate total cost
-                    BigDecimal totalCost = basicSalary.add(allowance).add(overtime).add(otherCosts);
-                    
-                    // Create EmployeeCost object
-                    EmployeeCost cost = EmployeeCost.builder()
-                            .employeeId(employeeId)
-                            .year(year)
-                            .month(month)
-                            .basicSalary(basicSalary)
-                            .allowance(allowance)
-                            .overtime(overtime)
-                            .otherCosts(otherCosts)
-                            .costAmount(totalCost)
-                            .currency(currency)
-                            .note(note != null ? note : "Imported from Excel file")
-                            .build();
-                    
-                    costs.add(cost);
-                    
-                } catch (Exception e) {
-                    log.warn("Error parsing row {}: {}", rowNum, e.getMessage());
-                }
-                
-                rowNum++;
-            }
-            
-            workbook.close();
-            log.info("Successfully parsed {} employee cost records from Excel file", costs.size());
-            
-        } catch (Exception e) {
-            log.error("Error parsing Excel file: {}", e.getMessage(), e);
-            throw new BadRequestException("Failed to parse Excel file: " + e.getMessage());
-        }
-        
-        return costs;
-    }
-    
-    /**
-     * Helper method to get cell value as BigDecimal
-     */
-    private BigDecimal getCellValueAsBigDecimal(org.apache.poi.ss.usermodel.Cell cell) {
-        if (cell == null) {
-            return BigDecimal.ZERO;
-        }
-        
-        try {
-            if (cell.getCellType() == org.apache.poi.ss.usermodel.CellType.NUMERIC) {
-                return BigDecimal.valueOf(cell.getNumericCellValue());
-            } else if (cell.getCellType() == org.apache.poi.ss.usermodel.CellType.STRING) {
-                String value = cell.getStringCellValue().trim();
-                return value.isEmpty() ? BigDecimal.ZERO : new BigDecimal(value);
-            }
-        } catch (Exception e) {
-            log.warn("Error parsing cell value as BigDecimal: {}", e.getMessage());
-        }
-        
-        return BigDecimal.ZERO;
-    }
-    
-    /**
-     * Helper method to get cell value as String
-     */
-    private String getCellValueAsString(org.apache.poi.ss.usermodel.Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-        
-        try {
-            if (cell.getCellType() == org.apache.poi.ss.usermodel.CellType.STRING) {
-                return cell.getStringCellValue().trim();
-            } else if (cell.getCellType() == org.apache.poi.ss.usermodel.CellType.NUMERIC) {
-                return String.valueOf((long) cell.getNumericCellValue());
-            }
-        } catch (Exception e) {
-            log.warn("Error parsing cell value as String: {}", e.getMessage());
-        }
-        
-        return null;
-    }
-    
-    /**
-     * Parse CSV file to extract employee costs
-     */
-    private List<EmployeeCost> parseCsvFile(MultipartFile file, int year, int month) {
-        List<EmployeeCost> costs = new ArrayList<>();
-        
-        try {
-            // Use BufferedReader to read CSV file
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.InputStreamReader(file.getInputStream(), java.nio.charset.StandardCharsets.UTF_8));
-            
-            String line;
-            int rowNum = 0;
-            boolean isHeader = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (isHeader) {
-                    // Skip header row
-                    isHeader = false;
-                    rowNum++;
-                    continue;
-                }
-                
-                try {
-                    // Split CSV line by comma, handling quoted values
-                    String[] values = parseCsvLine(line);
-                    
-                    if (values.length < 5) {
-                        log.warn("Skipping row {} - insufficient columns (expected at least 5, got {})", rowNum, values.length);
-                        continue;
-                    }
-                    
-                    // Parse Employee ID (column 0)
-                    Long employeeId;
-                    try {
-                        employeeId = Long.parseLong(values[0].trim());
-                    } catch (NumberFormatException e) {
-                        log.warn("Skipping row {} - invalid Employee ID: {}", rowNum, values[0]);
-                        continue;
-                    }
-                    
-                    // Validate employee exists
-                    if (!employeeExists(employeeId)) {
-                        log.warn("Skipping row {} - Employee ID {} not found", rowNum, employeeId);
-                        continue;
-                    }
-                    
-                    // Parse Basic Salary (column 1)
-                    BigDecimal basicSalary = parseBigDecimalFromString(values[1]);
-                    
-                    // Parse Allowance (column 2)
-                    BigDecimal allowance = parseBigDecimalFromString(values[2]);
-                    
-                    // Parse Overtime (column 3)
-                    BigDecimal overtime = parseBigDecimalFromString(values[3]);
-                    
-                    // Parse Other Costs (column 4)
-                    BigDecimal otherCosts = parseBigDecimalFromString(values[4]);
-                    
-                    // Parse Currency (column 5, optional)
-                    String currency = "USD"; // Default
-                    if (values.length > 5 && values[5] != null && !values[5].trim().isEmpty()) {
-                        currency = values[5].trim();
-                    }
-                    
-                    // Parse Note (column 6, optional)
-                    String note = "Imported from CSV file";
-                    if (values.length > 6 && values[6] != null && !values[6].trim().isEmpty()) {
-                        note = values[6].trim();
-                    }
-                    
-                    // Calculate total cost
-                    BigDecimal totalCost = basicSalary.add(allowance).add(overtime).add(otherCosts);
-                    
-                    // Create EmployeeCost object
-                    EmployeeCost cost = EmployeeCost.builder()
-                            .employeeId(employeeId)
-                            .year(year)
-                            .month(month)
-                            .basicSalary(basicSalary)
-                            .allowance(allowance)
-                            .overtime(overtime)
-                            .otherCosts(otherCosts)
-                            .costAmount(totalCost)
-                            .currency(currency)
-                            .note(note)
-                            .build();
-                    
-                    costs.add(cost);
-                    
-                } catch (Exception e) {
-                    log.warn("Error parsing CSV row {}: {}", rowNum, e.getMessage());
-                }
-                
-                rowNum++;
-            }
-            
-            reader.close();
-            log.info("Successfully parsed {} employee cost records from CSV file", costs.size());
-            
-        } catch (Exception e) {
-            log.error("Error parsing CSV file: {}", e.getMessage(), e);
-            throw new BadRequestException("Failed to parse CSV file: " + e.getMessage());
-        }
-        
-        return costs;
-    }
-    
-    /**
-     * Parse CSV line handling quoted values and commas within quotes
-     */
-    private String[] parseCsvLine(String line) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder currentField = new StringBuilder();
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(currentField.toString());
-                currentField = new StringBuilder();
-            } else {
-                currentField.append(c);
-            }
-        }
-        
-        // Add the last field
-        result.add(currentField.toString());
-        
-        return result.toArray(new String[0]);
-    }
-    
-    /**
-     * Helper method to parse BigDecimal from string
-     */
-    private BigDecimal parseBigDecimalFromString(String value) {
-        if (value == null || value.trim().isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        try {
-            // Remove any quotes and trim
-            String cleanValue = value.replace("\"", "").trim();
-            return cleanValue.isEmpty() ? BigDecimal.ZERO : new BigDecimal(cleanValue);
-        } catch (NumberFormatException e) {
-            log.warn("Error parsing BigDecimal from string '{}': {}", value, e.getMessage());
-            return BigDecimal.ZERO;
-        }
-    }
-    
-    /**
-     * Check if employee exists
-     */
-    private boolean employeeExists(Long employeeId) {
-        if (employeeId == null) {
-            return false;
-        }
-        
-        return employeeRepository.findById(employeeId).isPresent();
-    }
-
     private EmployeeMarginDTO.TeamDTO getTeamForEmployee(Long employeeId) {
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
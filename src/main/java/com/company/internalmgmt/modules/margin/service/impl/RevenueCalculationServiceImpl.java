@@ -0,0 +1,388 @@
+package com.company.internalmgmt.modules.margin.service.impl;
+
+import com.company.internalmgmt.common.exception.BadRequestException;
+import com.company.internalmgmt.common.service.SystemConfigService;
+import com.company.internalmgmt.modules.contract.model.Contract;
+import com.company.internalmgmt.modules.contract.model.ContractEmployee;
+import com.company.internalmgmt.modules.contract.model.enums.ContractStatus;
+import com.company.internalmgmt.modules.contract.repository.ContractEmployeeRepository;
+import com.company.internalmgmt.modules.contract.repository.ContractRepository;
+import com.company.internalmgmt.modules.margin.dto.RevenueCalculationResultDTO;
+import com.company.internalmgmt.modules.margin.model.EmployeeRevenue;
+import com.company.internalmgmt.modules.margin.repository.EmployeeRevenueBatchRepository;
+import com.company.internalmgmt.modules.margin.repository.EmployeeRevenueRepository;
+import com.company.internalmgmt.modules.margin.service.MarginFactService;
+import com.company.internalmgmt.modules.margin.service.RevenueCalculationService;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevenueCalculationServiceImpl implements RevenueCalculationService {
+
+    /**
+     * Note written on revenues produced by the engine; only these rows are removed when an allocation disappears
+     */
+    public static final String AUTO_NOTE = "Auto-calculated from contract allocation";
+
+    private static final String LAST_RUN_KEY = "margin.revenue.last_calculated_at";
+    private static final String DEFAULT_CURRENCY = "USD";
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    // Contracts in these states are not billed yet (or anymore)
+    private static final Set<String> NON_BILLABLE_STATUSES = new HashSet<>(Arrays.asList(
+            ContractStatus.DRAFT.getValue().toLowerCase(),
+            ContractStatus.IN_REVIEW.getValue().toLowerCase(),
+            ContractStatus.CANCELLED.getValue().toLowerCase()));
+
+    private final ContractRepository contractRepository;
+    private final ContractEmployeeRepository contractEmployeeRepository;
+    private final EmployeeRevenueRepository employeeRevenueRepository;
+    private final EmployeeRevenueBatchRepository employeeRevenueBatchRepository;
+    private final SystemConfigService systemConfigService;
+    private final MarginFactService marginFactService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.margin.revenue.partition-size:25}")
+    private int partitionSize;
+
+    @Value("${app.margin.revenue.threads:4}")
+    private int threads;
+
+    // One calculation at a time; partitions inside a run are processed in parallel
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Override
+    public RevenueCalculationResultDTO recalculateAll() {
+        return runExclusively("full", () -> new LinkedHashSet<>(contractRepository.findAllIds()), true);
+    }
+
+    @Override
+    public RevenueCalculationResultDTO recalculateIncremental() {
+        LocalDateTime lastRun = readLastRun();
+        if (lastRun == null) {
+            log.info("No previous revenue calculation found, running full calculation");
+            return recalculateAll();
+        }
+
+        return runExclusively("incremental", () -> {
+            YearMonth currentMonth = YearMonth.now();
+            Set<Long> contractIds = new LinkedHashSet<>();
+            contractIds.addAll(contractRepository.findIdsUpdatedSinceIncludingDeleted(lastRun));
+            contractIds.addAll(contractEmployeeRepository.findContractIdsUpdatedSince(lastRun));
+            // Open-ended and running assignments accrue a new month without being modified
+            contractIds.addAll(contractEmployeeRepository.findContractIdsActiveBetween(
+                    currentMonth.atDay(1), currentMonth.atEndOfMonth()));
+            // Assignments removed from a contract only show up through their existing revenues
+            contractIds.addAll(employeeRevenueRepository.findContractIdsByYearAndMonth(
+                    currentMonth.getYear(), currentMonth.getMonthValue()));
+            log.debug("Contracts touched since {}: {}", lastRun, contractIds.size());
+            return contractIds;
+        }, true);
+    }
+
+    @Override
+    public RevenueCalculationResultDTO recalculateContracts(Collection<Long> contractIds) {
+        if (contractIds == null || contractIds.isEmpty()) {
+            throw new BadRequestException("At least one contract ID is required");
+        }
+        return runExclusively("contracts", () -> new LinkedHashSet<>(contractIds), false);
+    }
+
+    private RevenueCalculationResultDTO runExclusively(String mode, Callable<Set<Long>> contractIdSupplier,
+                                                      boolean recordRun) {
+        if (!runLock.tryLock()) {
+            throw new BadRequestException("Revenue calculation is already running");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            Set<Long> contractIds = contractIdSupplier.call();
+            RevenueCalculationResultDTO result = calculate(mode, new ArrayList<>(contractIds), startedAt);
+
+            if (recordRun && result.getFailedContractIds().isEmpty()) {
+                writeLastRun(startedAt);
+            }
+            return result;
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Revenue calculation ({}) failed: {}", mode, e.getMessage(), e);
+            throw new RuntimeException("Revenue calculation failed: " + e.getMessage(), e);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private RevenueCalculationResultDTO calculate(String mode, List<Long> contractIds, LocalDateTime startedAt)
+            throws InterruptedException {
+        log.info("Starting {} revenue calculation for {} contracts", mode, contractIds.size());
+
+        List<List<Long>> partitions = new ArrayList<>();
+        int size = Math.max(1, partitionSize);
+        for (int from = 0; from < contractIds.size(); from += size) {
+            partitions.add(contractIds.subList(from, Math.min(from + size, contractIds.size())));
+        }
+
+        YearMonth lastMonth = YearMonth.now();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger updated = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        Set<EmployeePeriod> touched = ConcurrentHashMap.newKeySet();
+        List<Long> failedContractIds = Collections.synchronizedList(new ArrayList<>());
+
+        if (!partitions.isEmpty()) {
+            AtomicInteger threadCounter = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(threads, partitions.size())),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "revenue-calc-" + threadCounter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (List<Long> partition : partitions) {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            // Each partition commits on its own so one bad contract does not roll back the run
+                            PartitionResult partitionResult = transactionTemplate.execute(
+                                    status -> processPartition(partition, lastMonth));
+                            created.addAndGet(partitionResult.created);
+                            updated.addAndGet(partitionResult.updated);
+                            removed.addAndGet(partitionResult.removed);
+                            touched.addAll(partitionResult.touched);
+                        } catch (Exception e) {
+                            log.error("Revenue calculation failed for contracts {}: {}", partition, e.getMessage(), e);
+                            failedContractIds.addAll(partition);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        log.error("Revenue partition task failed: {}", e.getMessage(), e);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        // Refresh margin facts once per period after all partitions are written, so that an employee
+        // billed on several contracts is recomputed once and partitions never race on the same fact
+        Map<YearMonth, Set<Long>> employeesByPeriod = new TreeMap<>();
+        for (EmployeePeriod period : touched) {
+            employeesByPeriod.computeIfAbsent(YearMonth.of(period.getYear(), period.getMonth()), k -> new HashSet<>())
+                    .add(period.getEmployeeId());
+        }
+        employeesByPeriod.forEach((period, employeeIds) ->
+                marginFactService.refreshEmployeeMonths(employeeIds, period.getYear(), period.getMonthValue()));
+
+        RevenueCalculationResultDTO result = RevenueCalculationResultDTO.builder()
+                .mode(mode)
+                .startedAt(startedAt)
+                .durationMs(ChronoUnit.MILLIS.between(startedAt, LocalDateTime.now()))
+                .contractsProcessed(contractIds.size() - failedContractIds.size())
+                .partitions(partitions.size())
+                .revenuesCreated(created.get())
+                .revenuesUpdated(updated.get())
+                .revenuesRemoved(removed.get())
+                .employeeMonthsRefreshed(touched.size())
+                .failedContractIds(new ArrayList<>(failedContractIds))
+                .build();
+
+        log.info("Revenue calculation completed: mode={}, contracts={}, created={}, updated={}, removed={}, failed={}, {}ms",
+                mode, result.getContractsProcessed(), result.getRevenuesCreated(), result.getRevenuesUpdated(),
+                result.getRevenuesRemoved(), failedContractIds.size(), result.getDurationMs());
+        return result;
+    }
+
+    /**
+     * Upsert the revenues of a set of contracts, keyed on (employee, contract, year, month)
+     */
+    private PartitionResult processPartition(List<Long> contractIds, YearMonth lastMonth) {
+        PartitionResult result = new PartitionResult();
+
+        employeeRevenueRepository.purgeDeletedByContractIds(contractIds);
+
+        Map<RevenueKey, EmployeeRevenue> existing = new HashMap<>();
+        for (EmployeeRevenue revenue : employeeRevenueRepository.findByContractIdIn(contractIds)) {
+            existing.put(new RevenueKey(revenue.getEmployeeId(), revenue.getContractId(),
+                    revenue.getYear(), revenue.getMonth()), revenue);
+        }
+
+        Map<RevenueKey, EmployeeRevenue> calculated = new HashMap<>();
+        for (ContractEmployee assignment : contractEmployeeRepository.findWithContractByContractIdIn(contractIds)) {
+            calculateAssignment(assignment, lastMonth, calculated);
+        }
+
+        List<EmployeeRevenue> toSave = new ArrayList<>();
+        for (Map.Entry<RevenueKey, EmployeeRevenue> entry : calculated.entrySet()) {
+            RevenueKey key = entry.getKey();
+            EmployeeRevenue target = entry.getValue();
+            EmployeeRevenue current = existing.remove(key);
+
+            if (current == null) {
+                result.created++;
+            } else if (isChanged(current, target)) {
+                result.updated++;
+            } else {
+                continue;
+            }
+            toSave.add(target);
+            result.touched.add(new EmployeePeriod(key.getEmployeeId(), key.getYear(), key.getMonth()));
+        }
+
+        // Remaining engine-written rows no longer have a matching allocation; manual entries are kept
+        List<EmployeeRevenue> toDelete = new ArrayList<>();
+        for (EmployeeRevenue stale : existing.values()) {
+            if (AUTO_NOTE.equals(stale.getNote())) {
+                toDelete.add(stale);
+                result.touched.add(new EmployeePeriod(stale.getEmployeeId(), stale.getYear(), stale.getMonth()));
+            }
+        }
+        result.removed = toDelete.size();
+
+        if (!toDelete.isEmpty()) {
+            employeeRevenueRepository.deleteAll(toDelete);
+        }
+        // Upserted on the unique key rather than saved, so a row written concurrently since the read is updated
+        employeeRevenueBatchRepository.batchUpsert(toSave);
+        return result;
+    }
+
+    /**
+     * Expand an assignment into one revenue per active month, up to the end of {@code lastMonth}
+     */
+    private void calculateAssignment(ContractEmployee assignment, YearMonth lastMonth,
+                                     Map<RevenueKey, EmployeeRevenue> calculated) {
+        Contract contract = assignment.getContract();
+        if (contract.getStatus() != null && NON_BILLABLE_STATUSES.contains(contract.getStatus().toLowerCase())) {
+            return;
+        }
+        if (assignment.getBillRate() == null || assignment.getEmployee() == null) {
+            return;
+        }
+
+        LocalDate start = latest(assignment.getStartDate(), contract.getEffectiveDate());
+        if (start == null) {
+            return;
+        }
+        LocalDate end = earliest(earliest(assignment.getEndDate(), contract.getExpiryDate()), lastMonth.atEndOfMonth());
+        if (end.isBefore(start)) {
+            return;
+        }
+
+        // Missing allocation means the employee is fully allocated
+        BigDecimal allocation = assignment.getAllocationPercentage() != null
+                ? assignment.getAllocationPercentage() : HUNDRED;
+        String currency = contract.getCurrency() != null ? contract.getCurrency() : DEFAULT_CURRENCY;
+        Long employeeId = assignment.getEmployee().getId();
+
+        for (YearMonth month = YearMonth.from(start); !month.isAfter(YearMonth.from(end)); month = month.plusMonths(1)) {
+            LocalDate from = latest(start, month.atDay(1));
+            LocalDate to = earliest(end, month.atEndOfMonth());
+            long activeDays = ChronoUnit.DAYS.between(from, to) + 1;
+
+            // bill rate * allocation% * active days / days in month
+            BigDecimal revenue = assignment.getBillRate()
+                    .multiply(allocation)
+                    .multiply(BigDecimal.valueOf(activeDays))
+                    .divide(HUNDRED.multiply(BigDecimal.valueOf(month.lengthOfMonth())), 2, RoundingMode.HALF_UP);
+
+            calculated.put(new RevenueKey(employeeId, contract.getId(), month.getYear(), month.getMonthValue()),
+                    EmployeeRevenue.builder()
+                            .employeeId(employeeId)
+                            .contractId(contract.getId())
+                            .year(month.getYear())
+                            .month(month.getMonthValue())
+                            .billingRate(assignment.getBillRate())
+                            .allocationPercentage(allocation)
+                            .calculatedRevenue(revenue)
+                            .currency(currency)
+                            .note(AUTO_NOTE)
+                            .build());
+        }
+    }
+
+    private boolean isChanged(EmployeeRevenue current, EmployeeRevenue target) {
+        return !sameAmount(current.getCalculatedRevenue(), target.getCalculatedRevenue())
+                || !sameAmount(current.getBillingRate(), target.getBillingRate())
+                || !sameAmount(current.getAllocationPercentage(), target.getAllocationPercentage())
+                || !Objects.equals(current.getCurrency(), target.getCurrency());
+    }
+
+    private boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private LocalDate latest(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private LocalDate earliest(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isBefore(b) ? a : b;
+    }
+
+    private LocalDateTime readLastRun() {
+        return systemConfigService.getValue(LAST_RUN_KEY)
+                .map(value -> {
+                    try {
+                        return LocalDateTime.parse(value);
+                    } catch (DateTimeParseException e) {
+                        log.warn("Invalid last revenue calculation time in config: {}", value);
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private void writeLastRun(LocalDateTime runStartedAt) {
+        systemConfigService.setValue(LAST_RUN_KEY, runStartedAt.toString(),
+                "Start time of the last successful employee revenue calculation");
+    }
+
+    @Data
+    private static class RevenueKey {
+        private final Long employeeId;
+        private final Long contractId;
+        private final int year;
+        private final int month;
+    }
+
+    @Data
+    private static class EmployeePeriod {
+        private final Long employeeId;
+        private final int year;
+        private final int month;
+    }
+
+    private static class PartitionResult {
+        int created;
+        int updated;
+        int removed;
+        Set<EmployeePeriod> touched = new HashSet<>();
+    }
+}
@@ -0,0 +1,58 @@
+package com.company.internalmgmt.modules.margin.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a cost CSV line by line; only the current line is held in memory
+ */
+class CsvEmployeeCostReader {
+
+    void read(InputStream inputStream, EmployeeCostRowMapper mapper) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int rowNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (rowNumber == 1) {
+                    // Skip header row, together with any byte order mark it starts with
+                    continue;
+                }
+                mapper.addRow(rowNumber, parseCsvLine(line));
+            }
+        }
+    }
+
+    /**
+     * Parse CSV line handling quoted values and commas within quotes
+     */
+    private String[] parseCsvLine(String line) {
+        List<String> result = new ArrayList<>();
+        boolean inQuotes = false;
+        StringBuilder currentField = new StringBuilder();
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                result.add(currentField.toString());
+                currentField = new StringBuilder();
+            } else {
+                currentField.append(c);
+            }
+        }
+
+        // Add the last field
+        result.add(currentField.toString());
+
+        return result.toArray(new String[0]);
+    }
+}
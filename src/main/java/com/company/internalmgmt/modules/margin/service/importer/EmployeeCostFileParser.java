@@ -0,0 +1,93 @@
+package com.company.internalmgmt.modules.margin.service.importer;
+
+import com.company.internalmgmt.common.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser for employee cost import files (.xlsx, .xls, .csv).
+ * Rows are passed to the consumer in chunks while the file is still being read,
+ * so memory use does not grow with the file size.
+ */
+@Component
+@Slf4j
+public class EmployeeCostFileParser {
+
+    @Value("${app.margin.import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Parse the file and hand rows over in chunks
+     *
+     * @param file Uploaded Excel or CSV file
+     * @param chunkConsumer Receives each chunk of parsed rows, in file order
+     * @return Number of data rows read
+     */
+    public int parse(MultipartFile file, Consumer<List<EmployeeCostImportRow>> chunkConsumer) {
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename == null) {
+            throw new BadRequestException("Invalid file name");
+        }
+
+        String filename = originalFilename.toLowerCase();
+        try {
+            if (filename.endsWith(".xlsx")) {
+                EmployeeCostRowMapper mapper = new EmployeeCostRowMapper("Imported from Excel file", chunkSize, chunkConsumer);
+                parseXlsx(file, mapper);
+                return finish(mapper, originalFilename);
+            } else if (filename.endsWith(".xls")) {
+                EmployeeCostRowMapper mapper = new EmployeeCostRowMapper("Imported from Excel file", chunkSize, chunkConsumer);
+                try (InputStream inputStream = file.getInputStream()) {
+                    new XlsEmployeeCostReader().read(inputStream, mapper);
+                }
+                return finish(mapper, originalFilename);
+            } else if (filename.endsWith(".csv")) {
+                EmployeeCostRowMapper mapper = new EmployeeCostRowMapper("Imported from CSV file", chunkSize, chunkConsumer);
+                try (InputStream inputStream = file.getInputStream()) {
+                    new CsvEmployeeCostReader().read(inputStream, mapper);
+                }
+                return finish(mapper, originalFilename);
+            }
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            log.error("Error parsing employee costs file {}: {}", originalFilename, e.getMessage(), e);
+            throw new BadRequestException("Failed to parse file: " + e.getMessage());
+        }
+
+        throw new BadRequestException("Unsupported file format. Please upload Excel or CSV file");
+    }
+
+    private void parseXlsx(MultipartFile file, EmployeeCostRowMapper mapper)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        // The OOXML package is read from disk so that entries are not inflated into memory
+        File tempFile = Files.createTempFile("employee-cost-import-", ".xlsx").toFile();
+        try {
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            new XlsxEmployeeCostReader().read(tempFile, mapper);
+        } finally {
+            if (!tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    private int finish(EmployeeCostRowMapper mapper, String filename) {
+        mapper.flush();
+        log.info("Parsed {} employee cost rows from {}", mapper.getRowCount(), filename);
+        return mapper.getRowCount();
+    }
+}
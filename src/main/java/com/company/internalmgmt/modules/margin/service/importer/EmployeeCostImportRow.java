@@ -0,0 +1,65 @@
+package com.company.internalmgmt.modules.margin.service.importer;
+
+import com.company.internalmgmt.modules.margin.model.EmployeeCost;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One data row of an employee cost import file.
+ * Rows that could not be parsed carry an error message instead of values.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeCostImportRow {
+
+    /**
+     * Row number as shown in the file (header is row 1)
+     */
+    private int rowNumber;
+
+    private Long employeeId;
+    private BigDecimal basicSalary;
+    private BigDecimal allowance;
+    private BigDecimal overtime;
+    private BigDecimal otherCosts;
+    private String currency;
+    private String note;
+
+    private String error;
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    public BigDecimal getTotalCost() {
+        return basicSalary.add(allowance).add(overtime).add(otherCosts);
+    }
+
+    public EmployeeCost toEmployeeCost(int year, int month) {
+        return EmployeeCost.builder()
+                .employeeId(employeeId)
+                .year(year)
+                .month(month)
+                .basicSalary(basicSalary)
+                .allowance(allowance)
+                .overtime(overtime)
+                .otherCosts(otherCosts)
+                .costAmount(getTotalCost())
+                .currency(currency)
+                .note(note)
+                .build();
+    }
+
+    public static EmployeeCostImportRow invalid(int rowNumber, String error) {
+        return EmployeeCostImportRow.builder()
+                .rowNumber(rowNumber)
+                .error(error)
+                .build();
+    }
+}
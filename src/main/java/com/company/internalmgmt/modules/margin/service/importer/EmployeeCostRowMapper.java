@@ -0,0 +1,132 @@
+package com.company.internalmgmt.modules.margin.service.importer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Maps raw cell values to import rows and hands them downstream in fixed-size chunks.
+ * Expected columns: Employee ID, Basic Salary, Allowance, Overtime, Other Costs, Currency, Note
+ */
+@Slf4j
+class EmployeeCostRowMapper {
+
+    private static final int MIN_COLUMNS = 5;
+    private static final String DEFAULT_CURRENCY = "USD";
+
+    private final String defaultNote;
+    private final int chunkSize;
+    private final Consumer<List<EmployeeCostImportRow>> chunkConsumer;
+
+    private List<EmployeeCostImportRow> buffer;
+    private int rowCount;
+
+    EmployeeCostRowMapper(String defaultNote, int chunkSize, Consumer<List<EmployeeCostImportRow>> chunkConsumer) {
+        this.defaultNote = defaultNote;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkConsumer = chunkConsumer;
+        this.buffer = new ArrayList<>(this.chunkSize);
+    }
+
+    /**
+     * Add a data row; blank rows are ignored
+     *
+     * @param rowNumber Row number as shown in the file
+     * @param values Cell values, missing cells as null
+     */
+    void addRow(int rowNumber, String[] values) {
+        if (isBlank(values)) {
+            return;
+        }
+
+        buffer.add(toRow(rowNumber, values));
+        rowCount++;
+
+        if (buffer.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Hand over the remaining rows
+     */
+    void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<EmployeeCostImportRow> chunk = buffer;
+        buffer = new ArrayList<>(chunkSize);
+        chunkConsumer.accept(chunk);
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    private EmployeeCostImportRow toRow(int rowNumber, String[] values) {
+        if (values.length < MIN_COLUMNS) {
+            return EmployeeCostImportRow.invalid(rowNumber,
+                    "Insufficient columns (expected at least " + MIN_COLUMNS + ", got " + values.length + ")");
+        }
+
+        String employeeIdValue = clean(values[0]);
+        if (employeeIdValue == null) {
+            return EmployeeCostImportRow.invalid(rowNumber, "Employee ID is empty");
+        }
+
+        Long employeeId;
+        try {
+            employeeId = new BigDecimal(employeeIdValue).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return EmployeeCostImportRow.invalid(rowNumber, "Invalid Employee ID: " + employeeIdValue);
+        }
+
+        String currency = values.length > 5 ? clean(values[5]) : null;
+        String note = values.length > 6 ? clean(values[6]) : null;
+
+        return EmployeeCostImportRow.builder()
+                .rowNumber(rowNumber)
+                .employeeId(employeeId)
+                .basicSalary(parseAmount(values[1], rowNumber))
+                .allowance(parseAmount(values[2], rowNumber))
+                .overtime(parseAmount(values[3], rowNumber))
+                .otherCosts(parseAmount(values[4], rowNumber))
+                .currency(currency != null ? currency : DEFAULT_CURRENCY)
+                .note(note != null ? note : defaultNote)
+                .build();
+    }
+
+    private BigDecimal parseAmount(String value, int rowNumber) {
+        String cleanValue = clean(value);
+        if (cleanValue == null) {
+            return BigDecimal.ZERO;
+        }
+
+        try {
+            return new BigDecimal(cleanValue);
+        } catch (NumberFormatException e) {
+            log.warn("Row {}: error parsing amount '{}', using 0", rowNumber, value);
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.replace("\"", "").trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static boolean isBlank(String[] values) {
+        for (String value : values) {
+            if (clean(value) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.internalmgmt.modules.margin.service.importer;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+/**
+ * Reads legacy binary .xls files. The binary format has no streaming reader in the user model,
+ * so the workbook is loaded once, but rows are still handed over in chunks.
+ */
+class XlsEmployeeCostReader {
+
+    private static final int COLUMN_COUNT = 7;
+
+    void read(InputStream inputStream, EmployeeCostRowMapper mapper) throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(inputStream)) {
+            Sheet sheet = workbook.getSheetAt(0);
+
+            for (Row row : sheet) {
+                if (row.getRowNum() == 0) {
+                    // Skip header row
+                    continue;
+                }
+
+                String[] values = new String[COLUMN_COUNT];
+                for (int column = 0; column < COLUMN_COUNT; column++) {
+                    values[column] = getCellValue(row.getCell(column));
+                }
+                mapper.addRow(row.getRowNum() + 1, values);
+            }
+        }
+    }
+
+    private String getCellValue(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+        if (cell.getCellType() == CellType.NUMERIC) {
+            return BigDecimal.valueOf(cell.getNumericCellValue()).stripTrailingZeros().toPlainString();
+        }
+        if (cell.getCellType() == CellType.STRING) {
+            return cell.getStringCellValue();
+        }
+        return null;
+    }
+}
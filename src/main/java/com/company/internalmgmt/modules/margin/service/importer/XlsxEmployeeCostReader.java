@@ -0,0 +1,112 @@
+package com.company.internalmgmt.modules.margin.service.importer;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an .xlsx file with the XSSF event model (SAX),
+ * so rows are handed over as they are parsed instead of loading the whole workbook
+ */
+class XlsxEmployeeCostReader {
+
+    private static final int COLUMN_COUNT = 7;
+
+    void read(File file, EmployeeCostRowMapper mapper)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new RowHandler(mapper), new RawNumberFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    /**
+     * Collects the cells of each row and passes complete rows to the mapper
+     */
+    private static class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final EmployeeCostRowMapper mapper;
+        private final String[] values = new String[COLUMN_COUNT];
+        private int nextColumn;
+
+        RowHandler(EmployeeCostRowMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, null);
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum == 0) {
+                // Skip header row
+                return;
+            }
+            mapper.addRow(rowNum + 1, values.clone());
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            if (column < COLUMN_COUNT) {
+                values[column] = formattedValue;
+            }
+        }
+    }
+
+    /**
+     * Keeps numeric cells as plain numbers regardless of the display format (no grouping separators, no rounding)
+     */
+    private static class RawNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return toPlainString(value);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            return toPlainString(value);
+        }
+
+        private String toPlainString(double value) {
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+}
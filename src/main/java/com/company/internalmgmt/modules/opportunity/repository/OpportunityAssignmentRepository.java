@@ -5,8 +5,10 @@ import com.company.internalmgmt.modules.opportunity.model.Opportunity;
 import com.company.internalmgmt.modules.opportunity.model.OpportunityAssignment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,16 @@ public interface OpportunityAssignmentRepository extends JpaRepository<Opportuni
      */
     List<OpportunityAssignment> findByOpportunity(Opportunity opportunity);
     
+    /**
+     * Find the assignments of several opportunities with their employees, in one query.
+     * 
+     * @param opportunityIds the opportunity IDs
+     * @return list of assignments ordered by opportunity and assignment
+     */
+    @Query("SELECT a FROM OpportunityAssignment a JOIN FETCH a.employee " +
+           "WHERE a.opportunity.id IN :opportunityIds ORDER BY a.opportunity.id, a.id")
+    List<OpportunityAssignment> findWithEmployeeByOpportunityIds(@Param("opportunityIds") Collection<Long> opportunityIds);
+    
     /**
      * Find all assignments for a specific employee.
      * 
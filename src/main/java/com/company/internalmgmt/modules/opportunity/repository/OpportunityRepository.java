@@ -1,6 +1,10 @@
 package com.company.internalmgmt.modules.opportunity.repository;
 
 import com.company.internalmgmt.modules.opportunity.model.Opportunity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -15,6 +19,18 @@ import java.util.List;
 @Repository
 public interface OpportunityRepository extends JpaRepository<Opportunity, Long>, JpaSpecificationExecutor<Opportunity> {
     
+    /**
+     * Find a page of opportunities matching a specification, with the assigned and creating users
+     * joined in the same query instead of being loaded per opportunity.
+     *
+     * @param spec the specification
+     * @param pageable the page request
+     * @return page of opportunities
+     */
+    @Override
+    @EntityGraph(attributePaths = {"assignedTo", "createdBy"})
+    Page<Opportunity> findAll(Specification<Opportunity> spec, Pageable pageable);
+    
     /**
      * Find opportunities by client name.
      *
@@ -1,5 +1,7 @@
 package com.company.internalmgmt.modules.opportunity.service;
 
+import org.springframework.data.domain.Page;
+
 import com.company.internalmgmt.modules.opportunity.dto.OpportunityDTO;
 import com.company.internalmgmt.modules.opportunity.dto.request.AssignLeaderRequest;
 import com.company.internalmgmt.modules.opportunity.dto.request.ListOpportunitiesRequest;
@@ -23,6 +25,16 @@ public interface OpportunityService {
      */
     ListOpportunitiesResponse getOpportunities(ListOpportunitiesRequest request);
 
+    /**
+     * Get a page of opportunities with filtering and sorting, without the summary over every
+     * matching opportunity that {@link #getOpportunities} adds. Ties of the requested sort are
+     * broken by ID, so that consecutive pages neither skip nor repeat opportunities.
+     *
+     * @param request filter and pagination parameters
+     * @return the page of opportunities
+     */
+    Page<OpportunityDTO> getOpportunityPage(ListOpportunitiesRequest request);
+
     /**
      * Get an opportunity by ID.
      *
@@ -1,6 +1,7 @@
 package com.company.internalmgmt.modules.opportunity.service.impl;
 
 import com.company.internalmgmt.common.dto.PageableInfo;
+import com.company.internalmgmt.common.event.DomainDataChangedEvent;
 import com.company.internalmgmt.common.exception.ResourceNotFoundException;
 import com.company.internalmgmt.modules.admin.model.User;
 import com.company.internalmgmt.modules.hrm.model.Employee;
@@ -25,6 +26,7 @@ import com.company.internalmgmt.modules.opportunity.service.OpportunityService;
 import com.company.internalmgmt.security.AuthorizationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -38,6 +40,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -57,6 +60,7 @@ public class OpportunityServiceImpl implements OpportunityService {
     private final OpportunityActivityLogRepository opportunityActivityLogRepository;
     private final EmployeeService employeeService;
     private final AuthorizationService authorizationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * {@inheritDoc}
@@ -64,23 +68,10 @@ public class OpportunityServiceImpl implements OpportunityService {
     @Override
     @Transactional(readOnly = true)
     public ListOpportunitiesResponse getOpportunities(ListOpportunitiesRequest request) {
-        // Create pageable
-        Sort sort = Sort.by(Sort.Direction.fromString(request.getSortDir()), request.getSortBy());
-        Pageable pageable = PageRequest.of(request.getPage() - 1, request.getSize(), sort);
-        
-        // Build specifications
-        Specification<Opportunity> spec = buildFilterSpecification(request);
-        
-        // Get page of opportunities
-        Page<Opportunity> opportunityPage = opportunityRepository.findAll(spec, pageable);
-        
-        // Map to DTOs
-        List<OpportunityDTO> opportunityDTOs = opportunityPage.getContent().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        Page<OpportunityDTO> opportunityPage = getOpportunityPage(request);
         
         // Create summary statistics
-        OpportunitySummaryDTO summary = createSummary(opportunityRepository.findAll(spec));
+        OpportunitySummaryDTO summary = createSummary(opportunityRepository.findAll(buildFilterSpecification(request)));
         
         // Create pageable DTO
         PageableInfo pageableDTO = PageableInfo.builder()
@@ -94,11 +85,33 @@ public class OpportunityServiceImpl implements OpportunityService {
         // Build and return response
         return ListOpportunitiesResponse.builder()
                 .summary(summary)
-                .content(opportunityDTOs)
+                .content(opportunityPage.getContent())
                 .pageable(pageableDTO)
                 .build();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OpportunityDTO> getOpportunityPage(ListOpportunitiesRequest request) {
+        // Create pageable
+        Sort sort = Sort.by(Sort.Direction.fromString(request.getSortDir()), request.getSortBy());
+        if (!"id".equals(request.getSortBy())) {
+            sort = sort.and(Sort.by("id"));
+        }
+        Pageable pageable = PageRequest.of(request.getPage() - 1, request.getSize(), sort);
+        
+        // Get page of opportunities
+        Page<Opportunity> opportunityPage = opportunityRepository.findAll(buildFilterSpecification(request), pageable);
+        
+        // Map to DTOs, with the assignments of the whole page loaded in one query
+        Map<Long, List<OpportunityAssignment>> assignmentsByOpportunity = findAssignmentsWithEmployees(opportunityPage.getContent());
+        return opportunityPage.map(opportunity -> mapToDTO(opportunity,
+                assignmentsByOpportunity.getOrDefault(opportunity.getId(), Collections.emptyList())));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -143,6 +156,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         // Log activity about priority change
         logPriorityChange(updated, oldPriority, priority, note);
         
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
         return mapToDTO(updated);
     }
     
@@ -202,6 +216,7 @@ public class OpportunityServiceImpl implements OpportunityService {
             .build();
         
         opportunityAssignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
         
         // Handle notifications
         boolean leaderNotified = false;
@@ -544,9 +559,22 @@ public class OpportunityServiceImpl implements OpportunityService {
      * @return the opportunity DTO
      */
     private OpportunityDTO mapToDTO(Opportunity opportunity) {
-        if (opportunity == null) {
-            return null;
+        return opportunity != null ? mapToDTO(opportunity, opportunity.getAssignments()) : null;
+    }
+    
+    /**
+     * Assignments of several opportunities with their employees, grouped by opportunity ID
+     */
+    private Map<Long, List<OpportunityAssignment>> findAssignmentsWithEmployees(List<Opportunity> opportunities) {
+        if (opportunities.isEmpty()) {
+            return Collections.emptyMap();
         }
+        List<Long> opportunityIds = opportunities.stream().map(Opportunity::getId).collect(Collectors.toList());
+        return opportunityAssignmentRepository.findWithEmployeeByOpportunityIds(opportunityIds).stream()
+                .collect(Collectors.groupingBy(assignment -> assignment.getOpportunity().getId()));
+    }
+    
+    private OpportunityDTO mapToDTO(Opportunity opportunity, List<OpportunityAssignment> assignments) {
         
         OpportunityDTO.UserSummaryDTO assignedToDTO = null;
         if (opportunity.getAssignedTo() != null) {
@@ -565,7 +593,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         }
         
         // Map employee assignments
-        List<OpportunityDTO.EmployeeAssignmentDTO> employeeAssignments = opportunity.getAssignments().stream()
+        List<OpportunityDTO.EmployeeAssignmentDTO> employeeAssignments = assignments.stream()
             .map(assignment -> {
                 Employee employee = assignment.getEmployee();
                 return OpportunityDTO.EmployeeAssignmentDTO.builder()
@@ -672,6 +700,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         // Lưu opportunity
         Opportunity savedOpportunity = opportunityRepository.save(opportunity);
         log.info("Created opportunity with ID: {}", savedOpportunity.getId());
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
         
         return mapToDTO(savedOpportunity);
     }
@@ -704,6 +733,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         // Lưu opportunity
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
         log.info("Updated opportunity with ID: {}", updatedOpportunity.getId());
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
         
         return mapToDTO(updatedOpportunity);
     }
@@ -721,6 +751,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         opportunityRepository.save(opportunity);
         
         log.info("Soft-deleted opportunity with ID: {}", id);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
     }
 
     @Override
@@ -744,6 +775,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         logStatusChange(updatedOpportunity, oldStatus, status, note);
         
         log.info("Updated status for opportunity with ID: {}", id);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
         
         return mapToDTO(updatedOpportunity);
     }
@@ -769,6 +801,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
         
         log.info("Updated closing info for opportunity with ID: {}", id);
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
         
         return mapToDTO(updatedOpportunity);
     }
@@ -852,6 +885,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         // Log activity about interaction date change
         logInteractionDateChange(updated, oldInteractionDate, newInteractionDate, note);
         
+        eventPublisher.publishEvent(new DomainDataChangedEvent(this, DomainDataChangedEvent.Domain.OPPORTUNITY));
         return mapToDTO(updated);
     }
     
@@ -0,0 +1,22 @@
+-- Materialized employee margin per month
+-- Maintained by the application from employee_costs and employee_revenues
+
+CREATE TABLE IF NOT EXISTS employee_margin_monthly (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    employee_id BIGINT NOT NULL,
+    team_id BIGINT NULL,
+    year INT NOT NULL,
+    month INT NOT NULL,
+    period_key INT NOT NULL,
+    cost_amount DECIMAL(15, 2) NOT NULL,
+    revenue_amount DECIMAL(15, 2) NOT NULL,
+    margin DECIMAL(15, 2) NOT NULL,
+    margin_status VARCHAR(10) NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uq_employee_margin_period UNIQUE (employee_id, year, month)
+);
+
+CREATE INDEX idx_employee_margin_period_status ON employee_margin_monthly (period_key, margin_status);
+CREATE INDEX idx_employee_margin_team_period ON employee_margin_monthly (team_id, period_key);
+CREATE INDEX idx_employee_margin_employee_period ON employee_margin_monthly (employee_id, period_key);
@@ -0,0 +1,21 @@
+-- Monthly head count per team reconstructed from employee_status_logs
+-- Maintained by the application; read by the utilization dashboard widget
+
+CREATE TABLE IF NOT EXISTS utilization_snapshot (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    team_id BIGINT NULL,
+    year INT NOT NULL,
+    month INT NOT NULL,
+    period_key INT NOT NULL,
+    active_count INT NOT NULL,
+    allocated_count INT NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_utilization_snapshot_period_team ON utilization_snapshot (period_key, team_id);
+
+-- Replaying the status log reads each employee's changes in time order
+CREATE INDEX idx_employee_status_logs_employee_time ON employee_status_logs (employee_id, log_timestamp);
+-- Per-employee status history in the order it was recorded
+CREATE INDEX idx_employee_status_logs_employee_created ON employee_status_logs (employee_id, created_at);
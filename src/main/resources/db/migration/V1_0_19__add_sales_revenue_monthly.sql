@@ -0,0 +1,17 @@
+-- Revenue collected per sales user and month: paid amounts of payment terms of signed contracts
+-- Maintained by the application; read with sales_kpis targets by the KPI progress report
+
+CREATE TABLE IF NOT EXISTS sales_revenue_monthly (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sales_user_id BIGINT NOT NULL,
+    year INT NOT NULL,
+    quarter INT NOT NULL,
+    month INT NOT NULL,
+    period_key INT NOT NULL,
+    revenue_amount DECIMAL(18, 2) NOT NULL,
+    paid_term_count INT NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_sales_revenue_period_user ON sales_revenue_monthly (period_key, sales_user_id);
@@ -0,0 +1,160 @@
+package com.company.internalmgmt.modules.contract.service.impl;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.company.internalmgmt.common.service.impl.SystemConfigServiceImpl;
+import com.company.internalmgmt.modules.contract.service.SalesRevenueFactService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test for the incremental refresh of the SalesRevenueFactServiceImpl class
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({SalesRevenueFactServiceImpl.class, SystemConfigServiceImpl.class})
+// The refresh runs in its own transaction and reads only committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SalesRevenueFactServiceImplTest {
+
+    private static final long SALES = 1L;
+    private static final long OTHER_SALES = 2L;
+
+    private static final YearMonth JAN = YearMonth.of(2026, 1);
+    private static final YearMonth FEB = YearMonth.of(2026, 2);
+    private static final YearMonth MAY = YearMonth.of(2026, 5);
+
+    @Autowired
+    private SalesRevenueFactService salesRevenueFactService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        insertUser(SALES);
+        insertUser(OTHER_SALES);
+        insertContract(10, SALES);
+        insertContract(20, OTHER_SALES);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM sales_revenue_monthly");
+        jdbcTemplate.update("DELETE FROM contract_payment_terms");
+        jdbcTemplate.update("DELETE FROM contracts");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM system_configs");
+    }
+
+    @Test
+    public void movedPaymentIsRebuiltInItsOldAndNewMonthsOnly() {
+        insertTerm(100, 10, "100.00", JAN.atDay(15), stale());
+        insertTerm(101, 10, "50.00", MAY.atDay(3), stale());
+        insertTerm(200, 20, "70.00", JAN.atDay(20), stale());
+        salesRevenueFactService.rebuildAll();
+        // Marks the May row: a rebuild of May would restore the amount
+        jdbcTemplate.update("UPDATE sales_revenue_monthly SET revenue_amount = 999 WHERE period_key = ?",
+                key(MAY));
+
+        jdbcTemplate.update("UPDATE contract_payment_terms SET actual_payment_date = ?, updated_at = ? WHERE id = 100",
+                Date.valueOf(FEB.atDay(2)), Timestamp.valueOf(LocalDateTime.now()));
+        salesRevenueFactService.refreshChangedMonths(Collections.singleton(JAN));
+
+        Map<String, BigDecimal> revenue = revenue();
+        assertNull(revenue.get(row(SALES, JAN)));
+        assertEquals(new BigDecimal("100.00"), revenue.get(row(SALES, FEB)));
+        assertEquals(new BigDecimal("70.00"), revenue.get(row(OTHER_SALES, JAN)));
+        assertEquals(new BigDecimal("999.00"), revenue.get(row(SALES, MAY)), "May should not be rebuilt");
+    }
+
+    @Test
+    public void writeCommittedAfterARefreshStartedIsReadByTheNextRefresh() {
+        insertTerm(100, 10, "100.00", JAN.atDay(15), stale());
+        salesRevenueFactService.rebuildAll();
+
+        // Stamped before the refresh above started, but committed only after it read the terms
+        insertTerm(101, 10, "40.00", FEB.atDay(10), LocalDateTime.now().minusMinutes(2));
+        salesRevenueFactService.refreshChangedMonths(Collections.emptySet());
+
+        assertEquals(new BigDecimal("40.00"), revenue().get(row(SALES, FEB)));
+    }
+
+    @Test
+    public void unchangedTermsRebuildNothing() {
+        insertTerm(100, 10, "100.00", JAN.atDay(15), stale());
+        salesRevenueFactService.rebuildAll();
+
+        assertEquals(0, salesRevenueFactService.refreshChangedMonths(Collections.emptySet()));
+    }
+
+    /**
+     * Revenue keyed by sales user and month
+     */
+    private Map<String, BigDecimal> revenue() {
+        Map<String, BigDecimal> revenue = new HashMap<>();
+        jdbcTemplate.query("SELECT sales_user_id, year, month, revenue_amount FROM sales_revenue_monthly",
+                rs -> {
+                    revenue.put(row(rs.getLong(1), YearMonth.of(rs.getInt(2), rs.getInt(3))), rs.getBigDecimal(4));
+                });
+        return revenue;
+    }
+
+    private static String row(long salesUserId, YearMonth month) {
+        return salesUserId + "@" + month;
+    }
+
+    private static int key(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    // Older than any refresh of a test
+    private static LocalDateTime stale() {
+        return LocalDateTime.now().minusDays(1);
+    }
+
+    private void insertUser(long id) {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, full_name, enabled, account_non_expired, "
+                        + "account_non_locked, credentials_non_expired, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, 'x', 'Sales', TRUE, TRUE, TRUE, TRUE, NOW(), NOW())",
+                id, "sales" + id, "sales" + id + "@example.com");
+    }
+
+    private void insertContract(long id, long salesUserId) {
+        jdbcTemplate.update("INSERT INTO contracts (id, contract_code, name, client_name, sign_date, assigned_sales_id, "
+                        + "created_at, updated_at) VALUES (?, ?, 'Contract', 'Client', ?, ?, ?, ?)",
+                id, "C" + id, Date.valueOf(LocalDate.of(2025, 12, 1)), salesUserId,
+                Timestamp.valueOf(stale()), Timestamp.valueOf(stale()));
+    }
+
+    private void insertTerm(long id, long contractId, String amount, LocalDate paidOn, LocalDateTime updatedAt) {
+        jdbcTemplate.update("INSERT INTO contract_payment_terms (id, term_number, contract_id, description, "
+                        + "expected_payment_date, expected_amount, currency, payment_status, actual_payment_date, "
+                        + "actual_amount_paid, created_at, updated_at) "
+                        + "VALUES (?, 1, ?, 'Term', ?, ?, 'VND', 'paid', ?, ?, ?, ?)",
+                id, contractId, Date.valueOf(paidOn), new BigDecimal(amount), Date.valueOf(paidOn),
+                new BigDecimal(amount), Timestamp.valueOf(updatedAt), Timestamp.valueOf(updatedAt));
+    }
+}
@@ -0,0 +1,109 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test for the BoundedTtlCache class
+ */
+public class BoundedTtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    public void entriesExpireAfterTheTtl() {
+        BoundedTtlCache<String> cache = new BoundedTtlCache<>(100, 10, now::get);
+        cache.put("widget", "k", "v");
+
+        now.addAndGet(100);
+        assertEquals("v", cache.get("k"), "entry should live for the whole TTL");
+
+        now.addAndGet(1);
+        assertNull(cache.get("k"), "entry should expire after the TTL");
+        assertEquals(0, cache.size(), "expired entry should be removed on access");
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedBeyondMaxEntries() {
+        BoundedTtlCache<String> cache = new BoundedTtlCache<>(1_000, 2, now::get);
+        cache.put("widget", "a", "1");
+        cache.put("widget", "b", "2");
+        cache.get("a");
+
+        cache.put("widget", "c", "3");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"), "least recently used entry should be evicted");
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    public void computeIfAbsentLoadsOnceUntilExpiry() {
+        BoundedTtlCache<String> cache = new BoundedTtlCache<>(100, 10, now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.computeIfAbsent("widget", "k", () -> "v" + loads.incrementAndGet());
+        cache.computeIfAbsent("widget", "k", () -> "v" + loads.incrementAndGet());
+        assertEquals(1, loads.get());
+
+        now.addAndGet(101);
+        assertEquals("v2", cache.computeIfAbsent("widget", "k", () -> "v" + loads.incrementAndGet()));
+    }
+
+    @Test
+    public void invalidateDropsOnlyTheGivenGroups() {
+        BoundedTtlCache<String> cache = new BoundedTtlCache<>(1_000, 10, now::get);
+        cache.put("margin", "m1", "1");
+        cache.put("margin", "m2", "2");
+        cache.put("contract", "c1", "3");
+        cache.put("payment", "p1", "4");
+
+        assertEquals(3, cache.invalidate(Arrays.asList("margin", "payment")));
+
+        assertEquals(1, cache.size());
+        assertEquals("3", cache.get("c1"));
+    }
+
+    @Test
+    public void removeKeepsANewerValue() {
+        BoundedTtlCache<String> cache = new BoundedTtlCache<>(1_000, 10, now::get);
+        String failed = new String("v");
+        String newer = new String("v");
+        cache.put("widget", "k", newer);
+
+        cache.remove("k", failed);
+        assertEquals(1, cache.size(), "a different value under the key should be kept");
+
+        cache.remove("k", newer);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void metricsCountRequestsEvictionsAndInvalidations() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedTtlCache<String> cache = new BoundedTtlCache<>(1_000, 1, now::get);
+        cache.registerMetrics(registry, "test.cache", "Test");
+
+        cache.put("widget", "a", "1");
+        cache.get("a");
+        cache.get("missing");
+        cache.put("widget", "b", "2");
+        cache.invalidate(Collections.singletonList("widget"));
+
+        assertEquals(1.0, registry.get("test.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("test.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("test.cache.evictions").functionCounter().count());
+        assertEquals(1.0, registry.get("test.cache.invalidations").functionCounter().count());
+        assertEquals(0.0, registry.get("test.cache.size").gauge().value());
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.company.internalmgmt.common.exception.AccessDeniedException;
+import com.company.internalmgmt.modules.dashboard.dto.employee.EmployeeReportDTO;
+import com.company.internalmgmt.modules.hrm.service.impl.TeamHierarchyServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test for the employee read scoping of the EmployeeReportRows class
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({EmployeeReportRows.class, TeamHierarchyServiceImpl.class})
+public class EmployeeReportRowsTest {
+
+    private static final long PARENT_TEAM = 10L;
+    private static final long CHILD_TEAM = 11L;
+    private static final long OTHER_TEAM = 20L;
+
+    private static final long LEADER_USER = 100L;
+    private static final long UNASSIGNED_USER = 200L;
+
+    @Autowired
+    private EmployeeReportRows employeeReportRows;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        insertTeam(PARENT_TEAM, null);
+        insertTeam(CHILD_TEAM, PARENT_TEAM);
+        insertTeam(OTHER_TEAM, null);
+        insertEmployee(1, PARENT_TEAM, LEADER_USER);
+        insertEmployee(2, CHILD_TEAM, null);
+        insertEmployee(3, OTHER_TEAM, null);
+        insertEmployee(4, null, UNASSIGNED_USER);
+    }
+
+    @Test
+    public void readAllSeesEveryEmployee() {
+        List<Long> teams = employeeReportRows.visibleTeamIds(LEADER_USER, caller("employee:read:all"));
+
+        assertNull(teams);
+        assertEquals(List.of(1, 2, 3, 4), listIds(teams, null));
+        assertEquals(List.of(1, 2, 3, 4), streamIds(teams));
+    }
+
+    @Test
+    public void readTeamSeesTheTeamAndItsDescendants() {
+        List<Long> teams = employeeReportRows.visibleTeamIds(LEADER_USER, caller("employee:read:team"));
+
+        assertEquals(List.of(1, 2), listIds(teams, null));
+        assertEquals(List.of(1, 2), streamIds(teams));
+    }
+
+    @Test
+    public void teamFilterOutsideTheScopeFindsNothing() {
+        List<Long> teams = employeeReportRows.visibleTeamIds(LEADER_USER, caller("employee:read:team"));
+
+        assertEquals(List.of(2), listIds(teams, (int) CHILD_TEAM));
+        assertEquals(Collections.emptyList(), listIds(teams, (int) OTHER_TEAM));
+    }
+
+    @Test
+    public void readTeamWithoutATeamSeesNoEmployee() {
+        List<Long> teams = employeeReportRows.visibleTeamIds(UNASSIGNED_USER, caller("employee:read:team"));
+
+        assertEquals(Collections.emptyList(), listIds(teams, null));
+        assertEquals(Collections.emptyList(), streamIds(teams));
+    }
+
+    @Test
+    public void callerWithoutEmployeeReadIsDenied() {
+        assertThrows(AccessDeniedException.class,
+                () -> employeeReportRows.visibleTeamIds(LEADER_USER, caller("employee:read:own")));
+        assertThrows(AccessDeniedException.class, () -> employeeReportRows.visibleTeamIds(LEADER_USER, null));
+    }
+
+    private List<Integer> listIds(List<Long> visibleTeamIds, Integer teamId) {
+        return employeeReportRows.list(visibleTeamIds, teamId, null, null, null, false, false).stream()
+                .map(EmployeeReportDTO.EmployeeDetailDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Integer> streamIds(List<Long> visibleTeamIds) {
+        // A chunk smaller than the result to cover the keyset paging
+        return employeeReportRows.stream(visibleTeamIds, null, null, null, null, false, false, 1)
+                .map(EmployeeReportDTO.EmployeeDetailDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static Authentication caller(String... authorities) {
+        return new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList(authorities));
+    }
+
+    private void insertTeam(long id, Long parentTeamId) {
+        jdbcTemplate.update("INSERT INTO teams (id, name, parent_team_id, created_at, updated_at) "
+                + "VALUES (?, ?, ?, NOW(), NOW())", id, "Team " + id, parentTeamId);
+    }
+
+    private void insertEmployee(long id, Long teamId, Long userId) {
+        jdbcTemplate.update("INSERT INTO employees (id, user_id, employee_code, first_name, last_name, company_email, "
+                        + "current_status, team_id, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, 'First', 'Last', ?, 'Available', ?, NOW(), NOW())",
+                id, userId, "EMP" + id, "emp" + id + "@example.com", teamId);
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for the ReportPages class
+ */
+public class ReportPagesTest {
+
+    private static final Sort SORT = Sort.by("id");
+
+    private final List<Pageable> requested = new ArrayList<>();
+
+    @Test
+    public void everyRowIsReadInOrderOnePageAtATime() {
+        List<Integer> rows = ReportPages.stream(3, SORT, page(rows(8))).collect(Collectors.toList());
+
+        assertEquals(rows(8), rows);
+        assertEquals(3, requested.size(), "a short page should be the last one read");
+        for (int i = 0; i < requested.size(); i++) {
+            assertEquals(i, requested.get(i).getPageNumber());
+            assertEquals(3, requested.get(i).getPageSize());
+            assertEquals(SORT, requested.get(i).getSort());
+        }
+    }
+
+    @Test
+    public void fullLastPageEndsOnTheNextEmptyPage() {
+        List<Integer> rows = ReportPages.stream(4, SORT, page(rows(8))).collect(Collectors.toList());
+
+        assertEquals(rows(8), rows);
+        assertEquals(3, requested.size());
+    }
+
+    @Test
+    public void noRowsReadsOnePage() {
+        assertEquals(0, ReportPages.stream(4, SORT, page(Collections.emptyList())).count());
+        assertEquals(1, requested.size());
+    }
+
+    @Test
+    public void pagesAreReadOnlyAsTheStreamReachesThem() {
+        List<Integer> rows = ReportPages.stream(3, SORT, page(rows(8))).limit(2).collect(Collectors.toList());
+
+        assertEquals(rows(2), rows);
+        assertEquals(1, requested.size());
+    }
+
+    private Function<Pageable, List<Integer>> page(List<Integer> all) {
+        return pageable -> {
+            requested.add(pageable);
+            int from = (int) Math.min(pageable.getOffset(), all.size());
+            return all.subList(from, Math.min(from + pageable.getPageSize(), all.size()));
+        };
+    }
+
+    private static List<Integer> rows(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+}
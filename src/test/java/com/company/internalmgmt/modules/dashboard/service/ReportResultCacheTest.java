@@ -0,0 +1,76 @@
+package com.company.internalmgmt.modules.dashboard.service;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for the ReportResultCache class
+ */
+public class ReportResultCacheTest {
+
+    private static final String REPORT = ReportService.CONTRACT_LIST;
+
+    private final ReportResultCache cache = new ReportResultCache(true, 500, new BoundedTtlCache<>(60_000, 10));
+
+    @Test
+    public void storedReportIsServedOnTheNextLookup() {
+        ReportResultCache.Lookup<String> miss = cache.lookup(REPORT, "k", 20);
+        assertFalse(miss.isHit());
+        assertEquals("report", miss.store("report"));
+
+        ReportResultCache.Lookup<String> hit = cache.lookup(REPORT, "k", 20);
+        assertTrue(hit.isHit());
+        assertEquals("report", hit.get());
+    }
+
+    @Test
+    public void reportBuiltAcrossAnInvalidationIsNotStored() {
+        ReportResultCache.Lookup<String> lookup = cache.lookup(REPORT, "k", 20);
+
+        // A write commits while the report is being built from the data it changed
+        cache.invalidate(Collections.singletonList(REPORT));
+        lookup.store("stale");
+
+        assertFalse(cache.lookup(REPORT, "k", 20).isHit());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void invalidationOfAnotherReportDoesNotBlockStoring() {
+        ReportResultCache.Lookup<String> lookup = cache.lookup(REPORT, "k", 20);
+
+        cache.invalidate(Collections.singletonList(ReportService.MARGIN_DETAIL));
+        lookup.store("report");
+
+        assertTrue(cache.lookup(REPORT, "k", 20).isHit());
+    }
+
+    @Test
+    public void pagesLargerThanTheLimitBypassTheCache() {
+        cache.lookup(REPORT, "k", 500).store("page");
+        assertTrue(cache.lookup(REPORT, "k", 500).isHit(), "a page at the limit should be cached");
+
+        ReportResultCache.Lookup<String> large = cache.lookup(REPORT, "k", 501);
+        assertFalse(large.isHit(), "a larger page should not be served from the cache");
+        large.store("large");
+        assertEquals("page", cache.lookup(REPORT, "k", 500).get(), "a larger page should not be stored");
+
+        cache.lookup(REPORT, "export", Integer.MAX_VALUE).store("all");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void disabledCacheStoresNothing() {
+        ReportResultCache disabled = new ReportResultCache(false, 500, new BoundedTtlCache<>(60_000, 10));
+
+        disabled.lookup(REPORT, "k", 20).store("report");
+
+        assertFalse(disabled.lookup(REPORT, "k", 20).isHit());
+        assertEquals(0, disabled.size());
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.internalmgmt.modules.dashboard.service.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for the CsvReportWriter class
+ */
+public class CsvReportWriterTest {
+
+    private enum Status { ACTIVE }
+
+    @Test
+    public void headerStartsWithByteOrderMark() throws IOException {
+        byte[] bytes = write(new Object[0][]);
+
+        assertEquals((byte) 0xEF, bytes[0]);
+        assertEquals((byte) 0xBB, bytes[1]);
+        assertEquals((byte) 0xBF, bytes[2]);
+        assertEquals("\uFEFFName,Note\r\n", new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void plainValuesAreWrittenUnquoted() throws IOException {
+        String csv = csvBody(new Object[][] {{"Alice", new BigDecimal("12.50")}});
+
+        assertEquals("Alice,12.50\r\n", csv);
+    }
+
+    @Test
+    public void nullsAreEmptyFieldsAndEnumsUseTheirName() throws IOException {
+        String csv = csvBody(new Object[][] {{null, Status.ACTIVE}});
+
+        assertEquals(",ACTIVE\r\n", csv);
+    }
+
+    @Test
+    public void commasAreQuoted() throws IOException {
+        String csv = csvBody(new Object[][] {{"Doe, John", "a,b,c"}});
+
+        assertEquals("\"Doe, John\",\"a,b,c\"\r\n", csv);
+    }
+
+    @Test
+    public void quotesAreDoubledAndQuoted() throws IOException {
+        String csv = csvBody(new Object[][] {{"say \"hi\"", "\""}});
+
+        assertEquals("\"say \"\"hi\"\"\",\"\"\"\"\r\n", csv);
+    }
+
+    @Test
+    public void lineBreaksAreQuoted() throws IOException {
+        String csv = csvBody(new Object[][] {{"line1\nline2", "line1\r\nline2"}});
+
+        assertEquals("\"line1\nline2\",\"line1\r\nline2\"\r\n", csv);
+    }
+
+    @Test
+    public void rowsAreFlushedWhileWriting() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvReportWriter writer = new CsvReportWriter(out, 2);
+        writer.writeHeader(Arrays.asList("Name", "Note"));
+        int afterHeader = out.size();
+
+        writer.writeRow(new Object[] {"a", "b"});
+        assertEquals(afterHeader, out.size(), "first row should still be buffered");
+        writer.writeRow(new Object[] {"c", "d"});
+        assertTrue(out.size() > afterHeader, "second row should flush the buffer");
+    }
+
+    private String csvBody(Object[][] rows) throws IOException {
+        String csv = new String(write(rows), StandardCharsets.UTF_8);
+        return csv.substring(csv.indexOf("\r\n") + 2);
+    }
+
+    private byte[] write(Object[][] rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvReportWriter writer = new CsvReportWriter(out, 100);
+        writer.writeHeader(Arrays.asList("Name", "Note"));
+        for (Object[] row : rows) {
+            writer.writeRow(row);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+}
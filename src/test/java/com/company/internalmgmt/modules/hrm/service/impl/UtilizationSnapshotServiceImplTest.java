@@ -0,0 +1,214 @@
+package com.company.internalmgmt.modules.hrm.service.impl;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.company.internalmgmt.modules.hrm.model.UtilizationSnapshot;
+import com.company.internalmgmt.modules.hrm.service.UtilizationSnapshotService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for the status log replay of the UtilizationSnapshotServiceImpl class
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(UtilizationSnapshotServiceImpl.class)
+public class UtilizationSnapshotServiceImplTest {
+
+    private static final long TEAM_A = 10L;
+    private static final long TEAM_B = 20L;
+
+    private static final YearMonth FEB = YearMonth.of(2026, 2);
+    private static final YearMonth MAR = YearMonth.of(2026, 3);
+    private static final YearMonth APR = YearMonth.of(2026, 4);
+
+    @Autowired
+    private UtilizationSnapshotService utilizationSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        insertTeam(TEAM_A);
+        insertTeam(TEAM_B);
+    }
+
+    @Test
+    public void changeBeforeTheRangeHoldsForTheWholeRange() {
+        insertEmployee(1, TEAM_A, "Available", null);
+        insertLog(1, "Allocated", at(2025, 12, 10));
+
+        Map<String, String> counts = snapshots(FEB, APR);
+
+        assertEquals("1/1", counts.get(key(TEAM_A, FEB)));
+        assertEquals("1/1", counts.get(key(TEAM_A, MAR)));
+        assertEquals("1/1", counts.get(key(TEAM_A, APR)));
+    }
+
+    @Test
+    public void onlyTheLatestChangeBeforeTheRangeCounts() {
+        insertEmployee(1, TEAM_A, "Resigned", null);
+        insertLog(1, "Allocated", at(2025, 6, 1));
+        insertLog(1, "Resigned", at(2025, 11, 30));
+
+        assertEquals(0, snapshots(FEB, APR).size());
+    }
+
+    @Test
+    public void changeInsideTheRangeAppliesFromItsMonth() {
+        insertEmployee(1, TEAM_A, "Resigned", null);
+        insertLog(1, "Available", at(2025, 11, 1));
+        insertLog(1, "Resigned", at(2026, 3, 15));
+
+        Map<String, String> counts = snapshots(FEB, APR);
+
+        assertEquals("1/0", counts.get(key(TEAM_A, FEB)));
+        assertEquals(null, counts.get(key(TEAM_A, MAR)));
+        assertEquals(null, counts.get(key(TEAM_A, APR)));
+    }
+
+    @Test
+    public void lastOfSeveralChangesInAMonthCounts() {
+        insertEmployee(1, TEAM_A, "Available", null);
+        insertLog(1, "Allocated", at(2026, 2, 3));
+        insertLog(1, "Available", at(2026, 2, 10));
+        insertLog(1, "Allocated", at(2026, 2, 20));
+        insertLog(1, "Available", at(2026, 4, 5));
+        insertLog(1, "Resigned", at(2026, 4, 6));
+        insertLog(1, "Available", at(2026, 4, 7));
+
+        Map<String, String> counts = snapshots(FEB, APR);
+
+        assertEquals("1/1", counts.get(key(TEAM_A, FEB)));
+        assertEquals("1/1", counts.get(key(TEAM_A, MAR)));
+        assertEquals("1/0", counts.get(key(TEAM_A, APR)));
+    }
+
+    @Test
+    public void changeOnTheFirstOfTheNextMonthDoesNotCount() {
+        insertEmployee(1, TEAM_A, "Allocated", null);
+        insertLog(1, "Available", at(2025, 12, 1));
+        insertLog(1, "Allocated", MAR.atDay(1).atStartOfDay());
+
+        Map<String, String> counts = snapshots(FEB, MAR);
+
+        assertEquals("1/0", counts.get(key(TEAM_A, FEB)));
+        assertEquals("1/1", counts.get(key(TEAM_A, MAR)));
+    }
+
+    @Test
+    public void employeeWithoutLogsKeepsTheCurrentStatus() {
+        insertEmployee(1, null, "Allocated", null);
+        insertEmployee(2, TEAM_B, "Resigned", null);
+
+        Map<String, String> counts = snapshots(FEB, APR);
+
+        assertEquals("1/1", counts.get(key(null, FEB)));
+        assertEquals("1/1", counts.get(key(null, APR)));
+        assertEquals(null, counts.get(key(TEAM_B, FEB)));
+    }
+
+    @Test
+    public void employeeIsCountedFromTheHireMonth() {
+        insertEmployee(1, TEAM_B, "Allocated", LocalDate.of(2026, 3, 10));
+        insertLog(1, "Allocated", at(2026, 3, 10));
+
+        Map<String, String> counts = snapshots(FEB, APR);
+
+        assertEquals(null, counts.get(key(TEAM_B, FEB)));
+        assertEquals("1/1", counts.get(key(TEAM_B, MAR)));
+        assertEquals("1/1", counts.get(key(TEAM_B, APR)));
+    }
+
+    @Test
+    public void logWithoutTimestampCountsAsTheOldest() {
+        insertEmployee(1, TEAM_B, "Available", null);
+        insertLog(1, "Allocated", null);
+        insertLog(1, "Available", at(2026, 3, 1));
+
+        Map<String, String> counts = snapshots(FEB, MAR);
+
+        assertEquals("1/1", counts.get(key(TEAM_B, FEB)));
+        assertEquals("1/0", counts.get(key(TEAM_B, MAR)));
+    }
+
+    @Test
+    public void narrowRangeMatchesTheSameMonthsOfAWideRange() {
+        insertEmployee(1, TEAM_A, "Available", null);
+        insertLog(1, "Allocated", at(2025, 9, 1));
+        insertLog(1, "Available", at(2026, 1, 20));
+        insertLog(1, "Allocated", at(2026, 3, 2));
+        insertEmployee(2, TEAM_A, "Resigned", null);
+        insertLog(2, "Allocated", at(2025, 10, 5));
+        insertLog(2, "Resigned", at(2026, 2, 28));
+        insertEmployee(3, TEAM_B, "Allocated", null);
+        insertEmployee(4, TEAM_B, "Available", LocalDate.of(2026, 1, 15));
+        insertLog(4, "Available", at(2026, 1, 15));
+
+        Map<String, String> wide = snapshots(YearMonth.of(2025, 8), APR);
+        Map<String, String> narrow = snapshots(MAR, APR);
+
+        for (Long team : new Long[] {TEAM_A, TEAM_B}) {
+            assertEquals(wide.get(key(team, MAR)), narrow.get(key(team, MAR)));
+            assertEquals(wide.get(key(team, APR)), narrow.get(key(team, APR)));
+        }
+        assertEquals("1/1", narrow.get(key(TEAM_A, MAR)));
+        assertEquals("2/1", narrow.get(key(TEAM_B, MAR)));
+    }
+
+    /**
+     * Snapshots of a range as "active/allocated" counts keyed by team and month
+     */
+    private Map<String, String> snapshots(YearMonth from, YearMonth to) {
+        List<UtilizationSnapshot> snapshots = utilizationSnapshotService.getSnapshots(from, to);
+        Map<String, String> counts = new HashMap<>();
+        for (UtilizationSnapshot snapshot : snapshots) {
+            counts.put(key(snapshot.getTeamId(), YearMonth.of(snapshot.getYear(), snapshot.getMonth())),
+                    snapshot.getActiveCount() + "/" + snapshot.getAllocatedCount());
+        }
+        return counts;
+    }
+
+    private static String key(Long teamId, YearMonth month) {
+        return teamId + "@" + month;
+    }
+
+    private static LocalDateTime at(int year, int month, int day) {
+        return LocalDateTime.of(year, month, day, 9, 0);
+    }
+
+    private void insertTeam(long id) {
+        jdbcTemplate.update("INSERT INTO teams (id, name, created_at, updated_at) VALUES (?, ?, NOW(), NOW())",
+                id, "Team " + id);
+    }
+
+    private void insertEmployee(long id, Long teamId, String currentStatus, LocalDate hireDate) {
+        jdbcTemplate.update("INSERT INTO employees (id, employee_code, first_name, last_name, company_email, "
+                        + "current_status, team_id, hire_date, created_at, updated_at) "
+                        + "VALUES (?, ?, 'First', 'Last', ?, ?, ?, ?, NOW(), NOW())",
+                id, "EMP" + id, "emp" + id + "@example.com", currentStatus, teamId, hireDate);
+    }
+
+    private void insertLog(long employeeId, String status, LocalDateTime logTimestamp) {
+        jdbcTemplate.update("INSERT INTO employee_status_logs (employee_id, status, log_timestamp, created_at) "
+                        + "VALUES (?, ?, ?, NOW())",
+                employeeId, status, logTimestamp != null ? Timestamp.valueOf(logTimestamp) : null);
+    }
+}
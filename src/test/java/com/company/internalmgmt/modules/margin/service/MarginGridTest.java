@@ -0,0 +1,194 @@
+package com.company.internalmgmt.modules.margin.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for the MarginGrid class: every result must equal the per-cell BigDecimal arithmetic
+ * of {@link MarginCalculator} it replaced, value and scale alike
+ */
+public class MarginGridTest {
+
+    // calculateMargin and calculateMarginStatus(BigDecimal, Map) do not read system configs
+    private final MarginCalculator calculator = new MarginCalculator(null);
+
+    @Test
+    public void zeroRevenueAndZeroCostMatch() {
+        assertMarginMatches("0.00", "0.00");
+        assertMarginMatches("0.00", "125.50");
+        assertMarginMatches("0.00", "-3.00");
+        assertMarginMatches("125.50", "0.00");
+        assertMarginMatches("-125.50", "0.00");
+        assertEquals(new BigDecimal("100.0"), MarginGrid.margin(12550L, 0L));
+        assertEquals(BigDecimal.ZERO, MarginGrid.margin(0L, 12550L));
+    }
+
+    @Test
+    public void halfUpTiesRoundAwayFromZero() {
+        // 0.01 / 0.32 * 100 = 3.125, a tie at 2 decimals
+        assertMarginMatches("0.32", "0.31");
+        assertEquals(new BigDecimal("3.13"), MarginGrid.margin(32L, 31L));
+        assertMarginMatches("0.32", "0.33");
+        assertEquals(new BigDecimal("-3.13"), MarginGrid.margin(32L, 33L));
+        assertMarginMatches("-0.32", "-0.31");
+        assertMarginMatches("-0.32", "0.31");
+        // Just below and above a tie
+        assertMarginMatches("3200.00", "3099.99");
+        assertMarginMatches("3200.00", "3100.01");
+    }
+
+    @Test
+    public void allSmallAmountsMatch() {
+        // Covers every tie and near-tie of small denominators, with both signs
+        for (long revenue = -800; revenue <= 800; revenue++) {
+            for (long cost = -200; cost <= 1000; cost += 3) {
+                assertMarginMatches(revenue, cost);
+            }
+        }
+    }
+
+    @Test
+    public void randomAmountsOfEveryMagnitudeMatch() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            assertMarginMatches(randomCents(random), randomCents(random));
+        }
+    }
+
+    @Test
+    public void largeAmountsMatch() {
+        assertMarginMatches(Long.MAX_VALUE / 10, Long.MAX_VALUE / 20);
+        assertMarginMatches(Long.MAX_VALUE / 10, -Long.MAX_VALUE / 10);
+        assertMarginMatches(-Long.MAX_VALUE / 10, 1);
+    }
+
+    @Test
+    public void statusLimitsMatchTheCalculatorThresholds() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long revenue = randomCents(random);
+            long cost = randomCents(random);
+            Map<String, BigDecimal> thresholds = new HashMap<>();
+            thresholds.put("red", BigDecimal.valueOf(random.nextInt(10000) - 2000, random.nextInt(4)));
+            thresholds.put("yellow", BigDecimal.valueOf(random.nextInt(10000), random.nextInt(4)));
+
+            BigDecimal margin = calculator.calculateMargin(BigDecimal.valueOf(revenue, 2), BigDecimal.valueOf(cost, 2));
+            assertEquals(calculator.calculateMarginStatus(margin, thresholds),
+                    MarginGrid.StatusLimits.of(thresholds).statusOf(MarginGrid.marginHundredths(revenue, cost)),
+                    () -> "status of " + margin + " with " + thresholds);
+        }
+    }
+
+    @Test
+    public void statusAtTheExactThresholdMatches() {
+        Map<String, BigDecimal> thresholds = new HashMap<>();
+        thresholds.put("red", new BigDecimal("20.0"));
+        thresholds.put("yellow", new BigDecimal("30.005"));
+        MarginGrid.StatusLimits limits = MarginGrid.StatusLimits.of(thresholds);
+
+        assertEquals("Red", limits.statusOf(2000));
+        assertEquals("Yellow", limits.statusOf(2001));
+        assertEquals("Yellow", limits.statusOf(3000));
+        assertEquals(calculator.calculateMarginStatus(new BigDecimal("30.01"), thresholds), limits.statusOf(3001));
+    }
+
+    @Test
+    public void cellsAndTotalsMatchBigDecimalSums() {
+        Random random = new Random(11);
+        int rows = 5;
+        int months = 4;
+        MarginGrid grid = new MarginGrid(rows, months);
+        BigDecimal[][] costs = new BigDecimal[rows][months];
+        BigDecimal[][] revenues = new BigDecimal[rows][months];
+
+        for (int i = 0; i < 200; i++) {
+            int row = random.nextInt(rows);
+            int month = random.nextInt(months);
+            // Stored amounts have up to 2 decimals; the scale of a sum is the largest scale added
+            int scale = random.nextInt(3);
+            BigDecimal amount = BigDecimal.valueOf(randomCents(random) / (scale == 2 ? 1 : scale == 1 ? 10 : 100), scale);
+            if (random.nextBoolean()) {
+                grid.addCost(row, month, amount);
+                costs[row][month] = add(costs[row][month], amount);
+            } else {
+                grid.addRevenue(row, month, amount);
+                revenues[row][month] = add(revenues[row][month], amount);
+            }
+        }
+
+        BigDecimal totalCost = null;
+        BigDecimal totalRevenue = null;
+        for (int row = 0; row < rows; row++) {
+            BigDecimal rowCost = null;
+            BigDecimal rowRevenue = null;
+            for (int month = 0; month < months; month++) {
+                BigDecimal cost = orZero(costs[row][month]);
+                BigDecimal revenue = orZero(revenues[row][month]);
+                assertEquals(cost, grid.cost(row, month));
+                assertEquals(revenue, grid.revenue(row, month));
+                assertEquals(calculator.calculateMargin(revenue, cost), grid.margin(row, month));
+                rowCost = add(rowCost, costs[row][month]);
+                rowRevenue = add(rowRevenue, revenues[row][month]);
+            }
+            MarginGrid.Totals totals = grid.totals(row);
+            assertEquals(orZero(rowCost), totals.cost());
+            assertEquals(orZero(rowRevenue), totals.revenue());
+            assertEquals(calculator.calculateMargin(orZero(rowRevenue), orZero(rowCost)), totals.margin());
+            totalCost = add(totalCost, rowCost);
+            totalRevenue = add(totalRevenue, rowRevenue);
+        }
+        MarginGrid.Totals totals = grid.totals(-1);
+        assertEquals(orZero(totalCost), totals.cost());
+        assertEquals(orZero(totalRevenue), totals.revenue());
+        assertEquals(calculator.calculateMargin(orZero(totalRevenue), orZero(totalCost)), totals.margin());
+    }
+
+    @Test
+    public void emptyCellHasZeroAmountsAndMargin() {
+        MarginGrid grid = new MarginGrid(1, 1);
+
+        assertEquals(BigDecimal.ZERO, grid.cost(0, 0));
+        assertEquals(BigDecimal.ZERO, grid.revenue(0, 0));
+        assertEquals(calculator.calculateMargin(BigDecimal.ZERO, BigDecimal.ZERO), grid.margin(0, 0));
+    }
+
+    private void assertMarginMatches(String revenue, String cost) {
+        BigDecimal expected = calculator.calculateMargin(new BigDecimal(revenue), new BigDecimal(cost));
+        BigDecimal actual = MarginGrid.margin(MarginGrid.toCents(new BigDecimal(revenue)),
+                MarginGrid.toCents(new BigDecimal(cost)));
+        assertEquals(expected, actual, () -> "margin of revenue " + revenue + " and cost " + cost);
+    }
+
+    private void assertMarginMatches(long revenueCents, long costCents) {
+        BigDecimal expected = calculator.calculateMargin(BigDecimal.valueOf(revenueCents, 2),
+                BigDecimal.valueOf(costCents, 2));
+        BigDecimal actual = MarginGrid.margin(revenueCents, costCents);
+        if (!expected.equals(actual)) {
+            assertEquals(expected, actual, "margin of revenue cents " + revenueCents + " and cost cents " + costCents);
+        }
+    }
+
+    private long randomCents(Random random) {
+        if (random.nextInt(10) == 0) {
+            return 0;
+        }
+        return (long) (random.nextGaussian() * Math.pow(10, random.nextInt(12)));
+    }
+
+    private static BigDecimal add(BigDecimal sum, BigDecimal amount) {
+        if (amount == null) {
+            return sum;
+        }
+        return sum == null ? amount : sum.add(amount);
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}